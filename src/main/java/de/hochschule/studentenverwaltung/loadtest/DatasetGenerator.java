@@ -0,0 +1,345 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.repository.StudentBulkLoader;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+
+/**
+ * Deterministischer Generator synthetischer Studentendaten für Last- und
+ * Skalierungstests.
+ *
+ * Die Daten werden in Blöcken zu {@value #CHUNK_SIZE} Studenten erzeugt.
+ * Jeder Block hat einen eigenen, nur aus Startwert und Blocknummer
+ * abgeleiteten Zufallsgenerator, daher liefert derselbe Startwert unabhängig
+ * von der Anzahl der Threads identische Daten. Namen stammen aus deutschen
+ * und internationalen Namenslisten mit Zipf-verteilter Häufigkeit, die
+ * E-Mail-Adressen enthalten die laufende Nummer und sind damit eindeutig.
+ *
+ * Ohne {@code --output-dir} werden die Blöcke parallel über den
+ * {@link StudentBulkLoader} in die Datenbank geladen, sonst als CSV-Dateien
+ * ({@code students-00000.csv}, ...) geschrieben. Fortschritt und Laderate
+ * werden jede Sekunde auf der Konsole ausgegeben.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class DatasetGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    /** Studenten pro Block; ein Block ist die Einheit für Zufall, Threads und Transaktionen */
+    static final int CHUNK_SIZE = 10_000;
+
+    private static final String CSV_HEADER = "id,first_name,last_name,email";
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final DatasetGeneratorConfig config;
+    private final ZipfianGenerator germanFirst;
+    private final ZipfianGenerator germanLast;
+    private final ZipfianGenerator internationalFirst;
+    private final ZipfianGenerator internationalLast;
+    private final String[] domains;
+    private final int[] cumulativeDomainWeights;
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * Senke für fertig erzeugte Blöcke. Wird aus mehreren Threads aufgerufen.
+     */
+    @FunctionalInterface
+    interface ChunkSink {
+        void accept(long chunk, List<Student> students) throws IOException, SQLException;
+    }
+
+    /**
+     * Erstellt einen Generator.
+     *
+     * @param config die Konfiguration
+     */
+    public DatasetGenerator(DatasetGeneratorConfig config) {
+        this.config = config;
+        this.germanFirst = zipfian(NamePools.GERMAN_FIRST_NAMES);
+        this.germanLast = zipfian(NamePools.GERMAN_LAST_NAMES);
+        this.internationalFirst = zipfian(NamePools.INTERNATIONAL_FIRST_NAMES);
+        this.internationalLast = zipfian(NamePools.INTERNATIONAL_LAST_NAMES);
+
+        Map<String, Integer> weights = config.getDomains();
+        this.domains = weights.keySet().toArray(String[]::new);
+        this.cumulativeDomainWeights = new int[domains.length];
+        int sum = 0;
+        for (int i = 0; i < domains.length; i++) {
+            sum += weights.get(domains[i]);
+            cumulativeDomainWeights[i] = sum;
+        }
+    }
+
+    /**
+     * Einstiegspunkt des Datensatzgenerators.
+     *
+     * @param args Optionen, siehe {@link DatasetGeneratorConfig#USAGE}
+     * @throws Exception wenn das Laden oder Schreiben fehlschlägt
+     */
+    public static void main(String[] args) throws Exception {
+        DatasetGeneratorConfig config;
+        try {
+            config = DatasetGeneratorConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(DatasetGeneratorConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        DatasetGenerator generator = new DatasetGenerator(config);
+        if (config.getOutputDirectory() != null) {
+            generator.writeFiles(config.getOutputDirectory());
+        } else {
+            StudentRepository repository = config.getJdbcUrl() == null
+                    ? new StudentRepository()
+                    : new StudentRepository(config.getJdbcUrl());
+            generator.load(new StudentBulkLoader(repository));
+        }
+    }
+
+    /**
+     * Erzeugt alle Studenten und lädt sie in die Datenbank. Die IDs beginnen
+     * hinter der größten vorhandenen ID.
+     *
+     * Schlägt ein Block fehl, werden die übrigen abgebrochen. Der Import wird
+     * in jedem Fall mit {@link StudentBulkLoader#finish()} abgeschlossen, damit
+     * ID-Zähler und E-Mail-Filter zu den bereits geladenen Blöcken passen.
+     *
+     * @param loader der Loader der Zieldatenbank
+     * @return die Anzahl geladener Studenten
+     * @throws SQLException wenn ein Block nicht geladen werden kann
+     * @throws InterruptedException wenn der Lauf unterbrochen wird
+     */
+    public long load(StudentBulkLoader loader) throws SQLException, InterruptedException {
+        long firstId = loader.nextFreeId();
+        System.out.printf(Locale.ROOT, "Lade %d Studenten ab ID %d mit %d Threads (Startwert %d)%n",
+                config.getStudents(), firstId, config.getThreads(), config.getSeed());
+        boolean loaded = false;
+        try {
+            run(firstId, (chunk, students) -> loader.insert(students));
+            loaded = true;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (loaded) {
+                loader.finish();
+            } else {
+                finishAfterFailure(loader);
+            }
+        }
+        return config.getStudents();
+    }
+
+    /**
+     * Schließt einen fehlgeschlagenen Import ab. Ein Fehler dabei wird nur
+     * geloggt, damit die ursprüngliche Ausnahme erhalten bleibt.
+     */
+    private static void finishAfterFailure(StudentBulkLoader loader) {
+        try {
+            loader.finish();
+        } catch (SQLException e) {
+            logger.error("Massenimport konnte nach einem Fehler nicht abgeschlossen werden: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Erzeugt alle Studenten als CSV-Dateien, ein Block pro Datei. Die IDs
+     * beginnen bei 1.
+     *
+     * @param directory das Zielverzeichnis; wird bei Bedarf angelegt
+     * @return die Anzahl geschriebener Studenten
+     * @throws IOException wenn eine Datei nicht geschrieben werden kann
+     * @throws InterruptedException wenn der Lauf unterbrochen wird
+     */
+    public long writeFiles(Path directory) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        System.out.printf(Locale.ROOT, "Schreibe %d Studenten nach %s mit %d Threads (Startwert %d)%n",
+                config.getStudents(), directory, config.getThreads(), config.getSeed());
+        try {
+            run(1, (chunk, students) -> writeCsv(directory.resolve(String.format(Locale.ROOT,
+                    "students-%05d.csv", chunk)), students));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return config.getStudents();
+    }
+
+    /**
+     * Erzeugt alle Blöcke parallel und übergibt sie der Senke. Beim ersten
+     * fehlgeschlagenen Block werden alle übrigen abgebrochen; bereits
+     * übergebene Blöcke bleiben bestehen.
+     */
+    void run(long firstId, ChunkSink sink)
+            throws IOException, SQLException, InterruptedException {
+        long chunks = (config.getStudents() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ExecutorService executor = Executors.newFixedThreadPool(config.getThreads());
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        long startNanos = System.nanoTime();
+        try {
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long c = chunk;
+                completion.submit(() -> {
+                    List<Student> students = generateChunk(c, firstId);
+                    sink.accept(c, students);
+                    written.add(students.size());
+                    return null;
+                });
+            }
+            for (long done = 0; done < chunks; ) {
+                Future<Void> future = completion.poll(1, TimeUnit.SECONDS);
+                if (future == null) {
+                    report(startNanos, "");
+                    continue;
+                }
+                future.get();
+                done++;
+            }
+        } catch (ExecutionException e) {
+            logger.error("Block fehlgeschlagen, breche die übrigen Blöcke ab: {}", e.getCause().getMessage());
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+            // Laufende Blöcke abwarten, damit finish() keinen halb geladenen Stand sieht
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("Abgebrochene Blöcke laufen nach einer Minute noch.");
+            }
+        }
+        report(startNanos, "Gesamt: ");
+    }
+
+    private void report(long startNanos, String prefix) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long rows = written.sum();
+        System.out.printf(Locale.ROOT, "%s%7.1fs %12d Studenten %12.0f Zeilen/s%n",
+                prefix, seconds, rows, seconds > 0 ? rows / seconds : 0);
+        if (!prefix.isEmpty()) {
+            logger.info("{} Studenten in {} s erzeugt ({} Zeilen/s)", rows,
+                    String.format(Locale.ROOT, "%.1f", seconds),
+                    String.format(Locale.ROOT, "%.0f", seconds > 0 ? rows / seconds : 0));
+        }
+    }
+
+    /**
+     * Erzeugt einen Block. Das Ergebnis hängt nur von Konfiguration,
+     * Blocknummer und erster ID ab.
+     *
+     * @param chunk die Blocknummer ab 0
+     * @param firstId die ID des ersten Studenten im gesamten Datensatz
+     * @return die Studenten des Blocks mit gesetzten IDs
+     */
+    List<Student> generateChunk(long chunk, long firstId) {
+        SplittableRandom random = new SplittableRandom(config.getSeed() + chunk * GOLDEN_GAMMA);
+        long start = chunk * CHUNK_SIZE;
+        int size = (int) Math.min(CHUNK_SIZE, config.getStudents() - start);
+        List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long index = start + i;
+            boolean international = random.nextInt(100) < config.getInternationalPercent();
+            String firstName = international
+                    ? pick(NamePools.INTERNATIONAL_FIRST_NAMES, internationalFirst, random)
+                    : pick(NamePools.GERMAN_FIRST_NAMES, germanFirst, random);
+            String lastName = international
+                    ? pick(NamePools.INTERNATIONAL_LAST_NAMES, internationalLast, random)
+                    : pick(NamePools.GERMAN_LAST_NAMES, germanLast, random);
+            String email = emailLocalPart(firstName, lastName, random.nextInt(3)) + index
+                    + "@" + pickDomain(random);
+            students.add(new Student(firstId + index, firstName, lastName, email));
+        }
+        return students;
+    }
+
+    private ZipfianGenerator zipfian(String[] names) {
+        return config.getNameSkew() > 0 ? new ZipfianGenerator(names.length, config.getNameSkew()) : null;
+    }
+
+    private static String pick(String[] names, ZipfianGenerator zipfian, SplittableRandom random) {
+        return names[zipfian == null ? random.nextInt(names.length) : (int) zipfian.next(random.nextDouble())];
+    }
+
+    private String pickDomain(SplittableRandom random) {
+        int value = random.nextInt(cumulativeDomainWeights[cumulativeDomainWeights.length - 1]);
+        int i = 0;
+        while (cumulativeDomainWeights[i] <= value) {
+            i++;
+        }
+        return domains[i];
+    }
+
+    /**
+     * Bildet den lokalen Teil einer E-Mail-Adresse nach einem von drei
+     * üblichen Mustern. Die angehängte laufende Nummer macht ihn eindeutig,
+     * da der Namensteil selbst keine Ziffern enthält.
+     */
+    static String emailLocalPart(String firstName, String lastName, int pattern) {
+        String first = transliterate(firstName);
+        String last = transliterate(lastName);
+        return switch (pattern) {
+            case 0 -> first + "." + last;
+            case 1 -> first.charAt(0) + "." + last;
+            default -> first + last;
+        };
+    }
+
+    /**
+     * Überführt einen Namen in ASCII-Kleinbuchstaben, z. B. „Müller“ in
+     * „mueller“ und „Wiśniewski“ in „wisniewski“.
+     */
+    static String transliterate(String name) {
+        String replaced = name.toLowerCase(Locale.ROOT)
+                .replace("ä", "ae").replace("ö", "oe").replace("ü", "ue").replace("ß", "ss")
+                .replace("ı", "i").replace("ł", "l");
+        String decomposed = Normalizer.normalize(replaced, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static void writeCsv(Path file, List<Student> students) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (Student student : students) {
+                writer.write(student.getId() + "," + student.getFirstName() + ","
+                        + student.getLastName() + "," + student.getEmail());
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Konfiguration des Datensatzgenerators.
+ *
+ * Wird aus Kommandozeilenargumenten der Form {@code --name=wert} gelesen.
+ * Nicht angegebene Werte behalten ihre Standardwerte.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class DatasetGeneratorConfig {
+
+    private String jdbcUrl;
+    private Path outputDirectory;
+    private long students = 10_000;
+    private long seed = 42;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int internationalPercent = 20;
+    private double nameSkew = 0.8;
+    private Map<String, Integer> domains = parseDomains(
+            "hochschule.de:55,stud.hochschule.de:25,gmail.com:8,web.de:6,gmx.de:4,outlook.com:2");
+
+    /**
+     * Beschreibung der unterstützten Optionen für die Konsolenausgabe.
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Optionen:",
+            "  --students=N             Anzahl zu erzeugender Studenten (Standard: 10000)",
+            "  --seed=S                 Startwert; gleicher Wert erzeugt identische Daten (Standard: 42)",
+            "  --threads=N              Anzahl paralleler Erzeuger (Standard: Anzahl Prozessoren)",
+            "  --international=P        Anteil internationaler Namen in Prozent (Standard: 20)",
+            "  --name-skew=T            Zipf-Schiefe der Namenshäufigkeit, 0 = gleichverteilt (Standard: 0.8)",
+            "  --domains=D:G,...        E-Mail-Domains mit Gewichten",
+            "                           (Standard: hochschule.de:55,stud.hochschule.de:25,gmail.com:8,web.de:6,gmx.de:4,outlook.com:2)",
+            "  --output-dir=VERZEICHNIS CSV-Dateien schreiben statt in die Datenbank zu laden",
+            "  --jdbc-url=URL           Datenbank (Standard: JDBC_URL bzw. In-Memory-H2)");
+
+    /**
+     * Liest die Konfiguration aus Kommandozeilenargumenten.
+     *
+     * @param args die Argumente im Format {@code --name=wert}
+     * @return die Konfiguration
+     * @throws IllegalArgumentException bei unbekannten oder ungültigen Optionen
+     */
+    public static DatasetGeneratorConfig parse(String[] args) {
+        DatasetGeneratorConfig config = new DatasetGeneratorConfig();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (name) {
+                case "--students" -> config.students = positive(name, Long.parseLong(value));
+                case "--seed" -> config.seed = Long.parseLong(value);
+                case "--threads" -> config.threads = positive(name, Integer.parseInt(value));
+                case "--international" -> config.internationalPercent = percent(name, Integer.parseInt(value));
+                case "--name-skew" -> config.nameSkew = skew(Double.parseDouble(value));
+                case "--domains" -> config.domains = parseDomains(value);
+                case "--output-dir" -> config.outputDirectory = Path.of(value);
+                case "--jdbc-url" -> config.jdbcUrl = value;
+                default -> throw new IllegalArgumentException("Unbekannte Option: " + arg);
+            }
+        }
+        return config;
+    }
+
+    private static Map<String, Integer> parseDomains(String value) {
+        Map<String, Integer> domains = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            int colon = part.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("--domains erwartet DOMAIN:GEWICHT: " + part);
+            }
+            int weight = Integer.parseInt(part.substring(colon + 1).trim());
+            domains.put(part.substring(0, colon).trim(), positive("--domains", weight));
+        }
+        return domains;
+    }
+
+    private static int percent(String name, int value) {
+        if (value < 0 || value > 100) {
+            throw new IllegalArgumentException(name + " muss zwischen 0 und 100 liegen: " + value);
+        }
+        return value;
+    }
+
+    private static double skew(double value) {
+        if (value < 0 || value >= 1) {
+            throw new IllegalArgumentException("--name-skew muss zwischen 0 (einschließlich) und 1 liegen: " + value);
+        }
+        return value;
+    }
+
+    private static <T extends Number> T positive(String name, T value) {
+        if (value.doubleValue() <= 0) {
+            throw new IllegalArgumentException(name + " muss positiv sein: " + value);
+        }
+        return value;
+    }
+
+    /** @return die JDBC-URL oder null für die Standard-URL des Repositorys */
+    public String getJdbcUrl() { return jdbcUrl; }
+
+    /** @return das Verzeichnis für CSV-Dateien oder null, wenn in die Datenbank geladen wird */
+    public Path getOutputDirectory() { return outputDirectory; }
+
+    /** @return die Anzahl zu erzeugender Studenten */
+    public long getStudents() { return students; }
+
+    /** @return der Startwert des Zufallsgenerators */
+    public long getSeed() { return seed; }
+
+    /** @return die Anzahl paralleler Erzeuger */
+    public int getThreads() { return threads; }
+
+    /** @return der Anteil internationaler Namen in Prozent */
+    public int getInternationalPercent() { return internationalPercent; }
+
+    /** @return die Zipf-Schiefe der Namenshäufigkeit, 0 für Gleichverteilung */
+    public double getNameSkew() { return nameSkew; }
+
+    /** @return die E-Mail-Domains mit ihren Gewichten in Eingabereihenfolge */
+    public Map<String, Integer> getDomains() { return domains; }
+}
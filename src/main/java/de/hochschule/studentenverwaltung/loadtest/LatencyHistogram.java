@@ -0,0 +1,98 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-sicheres Latenz-Histogramm mit logarithmisch-linearen Buckets.
+ *
+ * Werte unter 64 werden exakt gezählt, größere Werte mit 32 Unter-Buckets
+ * pro Zweierpotenz. Der relative Fehler der Perzentile liegt damit unter
+ * etwa 3 %, bei konstantem Speicherbedarf und ohne Sperren beim Erfassen.
+ * Die Einheit der Werte legt der Aufrufer fest (der Lastgenerator nutzt Mikrosekunden).
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_LIMIT = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 6;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (64 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Erfasst einen Messwert. Negative Werte werden als 0 gezählt.
+     *
+     * @param value der Messwert
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(indexOf(v));
+        count.incrementAndGet();
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Gibt die Anzahl der erfassten Werte zurück.
+     *
+     * @return die Anzahl der Werte
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gibt den größten erfassten Wert zurück.
+     *
+     * @return der Maximalwert oder 0, wenn nichts erfasst wurde
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Ermittelt einen Perzentilwert (Obergrenze des zugehörigen Buckets).
+     *
+     * @param percentile das Perzentil zwischen 0 und 100
+     * @return der Perzentilwert oder 0, wenn nichts erfasst wurde
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long lower = (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,318 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.SlowQueryLog;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.service.AdmissionController;
+import de.hochschule.studentenverwaltung.service.ServiceOverloadedException;
+import de.hochschule.studentenverwaltung.service.StudentService;
+
+/**
+ * Lastgenerator für Durchsatz- und Latenzmessungen am StudentService.
+ *
+ * Der Generator legt zunächst eine feste Menge von Studenten an und treibt
+ * danach den Service mit N parallelen Workern (Plattform- oder virtuelle
+ * Threads) und einem konfigurierbaren Mix aus Lesen, Anlegen, Ändern und
+ * Löschen an.
+ *
+ * Die Last wird im offenen Regelkreis erzeugt: Jede Operation hat einen
+ * geplanten Startzeitpunkt gemäß Zielrate, und die Latenz wird ab diesem
+ * Zeitpunkt gemessen. Gerät ein Worker in Verzug, fließt die Wartezeit in
+ * die Latenz ein, statt wie bei einer geschlossenen Schleife unterschlagen
+ * zu werden (Coordinated Omission).
+ *
+ * Durchsatz und Latenzperzentile werden pro Intervall auf der Konsole und
+ * in einer CSV-Datei ausgegeben. Für aussagekräftige Messungen sollte das
+ * Logging gedrosselt werden, z. B. mit {@code -DLOG_LEVEL=WARN}.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final String CSV_HEADER = "elapsed_s,operations,throughput_ops_s,p50_us,p90_us,p99_us,p999_us,max_us";
+
+    private final LoadGeneratorConfig config;
+    private final StudentService service;
+    private final ZipfianGenerator zipfian;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong createCounter = new AtomicLong();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final LongAdder readMisses = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private volatile LatencyHistogram interval = new LatencyHistogram();
+
+    private long[] keyIds;
+    private String[] keyEmails;
+
+    /**
+     * Erstellt einen Lastgenerator.
+     *
+     * @param config die Konfiguration
+     * @param service der zu belastende StudentService
+     */
+    public LoadGenerator(LoadGeneratorConfig config, StudentService service) {
+        this.config = config;
+        this.service = service;
+        this.zipfian = config.getDistribution() == LoadGeneratorConfig.KeyDistribution.ZIPFIAN
+                ? new ZipfianGenerator(config.getKeys(), config.getZipfTheta())
+                : null;
+    }
+
+    /**
+     * Einstiegspunkt des Lastgenerators.
+     *
+     * @param args Optionen, siehe {@link LoadGeneratorConfig#USAGE}
+     * @throws Exception wenn die CSV-Datei nicht geschrieben werden kann
+     *                   oder der Lauf unterbrochen wird
+     */
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorConfig config;
+        try {
+            config = LoadGeneratorConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadGeneratorConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        StudentRepository repository = config.getJdbcUrl() == null
+                ? new StudentRepository()
+                : new StudentRepository(config.getJdbcUrl());
+        repository.setQueryTimeout(config.getQueryTimeout());
+        if (config.getSlowQueryThreshold() != null) {
+            repository.setSlowQueryLog(new SlowQueryLog(config.getSlowQueryThreshold()));
+        }
+        new LoadGenerator(config, new StudentService(repository)).run();
+        if (repository.getSlowQueryLog() != null) {
+            System.out.println();
+            repository.getSlowQueryLog().dump(System.out);
+        }
+    }
+
+    /**
+     * Führt den Lastlauf aus und gibt das Gesamthistogramm zurück.
+     *
+     * @return die Latenzen aller Operationen in Mikrosekunden
+     * @throws IOException wenn die CSV-Datei nicht geschrieben werden kann
+     * @throws InterruptedException wenn der Lauf unterbrochen wird
+     */
+    public LatencyHistogram run() throws IOException, InterruptedException {
+        preload();
+        if (config.isAdmissionControl()) {
+            // Erst nach der Vorbelegung, damit diese nicht abgewiesen wird
+            service.enableAdmissionControl(new AdmissionController());
+        }
+
+        System.out.printf(Locale.ROOT, "Lastlauf: %d Worker (%s), Mix R/C/U/D=%d/%d/%d/%d, %s, Zielrate %s, Dauer %ds%n",
+                config.getWorkers(), config.isVirtualThreads() ? "virtuell" : "Plattform",
+                config.getReadPercent(), config.getCreatePercent(), config.getUpdatePercent(), config.getDeletePercent(),
+                config.getDistribution().name().toLowerCase(Locale.ROOT),
+                config.getTargetRate() > 0 ? config.getTargetRate() + " ops/s" : "unbegrenzt",
+                config.getDuration().toSeconds());
+
+        try (BufferedWriter csv = Files.newBufferedWriter(config.getCsvFile(), StandardCharsets.UTF_8)) {
+            csv.write(CSV_HEADER);
+            csv.newLine();
+
+            long startNanos = System.nanoTime();
+            long endNanos = startNanos + config.getDuration().toNanos();
+            List<Thread> workers = startWorkers(startNanos, endNanos);
+
+            long reportNanos = config.getReportInterval().toNanos();
+            long lastReportNanos = startNanos;
+            while (lastReportNanos < endNanos) {
+                long nextReportNanos = Math.min(lastReportNanos + reportNanos, endNanos);
+                sleepUntil(nextReportNanos);
+                LatencyHistogram finished = interval;
+                interval = new LatencyHistogram();
+                report(csv, finished, (nextReportNanos - startNanos) / 1e9, (nextReportNanos - lastReportNanos) / 1e9);
+                lastReportNanos = nextReportNanos;
+            }
+
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            // Operationen, die nach dem letzten Intervall noch abgeschlossen wurden
+            LatencyHistogram rest = interval;
+            if (rest.getCount() > 0) {
+                report(csv, rest, (System.nanoTime() - startNanos) / 1e9, (System.nanoTime() - lastReportNanos) / 1e9);
+            }
+            printSummary((System.nanoTime() - startNanos) / 1e9);
+        }
+        return total;
+    }
+
+    /**
+     * Legt die Studenten an, auf die Lese- und Änderungsoperationen zugreifen.
+     */
+    private void preload() {
+        int keys = config.getKeys();
+        keyIds = new long[keys];
+        keyEmails = new String[keys];
+        long start = System.nanoTime();
+        for (int i = 0; i < keys; i++) {
+            String email = "lg-" + runId + "-" + i + "@loadtest.example";
+            StudentDto dto = new StudentDto(null, "Load", "Key" + i, email);
+            service.createStudent(dto);
+            if (dto.getId() == null) {
+                throw new IllegalStateException("Vorbelegung fehlgeschlagen für " + email);
+            }
+            keyIds[i] = dto.getId();
+            keyEmails[i] = email;
+        }
+        logger.info("{} Studenten für den Lastlauf in {} ms angelegt.", keys, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Thread> startWorkers(long startNanos, long endNanos) {
+        List<Thread> threads = new ArrayList<>(config.getWorkers());
+        for (int w = 0; w < config.getWorkers(); w++) {
+            int workerIndex = w;
+            Runnable task = () -> runWorker(workerIndex, startNanos, endNanos);
+            Thread thread = config.isVirtualThreads()
+                    ? Thread.ofVirtual().name("loadgen-", w).start(task)
+                    : Thread.ofPlatform().name("loadgen-", w).start(task);
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    /**
+     * Worker-Schleife. Worker w übernimmt die Operationen w, w+N, w+2N, ...
+     * des globalen Fahrplans, sodass alle Worker zusammen die Zielrate erzeugen.
+     */
+    private void runWorker(int workerIndex, long startNanos, long endNanos) {
+        double targetRate = config.getTargetRate();
+        int workers = config.getWorkers();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (long k = workerIndex; ; k += workers) {
+            long intended = targetRate > 0
+                    ? startNanos + (long) (k * 1e9 / targetRate)
+                    : System.nanoTime();
+            if (intended >= endNanos) {
+                return;
+            }
+            sleepUntil(intended);
+            try {
+                executeOperation(random);
+            } catch (ServiceOverloadedException e) {
+                // Abweisungen sind unter Überlast erwartet und werden nur gezählt
+                rejections.increment();
+            } catch (RuntimeException e) {
+                logger.warn("Operation im Lastlauf fehlgeschlagen: {}", e.getMessage());
+            }
+            long latencyMicros = (System.nanoTime() - intended) / 1_000;
+            total.record(latencyMicros);
+            interval.record(latencyMicros);
+        }
+    }
+
+    private void executeOperation(ThreadLocalRandom random) {
+        int roll = random.nextInt(100);
+        int readLimit = config.getReadPercent();
+        int createLimit = readLimit + config.getCreatePercent();
+        int updateLimit = createLimit + config.getUpdatePercent();
+
+        if (roll < readLimit) {
+            read(random);
+        } else if (roll < createLimit) {
+            long n = createCounter.incrementAndGet();
+            StudentDto dto = new StudentDto(null, "Load", "Neu" + n, "lg-" + runId + "-c" + n + "@loadtest.example");
+            service.createStudent(dto);
+            if (dto.getId() != null) {
+                createdIds.add(dto.getId());
+            }
+        } else if (roll < updateLimit) {
+            int key = nextKey(random);
+            service.updateStudent(new StudentDto(keyIds[key], "Load-" + random.nextInt(1000), "Key" + key, keyEmails[key]));
+        } else {
+            // Gelöscht werden nur im Lauf angelegte Studenten, damit der Schlüsselraum stabil bleibt
+            Long id = createdIds.poll();
+            if (id != null) {
+                service.deleteStudent(id);
+            } else {
+                read(random);
+            }
+        }
+    }
+
+    private void read(ThreadLocalRandom random) {
+        if (service.getStudentById(keyIds[nextKey(random)]) == null) {
+            readMisses.increment();
+        }
+    }
+
+    private int nextKey(ThreadLocalRandom random) {
+        return zipfian != null
+                ? (int) zipfian.next(random.nextDouble())
+                : random.nextInt(keyIds.length);
+    }
+
+    private void report(BufferedWriter csv, LatencyHistogram histogram, double elapsedSeconds, double intervalSeconds)
+            throws IOException {
+        long operations = histogram.getCount();
+        double throughput = intervalSeconds > 0 ? operations / intervalSeconds : 0;
+        System.out.printf(Locale.ROOT, "%7.1fs %10.1f ops/s  p50=%8.3f ms  p90=%8.3f ms  p99=%8.3f ms  p99.9=%8.3f ms  max=%8.3f ms%n",
+                elapsedSeconds, throughput,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMax() / 1000.0);
+        csv.write(String.format(Locale.ROOT, "%.1f,%d,%.1f,%d,%d,%d,%d,%d",
+                elapsedSeconds, operations, throughput,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                histogram.getMax()));
+        csv.newLine();
+        csv.flush();
+    }
+
+    private void printSummary(double elapsedSeconds) {
+        double throughput = total.getCount() / elapsedSeconds;
+        System.out.printf(Locale.ROOT, "%nGesamt: %d Operationen in %.1fs = %.1f ops/s, Lesefehlgriffe: %d%n",
+                total.getCount(), elapsedSeconds, throughput, readMisses.sum());
+        System.out.printf(Locale.ROOT, "Latenz: p50=%.3f ms  p90=%.3f ms  p99=%.3f ms  p99.9=%.3f ms  max=%.3f ms%n",
+                total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(90) / 1000.0,
+                total.getValueAtPercentile(99) / 1000.0, total.getValueAtPercentile(99.9) / 1000.0,
+                total.getMax() / 1000.0);
+        if (config.isAdmissionControl()) {
+            System.out.printf(Locale.ROOT, "Abgewiesen: %d Operationen%n", rejections.sum());
+            service.getAdmissionMetrics().forEach((bulkhead, m) -> System.out.printf(Locale.ROOT,
+                    "  %-5s limit=%d zugelassen=%d (nach Wartezeit %d) abgewiesen=%d (voll %d, Zeit %d)"
+                            + " Wartezeit avg=%.3f ms max=%.3f ms%n",
+                    bulkhead, m.limit(), m.admitted(), m.queuedAdmissions(), m.rejected(),
+                    m.rejectedQueueFull(), m.rejectedTimeout(),
+                    m.averageQueueNanos() / 1e6, m.maxQueueNanos() / 1e6));
+        }
+        if (config.getTargetRate() > 0 && throughput < config.getTargetRate() * 0.95) {
+            System.out.printf(Locale.ROOT, "Zielrate von %.1f ops/s wurde nicht erreicht.%n", config.getTargetRate());
+        }
+        System.out.println("CSV geschrieben: " + config.getCsvFile().toAbsolutePath());
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
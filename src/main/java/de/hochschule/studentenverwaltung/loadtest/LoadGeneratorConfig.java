@@ -0,0 +1,193 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Konfiguration des Lastgenerators.
+ *
+ * Wird aus Kommandozeilenargumenten der Form {@code --name=wert} gelesen.
+ * Nicht angegebene Werte behalten ihre Standardwerte.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class LoadGeneratorConfig {
+
+    /** Verteilung der Schlüsselzugriffe */
+    public enum KeyDistribution { UNIFORM, ZIPFIAN }
+
+    private String jdbcUrl;
+    private int workers = 8;
+    private boolean virtualThreads = false;
+    private int readPercent = 70;
+    private int createPercent = 10;
+    private int updatePercent = 15;
+    private int deletePercent = 5;
+    private KeyDistribution distribution = KeyDistribution.UNIFORM;
+    private double zipfTheta = ZipfianGenerator.DEFAULT_THETA;
+    private double targetRate = 1000;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration reportInterval = Duration.ofSeconds(1);
+    private int keys = 1000;
+    private Path csvFile = Path.of("loadtest.csv");
+    private Duration queryTimeout = Duration.ZERO;
+    private boolean admissionControl = false;
+    private Duration slowQueryThreshold;
+
+    /**
+     * Beschreibung der unterstützten Optionen für die Konsolenausgabe.
+     */
+    public static final String USAGE = String.join(System.lineSeparator(),
+            "Optionen:",
+            "  --jdbc-url=URL           Datenbank (Standard: JDBC_URL bzw. In-Memory-H2)",
+            "  --workers=N              Anzahl paralleler Worker (Standard: 8)",
+            "  --virtual-threads        virtuelle statt Plattform-Threads verwenden",
+            "  --mix=R,C,U,D            Anteile Lesen/Anlegen/Ändern/Löschen in Prozent (Standard: 70,10,15,5)",
+            "  --distribution=uniform|zipfian  Schlüsselverteilung (Standard: uniform)",
+            "  --zipf-theta=T           Schiefe der Zipf-Verteilung (Standard: 0.99)",
+            "  --rate=OPS               Zielrate in Operationen/s, 0 = unbegrenzt (Standard: 1000)",
+            "  --duration=SEK           Laufzeit in Sekunden (Standard: 30)",
+            "  --report-interval=SEK    Berichtsintervall in Sekunden (Standard: 1)",
+            "  --keys=N                 Anzahl vorab angelegter Studenten (Standard: 1000)",
+            "  --csv=DATEI              CSV-Ausgabedatei (Standard: loadtest.csv)",
+            "  --query-timeout=MS       Zeitlimit pro SQL-Anweisung, 0 = unbegrenzt (Standard: 0)",
+            "  --admission-control      Zugangskontrolle mit Bulkheads und adaptivem Limit aktivieren",
+            "  --slow-query=MS          Anweisungen messen, ab MS mit Plan festhalten und am Ende ausgeben");
+
+    /**
+     * Liest die Konfiguration aus Kommandozeilenargumenten.
+     *
+     * @param args die Argumente im Format {@code --name=wert}
+     * @return die Konfiguration
+     * @throws IllegalArgumentException bei unbekannten oder ungültigen Optionen
+     */
+    public static LoadGeneratorConfig parse(String[] args) {
+        LoadGeneratorConfig config = new LoadGeneratorConfig();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (name) {
+                case "--jdbc-url" -> config.jdbcUrl = value;
+                case "--workers" -> config.workers = positive(name, Integer.parseInt(value));
+                case "--virtual-threads" -> config.virtualThreads = true;
+                case "--mix" -> config.parseMix(value);
+                case "--distribution" -> config.distribution = KeyDistribution.valueOf(value.toUpperCase());
+                case "--zipf-theta" -> config.zipfTheta = theta(Double.parseDouble(value));
+                case "--rate" -> config.targetRate = rate(Double.parseDouble(value));
+                case "--duration" -> config.duration = Duration.ofSeconds(positive(name, Long.parseLong(value)));
+                case "--report-interval" -> config.reportInterval = Duration.ofSeconds(positive(name, Long.parseLong(value)));
+                case "--keys" -> config.keys = positive(name, Integer.parseInt(value));
+                case "--csv" -> config.csvFile = Path.of(value);
+                case "--query-timeout" -> config.queryTimeout = Duration.ofMillis(nonNegative(name, Long.parseLong(value)));
+                case "--admission-control" -> config.admissionControl = true;
+                case "--slow-query" -> config.slowQueryThreshold = Duration.ofMillis(nonNegative(name, Long.parseLong(value)));
+                default -> throw new IllegalArgumentException("Unbekannte Option: " + arg);
+            }
+        }
+        return config;
+    }
+
+    private void parseMix(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("--mix erwartet vier Werte R,C,U,D: " + value);
+        }
+        readPercent = share(parts[0], value);
+        createPercent = share(parts[1], value);
+        updatePercent = share(parts[2], value);
+        deletePercent = share(parts[3], value);
+        if (readPercent + createPercent + updatePercent + deletePercent != 100) {
+            throw new IllegalArgumentException("Die Anteile von --mix müssen 100 ergeben: " + value);
+        }
+    }
+
+    private static int share(String part, String mix) {
+        int share = Integer.parseInt(part.trim());
+        if (share < 0 || share > 100) {
+            throw new IllegalArgumentException("Jeder Anteil von --mix muss zwischen 0 und 100 liegen: " + mix);
+        }
+        return share;
+    }
+
+    private static double theta(double theta) {
+        // Gleiche Grenzen wie im ZipfianGenerator, damit Fehler hier statt beim Start auffallen
+        if (!(theta > 0 && theta < 1)) {
+            throw new IllegalArgumentException("--zipf-theta muss zwischen 0 und 1 liegen: " + theta);
+        }
+        return theta;
+    }
+
+    private static double rate(double rate) {
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("--rate muss eine endliche Zahl >= 0 sein: " + rate);
+        }
+        return rate;
+    }
+
+    private static <T extends Number> T positive(String name, T value) {
+        if (value.doubleValue() <= 0) {
+            throw new IllegalArgumentException(name + " muss positiv sein: " + value);
+        }
+        return value;
+    }
+
+    private static long nonNegative(String name, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " darf nicht negativ sein: " + value);
+        }
+        return value;
+    }
+
+    /** @return die JDBC-URL oder null für die Standard-URL des Repositorys */
+    public String getJdbcUrl() { return jdbcUrl; }
+
+    /** @return die Anzahl der Worker */
+    public int getWorkers() { return workers; }
+
+    /** @return true, wenn virtuelle Threads verwendet werden */
+    public boolean isVirtualThreads() { return virtualThreads; }
+
+    /** @return der Leseanteil in Prozent */
+    public int getReadPercent() { return readPercent; }
+
+    /** @return der Anlegeanteil in Prozent */
+    public int getCreatePercent() { return createPercent; }
+
+    /** @return der Änderungsanteil in Prozent */
+    public int getUpdatePercent() { return updatePercent; }
+
+    /** @return der Löschanteil in Prozent */
+    public int getDeletePercent() { return deletePercent; }
+
+    /** @return die Schlüsselverteilung */
+    public KeyDistribution getDistribution() { return distribution; }
+
+    /** @return die Schiefe der Zipf-Verteilung */
+    public double getZipfTheta() { return zipfTheta; }
+
+    /** @return die Zielrate in Operationen pro Sekunde, 0 für unbegrenzt */
+    public double getTargetRate() { return targetRate; }
+
+    /** @return die Laufzeit */
+    public Duration getDuration() { return duration; }
+
+    /** @return das Berichtsintervall */
+    public Duration getReportInterval() { return reportInterval; }
+
+    /** @return die Anzahl vorab angelegter Studenten */
+    public int getKeys() { return keys; }
+
+    /** @return die CSV-Ausgabedatei */
+    public Path getCsvFile() { return csvFile; }
+
+    /** @return das Zeitlimit pro SQL-Anweisung, {@link Duration#ZERO} für unbegrenzt */
+    public Duration getQueryTimeout() { return queryTimeout; }
+
+    /** @return true, wenn die Zugangskontrolle aktiviert wird */
+    public boolean isAdmissionControl() { return admissionControl; }
+
+    /** @return die Schwelle für langsame Anweisungen oder null, wenn nicht gemessen wird */
+    public Duration getSlowQueryThreshold() { return slowQueryThreshold; }
+}
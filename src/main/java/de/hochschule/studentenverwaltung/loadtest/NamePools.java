@@ -0,0 +1,50 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+/**
+ * Namenslisten für den Datensatzgenerator, jeweils grob nach Häufigkeit
+ * sortiert (häufigste zuerst), damit die Zipf-Verteilung realistische
+ * Häufungen erzeugt.
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class NamePools {
+
+    static final String[] GERMAN_FIRST_NAMES = {
+            "Lukas", "Anna", "Leon", "Lena", "Finn", "Lea", "Jonas", "Hannah", "Paul", "Sophie",
+            "Felix", "Marie", "Maximilian", "Laura", "Tim", "Julia", "Jan", "Lisa", "Niklas", "Sarah",
+            "Moritz", "Johanna", "Tobias", "Katharina", "Julian", "Clara", "David", "Charlotte", "Sebastian", "Emma",
+            "Alexander", "Mia", "Elias", "Lina", "Noah", "Greta", "Ben", "Jana", "Jörg", "Jürgen",
+            "Björn", "Sören", "Käthe", "Günther", "Uwe", "Ute", "Dörte", "Malte", "Frauke", "Hendrik"
+    };
+
+    static final String[] GERMAN_LAST_NAMES = {
+            "Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker", "Schulz", "Hoffmann",
+            "Schäfer", "Koch", "Bauer", "Richter", "Klein", "Wolf", "Schröder", "Neumann", "Schwarz", "Zimmermann",
+            "Braun", "Krüger", "Hofmann", "Hartmann", "Lange", "Schmitt", "Werner", "Schmitz", "Krause", "Meier",
+            "Lehmann", "Schmid", "Schulze", "Maier", "Köhler", "Herrmann", "König", "Walter", "Mayer", "Huber",
+            "Kaiser", "Fuchs", "Peters", "Lang", "Scholz", "Möller", "Weiß", "Jung", "Hahn", "Vogel",
+            "Friedrich", "Keller", "Günther", "Frank", "Berger", "Winkler", "Roth", "Beck", "Lorenz", "Baumann",
+            "Franke", "Albrecht", "Schuster", "Simon", "Ludwig", "Böhm", "Winter", "Kraus", "Martin", "Schumacher",
+            "Krämer", "Vogt", "Stein", "Jäger", "Otto", "Sommer", "Groß", "Seidel", "Heinrich", "Brandt",
+            "Haas", "Schreiber", "Graf", "Schulte", "Dietrich", "Ziegler", "Kuhn", "Kühn", "Pohl", "Engel",
+            "Horn", "Busch", "Bergmann", "Thomas", "Voigt", "Sauer", "Arnold", "Wolff", "Pfeiffer", "Müller-Lüdenscheidt"
+    };
+
+    static final String[] INTERNATIONAL_FIRST_NAMES = {
+            "Mehmet", "Ayşe", "Ali", "Fatma", "Emre", "Elif", "Piotr", "Katarzyna", "Jakub", "Agnieszka",
+            "Giulia", "Marco", "Luca", "Francesca", "Carlos", "Lucía", "Javier", "Sofía", "Wei", "Jing",
+            "Hao", "Priya", "Arjun", "Ananya", "Rahul", "Olena", "Dmytro", "Ahmed", "Fatima", "Yusuf",
+            "Noor", "João", "Ana", "Pierre", "Camille", "Kenji", "Yuki", "Oluwaseun", "Amara", "Minh"
+    };
+
+    static final String[] INTERNATIONAL_LAST_NAMES = {
+            "Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Nowak", "Kowalski", "Wiśniewski", "Wójcik", "Rossi",
+            "Russo", "Ferrari", "Esposito", "García", "Fernández", "López", "Martínez", "Wang", "Li", "Zhang",
+            "Liu", "Chen", "Sharma", "Patel", "Singh", "Kumar", "Kovalenko", "Shevchenko", "Hassan", "Ahmed",
+            "Silva", "Santos", "Dubois", "Lefèvre", "Tanaka", "Satō", "Okafor", "Nguyen", "Kim", "Park"
+    };
+
+    private NamePools() {
+    }
+}
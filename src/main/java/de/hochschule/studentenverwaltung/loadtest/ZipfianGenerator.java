@@ -0,0 +1,79 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+/**
+ * Erzeugt Zipf-verteilte Indizes im Bereich [0, n).
+ *
+ * Implementiert das Verfahren von Gray et al. ("Quickly Generating
+ * Billion-Record Synthetic Databases"), wie es auch YCSB verwendet.
+ * Kleine Indizes sind die "heißen" Schlüssel. Die Zeta-Konstante wird
+ * einmalig in O(n) berechnet, danach kostet jeder Wert O(1).
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class ZipfianGenerator {
+    /** Übliche Schiefe, wie sie YCSB standardmäßig verwendet */
+    public static final double DEFAULT_THETA = 0.99;
+
+    private final long n;
+    private final double theta;
+    private final double alpha;
+    private final double zetan;
+    private final double eta;
+
+    /**
+     * Erstellt einen Generator mit der Standardschiefe.
+     *
+     * @param n die Anzahl der Schlüssel
+     */
+    public ZipfianGenerator(long n) {
+        this(n, DEFAULT_THETA);
+    }
+
+    /**
+     * Erstellt einen Generator mit frei wählbarer Schiefe.
+     *
+     * @param n die Anzahl der Schlüssel
+     * @param theta die Schiefe (0 &lt; theta &lt; 1, größer bedeutet schiefer)
+     */
+    public ZipfianGenerator(long n, double theta) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n muss mindestens 1 sein: " + n);
+        }
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta muss zwischen 0 und 1 liegen: " + theta);
+        }
+        this.n = n;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetan = zeta(n, theta);
+        double zeta2 = zeta(2, theta);
+        this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetan);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1.0 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    /**
+     * Bildet eine gleichverteilte Zufallszahl auf einen Zipf-verteilten Index ab.
+     *
+     * @param uniform eine Zufallszahl aus [0, 1)
+     * @return ein Index aus [0, n)
+     */
+    public long next(double uniform) {
+        double uz = uniform * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, n - 1);
+        }
+        long value = (long) (n * Math.pow(eta * uniform - eta + 1, alpha));
+        return Math.min(value, n - 1);
+    }
+}
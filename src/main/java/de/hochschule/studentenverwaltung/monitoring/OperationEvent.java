@@ -0,0 +1,63 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+import java.util.function.ToLongFunction;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Gemeinsame Felder der JFR-Ereignisse für Repository- und Service-Operationen.
+ *
+ * @author Team
+ * @version 2.0
+ */
+abstract class OperationEvent extends Event {
+
+    /** Ergebnis einer Operation, die normal zurückgekehrt ist */
+    static final String OUTCOME_OK = "OK";
+    /** Ergebnis einer Operation, die null oder false geliefert hat */
+    static final String OUTCOME_NOT_FOUND = "NOT_FOUND";
+    /** Ergebnis einer Operation, bei der ein Datenbankfehler protokolliert wurde */
+    static final String OUTCOME_ERROR = "ERROR";
+    /** Ergebnis einer Operation, die mit einer Ausnahme beendet wurde */
+    static final String OUTCOME_EXCEPTION = "EXCEPTION";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Student-ID")
+    @Description("ID des betroffenen Studenten, 0 bei Operationen über mehrere Studenten")
+    long studentId;
+
+    @Label("Zeilen")
+    @Description("Anzahl der gelieferten oder geänderten Datensätze")
+    long rowCount;
+
+    @Label("Ergebnis")
+    @Description("OK, NOT_FOUND, ERROR, EXCEPTION oder der Name eines Ergebnis-Enums wie DUPLICATE_EMAIL")
+    String outcome;
+
+    OperationEvent(String operation, Long studentId) {
+        this.operation = operation;
+        this.studentId = studentId != null ? studentId : 0;
+    }
+
+    /**
+     * Leitet Zeilenzahl und Ergebnis aus dem Rückgabewert ab. Ein bereits
+     * gesetztes Ergebnis (z. B. ERROR) bleibt erhalten.
+     */
+    <T> void complete(T result, ToLongFunction<? super T> rows) {
+        rowCount = result != null ? rows.applyAsLong(result) : 0;
+        if (outcome != null) {
+            return;
+        }
+        if (result == null || Boolean.FALSE.equals(result)) {
+            outcome = OUTCOME_NOT_FOUND;
+        } else if (result instanceof Enum<?> value) {
+            outcome = value.name();
+        } else {
+            outcome = OUTCOME_OK;
+        }
+    }
+}
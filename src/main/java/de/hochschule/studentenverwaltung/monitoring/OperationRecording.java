@@ -0,0 +1,68 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Startet JFR-Aufzeichnungen mit der mitgelieferten Konfiguration
+ * {@code jfr/studentenverwaltung.jfc}.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class OperationRecording {
+    private static final Logger logger = LoggerFactory.getLogger(OperationRecording.class);
+
+    /** Pfad der mitgelieferten Konfiguration im Klassenpfad */
+    public static final String CONFIGURATION_RESOURCE = "/jfr/studentenverwaltung.jfc";
+
+    private OperationRecording() {
+    }
+
+    /**
+     * Lädt die mitgelieferte JFR-Konfiguration aus dem Klassenpfad.
+     *
+     * @return die Konfiguration
+     * @throws IOException wenn die Konfiguration fehlt oder ungültig ist
+     */
+    public static Configuration bundledConfiguration() throws IOException {
+        InputStream in = OperationRecording.class.getResourceAsStream(CONFIGURATION_RESOURCE);
+        if (in == null) {
+            throw new IOException("JFR-Konfiguration nicht gefunden: " + CONFIGURATION_RESOURCE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (ParseException e) {
+            throw new IOException("JFR-Konfiguration ist ungültig: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Startet eine Aufzeichnung mit der mitgelieferten Konfiguration. Sie wird
+     * beim Stoppen bzw. beim Beenden der JVM in die angegebene Datei geschrieben.
+     *
+     * @param destination die Zieldatei (.jfr)
+     * @return die laufende Aufzeichnung
+     * @throws IOException wenn die Konfiguration nicht geladen oder das Ziel nicht gesetzt werden kann
+     */
+    public static Recording start(Path destination) throws IOException {
+        Recording recording = new Recording(bundledConfiguration());
+        recording.setName("Studentenverwaltung");
+        recording.setToDisk(true);
+        recording.setDestination(destination);
+        recording.start();
+        logger.info("JFR-Aufzeichnung gestartet, Ziel: {}", destination.toAbsolutePath());
+        return recording;
+    }
+}
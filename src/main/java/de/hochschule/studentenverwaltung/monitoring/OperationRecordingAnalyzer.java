@@ -0,0 +1,190 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Fasst die Repository- und Service-Ereignisse einer JFR-Aufzeichnung pro Operation zusammen.
+ *
+ * Aufruf:
+ * {@code java -cp app.jar de.hochschule.studentenverwaltung.monitoring.OperationRecordingAnalyzer aufnahme.jfr}
+ *
+ * Pro Operation werden Anzahl, Gesamt-, Mittel-, p95- und Maximaldauer,
+ * die Summe der Zeilen, die mittlere Zeit für den Verbindungsaufbau und die
+ * Zahl der gescheiterten Aufrufe ausgegeben, absteigend nach Gesamtdauer.
+ * Da standardmäßig nur Ereignisse oberhalb der Schwellwerte aufgezeichnet
+ * werden, beziehen sich die Werte auf die langsamen Aufrufe.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class OperationRecordingAnalyzer {
+
+    private static final Set<String> FAILURE_OUTCOMES = Set.of(
+            OperationEvent.OUTCOME_ERROR, OperationEvent.OUTCOME_EXCEPTION, "FAILED");
+
+    /**
+     * Zusammenfassung einer Operation.
+     *
+     * @param layer "Repository" oder "Service"
+     * @param operation der Name der Operation
+     * @param count die Anzahl der Ereignisse
+     * @param failures die Anzahl der Ereignisse mit Ergebnis ERROR, EXCEPTION oder FAILED
+     * @param total die Summe der Dauern
+     * @param p95 das 95. Perzentil der Dauer
+     * @param max die längste Dauer
+     * @param rows die Summe der Zeilen
+     * @param connectionAcquire die Summe der Zeit für den Verbindungsaufbau (nur Repository)
+     */
+    public record OperationSummary(String layer, String operation, long count, long failures,
+                                   Duration total, Duration p95, Duration max, long rows,
+                                   Duration connectionAcquire) {
+
+        /** @return die mittlere Dauer */
+        public Duration mean() {
+            return count == 0 ? Duration.ZERO : total.dividedBy(count);
+        }
+    }
+
+    private OperationRecordingAnalyzer() {
+    }
+
+    /**
+     * Einstiegspunkt des Analysewerkzeugs.
+     *
+     * @param args der Pfad zur Aufzeichnung
+     * @throws IOException wenn die Aufzeichnung nicht gelesen werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Aufruf: OperationRecordingAnalyzer <aufnahme.jfr>");
+            System.exit(2);
+            return;
+        }
+        Path recording = Path.of(args[0]);
+        if (!Files.isRegularFile(recording)) {
+            System.err.println("Datei nicht gefunden: " + recording);
+            System.exit(2);
+            return;
+        }
+        print(summarize(recording), System.out);
+    }
+
+    /**
+     * Liest eine Aufzeichnung und fasst die Ereignisse pro Schicht und Operation zusammen.
+     *
+     * @param recording die JFR-Datei
+     * @return die Zusammenfassungen, absteigend nach Gesamtdauer
+     * @throws IOException wenn die Aufzeichnung nicht gelesen werden kann
+     */
+    public static List<OperationSummary> summarize(Path recording) throws IOException {
+        Map<String, Accumulator> byOperation = new LinkedHashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                String layer;
+                if (RepositoryOperationEvent.NAME.equals(type)) {
+                    layer = "Repository";
+                } else if (ServiceOperationEvent.NAME.equals(type)) {
+                    layer = "Service";
+                } else {
+                    continue;
+                }
+                String operation = event.getString("operation");
+                byOperation.computeIfAbsent(layer + '\u0000' + operation, key -> new Accumulator(layer, operation))
+                        .add(event);
+            }
+        }
+        List<OperationSummary> summaries = new ArrayList<>(byOperation.size());
+        byOperation.values().forEach(accumulator -> summaries.add(accumulator.summary()));
+        summaries.sort(Comparator.comparing(OperationSummary::total).reversed());
+        return summaries;
+    }
+
+    /**
+     * Gibt die Zusammenfassungen als Tabelle aus.
+     *
+     * @param summaries die Zusammenfassungen
+     * @param out das Ziel der Ausgabe
+     */
+    public static void print(List<OperationSummary> summaries, PrintStream out) {
+        if (summaries.isEmpty()) {
+            out.println("Keine Repository- oder Service-Ereignisse in der Aufzeichnung.");
+            return;
+        }
+        out.printf(Locale.ROOT, "%-10s %-22s %8s %11s %9s %9s %9s %10s %9s %7s%n",
+                "Schicht", "Operation", "Anzahl", "Summe ms", "Mittel", "p95", "Max", "Zeilen", "Verb. ms", "Fehler");
+        for (OperationSummary summary : summaries) {
+            // Der Verbindungsaufbau wird nur bei Repository-Ereignissen gemessen
+            String connection = summary.layer().equals("Repository")
+                    ? String.format(Locale.ROOT, "%.2f", millis(summary.connectionAcquire()) / summary.count())
+                    : "-";
+            out.printf(Locale.ROOT, "%-10s %-22s %8d %11.1f %9.2f %9.2f %9.2f %10d %9s %7d%n",
+                    summary.layer(), summary.operation(), summary.count(), millis(summary.total()),
+                    millis(summary.mean()), millis(summary.p95()), millis(summary.max()), summary.rows(),
+                    connection, summary.failures());
+        }
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    /** Sammelt die Ereignisse einer Operation. */
+    private static final class Accumulator {
+        private final String layer;
+        private final String operation;
+        private long[] durations = new long[16];
+        private int count;
+        private long failures;
+        private long rows;
+        private long connectionAcquireNanos;
+
+        Accumulator(String layer, String operation) {
+            this.layer = layer;
+            this.operation = operation;
+        }
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos();
+            rows += event.getLong("rowCount");
+            if (FAILURE_OUTCOMES.contains(event.getString("outcome"))) {
+                failures++;
+            }
+            if (event.hasField("connectionAcquireTime")) {
+                connectionAcquireNanos += event.getDuration("connectionAcquireTime").toNanos();
+            }
+        }
+
+        OperationSummary summary() {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long duration : sorted) {
+                total += duration;
+            }
+            int p95Index = Math.max(0, (int) Math.ceil(count * 0.95) - 1);
+            return new OperationSummary(layer, operation, count, failures, Duration.ofNanos(total),
+                    Duration.ofNanos(sorted[p95Index]), Duration.ofNanos(sorted[count - 1]), rows,
+                    Duration.ofNanos(connectionAcquireNanos));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR-Ereignis für einen Aufruf des StudentRepository.
+ *
+ * In einer Aufzeichnung erscheint Zeit im Repository sonst nur als
+ * JDBC- bzw. Socket-Frames. Dieses Ereignis ordnet sie der Operation zu
+ * und enthält Student-ID bzw. Zeilenzahl, Anweisungsart, die Zeit für das
+ * Öffnen der Verbindung und das Ergebnis.
+ *
+ * Ohne eigene Konfiguration werden nur Operationen ab 20 ms aufgezeichnet;
+ * {@code studentenverwaltung.jfc} setzt die Schwelle niedriger. Ist das
+ * Ereignis nicht aktiviert, wird die Operation ohne weiteren Aufwand ausgeführt.
+ *
+ * @author Team
+ * @version 2.0
+ */
+@Name(RepositoryOperationEvent.NAME)
+@Label("Repository-Operation")
+@Description("Ein Aufruf des StudentRepository")
+@Category({"Studentenverwaltung", "Repository"})
+@Threshold("20 ms")
+@StackTrace(false)
+public final class RepositoryOperationEvent extends OperationEvent {
+
+    /** Name des Ereignistyps in der Aufzeichnung */
+    public static final String NAME = "de.hochschule.studentenverwaltung.RepositoryOperation";
+
+    /** Das Ereignis der im aktuellen Thread laufenden Operation */
+    private static final ThreadLocal<RepositoryOperationEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("Anweisungsart")
+    String statementKind;
+
+    @Label("Verbindungsaufbau")
+    @Description("Zeit für das Öffnen der Datenbankverbindung(en) innerhalb der Operation")
+    @Timespan(Timespan.NANOSECONDS)
+    long connectionAcquireTime;
+
+    private RepositoryOperationEvent(String operation, StatementKind kind, Long studentId) {
+        super(operation, studentId);
+        this.statementKind = kind.name();
+    }
+
+    /**
+     * Führt eine Repository-Operation aus und zeichnet sie als Ereignis auf.
+     *
+     * @param operation der Name der Operation, z. B. {@code findById}
+     * @param kind die Art der ausgeführten Anweisung
+     * @param studentId die ID des betroffenen Studenten oder null
+     * @param work die Operation
+     * @param rows bestimmt die Zeilenzahl aus dem Ergebnis
+     * @param <T> der Rückgabetyp der Operation
+     * @return das Ergebnis der Operation
+     */
+    public static <T> T record(String operation, StatementKind kind, Long studentId,
+                               Supplier<T> work, ToLongFunction<? super T> rows) {
+        RepositoryOperationEvent event = new RepositoryOperationEvent(operation, kind, studentId);
+        if (!event.isEnabled()) {
+            return work.get();
+        }
+        RepositoryOperationEvent enclosing = CURRENT.get();
+        CURRENT.set(event);
+        event.begin();
+        try {
+            T result = work.get();
+            event.complete(result, rows);
+            return result;
+        } catch (RuntimeException | Error e) {
+            event.outcome = OUTCOME_EXCEPTION;
+            throw e;
+        } finally {
+            event.commit();
+            if (enclosing != null) {
+                CURRENT.set(enclosing);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Rechnet die Zeit für das Öffnen einer Verbindung der laufenden Operation zu.
+     *
+     * @param nanos die Dauer in Nanosekunden
+     */
+    public static void connectionAcquired(long nanos) {
+        RepositoryOperationEvent event = CURRENT.get();
+        if (event != null) {
+            event.connectionAcquireTime += nanos;
+        }
+    }
+
+    /**
+     * Markiert die laufende Operation als mit einem Datenbankfehler gescheitert.
+     */
+    public static void markFailed() {
+        RepositoryOperationEvent event = CURRENT.get();
+        if (event != null) {
+            event.outcome = OUTCOME_ERROR;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR-Ereignis für einen Aufruf des StudentService.
+ *
+ * Umfasst die gesamte Operation einschließlich Sperren, Abbildung auf DTOs
+ * und aller Repository-Aufrufe, die als eigene
+ * {@link RepositoryOperationEvent}s im selben Thread erscheinen.
+ * Ohne eigene Konfiguration werden nur Operationen ab 50 ms aufgezeichnet.
+ *
+ * @author Team
+ * @version 2.0
+ */
+@Name(ServiceOperationEvent.NAME)
+@Label("Service-Operation")
+@Description("Ein Aufruf des StudentService")
+@Category({"Studentenverwaltung", "Service"})
+@Threshold("50 ms")
+@StackTrace(false)
+public final class ServiceOperationEvent extends OperationEvent {
+
+    /** Name des Ereignistyps in der Aufzeichnung */
+    public static final String NAME = "de.hochschule.studentenverwaltung.ServiceOperation";
+
+    private ServiceOperationEvent(String operation, Long studentId) {
+        super(operation, studentId);
+    }
+
+    /**
+     * Führt eine Service-Operation aus und zeichnet sie als Ereignis auf.
+     *
+     * @param operation der Name der Operation, z. B. {@code createStudent}
+     * @param studentId die ID des betroffenen Studenten oder null
+     * @param work die Operation
+     * @param rows bestimmt die Zeilenzahl aus dem Ergebnis
+     * @param <T> der Rückgabetyp der Operation
+     * @return das Ergebnis der Operation
+     */
+    public static <T> T record(String operation, Long studentId, Supplier<T> work, ToLongFunction<? super T> rows) {
+        ServiceOperationEvent event = new ServiceOperationEvent(operation, studentId);
+        if (!event.isEnabled()) {
+            return work.get();
+        }
+        event.begin();
+        try {
+            T result = work.get();
+            event.complete(result, rows);
+            return result;
+        } catch (RuntimeException | Error e) {
+            event.outcome = OUTCOME_EXCEPTION;
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+}
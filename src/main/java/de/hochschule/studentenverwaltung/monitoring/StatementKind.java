@@ -0,0 +1,20 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+/**
+ * Art der SQL-Anweisung, die eine Repository-Operation hauptsächlich ausführt.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public enum StatementKind {
+    /** Lesende Abfrage */
+    SELECT,
+    /** Anlegen eines Datensatzes */
+    INSERT,
+    /** Ändern eines Datensatzes */
+    UPDATE,
+    /** Löschen von Datensätzen */
+    DELETE,
+    /** Mehrere Anweisungen als JDBC-Batch bzw. über eine gemeinsame Verbindung */
+    BATCH
+}
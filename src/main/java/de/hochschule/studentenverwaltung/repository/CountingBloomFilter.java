@@ -0,0 +1,151 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Zählender Bloom-Filter für Zeichenketten mit Unterstützung für Löschungen.
+ *
+ * Statt einzelner Bits werden 4-Bit-Zähler verwendet (16 pro long), sodass
+ * Einträge wieder entfernt werden können. Zähler, die den Maximalwert 15
+ * erreicht haben, werden nie mehr verringert; das führt nur zu zusätzlichen
+ * falsch-positiven Treffern.
+ *
+ * Falsch-negative Treffer sind dagegen möglich: Entfernt ein Aufrufer einen
+ * Eintrag, den er nie hinzugefügt hat (etwa eine E-Mail-Adresse, die eine
+ * andere Anwendungsinstanz in der gemeinsamen Datenbank angelegt hat), werden
+ * Zähler verringert, die andere Einträge mitbenutzen. Ein "nicht enthalten"
+ * ist deshalb nur ein Hinweis; die verbindliche Prüfung bleibt die
+ * UNIQUE-Bedingung der Datenbank.
+ * Alle Operationen sind sperrfrei (CAS auf einem AtomicLongArray).
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class CountingBloomFilter {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MAX = 15;
+
+    private final AtomicLongArray words;
+    private final long counterCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Erstellt einen Filter für die erwartete Anzahl Einträge und Falsch-positiv-Rate.
+     *
+     * @param expectedEntries die erwartete Anzahl Einträge (Kapazität)
+     * @param falsePositiveRate die gewünschte Falsch-positiv-Rate, z. B. 0.01
+     */
+    CountingBloomFilter(long expectedEntries, double falsePositiveRate) {
+        this.capacity = Math.max(1, expectedEntries);
+        long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counterCount = Math.max(COUNTERS_PER_WORD, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / capacity * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    /**
+     * Fügt einen Eintrag hinzu.
+     *
+     * @param value der Eintrag
+     */
+    void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            update(Math.floorMod(h1 + i * h2, counterCount), 1);
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Entfernt einen zuvor hinzugefügten Eintrag. Wurde der Eintrag nie
+     * hinzugefügt, kann das zu falsch-negativen Treffern für andere Einträge
+     * führen.
+     *
+     * @param value der Eintrag
+     */
+    void remove(String value) {
+        if (!mightContain(value)) {
+            return;
+        }
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            update(Math.floorMod(h1 + i * h2, counterCount), -1);
+        }
+        size.decrementAndGet();
+    }
+
+    /**
+     * Prüft, ob ein Eintrag enthalten sein könnte.
+     *
+     * @param value der Eintrag
+     * @return false, wenn der Eintrag sicher fehlt; true, wenn er wahrscheinlich enthalten ist
+     */
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            if (counter(Math.floorMod(h1 + i * h2, counterCount)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return die Anzahl der aktuell eingetragenen Werte */
+    long size() {
+        return size.get();
+    }
+
+    /** @return die Kapazität, für die der Filter dimensioniert wurde */
+    long capacity() {
+        return capacity;
+    }
+
+    private long counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        return (word >>> shift) & COUNTER_MAX;
+    }
+
+    private void update(long index, int delta) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            long word = words.get(wordIndex);
+            long value = (word >>> shift) & COUNTER_MAX;
+            // Gesättigte Zähler bleiben stehen, leere Zähler werden nicht negativ
+            if (value == COUNTER_MAX || (delta < 0 && value == 0)) {
+                return;
+            }
+            long updated = (word & ~(COUNTER_MAX << shift)) | ((value + delta) << shift);
+            if (words.compareAndSet(wordIndex, word, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        // FNV-1a über UTF-8, anschließend durchmischt
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
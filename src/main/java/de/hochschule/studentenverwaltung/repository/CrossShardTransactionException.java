@@ -0,0 +1,52 @@
+package de.hochschule.studentenverwaltung.repository;
+
+/**
+ * Wird geworfen, wenn eine Transaktion des {@link ShardedStudentRepository}
+ * auf eine zweite Shard schreiben würde. Eine Transaktion läuft immer auf
+ * genau einer Shard, nämlich der, auf die zuerst geschrieben wurde.
+ *
+ * Die Ausnahme tritt vor dem Schreibzugriff auf; fängt die Arbeit sie nicht
+ * ab, wird die gesamte Transaktion zurückgerollt. Aufrufer können die Arbeit
+ * dann z. B. pro Shard aufteilen oder ohne gemeinsame Transaktion wiederholen.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class CrossShardTransactionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int boundShard;
+    private final int requestedShard;
+
+    /**
+     * Erstellt die Ausnahme.
+     *
+     * @param boundShard der Index der Shard, an die die Transaktion gebunden ist
+     * @param requestedShard der Index der Shard, auf die zusätzlich geschrieben werden sollte
+     */
+    public CrossShardTransactionException(int boundShard, int requestedShard) {
+        super("Transaktion ist an Shard " + boundShard + " gebunden und kann nicht auf Shard "
+                + requestedShard + " schreiben");
+        this.boundShard = boundShard;
+        this.requestedShard = requestedShard;
+    }
+
+    /**
+     * Gibt die Shard zurück, an die die Transaktion gebunden ist.
+     *
+     * @return der Index der Shard
+     */
+    public int getBoundShard() {
+        return boundShard;
+    }
+
+    /**
+     * Gibt die Shard zurück, auf die zusätzlich geschrieben werden sollte.
+     *
+     * @return der Index der Shard
+     */
+    public int getRequestedShard() {
+        return requestedShard;
+    }
+}
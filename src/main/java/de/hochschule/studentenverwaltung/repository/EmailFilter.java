@@ -0,0 +1,158 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Vorfilter für doppelte E-Mail-Adressen beim Anlegen von Studenten.
+ *
+ * Hält einen {@link CountingBloomFilter} über alle E-Mail-Adressen der Tabelle.
+ * Sagt der Filter "nicht enthalten", ist die Adresse sicher neu und es ist
+ * keine Abfrage nötig. Nur bei einem wahrscheinlichen Treffer bestätigt das
+ * Repository per Index-Lookup. Der Filter wird beim ersten Schreibzugriff aus
+ * der Datenbank aufgebaut, bei jedem Speichern und Löschen gepflegt und mit
+ * doppelter Kapazität neu aufgebaut, sobald er voll ist.
+ *
+ * Schreibzugriffe anderer Prozesse oder Repository-Instanzen sieht der Filter
+ * nicht. Das ist unkritisch: Die UNIQUE-Bedingung der Tabelle bleibt die
+ * maßgebliche Prüfung, der Filter spart nur den teuren Fehlerpfad.
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class EmailFilter {
+    private static final Logger logger = LoggerFactory.getLogger(EmailFilter.class);
+
+    private static final long MIN_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /** Tabelle mit einer Spalte {@code email}, aus der der Filter aufgebaut wird */
+    private final String table;
+
+    private volatile CountingBloomFilter filter;
+
+    private final LongAdder definitelyNew = new LongAdder();
+    private final LongAdder probableDuplicates = new LongAdder();
+    private final LongAdder confirmedDuplicates = new LongAdder();
+
+    /**
+     * Erstellt einen Filter über die E-Mail-Adressen der Tabelle {@code students}.
+     */
+    EmailFilter() {
+        this("students");
+    }
+
+    /**
+     * Erstellt einen Filter über die Spalte {@code email} einer anderen Tabelle.
+     *
+     * @param table der Tabellenname
+     */
+    EmailFilter(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Baut den Filter auf, falls das noch nicht geschehen ist.
+     *
+     * @param conn eine offene Verbindung zur Datenbank
+     * @throws SQLException bei Fehlern beim Lesen der E-Mail-Adressen
+     */
+    void ensureBuilt(Connection conn) throws SQLException {
+        if (filter == null) {
+            synchronized (this) {
+                if (filter == null) {
+                    rebuild(conn);
+                }
+            }
+        }
+    }
+
+    /**
+     * Baut den Filter aus allen E-Mail-Adressen der Tabelle neu auf.
+     *
+     * @param conn eine offene Verbindung zur Datenbank
+     * @throws SQLException bei Fehlern beim Lesen der E-Mail-Adressen
+     */
+    synchronized void rebuild(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement stmt = conn.createStatement()) {
+            long rows;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rs.next();
+                rows = rs.getLong(1);
+            }
+            CountingBloomFilter rebuilt = new CountingBloomFilter(Math.max(MIN_CAPACITY, rows * 2), FALSE_POSITIVE_RATE);
+            try (ResultSet rs = stmt.executeQuery("SELECT email FROM " + table)) {
+                while (rs.next()) {
+                    rebuilt.add(rs.getString(1));
+                }
+            }
+            filter = rebuilt;
+            logger.info("E-Mail-Filter für {} mit {} Einträgen (Kapazität {}) in {} ms aufgebaut.",
+                    table, rebuilt.size(), rebuilt.capacity(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Prüft, ob eine E-Mail-Adresse bereits vergeben sein könnte.
+     *
+     * @param email die zu prüfende Adresse
+     * @return false, wenn die Adresse sicher neu ist; true, wenn sie bestätigt werden muss
+     */
+    boolean mightBeDuplicate(String email) {
+        CountingBloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            definitelyNew.increment();
+            return false;
+        }
+        probableDuplicates.increment();
+        return true;
+    }
+
+    /**
+     * Vermerkt, dass ein wahrscheinlicher Treffer als Duplikat bestätigt wurde.
+     */
+    void recordConfirmedDuplicate() {
+        confirmedDuplicates.increment();
+    }
+
+    /**
+     * Trägt eine neue E-Mail-Adresse ein und baut den Filter bei Bedarf vergrößert neu auf.
+     *
+     * @param conn eine offene Verbindung für einen eventuellen Neuaufbau
+     * @param email die neue Adresse
+     * @throws SQLException bei Fehlern während des Neuaufbaus
+     */
+    void add(Connection conn, String email) throws SQLException {
+        CountingBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        current.add(email);
+        if (current.size() > current.capacity()) {
+            rebuild(conn);
+        }
+    }
+
+    /**
+     * Entfernt eine E-Mail-Adresse, die nicht mehr vergeben ist.
+     *
+     * @param email die freigewordene Adresse
+     */
+    void remove(String email) {
+        CountingBloomFilter current = filter;
+        if (current != null) {
+            current.remove(email);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EmailFilter{definitelyNew=" + definitelyNew.sum()
+                + ", probableDuplicates=" + probableDuplicates.sum()
+                + ", confirmedDuplicates=" + confirmedDuplicates.sum() + "}";
+    }
+}
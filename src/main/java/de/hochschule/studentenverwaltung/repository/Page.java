@@ -0,0 +1,36 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Eine Seite einer sortierten Liste mit Cursor für die Folgeseite.
+ *
+ * @param items die Einträge dieser Seite
+ * @param next der Cursor für die nächste Seite oder null, wenn dies die letzte Seite ist
+ * @param <T> der Typ der Einträge
+ * @author Team
+ * @version 2.0
+ */
+public record Page<T>(List<T> items, PageCursor next) {
+
+    /**
+     * Gibt an, ob eine weitere Seite existiert.
+     *
+     * @return true, wenn ein Cursor für die Folgeseite vorhanden ist
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Wandelt die Einträge um und behält den Cursor bei.
+     *
+     * @param mapper die Umwandlung pro Eintrag
+     * @param <R> der neue Eintragstyp
+     * @return die umgewandelte Seite
+     */
+    public <R> Page<R> map(Function<T, R> mapper) {
+        return new Page<>(items.stream().map(mapper).toList(), next);
+    }
+}
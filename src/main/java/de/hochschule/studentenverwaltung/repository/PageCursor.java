@@ -0,0 +1,29 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Fortsetzungspunkt für seitenweises Lesen per Keyset.
+ *
+ * Enthält Sortierwert und ID der letzten gelieferten Zeile. Die nächste
+ * Seite beginnt direkt dahinter, ohne OFFSET und damit ohne die bereits
+ * gelesenen Zeilen erneut zu überspringen.
+ *
+ * @param sortValue der Sortierwert der letzten Zeile
+ * @param id die ID der letzten Zeile
+ * @author Team
+ * @version 2.0
+ */
+public record PageCursor(String sortValue, long id) {
+
+    /**
+     * Erstellt den Cursor hinter dem angegebenen Studenten.
+     *
+     * @param student der zuletzt gelieferte Student
+     * @param sort die verwendete Sortierung
+     * @return der Cursor
+     */
+    public static PageCursor after(Student student, StudentSort sort) {
+        return new PageCursor(sort.field().valueFrom(student), student.getId());
+    }
+}
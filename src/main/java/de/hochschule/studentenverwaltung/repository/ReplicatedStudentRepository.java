@@ -0,0 +1,511 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Repository mit Warm-Standby-Replikation auf eine zweite Datenbank.
+ *
+ * Jede erfolgreiche Änderung auf der Primärdatenbank wird nach dem Commit
+ * mit fortlaufender Sequenznummer in ein Änderungsprotokoll im Speicher
+ * geschrieben. Ein Hintergrund-Thread überträgt das Protokoll in Stapeln
+ * (eine Transaktion pro Stapel, MERGE bzw. DELETE per JDBC-Batch) auf die
+ * Standby-Datenbank. Übertragen wird dabei der aktuelle Stand der
+ * betroffenen Zeilen, nicht das protokollierte Abbild, sodass die
+ * Reihenfolge gleichzeitiger Änderungen keine Rolle spielt. Beim Start und nach Massenänderungen (z. B. Restore)
+ * wird die Standby-Tabelle vollständig neu kopiert.
+ *
+ * Die Verzögerung (Alter des ältesten noch nicht übertragenen Eintrags)
+ * wird gemessen und über {@link #getReplicationStatus()} bereitgestellt.
+ * Ist eine maximale Veraltung konfiguriert, werden {@code findById} und
+ * {@code findAll} an die Standby-Datenbank gegeben, solange die Verzögerung
+ * darunter liegt. {@code findById} liest einen Studenten mit noch offenen
+ * Änderungen immer von der Primärdatenbank, sodass eigene Schreibvorgänge
+ * sofort sichtbar sind.
+ *
+ * Fällt die Primärdatenbank aus, macht {@link #promoteStandby()} die
+ * Standby-Datenbank zur neuen Primärdatenbank.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class ReplicatedStudentRepository extends StudentRepository implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicatedStudentRepository.class);
+
+    /** Höchstzahl der Protokolleinträge pro übertragenem Stapel */
+    private static final int BATCH_SIZE = 500;
+    /** Pause zwischen zwei Übertragungsläufen */
+    private static final long APPLY_INTERVAL_MILLIS = 50;
+
+    /**
+     * Momentaufnahme des Replikationszustands.
+     *
+     * @param lastSequence die Sequenznummer der zuletzt protokollierten Änderung
+     * @param appliedSequence die Sequenznummer der zuletzt übertragenen Änderung
+     * @param pendingChanges die Anzahl noch nicht übertragener Änderungen
+     * @param lag das Alter der ältesten noch nicht übertragenen Änderung
+     * @param promoted true, wenn die Standby-Datenbank bereits zur Primärdatenbank gemacht wurde
+     */
+    public record ReplicationStatus(long lastSequence, long appliedSequence, long pendingChanges,
+                                    Duration lag, boolean promoted) {
+    }
+
+    private enum Operation { UPSERT, DELETE, RESYNC }
+
+    private record ChangeEntry(long sequence, Operation operation, Student student, long recordedNanos) {
+    }
+
+    private final StudentRepository standby;
+    private final Duration maxReadStaleness;
+
+    private final ConcurrentLinkedQueue<ChangeEntry> changeLog = new ConcurrentLinkedQueue<>();
+    private final AtomicLong lastSequence = new AtomicLong();
+    private final AtomicLong appliedSequence = new AtomicLong();
+    /** Student-ID → Sequenznummer der letzten noch nicht übertragenen Änderung */
+    private final Map<Long, Long> pendingById = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService applier;
+
+    private volatile boolean promoted;
+    /** Nimmt das Protokoll noch Einträge an? Wird beim Failover nach dem letzten Nachtragen abgeschaltet. */
+    private volatile boolean accepting = true;
+    /** Wird geöffnet, sobald die Standby-Datenbank vollständig übernommen ist */
+    private final CountDownLatch promotionDone = new CountDownLatch(1);
+
+    /**
+     * Erstellt ein replizierendes Repository ohne Lese-Umleitung.
+     *
+     * @param primaryUrl die JDBC-URL der Primärdatenbank
+     * @param standbyUrl die JDBC-URL der Standby-Datenbank
+     */
+    public ReplicatedStudentRepository(String primaryUrl, String standbyUrl) {
+        this(primaryUrl, standbyUrl, Duration.ZERO);
+    }
+
+    /**
+     * Erstellt ein replizierendes Repository.
+     *
+     * @param primaryUrl die JDBC-URL der Primärdatenbank
+     * @param standbyUrl die JDBC-URL der Standby-Datenbank
+     * @param maxReadStaleness maximale Verzögerung, bis zu der Lesezugriffe an die Standby-Datenbank gehen
+     *                         ({@link Duration#ZERO}: immer von der Primärdatenbank lesen)
+     */
+    public ReplicatedStudentRepository(String primaryUrl, String standbyUrl, Duration maxReadStaleness) {
+        super(primaryUrl);
+        this.standby = new StudentRepository(standbyUrl);
+        this.maxReadStaleness = maxReadStaleness;
+        this.applier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "standby-replikation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Erst nach allen Feldern: Beobachter und Replikations-Thread sehen dieses Objekt
+        super.addChangeListener(new ChangeLogRecorder());
+        // Die Standby-Datenbank startet mit einer vollständigen Kopie
+        record(Operation.RESYNC, null);
+        applier.scheduleWithFixedDelay(this::applyPendingChanges,
+                0, APPLY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("Replikation von {} nach {} gestartet.", primaryUrl, standbyUrl);
+    }
+
+    @Override
+    public String getJdbcUrl() {
+        return promoted ? standby.getJdbcUrl() : super.getJdbcUrl();
+    }
+
+    /**
+     * Während eines Failovers warten neue Verbindungen, bis die Standby-Datenbank
+     * übernommen ist, damit sie nicht vor dem Nachtragen und dem Versetzen des
+     * ID-Zählers darauf schreiben.
+     */
+    @Override
+    Connection openConnection() throws SQLException {
+        if (!promoted) {
+            return super.openConnection();
+        }
+        try {
+            promotionDone.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Warten auf den Failover wurde unterbrochen", e);
+        }
+        return standby.openConnection();
+    }
+
+    @Override
+    public void setQueryTimeout(Duration timeout) {
+        super.setQueryTimeout(timeout);
+        standby.setQueryTimeout(timeout);
+    }
+
+    @Override
+    public void setSlowQueryLog(SlowQueryLog log) {
+        super.setSlowQueryLog(log);
+        standby.setSlowQueryLog(log);
+    }
+
+    @Override
+    public List<Student> findAll() {
+        return readFromStandby() ? standby.findAll() : super.findAll();
+    }
+
+    @Override
+    public Student findById(Long id) {
+        if (readFromStandby() && !pendingById.containsKey(id)) {
+            return standby.findById(id);
+        }
+        return super.findById(id);
+    }
+
+    /**
+     * Gibt den aktuellen Replikationszustand zurück.
+     *
+     * @return die Momentaufnahme
+     */
+    public ReplicationStatus getReplicationStatus() {
+        long last = lastSequence.get();
+        long applied = appliedSequence.get();
+        return new ReplicationStatus(last, applied, last - applied, currentLag(), promoted);
+    }
+
+    /**
+     * Wartet, bis alle bisher protokollierten Änderungen übertragen wurden.
+     *
+     * @param timeout die maximale Wartezeit
+     * @return true, wenn die Standby-Datenbank aufgeholt hat
+     * @throws InterruptedException bei Unterbrechung
+     */
+    public boolean awaitReplication(Duration timeout) throws InterruptedException {
+        long target = lastSequence.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (appliedSequence.get() < target) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Macht die Standby-Datenbank zur Primärdatenbank (Failover).
+     *
+     * Neue Verbindungen warten ab sofort auf das Ende des Failovers. Die
+     * Replikation wird angehalten, noch offene Protokolleinträge werden aus
+     * dem Speicher nachgetragen, danach nimmt das Protokoll keine Einträge
+     * mehr an und Nachzügler werden ein letztes Mal übertragen. Der
+     * ID-Zähler der Standby-Tabelle wird hinter die höchste vorhandene ID
+     * gesetzt. Danach laufen alle Zugriffe dieses Repositorys gegen die
+     * bisherige Standby-Datenbank.
+     *
+     * Aus dem Protokoll entfernt werden nur tatsächlich übertragene Einträge;
+     * nicht übertragbare bleiben in {@link #getReplicationStatus()} sichtbar.
+     * Änderungen, die erst nach dem Abschalten des Protokolls auf der alten
+     * Primärdatenbank bestätigt werden, gehen verloren; Schreibzugriffe
+     * sollten vor dem Failover angehalten werden.
+     *
+     * @return true, wenn alle protokollierten Änderungen übertragen wurden
+     */
+    public synchronized boolean promoteStandby() {
+        if (promoted) {
+            return changeLog.isEmpty();
+        }
+        promoted = true;
+        try {
+            applier.shutdown();
+            try {
+                applier.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            applyPendingChanges();
+            synchronized (changeLog) {
+                accepting = false;
+            }
+            // Änderungen, die zwischen dem Nachtragen und dem Abschalten noch protokolliert wurden
+            applyPendingChanges();
+            boolean complete = changeLog.isEmpty();
+            if (!complete) {
+                logger.error("Failover mit {} nicht übertragenen Änderung(en).", changeLog.size());
+            }
+
+            try (Connection conn = standby.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                long maxId;
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM students")) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH " + (maxId + 1));
+                afterBulkChange(conn);
+            } catch (SQLException e) {
+                logger.error("Fehler beim Übernehmen der Standby-Datenbank: {}", e.getMessage(), e);
+                return false;
+            }
+            pendingById.clear();
+            logger.warn("Standby-Datenbank {} ist jetzt Primärdatenbank.", standby.getJdbcUrl());
+            return complete;
+        } finally {
+            promotionDone.countDown();
+        }
+    }
+
+    /**
+     * Beendet die Replikation, ohne die Standby-Datenbank zu übernehmen.
+     */
+    @Override
+    public void close() {
+        applier.shutdown();
+    }
+
+    private boolean readFromStandby() {
+        // Innerhalb einer Transaktion muss die eigene Verbindung gelesen werden
+        return !promoted && !inUnitOfWork() && maxReadStaleness.isPositive()
+                && currentLag().compareTo(maxReadStaleness) <= 0;
+    }
+
+    private Duration currentLag() {
+        ChangeEntry oldest = changeLog.peek();
+        return oldest == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - oldest.recordedNanos());
+    }
+
+    private void record(Operation operation, Student student) {
+        // Sequenz und Einreihen atomar, damit die Warteschlange nach Sequenz sortiert bleibt
+        synchronized (changeLog) {
+            if (!accepting) {
+                return;
+            }
+            long sequence = lastSequence.incrementAndGet();
+            changeLog.add(new ChangeEntry(sequence, operation, student, System.nanoTime()));
+            if (student != null) {
+                pendingById.put(student.getId(), sequence);
+            }
+        }
+    }
+
+    /**
+     * Überträgt offene Protokolleinträge stapelweise. Läuft nur im Replikations-Thread
+     * bzw. nach dessen Ende in {@link #promoteStandby()}.
+     */
+    private void applyPendingChanges() {
+        while (!changeLog.isEmpty()) {
+            List<ChangeEntry> batch = new ArrayList<>(BATCH_SIZE);
+            for (ChangeEntry entry : changeLog) {
+                batch.add(entry);
+                if (batch.size() == BATCH_SIZE) {
+                    break;
+                }
+            }
+            try {
+                applyBatch(batch);
+            } catch (SQLException e) {
+                // Einträge bleiben im Protokoll und werden beim nächsten Lauf erneut versucht
+                logger.error("Fehler beim Übertragen auf die Standby-Datenbank: {}", e.getMessage(), e);
+                return;
+            }
+            for (ChangeEntry entry : batch) {
+                changeLog.poll();
+                if (entry.student() != null) {
+                    pendingById.remove(entry.student().getId(), entry.sequence());
+                }
+            }
+            appliedSequence.set(batch.get(batch.size() - 1).sequence());
+        }
+    }
+
+    private void applyBatch(List<ChangeEntry> batch) throws SQLException {
+        // Ohne Failover den aktuellen Stand lesen; beim Failover gilt die Primärdatenbank als verloren
+        List<ChangeEntry> changes = promoted ? batch : withCurrentRows(batch);
+        try (Connection conn = standby.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                applyInRuns(conn, changes);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                // Die Beobachter feuern nach dem Commit, bei E-Mail-Tausch also evtl. nicht in
+                // Commit-Reihenfolge. Dann einzeln und unter Verdrängung des alten Inhabers anwenden.
+                if (!isUniqueViolation(e) && !(e.getNextException() != null && isUniqueViolation(e.getNextException()))) {
+                    throw e;
+                }
+                applyOneByOne(conn, changes);
+                conn.commit();
+            }
+        }
+    }
+
+    /**
+     * Ersetzt die protokollierten Zeilenabbilder durch den aktuellen Stand der
+     * Primärdatenbank: vorhandene Zeilen werden übernommen, fehlende gelöscht.
+     *
+     * Die Beobachter feuern erst nach dem Commit, gleichzeitige Änderungen
+     * desselben Studenten können also in umgekehrter Reihenfolge protokolliert
+     * werden. Mit dem aktuellen Stand ist das unerheblich: Jeder Eintrag
+     * überträgt mindestens den Stand zum Zeitpunkt seiner Übertragung. Pro ID
+     * bleibt nur der letzte Eintrag des Stapels erhalten.
+     */
+    private List<ChangeEntry> withCurrentRows(List<ChangeEntry> batch) throws SQLException {
+        Map<Long, Integer> lastIndexById = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Student student = batch.get(i).student();
+            if (student != null) {
+                lastIndexById.put(student.getId(), i);
+            }
+        }
+        if (lastIndexById.isEmpty()) {
+            return batch;
+        }
+        Map<Long, Student> current = new HashMap<>();
+        try (Connection conn = super.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM students WHERE id = ANY(?)")) {
+            pstmt.setArray(1, conn.createArrayOf("BIGINT", lastIndexById.keySet().toArray()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Student student = mapRow(rs);
+                    current.put(student.getId(), student);
+                }
+            }
+        }
+        List<ChangeEntry> changes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ChangeEntry entry = batch.get(i);
+            if (entry.student() == null) {
+                changes.add(entry);
+            } else if (lastIndexById.get(entry.student().getId()) == i) {
+                Student row = current.get(entry.student().getId());
+                changes.add(row != null
+                        ? new ChangeEntry(entry.sequence(), Operation.UPSERT, row, entry.recordedNanos())
+                        : new ChangeEntry(entry.sequence(), Operation.DELETE, entry.student(), entry.recordedNanos()));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Fasst aufeinanderfolgende Einträge gleicher Art zu einem JDBC-Batch zusammen.
+     */
+    private void applyInRuns(Connection conn, List<ChangeEntry> batch) throws SQLException {
+        try (PreparedStatement merge = conn.prepareStatement(
+                     "MERGE INTO students (id, first_name, last_name, email) KEY (id) VALUES (?, ?, ?, ?)");
+             PreparedStatement delete = conn.prepareStatement("DELETE FROM students WHERE id = ?")) {
+            Operation pending = null;
+            for (ChangeEntry entry : batch) {
+                if (pending != null && pending != entry.operation()) {
+                    (pending == Operation.UPSERT ? merge : delete).executeBatch();
+                    pending = null;
+                }
+                switch (entry.operation()) {
+                    case UPSERT -> {
+                        bindMerge(merge, entry.student());
+                        merge.addBatch();
+                        pending = Operation.UPSERT;
+                    }
+                    case DELETE -> {
+                        delete.setLong(1, entry.student().getId());
+                        delete.addBatch();
+                        pending = Operation.DELETE;
+                    }
+                    case RESYNC -> copyPrimary(conn);
+                }
+            }
+            if (pending != null) {
+                (pending == Operation.UPSERT ? merge : delete).executeBatch();
+            }
+        }
+    }
+
+    private void applyOneByOne(Connection conn, List<ChangeEntry> batch) throws SQLException {
+        try (PreparedStatement evict = conn.prepareStatement("DELETE FROM students WHERE email = ? AND id <> ?");
+             PreparedStatement merge = conn.prepareStatement(
+                     "MERGE INTO students (id, first_name, last_name, email) KEY (id) VALUES (?, ?, ?, ?)");
+             PreparedStatement delete = conn.prepareStatement("DELETE FROM students WHERE id = ?")) {
+            for (ChangeEntry entry : batch) {
+                switch (entry.operation()) {
+                    case UPSERT -> {
+                        // Der alte Inhaber der Adresse hat selbst einen späteren Eintrag und wird dadurch wiederhergestellt
+                        evict.setString(1, entry.student().getEmail());
+                        evict.setLong(2, entry.student().getId());
+                        evict.executeUpdate();
+                        bindMerge(merge, entry.student());
+                        merge.executeUpdate();
+                    }
+                    case DELETE -> {
+                        delete.setLong(1, entry.student().getId());
+                        delete.executeUpdate();
+                    }
+                    case RESYNC -> copyPrimary(conn);
+                }
+            }
+        }
+    }
+
+    private void copyPrimary(Connection standbyConn) throws SQLException {
+        long rows = 0;
+        try (Statement clear = standbyConn.createStatement()) {
+            clear.execute("DELETE FROM students");
+        }
+        try (Connection primaryConn = super.openConnection();
+             Statement select = primaryConn.createStatement();
+             ResultSet rs = select.executeQuery("SELECT * FROM students ORDER BY id");
+             PreparedStatement insert = standbyConn.prepareStatement(
+                     "INSERT INTO students (id, first_name, last_name, email) VALUES (?, ?, ?, ?)")) {
+            while (rs.next()) {
+                bindMerge(insert, mapRow(rs));
+                insert.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        logger.info("Standby-Datenbank vollständig abgeglichen ({} Zeilen).", rows);
+    }
+
+    private static void bindMerge(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setLong(1, student.getId());
+        pstmt.setString(2, student.getFirstName());
+        pstmt.setString(3, student.getLastName());
+        pstmt.setString(4, student.getEmail());
+    }
+
+    /**
+     * Schreibt die Änderungen der Primärdatenbank in das Änderungsprotokoll.
+     */
+    private final class ChangeLogRecorder implements StudentChangeListener {
+
+        @Override
+        public void onInsert(Student student) {
+            record(Operation.UPSERT, student);
+        }
+
+        @Override
+        public void onUpdate(Student before, Student after) {
+            record(Operation.UPSERT, after);
+        }
+
+        @Override
+        public void onDelete(Student before) {
+            record(Operation.DELETE, before);
+        }
+
+        @Override
+        public void onReset() {
+            record(Operation.RESYNC, null);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package de.hochschule.studentenverwaltung.repository;
+
+/**
+ * Ergebnis einer Speicheroperation im StudentRepository.
+ *
+ * Ersetzt das bisherige stille Scheitern: Aufrufer können doppelte
+ * E-Mail-Adressen und fehlende Datensätze unterscheiden, ohne dass
+ * eine Exception im Log landet.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public enum SaveResult {
+    /** Ein neuer Student wurde angelegt */
+    CREATED,
+    /** Ein bestehender Student wurde aktualisiert */
+    UPDATED,
+    /** Die E-Mail-Adresse ist bereits einem anderen Studenten zugeordnet */
+    DUPLICATE_EMAIL,
+    /** Der zu aktualisierende Student existiert nicht */
+    NOT_FOUND,
+    /** Ein sonstiger Datenbankfehler ist aufgetreten */
+    FAILED;
+
+    /**
+     * Gibt an, ob die Operation erfolgreich war.
+     *
+     * @return true bei CREATED oder UPDATED
+     */
+    public boolean isSuccess() {
+        return this == CREATED || this == UPDATED;
+    }
+}
@@ -0,0 +1,115 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.*;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Initialisiert das Datenbankschema genau einmal pro Datenbank.
+ *
+ * Der Schemastand wird in der Tabelle {@code schema_version} vermerkt.
+ * Beim ersten Zugriff auf eine JDBC-URL wird die Version gelesen und nur
+ * die noch fehlenden Migrationsschritte werden ausgeführt. Danach merkt
+ * sich die Klasse die URL prozessweit, sodass weitere Repository-Instanzen
+ * keine Verbindung und kein DDL mehr benötigen.
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class SchemaInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaInitializer.class);
+
+    /**
+     * Migrationsschritte, Index 0 entspricht Version 1.
+     * Neue Schemaänderungen werden ausschließlich am Ende angehängt.
+     */
+    private static final List<String[]> MIGRATIONS = List.<String[]>of(
+            new String[] {
+                    "CREATE TABLE IF NOT EXISTS students (" +
+                            "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                            "first_name VARCHAR(100) NOT NULL, " +
+                            "last_name VARCHAR(100) NOT NULL, " +
+                            "email VARCHAR(100) NOT NULL UNIQUE" +
+                            ")"
+            },
+            // Version 2: Sekundärindizes für sortierte Listen und Keyset-Paging
+            new String[] {
+                    "CREATE INDEX IF NOT EXISTS idx_students_last_name ON students (last_name, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_students_first_name ON students (first_name, id)"
+            }
+    );
+
+    /** Aktuelle Schemaversion, die diese Anwendung erwartet */
+    static final int CURRENT_VERSION = MIGRATIONS.size();
+
+    /** JDBC-URLs, deren Schema in diesem Prozess bereits geprüft wurde */
+    private static final Set<String> initializedUrls = ConcurrentHashMap.newKeySet();
+
+    private SchemaInitializer() {}
+
+    /**
+     * Stellt sicher, dass das Schema der angegebenen Datenbank aktuell ist.
+     * Nach dem ersten erfolgreichen Aufruf pro URL ist diese Methode ein reiner Set-Lookup.
+     *
+     * @param jdbcUrl die JDBC-URL der Datenbank
+     * @param username der Datenbankbenutzername
+     * @param password das Datenbankpasswort
+     * @throws SQLException wenn das Schema nicht angelegt werden konnte
+     */
+    static void ensureSchema(String jdbcUrl, String username, String password) throws SQLException {
+        if (initializedUrls.contains(jdbcUrl)) {
+            return;
+        }
+        synchronized (SchemaInitializer.class) {
+            if (initializedUrls.contains(jdbcUrl)) {
+                return;
+            }
+            try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password)) {
+                migrate(conn);
+            }
+            initializedUrls.add(jdbcUrl);
+        }
+    }
+
+    /**
+     * Führt alle fehlenden Migrationsschritte in einer Transaktion aus
+     * und aktualisiert den Versionsvermerk.
+     */
+    private static void migrate(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (version INT NOT NULL)");
+            int version = readVersion(stmt);
+            if (version >= CURRENT_VERSION) {
+                conn.commit();
+                logger.info("Schema ist aktuell (Version {}), keine Migration nötig.", version);
+                return;
+            }
+            for (int i = version; i < CURRENT_VERSION; i++) {
+                for (String ddl : MIGRATIONS.get(i)) {
+                    stmt.execute(ddl);
+                }
+            }
+            stmt.execute("DELETE FROM schema_version");
+            stmt.execute("INSERT INTO schema_version (version) VALUES (" + CURRENT_VERSION + ")");
+            conn.commit();
+            logger.info("Schema von Version {} auf Version {} migriert.", version, CURRENT_VERSION);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static int readVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
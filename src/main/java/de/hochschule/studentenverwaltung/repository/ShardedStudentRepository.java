@@ -0,0 +1,994 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.monitoring.RepositoryOperationEvent;
+import de.hochschule.studentenverwaltung.monitoring.StatementKind;
+
+/**
+ * Repository, das Studenten per Hash der ID auf mehrere H2-Datenbanken verteilt.
+ *
+ * Jede Shard ist ein gewöhnliches {@link StudentRepository} (eingebettet oder
+ * per TCP). IDs werden global über einen Blockallokator auf der ersten Shard
+ * vergeben; daraus bestimmt ein stabiler Hash die zuständige Shard.
+ * Punktoperationen (findById, Ändern, Löschen) gehen an genau eine Shard.
+ * findAll, Zählungen, sortierte Listen und E-Mail-Suchen werden parallel an
+ * alle Shards verteilt und die Teilergebnisse zusammengeführt.
+ *
+ * Jede E-Mail-Adresse hat genau eine Eigentümer-Shard, bestimmt durch einen
+ * Hash der Adresse. Dort wird sie vor dem Anlegen bzw. vor einer
+ * E-Mail-Änderung in der Tabelle {@code student_emails} (Primärschlüssel
+ * email) reserviert; die UNIQUE-Bedingung dieser einen Tabelle entscheidet
+ * auch bei gleichzeitigen Zugriffen, wer die Adresse erhält. Ein zählender
+ * Bloom-Filter pro Shard über die Reservierungen erspart im Normalfall die
+ * Vorabfrage. Freigegeben wird erst, wenn Löschung bzw. Änderung bestätigt
+ * ist. Bleibt nach einem Abbruch eine Reservierung ohne passenden Studenten
+ * zurück, darf sie nach {@value #ORPHAN_GRACE_SECONDS} Sekunden übernommen
+ * werden. Die Tabelle wird beim ersten Zugriff und nach Massenänderungen aus
+ * den Shards aufgebaut; Studenten, die direkt per SQL statt über das
+ * Repository geändert werden, erfasst sie nicht.
+ *
+ * Transaktionen ({@link #inTransaction}) laufen auf genau einer Shard: Der
+ * erste Schreibzugriff bindet die Transaktion an seine Shard, ein
+ * Schreibzugriff auf eine weitere Shard wird mit einer
+ * {@link CrossShardTransactionException} abgelehnt. Lesezugriffe binden
+ * nicht; auf anderen Shards sehen sie nur bestätigte Daten.
+ *
+ * Das Repository kann überall eingesetzt werden, wo ein StudentRepository
+ * erwartet wird, z. B. im StudentService. Es hat selbst keine Datenbank und
+ * überschreibt daher alle Operationen mit Datenbankzugriff; Snapshot,
+ * Wiederherstellung und Massenimport arbeiten über {@link #partitions()}
+ * auf allen Shards, statt unbemerkt nur die erste Shard zu verwenden.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class ShardedStudentRepository extends StudentRepository implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedStudentRepository.class);
+
+    /** Anzahl der IDs, die pro Zugriff auf die Sequenz reserviert werden */
+    private static final int ID_BLOCK_SIZE = 100;
+    /** Zeilen pro JDBC-Batch beim Aufbau der Reservierungen */
+    private static final int RESERVATION_BATCH_SIZE = 1000;
+    /** Mindestalter einer verwaisten Reservierung, bevor sie übernommen werden darf */
+    static final int ORPHAN_GRACE_SECONDS = 60;
+    /** Präfix der zusammengesetzten URL, siehe {@link #getJdbcUrl()} */
+    static final String URL_PREFIX = "jdbc:sharded:";
+
+    private final List<StudentRepository> shards;
+    /** Vorfilter über die Reservierungen jeder Shard, gleiche Reihenfolge wie {@link #shards} */
+    private final List<EmailFilter> reservationFilters;
+    private final Object reservationLock = new Object();
+    private volatile boolean reservationsReady;
+    private final ExecutorService executor;
+    /** Transaktion, die an den aktuellen Thread gebunden ist (siehe {@link #inTransaction}) */
+    private final ThreadLocal<ShardTransaction> transaction = new ThreadLocal<>();
+
+    /** Nächste freie ID im aktuell reservierten Block */
+    private long nextId;
+    /** Erste ID hinter dem aktuell reservierten Block */
+    private long blockEnd;
+
+    /**
+     * Erstellt ein geshardetes Repository.
+     * Die erste URL dient zusätzlich als Sitz des globalen ID-Allokators.
+     *
+     * @param shardUrls die JDBC-URLs der Shards (Reihenfolge ist Teil der Verteilung und darf sich nicht ändern)
+     */
+    public ShardedStudentRepository(List<String> shardUrls) {
+        super(shardUrls);
+        List<StudentRepository> repositories = new ArrayList<>(shardUrls.size());
+        for (String url : shardUrls) {
+            repositories.add(new StudentRepository(url));
+        }
+        this.shards = List.copyOf(repositories);
+        List<EmailFilter> filters = new ArrayList<>(shards.size());
+        ReservationReleaser releaser = new ReservationReleaser();
+        for (StudentRepository shard : shards) {
+            filters.add(new EmailFilter("student_emails"));
+            shard.addChangeListener(releaser);
+        }
+        this.reservationFilters = List.copyOf(filters);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shardUrls.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-abfrage-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Geshardetes Repository mit {} Shard(s) erstellt.", shards.size());
+    }
+
+    /**
+     * Gibt die Anzahl der Shards zurück.
+     *
+     * @return die Anzahl der Shards
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Bestimmt die Shard, auf der ein Student mit der angegebenen ID liegt.
+     * Die Abbildung ist stabil, solange Anzahl und Reihenfolge der Shards gleich bleiben.
+     *
+     * @param id die Student-ID
+     * @return der Index der Shard
+     */
+    public int shardIndexFor(long id) {
+        return bucket(id);
+    }
+
+    /**
+     * Bestimmt die Eigentümer-Shard einer E-Mail-Adresse, auf der sie reserviert wird.
+     */
+    int emailShardIndexFor(String email) {
+        return bucket(email.hashCode());
+    }
+
+    private int bucket(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) shards.size());
+    }
+
+    private StudentRepository shardFor(long id) {
+        return shards.get(shardIndexFor(id));
+    }
+
+    /**
+     * Gibt die Shard für einen Schreibzugriff zurück. Innerhalb einer
+     * Transaktion wird diese beim ersten Schreibzugriff an die Shard gebunden.
+     *
+     * @throws CrossShardTransactionException wenn die Transaktion bereits an eine andere Shard gebunden ist
+     */
+    private StudentRepository writeShard(int index) {
+        StudentRepository shard = shards.get(index);
+        ShardTransaction tx = transaction.get();
+        if (tx == null) {
+            return shard;
+        }
+        if (tx.unitOfWork == null) {
+            tx.unitOfWork = shard.beginUnitOfWork(tx.isolation);
+            tx.shardIndex = index;
+            logger.debug("Transaktion an Shard {} gebunden.", index);
+        } else if (tx.shardIndex != index) {
+            throw new CrossShardTransactionException(tx.shardIndex, index);
+        }
+        return shard;
+    }
+
+    @Override
+    List<StudentRepository> partitions() {
+        return shards;
+    }
+
+    @Override
+    int partitionIndexFor(long id) {
+        return shardIndexFor(id);
+    }
+
+    /**
+     * Gibt die JDBC-URLs der Shards zurück.
+     *
+     * @return die URLs in Shard-Reihenfolge
+     */
+    public List<String> getShardUrls() {
+        return shards.stream().map(StudentRepository::getJdbcUrl).toList();
+    }
+
+    /**
+     * Gibt eine zusammengesetzte URL aus dem Präfix {@value #URL_PREFIX} und den
+     * kommagetrennten Shard-URLs zurück (wie in {@code JDBC_SHARD_URLS}), z. B.
+     * für Logs. Sie lässt sich nicht mit dem JDBC-Treiber öffnen; Verbindungen
+     * gibt es nur zu den einzelnen Shards, siehe {@link #getShardUrls()}.
+     *
+     * @return die zusammengesetzte URL
+     */
+    @Override
+    public String getJdbcUrl() {
+        return URL_PREFIX + String.join(",", getShardUrls());
+    }
+
+    /**
+     * Schließt Massenänderungen auf allen Shards ab und setzt den globalen
+     * ID-Allokator hinter die größte geladene ID.
+     */
+    @Override
+    void afterBulkLoad() throws SQLException {
+        for (StudentRepository shard : shards) {
+            shard.afterBulkLoad();
+        }
+        advanceIdSequence();
+        synchronized (reservationLock) {
+            createReservationTables();
+            rebuildReservations(true);
+            reservationsReady = true;
+        }
+    }
+
+    @Override
+    public void addChangeListener(StudentChangeListener listener) {
+        shards.forEach(shard -> shard.addChangeListener(listener));
+    }
+
+    @Override
+    public void removeChangeListener(StudentChangeListener listener) {
+        shards.forEach(shard -> shard.removeChangeListener(listener));
+    }
+
+    @Override
+    public void setQueryTimeout(Duration timeout) {
+        super.setQueryTimeout(timeout);
+        shards.forEach(shard -> shard.setQueryTimeout(timeout));
+    }
+
+    @Override
+    public void setSlowQueryLog(SlowQueryLog log) {
+        super.setSlowQueryLog(log);
+        shards.forEach(shard -> shard.setSlowQueryLog(log));
+    }
+
+    @Override
+    public List<Student> findAll() {
+        List<Student> students = new ArrayList<>();
+        scatter(StudentRepository::findAll).forEach(students::addAll);
+        students.sort(Comparator.comparing(Student::getId));
+        return students;
+    }
+
+    @Override
+    public List<Student> findAllSorted(StudentSort sort) {
+        return mergeSorted(scatter(shard -> shard.findAllSorted(sort)), sort.comparator(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Hält pro Shard einen Cursor offen und mischt deren Kopfzeilen, sodass
+     * auch über alle Shards nie mehr als ein Abrufblock pro Shard im Speicher liegt.
+     */
+    @Override
+    public long forEachSorted(StudentSort sort, Consumer<Student> action) {
+        return RepositoryOperationEvent.record("forEachSorted", StatementKind.SELECT, null,
+                () -> mergeCursors(sort.comparator(), shard -> shard.openSorted(sort), action), Long::longValue);
+    }
+
+    /**
+     * Die IDs sind shardübergreifend eindeutig; die Cursor der Shards werden
+     * wie bei {@link #forEachSorted} nach ID gemischt.
+     */
+    @Override
+    public long forEachCreatedAfter(long afterId, Consumer<Student> action) {
+        return RepositoryOperationEvent.record("forEachCreatedAfter", StatementKind.SELECT, null,
+                () -> mergeCursors(Comparator.comparing(Student::getId), shard -> shard.openCreatedAfter(afterId), action),
+                Long::longValue);
+    }
+
+    @Override
+    public List<Student> findTop(StudentSort sort, int limit) {
+        return mergeSorted(scatter(shard -> shard.findTop(sort, limit)), sort.comparator(), limit);
+    }
+
+    @Override
+    public Page<Student> findPage(StudentSort sort, PageCursor after, int limit) {
+        List<Page<Student>> pages = scatter(shard -> shard.findPage(sort, after, limit));
+        List<List<Student>> parts = new ArrayList<>(pages.size());
+        boolean anyShardHasMore = false;
+        int total = 0;
+        for (Page<Student> page : pages) {
+            parts.add(page.items());
+            anyShardHasMore |= page.hasNext();
+            total += page.items().size();
+        }
+        List<Student> merged = mergeSorted(parts, sort.comparator(), limit);
+        boolean hasMore = anyShardHasMore || total > limit;
+        PageCursor next = hasMore ? PageCursor.after(merged.get(merged.size() - 1), sort) : null;
+        return new Page<>(merged, next);
+    }
+
+    @Override
+    public Student findById(Long id) {
+        return shardFor(id).findById(id);
+    }
+
+    @Override
+    public Student findByEmail(String email) {
+        for (Student student : scatter(shard -> shard.findByEmail(email))) {
+            if (student != null) {
+                return student;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public SaveResult save(Student student) {
+        if (student.getId() == null) {
+            return create(student);
+        }
+
+        StudentRepository owner = writeShard(shardIndexFor(student.getId()));
+        Student current = owner.findById(student.getId());
+        if (current == null) {
+            logger.warn("Kein Student mit ID {} gefunden zum Aktualisieren.", student.getId());
+            return SaveResult.NOT_FOUND;
+        }
+        String email = student.getEmail();
+        boolean emailChanged = !current.getEmail().equals(email);
+        try {
+            if (emailChanged && !reserveEmail(email, student.getId())) {
+                logger.warn("E-Mail-Adresse {} ist bereits vergeben.", email);
+                return SaveResult.DUPLICATE_EMAIL;
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Reservieren der E-Mail-Adresse {}: {}", email, e.getMessage(), e);
+            return SaveResult.FAILED;
+        }
+        // Die bisherige Adresse gibt der ReservationReleaser nach bestätigter Änderung frei
+        SaveResult result = owner.save(student);
+        if (emailChanged) {
+            afterReservedSave(result, email, student.getId());
+        }
+        return result;
+    }
+
+    private SaveResult create(Student student) {
+        long id;
+        try {
+            id = allocateId();
+        } catch (SQLException e) {
+            logger.error("Fehler beim Vergeben einer ID: {}", e.getMessage(), e);
+            return SaveResult.FAILED;
+        }
+        student.setId(id);
+        SaveResult result = insertWithId(student);
+        if (!result.isSuccess()) {
+            student.setId(null);
+        }
+        return result;
+    }
+
+    /**
+     * Legt den Studenten auf der für seine ID zuständigen Shard an, nachdem
+     * seine E-Mail-Adresse reserviert wurde.
+     */
+    @Override
+    SaveResult insertWithId(Student student) {
+        long id = student.getId();
+        StudentRepository owner;
+        try {
+            owner = writeShard(shardIndexFor(id));
+            if (!reserveEmail(student.getEmail(), id)) {
+                logger.warn("E-Mail-Adresse {} ist bereits vergeben.", student.getEmail());
+                return SaveResult.DUPLICATE_EMAIL;
+            }
+        } catch (SQLException e) {
+            logger.error("Fehler beim Reservieren der E-Mail-Adresse {}: {}", student.getEmail(), e.getMessage(), e);
+            return SaveResult.FAILED;
+        }
+        SaveResult result = owner.insertWithId(student);
+        afterReservedSave(result, student.getEmail(), id);
+        return result;
+    }
+
+    /**
+     * Gibt eine neue Reservierung frei, wenn das Speichern gescheitert ist.
+     * Innerhalb einer Transaktion wird sie vorgemerkt, um sie bei einem
+     * Rollback freizugeben, da die Reservierung selbst sofort bestätigt ist.
+     */
+    private void afterReservedSave(SaveResult result, String email, long id) {
+        if (!result.isSuccess()) {
+            releaseEmail(email, id);
+            return;
+        }
+        ShardTransaction tx = transaction.get();
+        if (tx != null) {
+            tx.reservations.add(new Reservation(email, id));
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return writeShard(shardIndexFor(id)).deleteById(id);
+    }
+
+    /**
+     * Speichert nacheinander über {@link #save(Student)}, da ID-Vergabe und
+     * E-Mail-Prüfung shardübergreifend erfolgen.
+     */
+    @Override
+    public List<SaveResult> saveAll(List<Student> students) {
+        List<SaveResult> results = new ArrayList<>(students.size());
+        for (Student student : students) {
+            results.add(save(student));
+        }
+        return results;
+    }
+
+    @Override
+    public Map<Long, Student> findAllById(Collection<Long> ids) {
+        List<List<Long>> idsByShard = groupByShard(ids);
+        Map<Long, Student> students = new HashMap<>();
+        scatter(shard -> shard.findAllById(idsByShard.get(shards.indexOf(shard)))).forEach(students::putAll);
+        return students;
+    }
+
+    @Override
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        List<List<Long>> idsByShard = groupByShard(ids);
+        for (int i = 0; i < idsByShard.size(); i++) {
+            if (!idsByShard.get(i).isEmpty()) {
+                writeShard(i);
+            }
+        }
+        Set<Long> deleted = new HashSet<>();
+        scatter(shard -> shard.deleteAllById(idsByShard.get(shards.indexOf(shard)))).forEach(deleted::addAll);
+        return deleted;
+    }
+
+    /**
+     * Führt die Arbeit als Transaktion auf einer einzigen Shard aus.
+     *
+     * Die Transaktion wird beim ersten Schreibzugriff an dessen Shard gebunden
+     * und verhält sich dort wie {@link StudentRepository#inTransaction}. Ohne
+     * Schreibzugriff wird keine Transaktion begonnen. E-Mail-Reservierungen
+     * sind sofort bestätigt; die der Transaktion werden bei einem Rollback
+     * wieder freigegeben.
+     *
+     * @throws CrossShardTransactionException wenn die Arbeit auf eine zweite Shard schreiben wollte
+     *         (die Transaktion ist dann zurückgerollt)
+     * @throws IllegalStateException wenn die Transaktion wegen eines Datenbankfehlers zurückgerollt wurde
+     */
+    @Override
+    public <T> T inTransaction(TransactionIsolation isolation, Supplier<T> work) {
+        if (transaction.get() != null) {
+            return work.get();
+        }
+        ShardTransaction tx = new ShardTransaction(isolation);
+        transaction.set(tx);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            transaction.remove();
+            if (tx.unitOfWork != null) {
+                shards.get(tx.shardIndex).rollbackUnitOfWork(tx.unitOfWork);
+            }
+            releaseReservations(tx);
+            throw e;
+        }
+        transaction.remove();
+        if (tx.unitOfWork != null) {
+            try {
+                shards.get(tx.shardIndex).commitUnitOfWork(tx.unitOfWork);
+            } catch (IllegalStateException e) {
+                releaseReservations(tx);
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T outsideTransaction(Supplier<T> work) {
+        ShardTransaction tx = transaction.get();
+        if (tx == null) {
+            return work.get();
+        }
+        transaction.remove();
+        try {
+            return tx.unitOfWork == null ? work.get() : shards.get(tx.shardIndex).outsideTransaction(work);
+        } finally {
+            transaction.set(tx);
+        }
+    }
+
+    /**
+     * Gibt nach einem Rollback die Reservierungen der Transaktion frei,
+     * sofern der Student die Adresse nicht (mehr) trägt.
+     */
+    private void releaseReservations(ShardTransaction tx) {
+        for (Reservation reservation : tx.reservations) {
+            Student current = shardFor(reservation.id()).findById(reservation.id());
+            if (current == null || !reservation.email().equals(current.getEmail())) {
+                releaseEmail(reservation.email(), reservation.id());
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (long count : scatter(StudentRepository::count)) {
+            if (count < 0) {
+                return -1;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> countByEmailDomain() {
+        Map<String, Long> merged = new HashMap<>();
+        for (Map<String, Long> counts : scatter(StudentRepository::countByEmailDomain)) {
+            counts.forEach((domain, count) -> merged.merge(domain, count, Long::sum));
+        }
+        return merged;
+    }
+
+    /**
+     * Beendet die Threads für parallele Shard-Abfragen.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Führt eine Abfrage parallel auf allen Shards aus und liefert die Ergebnisse in Shard-Reihenfolge.
+     * Innerhalb einer Transaktion laufen die Abfragen nacheinander im aufrufenden
+     * Thread, damit die gebundene Shard die eigenen Änderungen sieht.
+     */
+    private <T> List<T> scatter(Function<StudentRepository, T> query) {
+        if (transaction.get() != null) {
+            List<T> results = new ArrayList<>(shards.size());
+            for (StudentRepository shard : shards) {
+                results.add(query.apply(shard));
+            }
+            return results;
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (StudentRepository shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), executor));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    private List<List<Long>> groupByShard(Collection<Long> ids) {
+        List<List<Long>> idsByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            idsByShard.get(shardIndexFor(id)).add(id);
+        }
+        return idsByShard;
+    }
+
+    /**
+     * Führt bereits sortierte Teillisten per k-Wege-Merge zusammen und bricht nach {@code limit} Einträgen ab.
+     */
+    private static List<Student> mergeSorted(List<List<Student>> parts, Comparator<Student> comparator, int limit) {
+        // Einträge der Queue: [Index der Teilliste, Position in der Teilliste]
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                (a, b) -> comparator.compare(parts.get(a[0]).get(a[1]), parts.get(b[0]).get(b[1])));
+        int total = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            total += parts.get(i).size();
+            if (!parts.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        List<Student> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<Student> part = parts.get(head[0]);
+            merged.add(part.get(head[1]));
+            if (head[1] + 1 < part.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Öffnet auf jeder Shard einen sortierten Cursor und übergibt die Zeilen
+     * per k-Wege-Merge über die Kopfzeilen der Cursor an die Aktion. Bei einem
+     * Datenbankfehler wird abgebrochen; die bis dahin übergebenen Zeilen zählen.
+     */
+    private long mergeCursors(Comparator<Student> comparator, CursorOpener opener, Consumer<Student> action) {
+        List<StudentCursor> cursors = new ArrayList<>(shards.size());
+        PriorityQueue<CursorHead> heads = new PriorityQueue<>(Comparator.comparing(CursorHead::student, comparator));
+        StudentRepository current = null;
+        long rows = 0;
+        try {
+            for (StudentRepository shard : shards) {
+                current = shard;
+                StudentCursor cursor = opener.open(shard);
+                cursors.add(cursor);
+                Student first = cursor.next();
+                if (first != null) {
+                    heads.add(new CursorHead(first, cursor, shard));
+                }
+            }
+            while (!heads.isEmpty()) {
+                CursorHead head = heads.poll();
+                action.accept(head.student());
+                rows++;
+                current = head.shard();
+                Student next = head.cursor().next();
+                if (next != null) {
+                    heads.add(new CursorHead(next, head.cursor(), head.shard()));
+                }
+            }
+            logger.info("{} Student(en) aus {} Shard(s) gemischt gestreamt.", rows, shards.size());
+        } catch (SQLException e) {
+            current.recordDatabaseError();
+            logger.error("Fehler beim Streamen der Studenten über die Shards: {}", e.getMessage(), e);
+        } finally {
+            cursors.forEach(StudentCursor::close);
+        }
+        return rows;
+    }
+
+    /**
+     * Vergibt eine global eindeutige ID. Pro Datenbankzugriff wird ein Block von
+     * {@value #ID_BLOCK_SIZE} IDs reserviert, sodass auch mehrere Prozesse sich nicht überschneiden.
+     */
+    private synchronized long allocateId() throws SQLException {
+        if (nextId >= blockEnd) {
+            long blockStart = reserveBlock();
+            nextId = blockStart;
+            blockEnd = blockStart + ID_BLOCK_SIZE;
+        }
+        return nextId++;
+    }
+
+    private long reserveBlock() throws SQLException {
+        try (Connection conn = shards.get(0).getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!sequenceExists(conn)) {
+                // Beim ersten Start hinter den bereits vorhandenen IDs aller Shards beginnen
+                long maxId = 0;
+                for (StudentRepository shard : shards) {
+                    maxId = Math.max(maxId, maxId(shard));
+                }
+                stmt.execute("CREATE SEQUENCE IF NOT EXISTS student_id_blocks START WITH " + (maxId + 1)
+                        + " INCREMENT BY " + ID_BLOCK_SIZE);
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT NEXT VALUE FOR student_id_blocks")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Verwirft den lokal reservierten Block und setzt die Sequenz hinter die
+     * größte ID aller Shards, falls sie dahinter zurückliegt.
+     */
+    private synchronized void advanceIdSequence() throws SQLException {
+        nextId = blockEnd;
+        long maxId = 0;
+        for (StudentRepository shard : shards) {
+            maxId = Math.max(maxId, maxId(shard));
+        }
+        try (Connection conn = shards.get(0).getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (!sequenceExists(conn)) {
+                return;
+            }
+            long next;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'STUDENT_ID_BLOCKS'")) {
+                rs.next();
+                next = rs.getLong(1);
+            }
+            if (next <= maxId) {
+                stmt.execute("ALTER SEQUENCE student_id_blocks RESTART WITH " + (maxId + 1));
+                logger.info("ID-Sequenz nach Massenänderung auf {} gesetzt.", maxId + 1);
+            }
+        }
+    }
+
+    /**
+     * Reserviert eine E-Mail-Adresse auf ihrer Eigentümer-Shard für einen Studenten.
+     *
+     * @return true, wenn die Adresse jetzt (oder bereits) diesem Studenten gehört;
+     *         false, wenn sie einem anderen Studenten gehört
+     */
+    private boolean reserveEmail(String email, long id) throws SQLException {
+        ensureReservations();
+        int index = emailShardIndexFor(email);
+        EmailFilter filter = reservationFilters.get(index);
+        // Eigene Verbindung, auch innerhalb einer Transaktion: gleichzeitige Zugriffe müssen die Reservierung sofort sehen
+        try (Connection conn = shards.get(index).openConnection()) {
+            filter.ensureBuilt(conn);
+            if (!filter.mightBeDuplicate(email) && insertReservation(conn, email, id)) {
+                filter.add(conn, email);
+                return true;
+            }
+            // Wahrscheinlich vergeben oder gerade gleichzeitig reserviert: Inhaber prüfen
+            Long holder = reservationHolder(conn, email);
+            if (holder == null) {
+                if (insertReservation(conn, email, id)) {
+                    filter.add(conn, email);
+                    return true;
+                }
+                holder = reservationHolder(conn, email);
+            }
+            if (holder != null && (holder == id || takeOverOrphan(conn, email, holder, id))) {
+                return true;
+            }
+            filter.recordConfirmedDuplicate();
+            return false;
+        }
+    }
+
+    /**
+     * Trägt eine Reservierung ein.
+     *
+     * @return false, wenn die Adresse bereits reserviert ist
+     */
+    private static boolean insertReservation(Connection conn, String email, long id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO student_emails (email, student_id) VALUES (?, ?)")) {
+            pstmt.setString(1, email);
+            pstmt.setLong(2, id);
+            pstmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (isUniqueViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private static Long reservationHolder(Connection conn, String email) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT student_id FROM student_emails WHERE email = ?")) {
+            pstmt.setString(1, email);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Übernimmt eine Reservierung, deren Student die Adresse nicht (mehr) trägt,
+     * z. B. nach einem Abbruch zwischen Reservieren und Anlegen. Junge
+     * Reservierungen bleiben unangetastet, da das Anlegen noch laufen kann.
+     */
+    private boolean takeOverOrphan(Connection conn, String email, long holder, long id) throws SQLException {
+        Student current = shardFor(holder).findById(holder);
+        if (current != null && email.equals(current.getEmail())) {
+            return false;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE student_emails SET student_id = ?, reserved_at = LOCALTIMESTAMP "
+                        + "WHERE email = ? AND student_id = ? "
+                        + "AND reserved_at < DATEADD(SECOND, -" + ORPHAN_GRACE_SECONDS + ", LOCALTIMESTAMP)")) {
+            pstmt.setLong(1, id);
+            pstmt.setString(2, email);
+            pstmt.setLong(3, holder);
+            boolean taken = pstmt.executeUpdate() == 1;
+            if (taken) {
+                logger.info("Verwaiste Reservierung der E-Mail-Adresse {} (ID {}) übernommen.", email, holder);
+            }
+            return taken;
+        }
+    }
+
+    /**
+     * Gibt die Reservierung einer Adresse frei, sofern sie noch diesem Studenten gehört.
+     * Fehler werden nur geloggt; die Reservierung verwaist dann und wird später übernommen.
+     */
+    private void releaseEmail(String email, long id) {
+        int index = emailShardIndexFor(email);
+        try (Connection conn = shards.get(index).openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "DELETE FROM student_emails WHERE email = ? AND student_id = ?")) {
+            pstmt.setString(1, email);
+            pstmt.setLong(2, id);
+            if (pstmt.executeUpdate() > 0) {
+                reservationFilters.get(index).remove(email);
+            }
+        } catch (SQLException e) {
+            logger.warn("Reservierung der E-Mail-Adresse {} konnte nicht freigegeben werden: {}", email, e.getMessage());
+        }
+    }
+
+    /**
+     * Legt die Reservierungstabellen beim ersten Zugriff an. Fehlte eine davon,
+     * werden alle Reservierungen aus den vorhandenen Studenten aufgebaut.
+     */
+    private void ensureReservations() throws SQLException {
+        if (reservationsReady) {
+            return;
+        }
+        synchronized (reservationLock) {
+            if (reservationsReady) {
+                return;
+            }
+            if (createReservationTables()) {
+                // Ohne Löschen, da eine gleichzeitig startende Instanz bereits reservieren kann
+                rebuildReservations(false);
+            }
+            reservationsReady = true;
+        }
+    }
+
+    /**
+     * Legt fehlende Reservierungstabellen an.
+     *
+     * @return true, wenn auf mindestens einer Shard eine Tabelle neu angelegt wurde
+     */
+    private boolean createReservationTables() throws SQLException {
+        boolean created = false;
+        for (StudentRepository shard : shards) {
+            try (Connection conn = shard.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                if (!reservationTableExists(conn)) {
+                    stmt.execute("CREATE TABLE IF NOT EXISTS student_emails ("
+                            + "email VARCHAR(100) PRIMARY KEY, "
+                            + "student_id BIGINT NOT NULL, "
+                            + "reserved_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL)");
+                    created = true;
+                }
+            }
+        }
+        return created;
+    }
+
+    private static boolean reservationTableExists(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'STUDENT_EMAILS'");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Trägt die Adressen aller Studenten als Reservierungen ein und baut die Filter neu auf.
+     * Gedacht für den ersten Start und Massenänderungen, nicht für laufenden Betrieb.
+     *
+     * @param clear true, um vorher alle Reservierungen zu löschen (nach Massenänderungen)
+     */
+    private void rebuildReservations(boolean clear) throws SQLException {
+        long start = System.nanoTime();
+        List<Connection> connections = new ArrayList<>(shards.size());
+        List<PreparedStatement> inserts = new ArrayList<>(shards.size());
+        try {
+            for (StudentRepository shard : shards) {
+                Connection conn = shard.getConnection();
+                connections.add(conn);
+                if (clear) {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.executeUpdate("DELETE FROM student_emails");
+                    }
+                }
+                inserts.add(conn.prepareStatement("MERGE INTO student_emails (email, student_id) KEY (email) VALUES (?, ?)"));
+            }
+            int[] pending = new int[shards.size()];
+            long total = 0;
+            for (StudentRepository shard : shards) {
+                try (Connection conn = shard.getConnection();
+                     Statement stmt = conn.createStatement()) {
+                    stmt.setFetchSize(RESERVATION_BATCH_SIZE);
+                    try (ResultSet rs = stmt.executeQuery("SELECT id, email FROM students")) {
+                        while (rs.next()) {
+                            int owner = emailShardIndexFor(rs.getString(2));
+                            PreparedStatement insert = inserts.get(owner);
+                            insert.setString(1, rs.getString(2));
+                            insert.setLong(2, rs.getLong(1));
+                            insert.addBatch();
+                            if (++pending[owner] == RESERVATION_BATCH_SIZE) {
+                                insert.executeBatch();
+                                pending[owner] = 0;
+                            }
+                            total++;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                if (pending[i] > 0) {
+                    inserts.get(i).executeBatch();
+                }
+                reservationFilters.get(i).rebuild(connections.get(i));
+            }
+            logger.info("{} E-Mail-Reservierung(en) in {} ms aufgebaut.", total, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            for (PreparedStatement insert : inserts) {
+                insert.close();
+            }
+            for (Connection conn : connections) {
+                conn.close();
+            }
+        }
+    }
+
+    private static boolean sequenceExists(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'STUDENT_ID_BLOCKS'");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    private static long maxId(StudentRepository shard) throws SQLException {
+        try (Connection conn = shard.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM students")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Vom aktuellen Thread begonnene Transaktion; bis zum ersten Schreibzugriff an keine Shard gebunden.
+     */
+    private static final class ShardTransaction {
+        final TransactionIsolation isolation;
+        final List<Reservation> reservations = new ArrayList<>();
+        UnitOfWork unitOfWork;
+        int shardIndex = -1;
+
+        ShardTransaction(TransactionIsolation isolation) {
+            this.isolation = isolation;
+        }
+    }
+
+    /** Öffnet den Cursor einer Shard für {@link #mergeCursors} */
+    private interface CursorOpener {
+        StudentCursor open(StudentRepository shard) throws SQLException;
+    }
+
+    /** Aktuelle Zeile eines Cursors in der Merge-Queue */
+    private record CursorHead(Student student, StudentCursor cursor, StudentRepository shard) {
+    }
+
+    private record Reservation(String email, long id) {
+    }
+
+    /**
+     * Gibt Reservierungen frei, sobald Löschungen und E-Mail-Änderungen
+     * bestätigt sind (innerhalb einer Transaktion also erst nach dem Commit).
+     */
+    private final class ReservationReleaser implements StudentChangeListener {
+
+        @Override
+        public void onInsert(Student student) {
+            // Reserviert wurde bereits vor dem Anlegen
+        }
+
+        @Override
+        public void onUpdate(Student before, Student after) {
+            if (!before.getEmail().equals(after.getEmail())) {
+                releaseEmail(before.getEmail(), before.getId());
+            }
+        }
+
+        @Override
+        public void onDelete(Student before) {
+            releaseEmail(before.getEmail(), before.getId());
+        }
+    }
+}
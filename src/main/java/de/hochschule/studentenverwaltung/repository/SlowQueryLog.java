@@ -0,0 +1,421 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Protokoll langsamer SQL-Anweisungen mit Ausführungsplänen.
+ *
+ * Ist das Protokoll an einem {@link StudentRepository} gesetzt (siehe
+ * {@link StudentRepository#setSlowQueryLog(SlowQueryLog)}), wird jede
+ * Anweisung der Repository-Verbindungen gemessen und pro Form aggregiert
+ * (Anzahl, Gesamtzeit, Maximum). Die Form ist der SQL-Text mit Platzhaltern
+ * statt Literalen und zusammengefassten Parameterlisten, sodass z. B.
+ * {@code IN (?, ?, ?)} und {@code IN (?, ?)} dieselbe Form haben.
+ *
+ * Überschreitet eine Anweisung die Schwelle, wird sie mit Latenz und
+ * Parameterform (Typen und Längen, keine Werte) in einen begrenzten
+ * Ringpuffer geschrieben. Beim ersten langsamen Aufruf einer Form wird
+ * einmalig {@code EXPLAIN} mit denselben Parametern ausgeführt und der Plan
+ * zur Form gespeichert. Die Anzahl der Formen ist begrenzt; weitere Formen
+ * werden unter {@value #OVERFLOW_SHAPE} zusammengefasst.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class SlowQueryLog {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    /** Standardanzahl unterschiedener Anweisungsformen */
+    public static final int DEFAULT_MAX_SHAPES = 256;
+    /** Standardanzahl aufbewahrter langsamer Ausführungen */
+    public static final int DEFAULT_MAX_ENTRIES = 200;
+    /** Sammelform, sobald die Höchstzahl der Formen erreicht ist */
+    static final String OVERFLOW_SHAPE = "(weitere Formen)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\(\\?, \\.\\.\\.\\))(?:\\s*,\\s*\\(\\?, \\.\\.\\.\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Kennzahlen einer Anweisungsform.
+     *
+     * @param shape die normalisierte Anweisung
+     * @param count Anzahl der Ausführungen
+     * @param slowCount davon über der Schwelle
+     * @param totalNanos summierte Ausführungszeit in Nanosekunden
+     * @param maxNanos längste Ausführungszeit in Nanosekunden
+     * @param plan der Ausführungsplan oder null, wenn die Form noch nie langsam war
+     */
+    public record ShapeStatistics(String shape, long count, long slowCount, long totalNanos, long maxNanos,
+                                  String plan) {
+
+        /**
+         * Gibt die mittlere Ausführungszeit zurück.
+         *
+         * @return die mittlere Ausführungszeit in Nanosekunden
+         */
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+    }
+
+    /**
+     * Eine langsame Ausführung.
+     *
+     * @param timestamp Ende der Ausführung
+     * @param shape die normalisierte Anweisung
+     * @param parameterShape Typen und Längen der gebundenen Parameter, z. B. {@code [Long, String(17)]}
+     * @param nanos die Ausführungszeit in Nanosekunden
+     */
+    public record SlowQuery(Instant timestamp, String shape, String parameterShape, long nanos) {
+    }
+
+    private final long thresholdNanos;
+    private final int maxShapes;
+    private final int maxEntries;
+    private final Map<String, ShapeCounter> shapes = new ConcurrentHashMap<>();
+    private final Map<String, String> normalizedShapes = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+
+    /**
+     * Erstellt ein Protokoll mit Standardgrenzen.
+     *
+     * @param threshold Ausführungen ab dieser Dauer gelten als langsam
+     */
+    public SlowQueryLog(Duration threshold) {
+        this(threshold, DEFAULT_MAX_SHAPES, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Erstellt ein Protokoll.
+     *
+     * @param threshold Ausführungen ab dieser Dauer gelten als langsam
+     * @param maxShapes Höchstzahl unterschiedener Anweisungsformen
+     * @param maxEntries Höchstzahl aufbewahrter langsamer Ausführungen; ältere werden verworfen
+     */
+    public SlowQueryLog(Duration threshold, int maxShapes, int maxEntries) {
+        if (threshold.isNegative() || maxShapes < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("Ungültige Grenzen für das Protokoll langsamer Abfragen.");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.maxShapes = maxShapes;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gibt die Schwelle für langsame Ausführungen zurück.
+     *
+     * @return die Schwelle
+     */
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    /**
+     * Gibt die Kennzahlen aller Formen zurück, nach Gesamtzeit absteigend sortiert.
+     *
+     * @return die Kennzahlen pro Form
+     */
+    public List<ShapeStatistics> getShapeStatistics() {
+        List<ShapeStatistics> statistics = new ArrayList<>(shapes.size());
+        shapes.forEach((shape, counter) -> statistics.add(counter.snapshot(shape)));
+        statistics.sort(Comparator.comparingLong(ShapeStatistics::totalNanos).reversed());
+        return statistics;
+    }
+
+    /**
+     * Gibt die aufbewahrten langsamen Ausführungen zurück, älteste zuerst.
+     *
+     * @return die langsamen Ausführungen
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (entries) {
+            return List.copyOf(entries);
+        }
+    }
+
+    /**
+     * Verwirft alle Kennzahlen, Pläne und langsamen Ausführungen.
+     */
+    public void reset() {
+        shapes.clear();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gibt Formen mit Plänen und die letzten langsamen Ausführungen als Text aus.
+     *
+     * @param out das Ausgabeziel
+     */
+    public void dump(PrintStream out) {
+        List<ShapeStatistics> statistics = getShapeStatistics();
+        out.printf(Locale.ROOT, "Anweisungsformen (Schwelle %.1f ms): %d%n", thresholdNanos / 1e6, statistics.size());
+        out.printf(Locale.ROOT, "%10s %8s %12s %10s %10s  %s%n", "Anzahl", "langsam", "gesamt ms", "mittel ms", "max ms", "Form");
+        for (ShapeStatistics s : statistics) {
+            out.printf(Locale.ROOT, "%10d %8d %12.1f %10.3f %10.3f  %s%n", s.count(), s.slowCount(),
+                    s.totalNanos() / 1e6, s.meanNanos() / 1e6, s.maxNanos() / 1e6, s.shape());
+            if (s.plan() != null) {
+                for (String line : s.plan().split("\\R")) {
+                    out.println("              Plan: " + line);
+                }
+            }
+        }
+        List<SlowQuery> slowQueries = getSlowQueries();
+        out.printf(Locale.ROOT, "%nLangsame Ausführungen (letzte %d):%n", slowQueries.size());
+        for (SlowQuery q : slowQueries) {
+            out.printf(Locale.ROOT, "%s %10.3f ms %s %s%n", q.timestamp(), q.nanos() / 1e6, q.parameterShape(), q.shape());
+        }
+    }
+
+    /**
+     * Umhüllt eine Verbindung so, dass alle Anweisungen gemessen werden.
+     */
+    Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                        return new StatementHandler(connection, statement, (String) args[0]).proxy(PreparedStatement.class);
+                    }
+                    if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+                        return new StatementHandler(connection, statement, null).proxy(Statement.class);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Normalisiert eine Anweisung zu ihrer Form.
+     */
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?, ...)");
+        return REPEATED_ROWS.matcher(shape).replaceAll("$1, ...");
+    }
+
+    private void record(Connection connection, String sql, TreeMap<Integer, Binding> bindings, int batchSize,
+                        long nanos) {
+        String shape = normalizedShapes.get(sql);
+        if (shape == null) {
+            shape = shapeOf(sql);
+            // Der Cache ist begrenzt, da z. B. IN-Listen beliebig viele verschiedene SQL-Texte erzeugen
+            if (normalizedShapes.size() < maxShapes * 4) {
+                normalizedShapes.put(sql, shape);
+            }
+        }
+        ShapeCounter counter = shapes.get(shape);
+        if (counter == null) {
+            String key = shapes.size() < maxShapes ? shape : OVERFLOW_SHAPE;
+            counter = shapes.computeIfAbsent(key, k -> new ShapeCounter());
+        }
+        boolean slow = nanos >= thresholdNanos;
+        counter.add(nanos, slow);
+        if (!slow) {
+            return;
+        }
+
+        String parameterShape = parameterShape(bindings, batchSize);
+        SlowQuery entry = new SlowQuery(Instant.now(), shape, parameterShape, nanos);
+        synchronized (entries) {
+            if (entries.size() >= maxEntries) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+        logger.warn("Langsame Anweisung ({} ms, Parameter {}): {}",
+                String.format(Locale.ROOT, "%.1f", nanos / 1e6), parameterShape, shape);
+        if (counter.explained.compareAndSet(false, true)) {
+            counter.plan = explain(connection, sql, bindings);
+        }
+    }
+
+    private static String parameterShape(TreeMap<Integer, Binding> bindings, int batchSize) {
+        StringBuilder sb = new StringBuilder(batchSize > 0 ? "Batch x" + batchSize + " [" : "[");
+        for (Binding binding : bindings.values()) {
+            if (sb.charAt(sb.length() - 1) != '[') {
+                sb.append(", ");
+            }
+            Object value = binding.args().length > 1 ? binding.args()[1] : null;
+            if (value == null || binding.method().getName().equals("setNull")) {
+                sb.append("null");
+            } else if (value instanceof CharSequence text) {
+                sb.append("String(").append(text.length()).append(')');
+            } else if (value instanceof java.sql.Array) {
+                sb.append("Array");
+            } else {
+                sb.append(value.getClass().getSimpleName());
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Führt EXPLAIN mit denselben Parametern aus. Anweisungen, die H2 nicht
+     * erklären kann (z. B. DDL), erhalten keinen Plan.
+     */
+    private static String explain(Connection connection, String sql, TreeMap<Integer, Binding> bindings) {
+        String keyword = sql.stripLeading().split("\\s", 2)[0].toUpperCase(Locale.ROOT);
+        if (!List.of("SELECT", "INSERT", "UPDATE", "DELETE", "MERGE", "WITH").contains(keyword)) {
+            return "(kein Plan für " + keyword + ")";
+        }
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Binding binding : bindings.values()) {
+                binding.method().invoke(explain, binding.args());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(plan.isEmpty() ? "" : System.lineSeparator()).append(rs.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException | ReflectiveOperationException e) {
+            logger.debug("EXPLAIN fehlgeschlagen für {}: {}", sql, e.getMessage());
+            return "(EXPLAIN fehlgeschlagen: " + e.getMessage() + ")";
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Ein aufgezeichneter {@code set...}-Aufruf, der für EXPLAIN wiederholt werden kann. */
+    private record Binding(Method method, Object[] args) {
+    }
+
+    /** Zähler einer Anweisungsform. */
+    private static final class ShapeCounter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicBoolean explained = new AtomicBoolean();
+        private volatile String plan;
+
+        void add(long nanos, boolean slow) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (slow) {
+                slowCount.increment();
+            }
+        }
+
+        ShapeStatistics snapshot(String shape) {
+            return new ShapeStatistics(shape, count.sum(), slowCount.sum(), totalNanos.sum(), maxNanos.get(), plan);
+        }
+    }
+
+    /**
+     * Misst die Ausführungsmethoden einer Anweisung und merkt sich die
+     * gebundenen Parameter. Eine Anweisung wird nur von einem Thread benutzt.
+     */
+    private final class StatementHandler {
+        private final Connection connection;
+        private final Statement statement;
+        private final String preparedSql;
+        private TreeMap<Integer, Binding> bindings = new TreeMap<>();
+        private TreeMap<Integer, Binding> firstBatchBindings;
+        private String batchSql;
+        private int batchSize;
+
+        StatementHandler(Connection connection, Statement statement, String preparedSql) {
+            this.connection = connection;
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        <T extends Statement> T proxy(Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> handle(method, args)));
+        }
+
+        private Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && preparedSql != null) {
+                bindings.put(index, new Binding(method, args.clone()));
+                return invoke(statement, method, args);
+            }
+            switch (name) {
+                case "clearParameters" -> bindings = new TreeMap<>();
+                case "addBatch" -> {
+                    if (firstBatchBindings == null) {
+                        firstBatchBindings = bindings;
+                        batchSql = args != null ? (String) args[0] : preparedSql;
+                    }
+                    bindings = new TreeMap<>(bindings);
+                    batchSize++;
+                }
+                case "clearBatch" -> {
+                    firstBatchBindings = null;
+                    batchSize = 0;
+                }
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> {
+                    String sql = args != null && args.length > 0 ? (String) args[0] : preparedSql;
+                    return timed(method, args, sql, args != null && args.length > 0 ? new TreeMap<>() : bindings, 0);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    TreeMap<Integer, Binding> batchBindings = firstBatchBindings != null ? firstBatchBindings : bindings;
+                    String sql = batchSql != null ? batchSql : preparedSql;
+                    int size = batchSize;
+                    firstBatchBindings = null;
+                    batchSql = null;
+                    batchSize = 0;
+                    return timed(method, args, sql, batchBindings, size);
+                }
+                default -> {
+                }
+            }
+            return invoke(statement, method, args);
+        }
+
+        private Object timed(Method method, Object[] args, String sql, TreeMap<Integer, Binding> boundParameters,
+                             int size) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                if (sql != null) {
+                    record(connection, sql, boundParameters, size, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+}
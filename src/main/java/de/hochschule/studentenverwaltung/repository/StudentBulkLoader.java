@@ -0,0 +1,166 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Schneller Massenimport von Studenten mit vorgegebenen IDs, z. B. für
+ * synthetische Testdaten.
+ *
+ * Jeder Aufruf von {@link #insert(List)} verwendet eine eigene Verbindung
+ * und Transaktion, sodass mehrere Threads parallel laden können. Bei einem
+ * geshardeten Repository wird jede Zeile auf die Shard ihrer ID geschrieben,
+ * mit einer Transaktion pro betroffener Shard. Die Zeilen
+ * werden als mehrzeilige {@code INSERT ... VALUES (...), (...)}-Anweisungen
+ * mit je {@value #ROWS_PER_STATEMENT} Zeilen im JDBC-Batch geschrieben; bei
+ * H2 ist das deutlich schneller als ein Batch einzeiliger Anweisungen.
+ * E-Mail-Filter und Beobachter werden erst in {@link #finish()} einmalig
+ * aktualisiert.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class StudentBulkLoader {
+    private static final Logger logger = LoggerFactory.getLogger(StudentBulkLoader.class);
+
+    /** Zeilen pro INSERT-Anweisung */
+    static final int ROWS_PER_STATEMENT = 100;
+
+    private final StudentRepository repository;
+
+    /**
+     * Erstellt einen Loader für das angegebene Repository.
+     *
+     * @param repository das Repository, in dessen Datenbank geladen wird
+     */
+    public StudentBulkLoader(StudentRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Gibt die kleinste ID zurück, ab der ohne Kollision geladen werden kann.
+     *
+     * @return die größte vorhandene ID plus eins
+     * @throws SQLException wenn die Datenbank nicht gelesen werden kann
+     */
+    public long nextFreeId() throws SQLException {
+        long next = 1;
+        for (StudentRepository partition : repository.partitions()) {
+            try (Connection conn = partition.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM students")) {
+                rs.next();
+                next = Math.max(next, rs.getLong(1));
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Fügt Studenten mit gesetzter ID in einer Transaktion (pro Shard) ein.
+     *
+     * @param students die Studenten
+     * @throws SQLException wenn eine Zeile nicht eingefügt werden kann; die Transaktion wird dann zurückgerollt
+     */
+    public void insert(List<Student> students) throws SQLException {
+        List<StudentRepository> partitions = repository.partitions();
+        if (partitions.size() == 1) {
+            insert(partitions.get(0), students);
+            return;
+        }
+        List<List<Student>> byPartition = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (Student student : students) {
+            byPartition.get(repository.partitionIndexFor(student.getId())).add(student);
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            if (!byPartition.get(i).isEmpty()) {
+                insert(partitions.get(i), byPartition.get(i));
+            }
+        }
+    }
+
+    private static void insert(StudentRepository partition, List<Student> students) throws SQLException {
+        try (Connection conn = partition.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertRows(conn, students);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Fügt Studenten mit gesetzter ID über die angegebene Verbindung ein,
+     * ohne die Transaktion zu beenden. Wird auch von der Wiederherstellung
+     * verwendet, die Löschen und Einfügen in einer Transaktion ausführt.
+     *
+     * @param conn eine Verbindung mit laufender Transaktion
+     * @param students die Studenten
+     * @throws SQLException wenn eine Zeile nicht eingefügt werden kann
+     */
+    static void insertRows(Connection conn, List<Student> students) throws SQLException {
+        int full = students.size() / ROWS_PER_STATEMENT * ROWS_PER_STATEMENT;
+        if (full > 0) {
+            try (PreparedStatement pstmt = conn.prepareStatement(insertSql(ROWS_PER_STATEMENT))) {
+                for (int start = 0; start < full; start += ROWS_PER_STATEMENT) {
+                    bind(pstmt, students.subList(start, start + ROWS_PER_STATEMENT));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+        if (full < students.size()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(insertSql(students.size() - full))) {
+                bind(pstmt, students.subList(full, students.size()));
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Schließt den Import ab: setzt den ID-Zähler hinter die größte ID und
+     * baut E-Mail-Filter und abgeleitete Strukturen neu auf.
+     *
+     * @throws SQLException wenn die Datenbank nicht erreichbar ist
+     */
+    public void finish() throws SQLException {
+        repository.afterBulkLoad();
+        logger.info("Massenimport abgeschlossen, ID-Zähler und E-Mail-Filter aktualisiert.");
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO students (id, first_name, last_name, email) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement pstmt, List<Student> rows) throws SQLException {
+        int index = 1;
+        for (Student student : rows) {
+            pstmt.setLong(index++, student.getId());
+            pstmt.setString(index++, student.getFirstName());
+            pstmt.setString(index++, student.getLastName());
+            pstmt.setString(index++, student.getEmail());
+        }
+    }
+}
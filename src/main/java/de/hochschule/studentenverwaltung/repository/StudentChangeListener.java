@@ -0,0 +1,45 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Beobachter für erfolgreiche Änderungen im StudentRepository.
+ *
+ * Listener werden nach dem Commit der jeweiligen Änderung im aufrufenden
+ * Thread benachrichtigt und sollten daher schnell sein. Ausnahmen eines
+ * Listeners werden geloggt und beeinflussen weder die Operation noch
+ * andere Listener.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public interface StudentChangeListener {
+
+    /**
+     * Ein Student wurde angelegt.
+     *
+     * @param student der angelegte Student inklusive ID
+     */
+    void onInsert(Student student);
+
+    /**
+     * Ein Student wurde aktualisiert.
+     *
+     * @param before der Zustand vor der Änderung
+     * @param after der Zustand nach der Änderung
+     */
+    void onUpdate(Student before, Student after);
+
+    /**
+     * Ein Student wurde gelöscht.
+     *
+     * @param before der Zustand vor dem Löschen
+     */
+    void onDelete(Student before);
+
+    /**
+     * Der Tabelleninhalt wurde außerhalb der Einzeloperationen ersetzt
+     * oder in größerem Umfang geändert. Abgeleitete Daten sollten neu aufgebaut werden.
+     */
+    default void onReset() {}
+}
@@ -0,0 +1,99 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Ein offenes ResultSet über Studenten, das Zeile für Zeile gelesen wird.
+ *
+ * Die Zeilen werden blockweise mit der angegebenen Abrufgröße vom Treiber
+ * geholt, sodass nie die gesamte Ergebnismenge im Speicher liegt. Das
+ * geshardete Repository hält pro Shard einen Cursor offen und mischt deren
+ * Kopfzeilen, um auch über alle Shards sortiert zu streamen.
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class StudentCursor implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StudentCursor.class);
+
+    private final Connection conn;
+    private final PreparedStatement stmt;
+    private final ResultSet rs;
+
+    private StudentCursor(Connection conn, PreparedStatement stmt, ResultSet rs) {
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+    }
+
+    /**
+     * Führt die Abfrage aus und öffnet den Cursor. Schlägt das fehl, wird die
+     * Verbindung geschlossen.
+     *
+     * @param conn die Verbindung; gehört danach dem Cursor
+     * @param sql die Abfrage
+     * @param fetchSize die Zeilen pro Abruf
+     * @param parameters die Parameter der Abfrage
+     * @return der geöffnete Cursor
+     * @throws SQLException wenn die Abfrage nicht ausgeführt werden kann
+     */
+    static StudentCursor open(Connection conn, String sql, int fetchSize, Object... parameters) throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+            return new StudentCursor(conn, stmt, stmt.executeQuery());
+        } catch (SQLException e) {
+            try {
+                if (stmt != null) {
+                    stmt.close();
+                }
+                conn.close();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Liest die nächste Zeile.
+     *
+     * @return der Student oder {@code null}, wenn alle Zeilen gelesen sind
+     * @throws SQLException wenn die Zeile nicht gelesen werden kann
+     */
+    Student next() throws SQLException {
+        return rs.next() ? StudentRepository.mapRow(rs) : null;
+    }
+
+    /**
+     * Schließt ResultSet, Anweisung und Verbindung. Fehler werden nur
+     * geloggt, da die Zeilen zu diesem Zeitpunkt bereits übergeben sind.
+     */
+    @Override
+    public void close() {
+        try {
+            rs.close();
+            stmt.close();
+        } catch (SQLException e) {
+            logger.warn("Cursor konnte nicht geschlossen werden: {}", e.getMessage());
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.warn("Verbindung des Cursors konnte nicht geschlossen werden: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package de.hochschule.studentenverwaltung.repository;
 
 import java.sql.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.monitoring.RepositoryOperationEvent;
+import de.hochschule.studentenverwaltung.monitoring.StatementKind;
 
   /**
  * Repository-Klasse für Student-Datenzugriff.
@@ -23,94 +35,660 @@ import de.hochschule.studentenverwaltung.entity.Student;
 public class StudentRepository {
     private static final Logger logger = LoggerFactory.getLogger(StudentRepository.class);
 
-    /** JDBC-URL für die H2 In-Memory-Datenbank */
-    private final String jdbcUrl = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
+    /** Standard-JDBC-URL für die H2 In-Memory-Datenbank */
+    static final String DEFAULT_JDBC_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
+
+    /** Zeilen pro Abruf beim Streamen großer Ergebnismengen */
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    /** JDBC-URL der verwendeten Datenbank */
+    private final String jdbcUrl;
     /** Datenbankbenutzername */
     private final String username = "sa";
     /** Datenbankpasswort */
     private final String password = "";
 
+    /** Vorfilter für doppelte E-Mail-Adressen */
+    private final EmailFilter emailFilter = new EmailFilter();
+
+    /** Beobachter für erfolgreiche Änderungen */
+    private final List<StudentChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    /** Transaktion, die an den aktuellen Thread gebunden ist (siehe {@link #inTransaction}) */
+    private final ThreadLocal<UnitOfWork> unitOfWork = new ThreadLocal<>();
+
+    /** Zeitlimit pro Anweisung für neu geöffnete Verbindungen, {@link Duration#ZERO} für unbegrenzt */
+    private volatile Duration queryTimeout = Duration.ZERO;
+
+    /** Protokoll langsamer Anweisungen, falls gesetzt */
+    private volatile SlowQueryLog slowQueryLog;
+
     /**
      * Konstruktor für StudentRepository.
-     * Initialisiert das Repository und erstellt die Datenbanktabelle falls nötig.
+     * Verwendet die JDBC-URL aus der Umgebungsvariable {@code JDBC_URL}
+     * oder, falls nicht gesetzt, die In-Memory-Datenbank.
      */
     public StudentRepository() {
-        logger.info("Initialisiere StudentRepository und erstelle Tabelle...");
-        createTableIfNotExists();
+        this(resolveJdbcUrl());
+    }
+
+    /**
+     * Konstruktor für StudentRepository mit expliziter JDBC-URL.
+     *
+     * Der Konstruktor öffnet keine Verbindung. Das Schema wird beim ersten
+     * Datenbankzugriff einmalig pro Datenbank initialisiert.
+     *
+     * @param jdbcUrl die JDBC-URL der zu verwendenden Datenbank
+     */
+    public StudentRepository(String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+        logger.info("StudentRepository für {} erstellt (Schema wird beim ersten Zugriff geprüft).", jdbcUrl);
+    }
+
+    /**
+     * Konstruktor für Unterklassen ohne eigene Datenbank, die alle Zugriffe an
+     * mehrere andere Repositorys verteilen (siehe {@link ShardedStudentRepository}).
+     * Solche Unterklassen müssen {@link #getJdbcUrl()}, {@link #partitions()}
+     * und alle Operationen überschreiben, die sonst {@link #getConnection()}
+     * verwenden, damit keine Verbindung zur nicht vorhandenen Datenbank entsteht.
+     *
+     * @param partitionUrls die JDBC-URLs der Teil-Datenbanken (nur für das Log)
+     */
+    StudentRepository(List<String> partitionUrls) {
+        this.jdbcUrl = null;
+        logger.info("StudentRepository über {} Datenbank(en) erstellt: {}", partitionUrls.size(), partitionUrls);
+    }
+
+    /**
+     * Ermittelt die JDBC-URL aus der Umgebung.
+     */
+    private static String resolveJdbcUrl() {
+        String url = System.getenv("JDBC_URL");
+        return url == null || url.isBlank() ? DEFAULT_JDBC_URL : url;
+    }
+
+    /**
+     * Gibt die JDBC-URL dieses Repositorys zurück.
+     *
+     * @return die JDBC-URL
+     */
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    /**
+     * Setzt das Zeitlimit für einzelne SQL-Anweisungen.
+     *
+     * Das Limit gilt für alle danach geöffneten Verbindungen. Überschreitet eine
+     * Anweisung das Limit, bricht die Datenbank sie ab und die Operation endet
+     * wie bei jedem anderen Datenbankfehler (z. B. mit {@link SaveResult#FAILED}),
+     * statt den Aufrufer unbegrenzt zu blockieren.
+     *
+     * @param timeout das Zeitlimit, {@link Duration#ZERO} für unbegrenzt
+     */
+    public void setQueryTimeout(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Zeitlimit darf nicht negativ sein: " + timeout);
+        }
+        this.queryTimeout = timeout;
+        logger.info("Zeitlimit für SQL-Anweisungen: {}", timeout.isZero() ? "unbegrenzt" : timeout);
+    }
+
+    /**
+     * Gibt das Zeitlimit für einzelne SQL-Anweisungen zurück.
+     *
+     * @return das Zeitlimit, {@link Duration#ZERO} für unbegrenzt
+     */
+    public Duration getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Setzt das Protokoll langsamer Anweisungen.
+     *
+     * Alle Anweisungen auf danach geöffneten Verbindungen werden gemessen und
+     * im Protokoll aggregiert; langsame Anweisungen werden mit Ausführungsplan
+     * festgehalten. Ohne Protokoll entfällt die Messung.
+     *
+     * @param log das Protokoll oder null zum Abschalten
+     */
+    public void setSlowQueryLog(SlowQueryLog log) {
+        this.slowQueryLog = log;
+        if (log != null) {
+            logger.info("Protokoll langsamer Anweisungen aktiv (Schwelle {}).", log.getThreshold());
+        }
+    }
+
+    /**
+     * Gibt das Protokoll langsamer Anweisungen zurück.
+     *
+     * @return das Protokoll oder null, wenn keines gesetzt ist
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Registriert einen Beobachter für erfolgreiche Änderungen.
+     *
+     * @param listener der Beobachter
+     */
+    public void addChangeListener(StudentChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Entfernt einen zuvor registrierten Beobachter.
+     *
+     * @param listener der Beobachter
+     */
+    public void removeChangeListener(StudentChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Benachrichtigt alle Beobachter; Fehler einzelner Beobachter werden nur geloggt.
+     * Innerhalb einer Transaktion wird die Benachrichtigung bis zum Commit zurückgehalten.
+     */
+    void fireChange(Consumer<StudentChangeListener> event) {
+        UnitOfWork work = unitOfWork.get();
+        if (work != null) {
+            work.defer(event);
+            return;
+        }
+        for (StudentChangeListener listener : changeListeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                logger.error("Fehler in StudentChangeListener {}: {}", listener, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Baut abgeleitete Strukturen nach einer Massenänderung neu auf
+     * (z. B. nach einer Wiederherstellung) und benachrichtigt die Beobachter.
+     */
+    void afterBulkChange(Connection conn) throws SQLException {
+        emailFilter.rebuild(conn);
+        fireChange(StudentChangeListener::onReset);
+    }
+
+    /**
+     * Schließt einen Massenimport oder eine Wiederherstellung ab, die direkt
+     * über {@link #partitions()} geschrieben hat: setzt den ID-Zähler hinter
+     * die größte ID und baut abgeleitete Strukturen neu auf.
+     *
+     * @throws SQLException wenn die Datenbank nicht erreichbar ist
+     */
+    void afterBulkLoad() throws SQLException {
+        try (Connection conn = getConnection()) {
+            StudentSnapshotManager.restartIdentity(conn);
+            afterBulkChange(conn);
+        }
+    }
+
+    /**
+     * Gibt die Datenbanken zurück, auf die sich die Studenten verteilen.
+     * Massenoperationen wie Snapshot, Wiederherstellung und Massenimport
+     * arbeiten direkt auf diesen Repositorys.
+     *
+     * @return ohne Sharding nur dieses Repository selbst
+     */
+    List<StudentRepository> partitions() {
+        return List.of(this);
+    }
+
+    /**
+     * Bestimmt den Index in {@link #partitions()}, dem ein Student mit dieser ID gehört.
+     *
+     * @param id die Student-ID
+     * @return ohne Sharding immer 0
+     */
+    int partitionIndexFor(long id) {
+        return 0;
+    }
+
+    /**
+     * Gibt die Verbindung für eine Repository-Operation zurück: innerhalb einer
+     * Transaktion die gemeinsame Verbindung, sonst eine neue.
+     */
+    Connection getConnection() throws SQLException {
+        UnitOfWork work = unitOfWork.get();
+        if (work != null) {
+            return work.sharedConnection();
+        }
+        long start = System.nanoTime();
+        Connection conn = openConnection();
+        RepositoryOperationEvent.connectionAcquired(System.nanoTime() - start);
+        return conn;
     }
 
     /**
-     * Erstellt die Students-Tabelle falls sie noch nicht existiert.
+     * Öffnet eine Verbindung und stellt vorher sicher, dass das Schema existiert.
+     * Ist ein Zeitlimit gesetzt, gilt es für alle Anweisungen der Sitzung;
+     * ist ein Protokoll langsamer Anweisungen gesetzt, wird die Verbindung gemessen.
      */
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS students (" +
-                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
-                "first_name VARCHAR(100) NOT NULL, " +
-                "last_name VARCHAR(100) NOT NULL, " +
-                "email VARCHAR(100) NOT NULL UNIQUE" +
-                ")";
+    Connection openConnection() throws SQLException {
+        if (jdbcUrl == null) {
+            throw new IllegalStateException("Repository ohne eigene Datenbank, Zugriff nur über partitions()");
+        }
+        SchemaInitializer.ensureSchema(jdbcUrl, username, password);
+        Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
+        long timeoutMillis = queryTimeout.toMillis();
+        if (timeoutMillis > 0) {
+            // Sitzungsweit statt pro Statement, damit auch Batches und gestreamte Abfragen abgedeckt sind
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET QUERY_TIMEOUT " + timeoutMillis);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        SlowQueryLog log = slowQueryLog;
+        return log != null ? log.wrap(conn) : conn;
+    }
 
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-            logger.info("Tabelle 'students' wurde erfolgreich erstellt oder existiert bereits.");
+    /**
+     * Führt mehrere Repository-Aufrufe in einer gemeinsamen Transaktion aus.
+     *
+     * Alle Aufrufe dieses Repositorys im aktuellen Thread verwenden dieselbe
+     * Verbindung; am Ende wird einmal bestätigt. Wirft die Arbeit eine Ausnahme
+     * oder ist eine Repository-Operation mit einem Datenbankfehler gescheitert,
+     * wird alles zurückgerollt. Beobachter werden erst nach dem Commit
+     * benachrichtigt. Ein verschachtelter Aufruf schließt sich der äußeren
+     * Transaktion an (mit deren Isolationsstufe).
+     *
+     * @param isolation die Isolationsstufe
+     * @param work die auszuführende Arbeit
+     * @param <T> der Rückgabetyp der Arbeit
+     * @return das Ergebnis der Arbeit
+     * @throws IllegalStateException wenn die Transaktion wegen eines Datenbankfehlers zurückgerollt wurde
+     */
+    public <T> T inTransaction(TransactionIsolation isolation, Supplier<T> work) {
+        if (unitOfWork.get() != null) {
+            return work.get();
+        }
+        UnitOfWork transaction = beginUnitOfWork(isolation);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            rollbackUnitOfWork(transaction);
+            throw e;
+        }
+        commitUnitOfWork(transaction);
+        return result;
+    }
+
+    /**
+     * Beginnt eine Transaktion und bindet sie an den aktuellen Thread.
+     * Gegenstück ist {@link #commitUnitOfWork} oder {@link #rollbackUnitOfWork};
+     * für Aufrufer, die wie das geshardete Repository erst während der Arbeit
+     * entscheiden, auf welcher Datenbank die Transaktion läuft.
+     *
+     * @throws IllegalStateException wenn die Transaktion nicht begonnen werden konnte
+     */
+    UnitOfWork beginUnitOfWork(TransactionIsolation isolation) {
+        UnitOfWork transaction;
+        try {
+            Connection conn = openConnection();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(isolation.jdbcLevel());
+            transaction = new UnitOfWork(conn);
         } catch (SQLException e) {
-            logger.error("FEHLER beim Erstellen der Tabelle: {}", e.getMessage(), e);
+            logger.error("Transaktion konnte nicht begonnen werden: {}", e.getMessage(), e);
+            throw new IllegalStateException("Transaktion konnte nicht begonnen werden", e);
         }
+        unitOfWork.set(transaction);
+        return transaction;
     }
 
     /**
-     * Ruft alle Studenten aus der Datenbank ab.
+     * Bestätigt eine mit {@link #beginUnitOfWork} begonnene Transaktion und
+     * benachrichtigt danach die Beobachter. Ist eine Operation gescheitert,
+     * wird stattdessen zurückgerollt.
+     *
+     * @throws IllegalStateException wenn die Transaktion zurückgerollt wurde
      */
-    public List<Student> findAll() {
-        List<Student> students = new ArrayList<>();
-        String sql = "SELECT * FROM students";
-
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Student student = new Student(
-                        rs.getLong("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email")
-                );
-                students.add(student);
-            }
-            logger.info("{} Student(en) aus der DB geladen.", students.size());
+    void commitUnitOfWork(UnitOfWork transaction) {
+        Connection conn = transaction.connection();
+        try {
+            if (transaction.isRollbackOnly()) {
+                rollback(transaction);
+                throw new IllegalStateException("Transaktion wurde nach einem Datenbankfehler zurückgerollt");
+            }
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                logger.error("Fehler beim Bestätigen der Transaktion: {}", e.getMessage(), e);
+                rollback(transaction);
+                throw new IllegalStateException("Transaktion konnte nicht bestätigt werden", e);
+            }
+            unitOfWork.remove();
+            transaction.deferredEvents().forEach(this::fireChange);
+            logger.debug("Transaktion mit {} Änderung(en) bestätigt.", transaction.deferredEvents().size());
+        } finally {
+            release(transaction);
+        }
+    }
+
+    /**
+     * Rollt eine mit {@link #beginUnitOfWork} begonnene Transaktion zurück.
+     */
+    void rollbackUnitOfWork(UnitOfWork transaction) {
+        try {
+            rollback(transaction);
+        } finally {
+            release(transaction);
+        }
+    }
+
+    private void release(UnitOfWork transaction) {
+        unitOfWork.remove();
+        try {
+            transaction.connection().close();
         } catch (SQLException e) {
-            logger.error("Fehler beim Lesen aller Studenten: {}", e.getMessage(), e);
+            logger.warn("Verbindung der Transaktion konnte nicht geschlossen werden: {}", e.getMessage());
         }
-        return students;
     }
 
     /**
-     * Speichert einen Studenten in der Datenbank.
+     * Rollt eine Transaktion zurück. Hat sie Änderungen enthalten, wird der
+     * E-Mail-Filter neu aufgebaut, da er bereits vorab angepasst wurde.
      */
-    public void save(Student student) {
-        String sql;
-        boolean isUpdate = student.getId() != null;
+    private void rollback(UnitOfWork transaction) {
+        Connection conn = transaction.connection();
+        try {
+            conn.rollback();
+            if (!transaction.deferredEvents().isEmpty()) {
+                conn.setAutoCommit(true);
+                emailFilter.rebuild(conn);
+            }
+            logger.info("Transaktion mit {} Änderung(en) zurückgerollt.", transaction.deferredEvents().size());
+        } catch (SQLException e) {
+            logger.error("Fehler beim Zurückrollen der Transaktion: {}", e.getMessage(), e);
+        }
+    }
 
-        if (isUpdate) {
-            sql = "UPDATE students SET first_name = ?, last_name = ?, email = ? WHERE id = ?";
-        } else {
-            sql = "INSERT INTO students (first_name, last_name, email) VALUES (?, ?, ?)";
+    /**
+     * Führt Arbeit außerhalb einer laufenden Transaktion aus, also mit eigenen
+     * Verbindungen, die nur bestätigte Daten sehen. Gedacht für Caches und
+     * Kennzahlen, die erst nach dem Commit über Beobachter aktualisiert werden.
+     *
+     * @param work die auszuführende Arbeit
+     * @param <T> der Rückgabetyp der Arbeit
+     * @return das Ergebnis der Arbeit
+     */
+    public <T> T outsideTransaction(Supplier<T> work) {
+        UnitOfWork transaction = unitOfWork.get();
+        if (transaction == null) {
+            return work.get();
         }
+        unitOfWork.remove();
+        try {
+            return work.get();
+        } finally {
+            unitOfWork.set(transaction);
+        }
+    }
 
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Gibt an, ob im aktuellen Thread eine Transaktion dieses Repositorys läuft.
+     */
+    boolean inUnitOfWork() {
+        return unitOfWork.get() != null;
+    }
 
-            pstmt.setString(1, student.getFirstName());
-            pstmt.setString(2, student.getLastName());
-            pstmt.setString(3, student.getEmail());
+    /**
+     * Markiert nach einem Datenbankfehler eine laufende Transaktion als
+     * zurückzurollen und die laufende Operation in der JFR-Aufzeichnung als gescheitert.
+     */
+    void recordDatabaseError() {
+        UnitOfWork work = unitOfWork.get();
+        if (work != null) {
+            work.markRollbackOnly();
+        }
+        RepositoryOperationEvent.markFailed();
+    }
 
-            if (isUpdate) {
-                pstmt.setLong(4, student.getId());
+    /**
+     * Ruft alle Studenten aus der Datenbank ab.
+     */
+    public List<Student> findAll() {
+        return RepositoryOperationEvent.record("findAll", StatementKind.SELECT, null, () -> {
+            List<Student> students = new ArrayList<>();
+            String sql = "SELECT * FROM students";
+
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+
+                while (rs.next()) {
+                    students.add(mapRow(rs));
+                }
+                logger.info("{} Student(en) aus der DB geladen.", students.size());
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Lesen aller Studenten: {}", e.getMessage(), e);
+            }
+            return students;
+        }, List::size);
+    }
+
+    /**
+     * Ruft alle Studenten in der angegebenen Sortierung ab.
+     * Die Sortierung übernimmt die Datenbank über den passenden Index.
+     *
+     * @param sort die Sortierung
+     * @return alle Studenten in sortierter Reihenfolge
+     */
+    public List<Student> findAllSorted(StudentSort sort) {
+        return RepositoryOperationEvent.record("findAllSorted", StatementKind.SELECT, null, () -> {
+            List<Student> students = new ArrayList<>();
+            String sql = "SELECT * FROM students " + sort.orderByClause();
+
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    students.add(mapRow(rs));
+                }
+                logger.info("{} Student(en) sortiert nach {} aus der DB geladen.", students.size(), sort.field());
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim sortierten Lesen der Studenten: {}", e.getMessage(), e);
+            }
+            return students;
+        }, List::size);
+    }
+
+    /**
+     * Übergibt alle Studenten in der angegebenen Sortierung nacheinander an eine Aktion,
+     * ohne sie vorher in einer Liste zu sammeln. Die Zeilen werden in Blöcken
+     * von {@value #STREAM_FETCH_SIZE} aus dem ResultSet gelesen.
+     *
+     * @param sort die Sortierung
+     * @param action die Aktion für jeden Studenten
+     * @return die Anzahl der übergebenen Studenten
+     */
+    public long forEachSorted(StudentSort sort, Consumer<Student> action) {
+        return RepositoryOperationEvent.record("forEachSorted", StatementKind.SELECT, null, () -> {
+            long rows = 0;
+            try (StudentCursor cursor = openSorted(sort)) {
+                for (Student student = cursor.next(); student != null; student = cursor.next()) {
+                    action.accept(student);
+                    rows++;
+                }
+                logger.info("{} Student(en) sortiert nach {} gestreamt.", rows, sort.field());
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Streamen der Studenten: {}", e.getMessage(), e);
+            }
+            return rows;
+        }, Long::longValue);
+    }
+
+    /**
+     * Übergibt alle Studenten mit einer ID größer als der angegebenen in
+     * aufsteigender ID-Reihenfolge an eine Aktion, z. B. um nur neu angelegte
+     * Studenten zu verarbeiten.
+     *
+     * @param afterId die zuletzt verarbeitete ID (0 für alle Studenten)
+     * @param action die Aktion für jeden Studenten
+     * @return die Anzahl der übergebenen Studenten
+     */
+    public long forEachCreatedAfter(long afterId, Consumer<Student> action) {
+        return RepositoryOperationEvent.record("forEachCreatedAfter", StatementKind.SELECT, null, () -> {
+            long rows = 0;
+            try (StudentCursor cursor = openCreatedAfter(afterId)) {
+                for (Student student = cursor.next(); student != null; student = cursor.next()) {
+                    action.accept(student);
+                    rows++;
+                }
+                logger.info("{} Student(en) mit ID > {} gestreamt.", rows, afterId);
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Streamen neuer Studenten: {}", e.getMessage(), e);
+            }
+            return rows;
+        }, Long::longValue);
+    }
+
+    /**
+     * Öffnet einen Cursor über alle Studenten in der angegebenen Sortierung
+     * (siehe {@link #forEachSorted}).
+     */
+    StudentCursor openSorted(StudentSort sort) throws SQLException {
+        return StudentCursor.open(getConnection(), "SELECT * FROM students " + sort.orderByClause(), STREAM_FETCH_SIZE);
+    }
+
+    /**
+     * Öffnet einen Cursor über alle Studenten mit größerer ID in ID-Reihenfolge
+     * (siehe {@link #forEachCreatedAfter}).
+     */
+    StudentCursor openCreatedAfter(long afterId) throws SQLException {
+        return StudentCursor.open(getConnection(), "SELECT * FROM students WHERE id > ? ORDER BY id",
+                STREAM_FETCH_SIZE, afterId);
+    }
+
+    /**
+     * Ruft die ersten K Studenten in der angegebenen Sortierung ab.
+     * Die Abfrage liest über den Index nur K Zeilen.
+     *
+     * @param sort die Sortierung
+     * @param limit die maximale Anzahl K
+     * @return höchstens K Studenten
+     */
+    public List<Student> findTop(StudentSort sort, int limit) {
+        return findPage(sort, null, limit).items();
+    }
+
+    /**
+     * Ruft eine Seite von Studenten ab, beginnend hinter dem angegebenen Cursor.
+     *
+     * Die Fortsetzung erfolgt per Keyset (WHERE (sortwert, id) &gt; (?, ?)),
+     * sodass jede Seite unabhängig von ihrer Position gleich schnell ist.
+     *
+     * @param sort die Sortierung
+     * @param after der Cursor der vorherigen Seite oder null für die erste Seite
+     * @param limit die Seitengröße
+     * @return die Seite mit Cursor für die Folgeseite
+     */
+    public Page<Student> findPage(StudentSort sort, PageCursor after, int limit) {
+        return RepositoryOperationEvent.record("findPage", StatementKind.SELECT, null, () -> {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Seitengröße muss positiv sein: " + limit);
+            }
+            String sql = "SELECT * FROM students "
+                    + (after != null ? "WHERE " + sort.keysetCondition() + " " : "")
+                    + sort.orderByClause() + " FETCH FIRST ? ROWS ONLY";
+
+            List<Student> students = new ArrayList<>(limit);
+            boolean hasMore = false;
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                if (after != null) {
+                    pstmt.setString(index++, after.sortValue());
+                    if (!sort.field().isUnique()) {
+                        pstmt.setLong(index++, after.id());
+                    }
+                }
+                // Eine Zeile mehr lesen, um zu erkennen, ob es eine Folgeseite gibt
+                pstmt.setInt(index, limit + 1);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (students.size() == limit) {
+                            hasMore = true;
+                            break;
+                        }
+                        students.add(mapRow(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim seitenweisen Lesen der Studenten: {}", e.getMessage(), e);
+            }
+            PageCursor next = hasMore ? PageCursor.after(students.get(students.size() - 1), sort) : null;
+            return new Page<>(students, next);
+        }, page -> page.items().size());
+    }
+
+    /**
+     * Speichert einen Studenten in der Datenbank.
+     *
+     * Ohne ID wird ein neuer Student angelegt, sonst der bestehende aktualisiert.
+     * Doppelte E-Mail-Adressen werden nicht als Fehler geloggt, sondern als
+     * {@link SaveResult#DUPLICATE_EMAIL} gemeldet. Beim Anlegen prüft zuerst
+     * der E-Mail-Filter; nur wahrscheinliche Duplikate kosten eine Abfrage.
+     *
+     * @param student der zu speichernde Student (erhält beim Anlegen die neue ID)
+     * @return das Ergebnis der Speicheroperation
+     */
+    public SaveResult save(Student student) {
+        boolean isUpdate = student.getId() != null;
+
+        return RepositoryOperationEvent.record("save", isUpdate ? StatementKind.UPDATE : StatementKind.INSERT, student.getId(), () -> {
+            try (Connection conn = getConnection()) {
+                return isUpdate ? update(conn, student) : insert(conn, student);
+            } catch (SQLException e) {
+                if (isUniqueViolation(e)) {
+                    logger.warn("E-Mail-Adresse {} ist bereits vergeben.", student.getEmail());
+                    return SaveResult.DUPLICATE_EMAIL;
+                }
+                recordDatabaseError();
+                logger.error("Fehler beim Speichern des Students: {}", e.getMessage(), e);
+                return SaveResult.FAILED;
+            }
+        }, result -> result.isSuccess() ? 1 : 0);
+    }
+
+    private SaveResult insert(Connection conn, Student student) throws SQLException {
+        emailFilter.ensureBuilt(conn);
+        if (emailFilter.mightBeDuplicate(student.getEmail()) && emailExists(conn, student.getEmail())) {
+            emailFilter.recordConfirmedDuplicate();
+            logger.warn("E-Mail-Adresse {} ist bereits vergeben.", student.getEmail());
+            return SaveResult.DUPLICATE_EMAIL;
+        }
+
+        if (student.getId() != null) {
+            // Vorgegebene ID (z. B. aus einem globalen ID-Allokator)
+            String sql = "INSERT INTO students (id, first_name, last_name, email) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, student.getId());
+                pstmt.setString(2, student.getFirstName());
+                pstmt.setString(3, student.getLastName());
+                pstmt.setString(4, student.getEmail());
                 pstmt.executeUpdate();
-                logger.info("Student aktualisiert: {} {}", student.getFirstName(), student.getLastName());
-            } else {
+                logger.info("Neuer Student gespeichert mit ID: {}", student.getId());
+            }
+        } else {
+            String sql = "INSERT INTO students (first_name, last_name, email) VALUES (?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, student.getFirstName());
+                pstmt.setString(2, student.getLastName());
+                pstmt.setString(3, student.getEmail());
                 pstmt.executeUpdate();
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
@@ -122,55 +700,412 @@ public class StudentRepository {
                     }
                 }
             }
+        }
+        emailFilter.add(conn, student.getEmail());
+        Student inserted = copyOf(student);
+        fireChange(listener -> listener.onInsert(inserted));
+        return SaveResult.CREATED;
+    }
+
+    private SaveResult update(Connection conn, Student student) throws SQLException {
+        // Bisherigen Zustand in derselben Transaktion lesen, um Filter und Beobachter zu versorgen.
+        // (H2 verliert bei "OLD TABLE (UPDATE ...)" mit UNIQUE-Verletzung die Zeile, daher zwei Statements.)
+        conn.setAutoCommit(false);
+        // Fehler nur bis zum Savepoint zurückrollen, damit eine äußere Transaktion gültig bleibt
+        Savepoint start = conn.setSavepoint();
+        try {
+            Student before;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM students WHERE id = ? FOR UPDATE")) {
+                pstmt.setLong(1, student.getId());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback(start);
+                        logger.warn("Kein Student mit ID {} gefunden zum Aktualisieren.", student.getId());
+                        return SaveResult.NOT_FOUND;
+                    }
+                    before = mapRow(rs);
+                }
+            }
+            String sql = "UPDATE students SET first_name = ?, last_name = ?, email = ? WHERE id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, student.getFirstName());
+                pstmt.setString(2, student.getLastName());
+                pstmt.setString(3, student.getEmail());
+                pstmt.setLong(4, student.getId());
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+            if (!before.getEmail().equals(student.getEmail())) {
+                emailFilter.remove(before.getEmail());
+                emailFilter.add(conn, student.getEmail());
+            }
+            Student after = copyOf(student);
+            fireChange(listener -> listener.onUpdate(before, after));
         } catch (SQLException e) {
+            conn.rollback(start);
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        logger.info("Student aktualisiert: {} {}", student.getFirstName(), student.getLastName());
+        return SaveResult.UPDATED;
+    }
+
+    /**
+     * Legt einen Studenten mit bereits vergebener ID an.
+     * Wird vom geshardeten Repository genutzt, das IDs global vergibt.
+     *
+     * @param student der Student mit gesetzter ID
+     * @return das Ergebnis der Speicheroperation
+     */
+    SaveResult insertWithId(Student student) {
+        return RepositoryOperationEvent.record("insertWithId", StatementKind.INSERT, student.getId(), () -> {
+            try (Connection conn = getConnection()) {
+                return insert(conn, student);
+            } catch (SQLException e) {
+                if (isUniqueViolation(e)) {
+                    logger.warn("E-Mail-Adresse {} oder ID {} ist bereits vergeben.", student.getEmail(), student.getId());
+                    return SaveResult.DUPLICATE_EMAIL;
+                }
+                recordDatabaseError();
+                logger.error("Fehler beim Speichern des Students: {}", e.getMessage(), e);
+                return SaveResult.FAILED;
+            }
+        }, result -> result.isSuccess() ? 1 : 0);
+    }
+
+    /**
+     * Speichert mehrere Studenten über eine gemeinsame Verbindung.
+     *
+     * Neue Studenten werden nach der Duplikatprüfung in einer Transaktion als
+     * JDBC-Batch eingefügt; schlägt der Batch fehl (z. B. weil parallel dieselbe
+     * Adresse angelegt wurde), wird er zurückgerollt und einzeln wiederholt.
+     * Bestehende Studenten werden nacheinander wie bei {@link #save(Student)} aktualisiert.
+     *
+     * @param students die zu speichernden Studenten (neue erhalten ihre ID)
+     * @return die Ergebnisse in derselben Reihenfolge
+     */
+    public List<SaveResult> saveAll(List<Student> students) {
+        return RepositoryOperationEvent.record("saveAll", StatementKind.BATCH, null, () -> {
+            SaveResult[] results = new SaveResult[students.size()];
+            try (Connection conn = getConnection()) {
+                insertBatch(conn, students, results);
+                for (int i = 0; i < students.size(); i++) {
+                    Student student = students.get(i);
+                    if (results[i] == null) {
+                        results[i] = saveOne(conn, student);
+                    }
+                }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Speichern mehrerer Studenten: {}", e.getMessage(), e);
+                for (int i = 0; i < results.length; i++) {
+                    if (results[i] == null) {
+                        results[i] = SaveResult.FAILED;
+                    }
+                }
+            }
+            return Arrays.asList(results);
+        }, results -> results.stream().filter(SaveResult::isSuccess).count());
+    }
+
+    /**
+     * Fügt alle neuen Studenten (ohne ID) per JDBC-Batch ein und trägt die Ergebnisse ein.
+     * Bleibt ein Ergebnis leer, muss der Student einzeln gespeichert werden.
+     */
+    private void insertBatch(Connection conn, List<Student> students, SaveResult[] results) throws SQLException {
+        emailFilter.ensureBuilt(conn);
+        List<Integer> batch = new ArrayList<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < students.size(); i++) {
+            Student student = students.get(i);
+            if (student.getId() != null) {
+                continue;
+            }
+            boolean duplicate = !batchEmails.add(student.getEmail())
+                    || (emailFilter.mightBeDuplicate(student.getEmail()) && emailExists(conn, student.getEmail()));
+            if (duplicate) {
+                emailFilter.recordConfirmedDuplicate();
+                logger.warn("E-Mail-Adresse {} ist bereits vergeben.", student.getEmail());
+                results[i] = SaveResult.DUPLICATE_EMAIL;
+            } else {
+                batch.add(i);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO students (first_name, last_name, email) VALUES (?, ?, ?)";
+        conn.setAutoCommit(false);
+        // Savepoint statt vollständigem Rollback, damit eine äußere Transaktion erhalten bleibt
+        Savepoint beforeBatch = conn.setSavepoint();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int index : batch) {
+                Student student = students.get(index);
+                pstmt.setString(1, student.getFirstName());
+                pstmt.setString(2, student.getLastName());
+                pstmt.setString(3, student.getEmail());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            List<Long> ids = new ArrayList<>(batch.size());
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    ids.add(generatedKeys.getLong(1));
+                }
+            }
+            if (ids.size() != batch.size()) {
+                throw new SQLException("Erwartet " + batch.size() + " generierte IDs, erhalten " + ids.size());
+            }
+            conn.commit();
+            for (int i = 0; i < batch.size(); i++) {
+                Student student = students.get(batch.get(i));
+                student.setId(ids.get(i));
+                results[batch.get(i)] = SaveResult.CREATED;
+                emailFilter.add(conn, student.getEmail());
+                Student inserted = copyOf(student);
+                fireChange(listener -> listener.onInsert(inserted));
+            }
+            logger.info("{} Student(en) per Batch gespeichert.", batch.size());
+        } catch (SQLException e) {
+            conn.rollback(beforeBatch);
+            logger.warn("Batch-Insert fehlgeschlagen ({}), speichere einzeln.", e.getMessage());
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Speichert einen Studenten über eine bestehende Verbindung wie {@link #save(Student)}.
+     */
+    private SaveResult saveOne(Connection conn, Student student) {
+        try {
+            return student.getId() != null ? update(conn, student) : insert(conn, student);
+        } catch (SQLException e) {
+            if (isUniqueViolation(e)) {
+                logger.warn("E-Mail-Adresse {} ist bereits vergeben.", student.getEmail());
+                return SaveResult.DUPLICATE_EMAIL;
+            }
+            recordDatabaseError();
             logger.error("Fehler beim Speichern des Students: {}", e.getMessage(), e);
+            return SaveResult.FAILED;
+        }
+    }
+
+    private boolean emailExists(Connection conn, String email) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM students WHERE email = ?")) {
+            pstmt.setString(1, email);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
         }
     }
 
+    /**
+     * Prüft, ob eine SQLException eine Verletzung der UNIQUE-Bedingung meldet.
+     */
+    static boolean isUniqueViolation(SQLException e) {
+        return "23505".equals(e.getSQLState());
+    }
+
     /**
      * Sucht einen Studenten anhand seiner ID.
      */
     public Student findById(Long id) {
-        String sql = "SELECT * FROM students WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return RepositoryOperationEvent.record("findById", StatementKind.SELECT, id, () -> {
+            String sql = "SELECT * FROM students WHERE id = ?";
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setLong(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Student(
-                            rs.getLong("id"),
-                            rs.getString("first_name"),
-                            rs.getString("last_name"),
-                            rs.getString("email")
-                    );
+                pstmt.setLong(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRow(rs);
+                    }
                 }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Suchen des Students mit ID {}: {}", id, e.getMessage(), e);
             }
-        } catch (SQLException e) {
-            logger.error("Fehler beim Suchen des Students mit ID {}: {}", id, e.getMessage(), e);
-        }
-        return null;
+            return null;
+        }, student -> 1);
+    }
+
+    /**
+     * Sucht mehrere Studenten mit einer Abfrage anhand ihrer IDs.
+     *
+     * @param ids die gesuchten IDs
+     * @return die gefundenen Studenten nach ID; fehlende IDs sind nicht enthalten
+     */
+    public Map<Long, Student> findAllById(Collection<Long> ids) {
+        return RepositoryOperationEvent.record("findAllById", StatementKind.SELECT, null, () -> {
+            Map<Long, Student> students = new HashMap<>();
+            if (ids.isEmpty()) {
+                return students;
+            }
+            String sql = "SELECT * FROM students WHERE id = ANY(?)";
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setArray(1, conn.createArrayOf("BIGINT", ids.toArray()));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Student student = mapRow(rs);
+                        students.put(student.getId(), student);
+                    }
+                }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Suchen von {} Studenten: {}", ids.size(), e.getMessage(), e);
+            }
+            return students;
+        }, Map::size);
+    }
+
+    /**
+     * Sucht einen Studenten anhand seiner E-Mail-Adresse.
+     *
+     * @param email die E-Mail-Adresse
+     * @return der Student oder null, wenn keiner gefunden wurde
+     */
+    public Student findByEmail(String email) {
+        return RepositoryOperationEvent.record("findByEmail", StatementKind.SELECT, null, () -> {
+            String sql = "SELECT * FROM students WHERE email = ?";
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, email);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRow(rs);
+                    }
+                }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Suchen des Students mit E-Mail {}: {}", email, e.getMessage(), e);
+            }
+            return null;
+        }, student -> 1);
     }
 
     /**
      * Löscht einen Studenten anhand seiner ID.
      */
     public boolean deleteById(Long id) {
-        String sql = "DELETE FROM students WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setLong(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            boolean deleted = rowsAffected > 0;
-            if (deleted) {
-                logger.info("🗑️ Student mit ID {} erfolgreich gelöscht.", id);
-            } else {
-                logger.warn("Kein Student mit ID {} gefunden zum Löschen.", id);
+        return RepositoryOperationEvent.record("deleteById", StatementKind.DELETE, id, () -> {
+            String sql = "SELECT * FROM OLD TABLE (DELETE FROM students WHERE id = ?)";
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    boolean deleted = rs.next();
+                    if (deleted) {
+                        Student before = mapRow(rs);
+                        emailFilter.remove(before.getEmail());
+                        fireChange(listener -> listener.onDelete(before));
+                        logger.info("🗑️ Student mit ID {} erfolgreich gelöscht.", id);
+                    } else {
+                        logger.warn("Kein Student mit ID {} gefunden zum Löschen.", id);
+                    }
+                    return deleted;
+                }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Löschen des Students mit ID {}: {}", id, e.getMessage(), e);
+                return false;
+            }
+        }, deleted -> deleted ? 1 : 0);
+    }
+
+    /**
+     * Löscht mehrere Studenten mit einer Anweisung anhand ihrer IDs.
+     *
+     * @param ids die IDs der zu löschenden Studenten
+     * @return die IDs der tatsächlich gelöschten Studenten
+     */
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        return RepositoryOperationEvent.record("deleteAllById", StatementKind.DELETE, null, () -> {
+            Set<Long> deleted = new HashSet<>();
+            if (ids.isEmpty()) {
+                return deleted;
+            }
+            String sql = "SELECT * FROM OLD TABLE (DELETE FROM students WHERE id = ANY(?))";
+            try (Connection conn = getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setArray(1, conn.createArrayOf("BIGINT", ids.toArray()));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Student before = mapRow(rs);
+                        deleted.add(before.getId());
+                        emailFilter.remove(before.getEmail());
+                        fireChange(listener -> listener.onDelete(before));
+                    }
+                }
+                logger.info("🗑️ {} von {} Student(en) gelöscht.", deleted.size(), ids.size());
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Löschen von {} Studenten: {}", ids.size(), e.getMessage(), e);
             }
             return deleted;
-        } catch (SQLException e) {
-            logger.error("Fehler beim Löschen des Students mit ID {}: {}", id, e.getMessage(), e);
-            return false;
-        }
+        }, Set::size);
+    }
+
+    /**
+     * Zählt alle Studenten in der Datenbank.
+     *
+     * @return die Anzahl der Studenten oder -1 bei einem Datenbankfehler
+     */
+    public long count() {
+        return RepositoryOperationEvent.record("count", StatementKind.SELECT, null, () -> {
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM students")) {
+                rs.next();
+                return rs.getLong(1);
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Zählen der Studenten: {}", e.getMessage(), e);
+                return -1L;
+            }
+        }, total -> 1);
+    }
+
+    /**
+     * Zählt die Studenten pro E-Mail-Domain (Teil nach dem ersten '@', kleingeschrieben).
+     *
+     * @return Anzahl pro Domain; leer bei einem Datenbankfehler
+     */
+    public Map<String, Long> countByEmailDomain() {
+        return RepositoryOperationEvent.record("countByEmailDomain", StatementKind.SELECT, null, () -> {
+            String sql = "SELECT LOWER(SUBSTRING(email, LOCATE('@', email) + 1)) AS domain, COUNT(*) " +
+                    "FROM students GROUP BY domain";
+            Map<String, Long> counts = new HashMap<>();
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    counts.put(rs.getString(1), rs.getLong(2));
+                }
+            } catch (SQLException e) {
+                recordDatabaseError();
+                logger.error("Fehler beim Zählen der Studenten pro Domain: {}", e.getMessage(), e);
+            }
+            return counts;
+        }, Map::size);
+    }
+
+    /**
+     * Erstellt einen Student aus der aktuellen Zeile eines ResultSets.
+     */
+    static Student mapRow(ResultSet rs) throws SQLException {
+        return new Student(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email")
+        );
+    }
+
+    private static Student copyOf(Student student) {
+        return new Student(student.getId(), student.getFirstName(), student.getLastName(), student.getEmail());
     }
 }
@@ -0,0 +1,509 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Sicherung und Wiederherstellung der Studentendatenbank.
+ *
+ * Ein Snapshot liest die Tabelle in einer einzigen Transaktion mit
+ * Snapshot-Isolation (MVCC), ist also ein konsistenter Zeitpunktstand,
+ * während Lese- und Schreibzugriffe ungehindert weiterlaufen. Die Zeilen
+ * werden in ID-Reihenfolge als GZIP-komprimierte CSV-Datei geschrieben.
+ *
+ * Die Wiederherstellung ersetzt den Tabelleninhalt in einer Transaktion
+ * über den Massenimport des {@link StudentBulkLoader} (mehrzeilige
+ * {@code INSERT ... VALUES}) in Primärschlüsselreihenfolge. Ist die Datei
+ * beschädigt oder unvollständig, wird zurückgerollt und der bisherige
+ * Inhalt bleibt erhalten.
+ *
+ * Bei einem geshardeten Repository werden alle Shards in eine gemeinsame
+ * Datei gesichert (nach ID gemischt) und beim Wiederherstellen wieder nach
+ * ID verteilt. Jede Shard liefert dabei ihren eigenen Zeitpunktstand; einen
+ * shardübergreifend gemeinsamen Zeitpunkt gibt es nicht. Bestätigt wird
+ * erst, wenn die ganze Datei gelesen und geprüft ist; scheitert danach das
+ * Bestätigen einer einzelnen Shard, muss die Wiederherstellung wiederholt
+ * werden.
+ *
+ * Dateiformat: CSV nach RFC 4180 in UTF-8 mit Kopfzeile
+ * {@code id,first_name,last_name,email}, Textfelder immer in
+ * Anführungszeichen, Zeilenende LF. Entpackt lässt sich die Datei direkt
+ * mit {@code CSVREAD} oder anderen CSV-Werkzeugen laden. CRC32 und Länge
+ * im GZIP-Trailer sichern den Inhalt; sie werden beim Lesen bis zum
+ * Dateiende geprüft.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class StudentSnapshotManager {
+    private static final Logger logger = LoggerFactory.getLogger(StudentSnapshotManager.class);
+
+    private static final String HEADER = "id,first_name,last_name,email";
+    private static final int COLUMNS = 4;
+    private static final int BATCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String FILE_PREFIX = "students-";
+    private static final String FILE_SUFFIX = ".snap";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * Kennzahlen eines Snapshot- oder Restore-Laufs.
+     *
+     * @param file die geschriebene bzw. gelesene Datei
+     * @param rows die Anzahl der Zeilen
+     * @param bytes die Dateigröße in Bytes
+     * @param duration die Laufzeit
+     */
+    public record TransferStats(Path file, long rows, long bytes, Duration duration) {
+
+        /** @return der Durchsatz in Zeilen pro Sekunde */
+        public double rowsPerSecond() {
+            double seconds = duration.toNanos() / 1e9;
+            return seconds > 0 ? rows / seconds : rows;
+        }
+
+        /** @return der Durchsatz in MiB (komprimiert) pro Sekunde */
+        public double mebibytesPerSecond() {
+            double seconds = duration.toNanos() / 1e9;
+            return seconds > 0 ? bytes / (1024.0 * 1024.0) / seconds : 0;
+        }
+    }
+
+    private final StudentRepository repository;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Erstellt einen SnapshotManager für das angegebene Repository.
+     *
+     * @param repository das Repository, dessen Datenbank gesichert wird
+     */
+    public StudentSnapshotManager(StudentRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Schreibt einen konsistenten Snapshot der Tabelle in eine Datei.
+     * Die Datei wird zunächst unter temporärem Namen geschrieben und dann atomar umbenannt.
+     *
+     * @param file die Zieldatei
+     * @return Zeilenzahl, Größe und Durchsatz
+     * @throws IOException wenn die Datei nicht geschrieben werden kann
+     * @throws SQLException wenn die Datenbank nicht gelesen werden kann
+     */
+    public TransferStats snapshot(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long rows;
+
+        List<Connection> connections = new ArrayList<>();
+        try {
+            long expected = 0;
+            for (StudentRepository partition : repository.partitions()) {
+                Connection conn = partition.getConnection();
+                connections.add(conn);
+                conn.setAutoCommit(false);
+                // Snapshot-Isolation: alle Lesezugriffe sehen denselben Stand, Schreiber werden nicht blockiert
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                expected += countRows(conn);
+            }
+            try (OutputStream fileOut = Files.newOutputStream(temp);
+                 GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE), BUFFER_SIZE);
+                 Writer out = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                out.write(HEADER);
+                out.write('\n');
+                rows = writeRows(connections, out);
+                if (rows != expected) {
+                    throw new IllegalStateException("Snapshot inkonsistent: erwartet " + expected + ", gelesen " + rows);
+                }
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            closeAll(connections, true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        TransferStats stats = new TransferStats(file, rows, Files.size(file), Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Snapshot {} geschrieben: {} Zeilen, {} Bytes in {} ms ({} Zeilen/s).", file, rows, stats.bytes(),
+                stats.duration().toMillis(), Math.round(stats.rowsPerSecond()));
+        return stats;
+    }
+
+    private static long countRows(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM students")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Schreibt die Zeilen aller Verbindungen nach ID gemischt. Jede Verbindung
+     * liefert bereits nach ID sortiert; pro Zeile wird die kleinste ID gewählt.
+     */
+    private static long writeRows(List<Connection> connections, Writer out) throws SQLException, IOException {
+        List<Statement> statements = new ArrayList<>(connections.size());
+        try {
+            List<ResultSet> results = new ArrayList<>(connections.size());
+            for (Connection conn : connections) {
+                Statement stmt = conn.createStatement();
+                statements.add(stmt);
+                stmt.setFetchSize(BATCH_SIZE);
+                ResultSet rs = stmt.executeQuery("SELECT id, first_name, last_name, email FROM students ORDER BY id");
+                results.add(rs.next() ? rs : null);
+            }
+            long rows = 0;
+            while (true) {
+                ResultSet next = null;
+                for (ResultSet rs : results) {
+                    if (rs != null && (next == null || rs.getLong(1) < next.getLong(1))) {
+                        next = rs;
+                    }
+                }
+                if (next == null) {
+                    return rows;
+                }
+                out.write(Long.toString(next.getLong(1)));
+                for (int column = 2; column <= COLUMNS; column++) {
+                    out.write(',');
+                    writeQuoted(out, next.getString(column));
+                }
+                out.write('\n');
+                rows++;
+                if (!next.next()) {
+                    results.set(results.indexOf(next), null);
+                }
+            }
+        } finally {
+            for (Statement stmt : statements) {
+                stmt.close();
+            }
+        }
+    }
+
+    /**
+     * Bestätigt die Transaktionen aller Verbindungen. Scheitert das nach einer
+     * bereits bestätigten Shard, werden die abgeleiteten Strukturen trotzdem
+     * neu aufgebaut, damit sie zum teilweise wiederhergestellten Stand passen.
+     */
+    private void commitAll(List<Connection> connections) throws SQLException {
+        int committed = 0;
+        try {
+            for (Connection conn : connections) {
+                conn.commit();
+                committed++;
+            }
+        } catch (SQLException e) {
+            if (committed > 0) {
+                logger.error("Wiederherstellung nur auf {} von {} Datenbanken bestätigt.", committed, connections.size());
+                try {
+                    repository.afterBulkLoad();
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Beendet die Transaktionen (Commit oder Rollback) und schließt alle Verbindungen.
+     * Fehler werden nur geloggt, damit alle Verbindungen geschlossen werden.
+     */
+    private static void closeAll(List<Connection> connections, boolean commit) {
+        for (Connection conn : connections) {
+            try {
+                if (!conn.getAutoCommit()) {
+                    if (commit) {
+                        conn.commit();
+                    } else {
+                        conn.rollback();
+                    }
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.warn("Transaktion konnte nicht beendet werden: {}", e.getMessage());
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.warn("Verbindung konnte nicht geschlossen werden: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void writeQuoted(Writer out, String value) throws IOException {
+        out.write('"');
+        if (value.indexOf('"') < 0) {
+            out.write(value);
+        } else {
+            out.write(value.replace("\"", "\"\""));
+        }
+        out.write('"');
+    }
+
+    /**
+     * Liest einen CSV-Datensatz. Felder in Anführungszeichen dürfen Kommas,
+     * Zeilenumbrüche und verdoppelte Anführungszeichen enthalten.
+     *
+     * @return die Felder oder null am Dateiende
+     */
+    static List<String> readRecord(Reader in) throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new EOFException("Dateiende innerhalb eines Feldes");
+                }
+                if (c == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    private static Student toStudent(List<String> record, Path file) throws IOException {
+        if (record.size() != COLUMNS) {
+            throw new IOException("Snapshot-Datei ist beschädigt (" + record.size() + " statt " + COLUMNS
+                    + " Spalten): " + file);
+        }
+        try {
+            return new Student(Long.parseLong(record.get(0)), record.get(1), record.get(2), record.get(3));
+        } catch (NumberFormatException e) {
+            throw new IOException("Snapshot-Datei ist beschädigt (ungültige ID): " + file, e);
+        }
+    }
+
+    private static BufferedReader openReader(Path file) throws IOException {
+        InputStream fileIn = Files.newInputStream(file);
+        try {
+            GZIPInputStream gzip = new GZIPInputStream(new BufferedInputStream(fileIn, BUFFER_SIZE), BUFFER_SIZE);
+            return new BufferedReader(new InputStreamReader(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            fileIn.close();
+            throw new IOException("Keine Snapshot-Datei: " + file, e);
+        }
+    }
+
+    private static void readHeader(BufferedReader in, Path file) throws IOException {
+        List<String> header = readRecord(in);
+        if (header == null || !HEADER.equals(String.join(",", header))) {
+            throw new IOException("Keine Snapshot-Datei: " + file);
+        }
+    }
+
+    /**
+     * Ersetzt den Tabelleninhalt durch den Inhalt einer Snapshot-Datei.
+     *
+     * @param file die Snapshot-Datei
+     * @return Zeilenzahl, Größe und Durchsatz
+     * @throws IOException wenn die Datei fehlt, beschädigt ist oder die Prüfsumme nicht stimmt
+     * @throws SQLException wenn die Datenbank nicht geschrieben werden kann
+     */
+    public TransferStats restore(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows;
+
+        List<Connection> connections = new ArrayList<>();
+        try (BufferedReader in = openReader(file)) {
+            readHeader(in, file);
+            for (StudentRepository partition : repository.partitions()) {
+                Connection conn = partition.getConnection();
+                connections.add(conn);
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM students");
+                }
+            }
+            try {
+                rows = insertRows(connections, in, file);
+            } catch (SQLException e) {
+                // Beschädigte Daten können als ungültige Zeilen (z. B. doppelte ID) auffallen,
+                // bevor der GZIP-Trailer gelesen ist; das als Dateifehler melden
+                verifyFile(file, e);
+                throw e;
+            }
+            commitAll(connections);
+        } finally {
+            closeAll(connections, false);
+        }
+        repository.afterBulkLoad();
+
+        TransferStats stats = new TransferStats(file, rows, Files.size(file), Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Snapshot {} wiederhergestellt: {} Zeilen in {} ms ({} Zeilen/s).", file, rows,
+                stats.duration().toMillis(), Math.round(stats.rowsPerSecond()));
+        return stats;
+    }
+
+    /**
+     * Liest die Datensätze bis zum Dateiende und fügt sie blockweise auf der
+     * zuständigen Verbindung ein. Erst das Lesen bis zum Ende prüft CRC32 und
+     * Länge des GZIP-Trailers.
+     */
+    private long insertRows(List<Connection> connections, BufferedReader in, Path file) throws SQLException, IOException {
+        List<List<Student>> batches = new ArrayList<>(connections.size());
+        for (int i = 0; i < connections.size(); i++) {
+            batches.add(new ArrayList<>(BATCH_SIZE));
+        }
+        long rows = 0;
+        List<String> record;
+        while ((record = readRecord(in)) != null) {
+            Student student = toStudent(record, file);
+            int partition = repository.partitionIndexFor(student.getId());
+            List<Student> batch = batches.get(partition);
+            batch.add(student);
+            if (batch.size() == BATCH_SIZE) {
+                StudentBulkLoader.insertRows(connections.get(partition), batch);
+                batch.clear();
+            }
+            rows++;
+        }
+        for (int i = 0; i < connections.size(); i++) {
+            StudentBulkLoader.insertRows(connections.get(i), batches.get(i));
+        }
+        return rows;
+    }
+
+    /**
+     * Liest die Datei vollständig ohne Datenbankzugriff und prüft dabei den GZIP-Trailer.
+     *
+     * @param cause der Datenbankfehler, der die Prüfung ausgelöst hat
+     * @throws IOException wenn die Datei beschädigt ist
+     */
+    private static void verifyFile(Path file, SQLException cause) throws IOException {
+        try (BufferedReader in = openReader(file)) {
+            readHeader(in, file);
+            List<String> record;
+            while ((record = readRecord(in)) != null) {
+                toStudent(record, file);
+            }
+        } catch (IOException e) {
+            IOException corrupted = new IOException("Snapshot-Datei ist beschädigt: " + file, e);
+            corrupted.addSuppressed(cause);
+            throw corrupted;
+        }
+    }
+
+    /**
+     * Setzt den ID-Zähler hinter die größte vorhandene ID, damit neue Studenten keine Kollision erzeugen.
+     */
+    static void restartIdentity(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            long next;
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM students")) {
+                rs.next();
+                next = rs.getLong(1);
+            }
+            stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+
+    /**
+     * Startet regelmäßige Snapshots in ein Verzeichnis.
+     * Es werden höchstens {@code retain} Dateien aufbewahrt, ältere werden gelöscht.
+     * Ein bereits laufender Zeitplan wird ersetzt.
+     *
+     * @param directory das Zielverzeichnis
+     * @param interval der Abstand zwischen zwei Snapshots
+     * @param retain die Anzahl aufzubewahrender Snapshots
+     * @throws IOException wenn das Verzeichnis nicht angelegt werden kann
+     */
+    public synchronized void scheduleSnapshots(Path directory, Duration interval, int retain) throws IOException {
+        if (retain < 1) {
+            throw new IllegalArgumentException("Mindestens ein Snapshot muss aufbewahrt werden: " + retain);
+        }
+        Files.createDirectories(directory);
+        stopScheduledSnapshots();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-zeitplan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + FILE_SUFFIX));
+                pruneSnapshots(directory, retain);
+            } catch (IOException | SQLException | RuntimeException e) {
+                logger.error("Geplanter Snapshot fehlgeschlagen: {}", e.getMessage(), e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Snapshots alle {} nach {} geplant (Aufbewahrung: {}).", interval, directory, retain);
+    }
+
+    /**
+     * Beendet regelmäßige Snapshots, falls geplant.
+     */
+    public synchronized void stopScheduledSnapshots() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Listet die Snapshot-Dateien eines Verzeichnisses, die neueste zuletzt.
+     *
+     * @param directory das Verzeichnis
+     * @return die Snapshot-Dateien in zeitlicher Reihenfolge
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann
+     */
+    public static List<Path> listSnapshots(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }).sorted().forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private static void pruneSnapshots(Path directory, int retain) throws IOException {
+        List<Path> snapshots = listSnapshots(directory);
+        for (int i = 0; i < snapshots.size() - retain; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+            logger.info("Alten Snapshot {} gelöscht.", snapshots.get(i));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+
+/**
+ * Sortierreihenfolge für Studentenlisten.
+ *
+ * Jede Sortierung ist durch einen Sekundärindex gedeckt, sodass die
+ * Datenbank Zeilen bereits sortiert liefert und Top-K-Abfragen nach K
+ * Zeilen abbrechen. Bei nicht eindeutigen Feldern dient die ID als
+ * zweites Sortierkriterium, damit die Reihenfolge stabil und per
+ * Keyset fortsetzbar ist.
+ *
+ * @param field das Sortierfeld
+ * @param descending true für absteigende Sortierung
+ * @author Team
+ * @version 2.0
+ */
+public record StudentSort(Field field, boolean descending) {
+
+    /**
+     * Sortierbare Felder und ihre Tabellenspalten.
+     */
+    public enum Field {
+        /** Nachname, Index idx_students_last_name */
+        LAST_NAME("last_name", false, Student::getLastName),
+        /** Vorname, Index idx_students_first_name */
+        FIRST_NAME("first_name", false, Student::getFirstName),
+        /** E-Mail-Adresse, durch den UNIQUE-Index gedeckt */
+        EMAIL("email", true, Student::getEmail);
+
+        private final String column;
+        private final boolean unique;
+        private final Function<Student, String> accessor;
+
+        Field(String column, boolean unique, Function<Student, String> accessor) {
+            this.column = column;
+            this.unique = unique;
+            this.accessor = accessor;
+        }
+
+        /** @return der Spaltenname in der Tabelle students */
+        public String column() {
+            return column;
+        }
+
+        /** @return true, wenn der Wert eindeutig ist und keine ID als Zusatzkriterium braucht */
+        public boolean isUnique() {
+            return unique;
+        }
+
+        /**
+         * Liest den Sortierwert eines Studenten.
+         *
+         * @param student der Student
+         * @return der Wert des Sortierfelds
+         */
+        public String valueFrom(Student student) {
+            return accessor.apply(student);
+        }
+    }
+
+    /**
+     * Erstellt eine aufsteigende Sortierung.
+     *
+     * @param field das Sortierfeld
+     * @return die Sortierung
+     */
+    public static StudentSort ascending(Field field) {
+        return new StudentSort(field, false);
+    }
+
+    /**
+     * Erstellt eine absteigende Sortierung.
+     *
+     * @param field das Sortierfeld
+     * @return die Sortierung
+     */
+    public static StudentSort descending(Field field) {
+        return new StudentSort(field, true);
+    }
+
+    /**
+     * Liefert die ORDER-BY-Klausel für diese Sortierung.
+     *
+     * @return die Klausel ohne führendes Leerzeichen
+     */
+    String orderByClause() {
+        String direction = descending ? " DESC" : " ASC";
+        return field.isUnique()
+                ? "ORDER BY " + field.column() + direction
+                : "ORDER BY " + field.column() + direction + ", id" + direction;
+    }
+
+    /**
+     * Liefert die WHERE-Bedingung für die Fortsetzung nach einem Cursor.
+     * Bei eindeutigen Feldern wird nur der Sortierwert gebunden, sonst Sortierwert und ID.
+     *
+     * @return die Bedingung ohne führendes WHERE
+     */
+    String keysetCondition() {
+        String operator = descending ? " < " : " > ";
+        return field.isUnique()
+                ? field.column() + operator + "?"
+                : "(" + field.column() + ", id)" + operator + "(?, ?)";
+    }
+
+    /**
+     * Liefert einen Comparator, der dieselbe Reihenfolge wie die Datenbank herstellt
+     * (z. B. zum Zusammenführen bereits sortierter Teilergebnisse).
+     *
+     * @return der Comparator
+     */
+    public Comparator<Student> comparator() {
+        Comparator<Student> comparator = Comparator.comparing((Student student) -> field.valueFrom(student))
+                .thenComparing(Student::getId);
+        return descending ? comparator.reversed() : comparator;
+    }
+}
@@ -0,0 +1,29 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.sql.Connection;
+
+/**
+ * Isolationsstufen für Transaktionen über mehrere Repository-Aufrufe.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public enum TransactionIsolation {
+    /** Nur bestätigte Änderungen anderer Transaktionen sind sichtbar (Standard von H2) */
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    /** Einmal gelesene Zeilen bleiben für die Dauer der Transaktion unverändert */
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    /** Die Transaktion verhält sich, als liefe sie allein */
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    private final int jdbcLevel;
+
+    TransactionIsolation(int jdbcLevel) {
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    /** @return die entsprechende Konstante aus {@link Connection} */
+    int jdbcLevel() {
+        return jdbcLevel;
+    }
+}
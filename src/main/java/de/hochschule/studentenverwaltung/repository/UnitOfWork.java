@@ -0,0 +1,86 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Eine an den aktuellen Thread gebundene Transaktion eines Repositorys.
+ *
+ * Alle Repository-Methoden, die innerhalb von
+ * {@link StudentRepository#inTransaction(TransactionIsolation, java.util.function.Supplier)}
+ * aufgerufen werden, erhalten statt einer eigenen Verbindung einen Proxy auf
+ * die gemeinsame Verbindung. Der Proxy ignoriert {@code close()},
+ * {@code commit()} und {@code setAutoCommit(...)}; ein {@code rollback()}
+ * ohne Savepoint markiert die Transaktion nur als zurückzurollen.
+ * Benachrichtigungen der Beobachter werden bis zum Commit zurückgehalten.
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class UnitOfWork {
+
+    private final Connection connection;
+    private final Connection sharedConnection;
+    private final List<Consumer<StudentChangeListener>> deferredEvents = new ArrayList<>();
+    private boolean rollbackOnly;
+
+    UnitOfWork(Connection connection) {
+        this.connection = connection;
+        this.sharedConnection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close", "commit", "setAutoCommit" -> {
+                            return null;
+                        }
+                        case "getAutoCommit" -> {
+                            return false;
+                        }
+                        case "rollback" -> {
+                            if (args == null) {
+                                rollbackOnly = true;
+                                return null;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /** @return die echte Verbindung (nur für Commit, Rollback und Schließen durch das Repository) */
+    Connection connection() {
+        return connection;
+    }
+
+    /** @return der Proxy, den die Repository-Methoden als Verbindung erhalten */
+    Connection sharedConnection() {
+        return sharedConnection;
+    }
+
+    /** Markiert die Transaktion so, dass sie am Ende zurückgerollt wird. */
+    void markRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    /** Hält eine Benachrichtigung der Beobachter bis zum Commit zurück. */
+    void defer(Consumer<StudentChangeListener> event) {
+        deferredEvents.add(event);
+    }
+
+    List<Consumer<StudentChangeListener>> deferredEvents() {
+        return deferredEvents;
+    }
+}
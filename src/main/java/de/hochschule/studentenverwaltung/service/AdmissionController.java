@@ -0,0 +1,355 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Zugangskontrolle für Service-Operationen (Admission Control).
+ *
+ * Operationen werden in getrennte Bereiche (Bulkheads) eingeteilt, damit z. B.
+ * viele gleichzeitige Gesamtlisten nicht die Einzelabfragen aushungern. Jeder
+ * Bereich lässt nur eine begrenzte Zahl von Operationen gleichzeitig zu.
+ * Weitere Aufrufer warten in einer begrenzten Warteschlange höchstens
+ * {@link Settings#maxQueueWait()} lang; ist die Warteschlange voll oder die
+ * Wartezeit abgelaufen, wird sofort mit {@link ServiceOverloadedException}
+ * abgewiesen, statt Threads und Verbindungen aufzustauen.
+ *
+ * Das Limit passt sich an die beobachtete Latenz an (AIMD): Steigt die Latenz
+ * deutlich über die Grundlatenz des unbelasteten Systems, wird das Limit
+ * höchstens einmal pro Latenzperiode um 10 % gesenkt; ist der Bereich
+ * ausgelastet und die Latenz unauffällig, wächst es um etwa eins pro Periode.
+ * Die Grundlatenz ist das Minimum des letzten Messfensters und folgt damit
+ * dauerhaften Veränderungen.
+ *
+ * Verschachtelte Aufrufe im selben Thread (z. B. Service-Operationen innerhalb
+ * von {@link StudentService#inTransaction}) belegen keinen weiteren Platz, da
+ * sie sonst auf ihren eigenen äußeren Aufruf warten könnten.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class AdmissionController {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    /** Anzahl Messungen, nach denen die Grundlatenz neu bestimmt wird */
+    private static final int BASELINE_WINDOW = 500;
+    /** Latenz ab diesem Vielfachen der Grundlatenz gilt als Überlastsignal */
+    private static final double LATENCY_TOLERANCE = 2.0;
+    /** Mindestabstand zur Grundlatenz, damit Messrauschen bei sehr kurzen Operationen nicht bremst */
+    private static final long LATENCY_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /** Faktor bei Überlast */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * Bereiche mit eigenem Limit und eigener Warteschlange.
+     */
+    public enum Bulkhead {
+        /** Einzelabfragen und Abfragen mit begrenzter Ergebnismenge (ID, Seite, Top-K) */
+        POINT,
+        /** Abfragen über alle Studenten (Gesamtliste, sortierte Liste, Streaming) */
+        BULK,
+        /** Anlegen, Ändern, Löschen und Transaktionen */
+        WRITE
+    }
+
+    /**
+     * Einstellungen eines Bereichs.
+     *
+     * @param initialLimit Limit gleichzeitiger Operationen beim Start
+     * @param minLimit untere Grenze des adaptiven Limits
+     * @param maxLimit obere Grenze des adaptiven Limits
+     * @param maxQueueLength höchstens so viele Aufrufer warten, weitere werden sofort abgewiesen
+     * @param maxQueueWait längste Wartezeit in der Warteschlange
+     */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, int maxQueueLength, Duration maxQueueWait) {
+
+        /**
+         * Prüft die Einstellungen.
+         */
+        public Settings {
+            if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Es muss 1 <= minLimit <= initialLimit <= maxLimit gelten: "
+                        + minLimit + "/" + initialLimit + "/" + maxLimit);
+            }
+            if (maxQueueLength < 0 || maxQueueWait.isNegative()) {
+                throw new IllegalArgumentException("Warteschlange und Wartezeit dürfen nicht negativ sein.");
+            }
+        }
+
+        /**
+         * Gibt die Standardeinstellungen eines Bereichs zurück.
+         *
+         * @param bulkhead der Bereich
+         * @return die Standardeinstellungen
+         */
+        public static Settings defaults(Bulkhead bulkhead) {
+            return switch (bulkhead) {
+                case POINT -> new Settings(16, 2, 64, 128, Duration.ofMillis(50));
+                case BULK -> new Settings(2, 1, 8, 8, Duration.ofMillis(500));
+                case WRITE -> new Settings(8, 1, 32, 64, Duration.ofMillis(200));
+            };
+        }
+    }
+
+    /**
+     * Momentaufnahme der Metriken eines Bereichs.
+     *
+     * @param limit aktuelles Limit gleichzeitiger Operationen
+     * @param inFlight gerade laufende Operationen
+     * @param queued gerade wartende Aufrufer
+     * @param admitted zugelassene Operationen
+     * @param queuedAdmissions davon zugelassen nach Wartezeit
+     * @param rejectedQueueFull abgewiesen, weil die Warteschlange voll war
+     * @param rejectedTimeout abgewiesen, weil die Wartezeit abgelaufen ist
+     * @param totalQueueNanos summierte Wartezeit aller wartenden Aufrufer in Nanosekunden
+     * @param maxQueueNanos längste einzelne Wartezeit in Nanosekunden
+     * @param baselineLatencyNanos aktuelle Grundlatenz in Nanosekunden, 0 ohne Messung
+     */
+    public record Metrics(int limit, int inFlight, int queued, long admitted, long queuedAdmissions,
+                          long rejectedQueueFull, long rejectedTimeout, long totalQueueNanos, long maxQueueNanos,
+                          long baselineLatencyNanos) {
+
+        /**
+         * Gibt die Anzahl aller Abweisungen zurück.
+         *
+         * @return die abgewiesenen Operationen
+         */
+        public long rejected() {
+            return rejectedQueueFull + rejectedTimeout;
+        }
+
+        /**
+         * Gibt die mittlere Wartezeit aller Aufrufer zurück, die warten mussten.
+         *
+         * @return die mittlere Wartezeit in Nanosekunden
+         */
+        public long averageQueueNanos() {
+            long waited = queuedAdmissions + rejectedTimeout;
+            return waited == 0 ? 0 : totalQueueNanos / waited;
+        }
+    }
+
+    private final Map<Bulkhead, Partition> partitions = new EnumMap<>(Bulkhead.class);
+    private final ThreadLocal<Boolean> admitted = new ThreadLocal<>();
+
+    /**
+     * Erstellt eine Zugangskontrolle mit den Standardeinstellungen aller Bereiche.
+     */
+    public AdmissionController() {
+        this(Map.of());
+    }
+
+    /**
+     * Erstellt eine Zugangskontrolle.
+     *
+     * @param settings Einstellungen pro Bereich; fehlende Bereiche erhalten {@link Settings#defaults}
+     */
+    public AdmissionController(Map<Bulkhead, Settings> settings) {
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            partitions.put(bulkhead, new Partition(bulkhead,
+                    settings.getOrDefault(bulkhead, Settings.defaults(bulkhead))));
+        }
+    }
+
+    /**
+     * Führt eine Operation aus, sobald der Bereich sie zulässt.
+     *
+     * @param bulkhead der Bereich der Operation
+     * @param action die Operation
+     * @param <T> der Rückgabetyp
+     * @return das Ergebnis der Operation
+     * @throws ServiceOverloadedException wenn die Operation abgewiesen wurde
+     */
+    public <T> T execute(Bulkhead bulkhead, Supplier<T> action) {
+        if (admitted.get() != null) {
+            return action.get();
+        }
+        Partition partition = partitions.get(bulkhead);
+        partition.acquire();
+        admitted.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            admitted.remove();
+            partition.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gibt die Metriken eines Bereichs zurück.
+     *
+     * @param bulkhead der Bereich
+     * @return eine Momentaufnahme der Metriken
+     */
+    public Metrics getMetrics(Bulkhead bulkhead) {
+        return partitions.get(bulkhead).metrics();
+    }
+
+    /**
+     * Gibt die Metriken aller Bereiche zurück.
+     *
+     * @return Momentaufnahmen der Metriken pro Bereich
+     */
+    public Map<Bulkhead, Metrics> getMetrics() {
+        Map<Bulkhead, Metrics> metrics = new EnumMap<>(Bulkhead.class);
+        partitions.forEach((bulkhead, partition) -> metrics.put(bulkhead, partition.metrics()));
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("AdmissionController{");
+        getMetrics().forEach((bulkhead, m) -> sb.append(String.format(
+                "%s: limit=%d, inFlight=%d, queued=%d, admitted=%d, rejected=%d, avgQueue=%d µs; ",
+                bulkhead, m.limit(), m.inFlight(), m.queued(), m.admitted(), m.rejected(),
+                TimeUnit.NANOSECONDS.toMicros(m.averageQueueNanos()))));
+        sb.setLength(sb.length() - 2);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Limit, Warteschlange und Zähler eines Bereichs. Alle Felder sind durch die Sperre geschützt.
+     */
+    private static final class Partition {
+        private final Bulkhead bulkhead;
+        private final Settings settings;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition permitAvailable = lock.newCondition();
+
+        private double limit;
+        private int inFlight;
+        private int queued;
+        private long admitted;
+        private long queuedAdmissions;
+        private long rejectedQueueFull;
+        private long rejectedTimeout;
+        private long totalQueueNanos;
+        private long maxQueueNanos;
+
+        private long baselineNanos;
+        private long windowMinNanos = Long.MAX_VALUE;
+        private int windowSamples;
+        private long lastDecreaseNanos;
+
+        Partition(Bulkhead bulkhead, Settings settings) {
+            this.bulkhead = bulkhead;
+            this.settings = settings;
+            this.limit = settings.initialLimit();
+        }
+
+        void acquire() {
+            lock.lock();
+            try {
+                // Neue Aufrufer überholen keine Wartenden
+                if (queued == 0 && inFlight < (int) limit) {
+                    inFlight++;
+                    admitted++;
+                    return;
+                }
+                if (queued >= settings.maxQueueLength()) {
+                    rejectedQueueFull++;
+                    throw reject("Warteschlange voll (" + queued + " wartend, Limit " + (int) limit + ")");
+                }
+                queued++;
+                long start = System.nanoTime();
+                long remaining = settings.maxQueueWait().toNanos();
+                try {
+                    while (inFlight >= (int) limit) {
+                        if (remaining <= 0) {
+                            rejectedTimeout++;
+                            recordQueueTime(System.nanoTime() - start);
+                            throw reject("Wartezeit von " + settings.maxQueueWait().toMillis() + " ms überschritten");
+                        }
+                        remaining = permitAvailable.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejectedTimeout++;
+                    throw reject("beim Warten unterbrochen");
+                } finally {
+                    queued--;
+                }
+                inFlight++;
+                admitted++;
+                queuedAdmissions++;
+                recordQueueTime(System.nanoTime() - start);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long latencyNanos) {
+            lock.lock();
+            try {
+                boolean saturated = inFlight >= (int) limit;
+                inFlight--;
+                int before = (int) limit;
+                adjustLimit(latencyNanos, saturated);
+                if ((int) limit > before) {
+                    permitAvailable.signalAll();
+                } else {
+                    permitAvailable.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void adjustLimit(long latencyNanos, boolean saturated) {
+            windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+            if (++windowSamples >= BASELINE_WINDOW) {
+                baselineNanos = windowMinNanos;
+                windowMinNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            long baseline = baselineNanos == 0 ? windowMinNanos : Math.min(baselineNanos, windowMinNanos);
+            long threshold = Math.max((long) (baseline * LATENCY_TOLERANCE), baseline + LATENCY_SLACK_NANOS);
+            long now = System.nanoTime();
+            if (latencyNanos > threshold) {
+                // Höchstens einmal pro Latenzperiode senken, sonst bricht das Limit bei einem Stau sofort ein
+                if (now - lastDecreaseNanos >= latencyNanos) {
+                    double reduced = Math.max(settings.minLimit(), limit * BACKOFF_RATIO);
+                    if ((int) reduced < (int) limit) {
+                        logger.debug("Limit für {} gesenkt: {} -> {} (Latenz {} µs, Grundlatenz {} µs)", bulkhead,
+                                (int) limit, (int) reduced, latencyNanos / 1_000, baseline / 1_000);
+                    }
+                    limit = reduced;
+                    lastDecreaseNanos = now;
+                }
+            } else if (saturated) {
+                limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+            }
+        }
+
+        private void recordQueueTime(long nanos) {
+            totalQueueNanos += nanos;
+            maxQueueNanos = Math.max(maxQueueNanos, nanos);
+        }
+
+        private ServiceOverloadedException reject(String reason) {
+            logger.debug("Operation im Bereich {} abgewiesen: {}", bulkhead, reason);
+            return new ServiceOverloadedException(bulkhead, "Überlast im Bereich " + bulkhead + ": " + reason);
+        }
+
+        Metrics metrics() {
+            lock.lock();
+            try {
+                long baseline = baselineNanos != 0 ? baselineNanos
+                        : windowMinNanos == Long.MAX_VALUE ? 0 : windowMinNanos;
+                return new Metrics((int) limit, inFlight, queued, admitted, queuedAdmissions,
+                        rejectedQueueFull, rejectedTimeout, totalQueueNanos, maxQueueNanos, baseline);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
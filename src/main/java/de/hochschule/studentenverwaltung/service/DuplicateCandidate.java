@@ -0,0 +1,17 @@
+package de.hochschule.studentenverwaltung.service;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+
+/**
+ * Ein Paar von Studenten, die wahrscheinlich dieselbe Person sind.
+ *
+ * @param first der Student mit der kleineren ID
+ * @param second der Student mit der größeren ID
+ * @param score die Ähnlichkeit zwischen 0 und 1
+ * @param namesSwapped ob die Ähnlichkeit mit vertauschtem Vor- und Nachnamen erreicht wurde
+ *
+ * @author Team
+ * @version 2.0
+ */
+public record DuplicateCandidate(StudentDto first, StudentDto second, double score, boolean namesSwapped) {
+}
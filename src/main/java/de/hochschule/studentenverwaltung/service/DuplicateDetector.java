@@ -0,0 +1,354 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.mapper.StudentMapper;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+
+/**
+ * Sucht Studenten, die wahrscheinlich doppelt erfasst sind, etwa "Mueller" und
+ * "Müller", mit vertauschtem Vor- und Nachnamen oder mit zwei E-Mail-Adressen.
+ *
+ * Statt alle Paare zu vergleichen, erhält jeder Student bis zu drei
+ * Blockschlüssel: Kölner Phonetik des Nachnamens mit Anfangsbuchstaben des
+ * Vornamens, dasselbe mit vertauschten Namen und der normalisierte lokale
+ * Teil der E-Mail-Adresse. Verglichen werden nur Studenten mit einem
+ * gemeinsamen Schlüssel. Blöcke mit mehr als {@value #MAX_BLOCK_SIZE}
+ * Mitgliedern werden nach Namen sortiert (in Blöcken vertauschter Namen mit
+ * vertauschter Reihenfolge) und nur innerhalb eines Fensters von
+ * {@value #WINDOW} Nachbarn verglichen. Ein Paar mit einem gemeinsamen,
+ * vollständig verglichenen Block wird nur im kleinsten solchen Schlüssel
+ * bewertet; alle anderen Paare höchstens einmal über alle Fenster. Vermerkt
+ * werden dafür nur Paare, die mehrere große Blöcke teilen.
+ *
+ * Die Bewertung kombiniert die Jaro-Winkler-Ähnlichkeit der normalisierten
+ * Namen (direkt oder vertauscht, der bessere Wert zählt) mit der des lokalen
+ * Teils der E-Mail-Adresse. Die Blöcke werden parallel im Fork/Join-Pool
+ * bewertet; Kandidaten ab dem Schwellwert werden sofort an den Empfänger
+ * weitergereicht (nacheinander, nie gleichzeitig).
+ *
+ * Nach einem vollständigen Lauf bleibt der Index im Speicher.
+ * {@link #detectNew(Consumer)} prüft dann nur die seitdem angelegten
+ * Studenten gegen den Index (vollständig, ohne Fenster) und nimmt sie auf.
+ * Geänderte oder gelöschte Studenten werden erst beim nächsten
+ * vollständigen Lauf berücksichtigt.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class DuplicateDetector {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetector.class);
+
+    /** Standard-Schwellwert für die Ähnlichkeit eines Kandidatenpaars */
+    public static final double DEFAULT_THRESHOLD = 0.9;
+
+    /** Blöcke bis zu dieser Größe werden paarweise vollständig verglichen */
+    static final int MAX_BLOCK_SIZE = 1000;
+
+    /** Fenstergröße für den Vergleich in größeren Blöcken */
+    static final int WINDOW = 25;
+
+    /** Gewicht der Namen gegenüber dem lokalen Teil der E-Mail-Adresse */
+    private static final double NAME_WEIGHT = 0.85;
+
+    /**
+     * Kennzahlen eines Laufs.
+     *
+     * @param students die Anzahl der geprüften Studenten
+     * @param comparisons die Anzahl der bewerteten Paare
+     * @param candidates die Anzahl der gemeldeten Kandidatenpaare
+     * @param duration die Dauer des Laufs
+     */
+    public record Result(long students, long comparisons, long candidates, Duration duration) {
+    }
+
+    /** Ein Student mit seinen normalisierten Vergleichswerten. */
+    private record Entry(Student student, String first, String last, String emailLocal, String[] keys) {
+    }
+
+    /** Die Positionen der Studenten eines Blockschlüssels in aufsteigender Reihenfolge. */
+    private static final class Block {
+        private int[] members = new int[2];
+        private int size;
+
+        void add(int index) {
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+            }
+            members[size++] = index;
+        }
+    }
+
+    private final StudentRepository repository;
+    private final double threshold;
+    private final ForkJoinPool pool;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Block> blocks = new HashMap<>();
+    private long maxIndexedId;
+
+    /**
+     * Erstellt einen Detektor mit dem Standard-Schwellwert im gemeinsamen Fork/Join-Pool.
+     *
+     * @param repository das Repository, aus dem die Studenten gelesen werden
+     */
+    public DuplicateDetector(StudentRepository repository) {
+        this(repository, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Erstellt einen Detektor.
+     *
+     * @param repository das Repository, aus dem die Studenten gelesen werden
+     * @param threshold die Mindestähnlichkeit eines gemeldeten Paars (0 bis 1)
+     * @param pool der Pool für die parallele Bewertung
+     */
+    public DuplicateDetector(StudentRepository repository, double threshold, ForkJoinPool pool) {
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Schwellwert muss zwischen 0 und 1 liegen: " + threshold);
+        }
+        this.repository = repository;
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Baut den Index aus allen Studenten neu auf und meldet alle Kandidatenpaare.
+     *
+     * @param sink der Empfänger der Kandidaten
+     * @return die Kennzahlen des Laufs
+     */
+    public synchronized Result detectAll(Consumer<DuplicateCandidate> sink) {
+        long start = System.nanoTime();
+        entries.clear();
+        blocks.clear();
+        maxIndexedId = 0;
+        repository.forEachCreatedAfter(0, this::index);
+
+        List<Map.Entry<String, Block>> work = blocks.entrySet().stream()
+                .filter(block -> block.getValue().size > 1)
+                .toList();
+        LongAdder comparisons = new LongAdder();
+        LongAdder candidates = new LongAdder();
+        Consumer<DuplicateCandidate> out = serialized(sink, candidates);
+        Set<Long> windowedPairs = ConcurrentHashMap.newKeySet();
+        pool.submit(() -> work.parallelStream()
+                .forEach(block -> scoreBlock(block.getKey(), block.getValue(), windowedPairs, comparisons, out)))
+                .join();
+
+        Result result = new Result(entries.size(), comparisons.sum(), candidates.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Dublettensuche: {} Student(en) in {} Blöcken, {} Vergleiche, {} Kandidat(en) in {} ms.",
+                result.students(), work.size(), result.comparisons(), result.candidates(),
+                result.duration().toMillis());
+        return result;
+    }
+
+    /**
+     * Prüft nur die seit dem letzten Lauf angelegten Studenten gegen den Index
+     * und nimmt sie auf. Ohne vorherigen Lauf wird {@link #detectAll(Consumer)} ausgeführt.
+     *
+     * @param sink der Empfänger der Kandidaten
+     * @return die Kennzahlen des Laufs (Studenten: nur die neuen)
+     */
+    public synchronized Result detectNew(Consumer<DuplicateCandidate> sink) {
+        if (entries.isEmpty()) {
+            return detectAll(sink);
+        }
+        long start = System.nanoTime();
+        int firstNew = entries.size();
+        repository.forEachCreatedAfter(maxIndexedId, this::index);
+
+        LongAdder comparisons = new LongAdder();
+        LongAdder candidates = new LongAdder();
+        Consumer<DuplicateCandidate> out = serialized(sink, candidates);
+        pool.submit(() -> IntStream.range(firstNew, entries.size()).parallel()
+                .forEach(index -> scoreAgainstIndex(index, comparisons, out)))
+                .join();
+
+        Result result = new Result(entries.size() - firstNew, comparisons.sum(), candidates.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+        logger.info("Inkrementelle Dublettensuche: {} neue(r) Student(en), {} Vergleiche, {} Kandidat(en) in {} ms.",
+                result.students(), result.comparisons(), result.candidates(), result.duration().toMillis());
+        return result;
+    }
+
+    private void index(Student student) {
+        String first = NameSimilarity.normalize(student.getFirstName());
+        String last = NameSimilarity.normalize(student.getLastName());
+        String email = student.getEmail() != null ? student.getEmail() : "";
+        int at = email.indexOf('@');
+        String emailLocal = NameSimilarity.normalize(at >= 0 ? email.substring(0, at) : email);
+
+        List<String> keys = new ArrayList<>(3);
+        String directKey = nameKey(last, first);
+        if (directKey != null) {
+            keys.add(directKey);
+        }
+        // Derselbe Namensraum wie oben, damit vertauschte Namen im selben Block landen
+        String swappedKey = nameKey(first, last);
+        if (swappedKey != null && !keys.contains(swappedKey)) {
+            keys.add(swappedKey);
+        }
+        if (emailLocal.length() >= 3) {
+            keys.add("E:" + emailLocal);
+        }
+
+        int position = entries.size();
+        entries.add(new Entry(student, first, last, emailLocal, keys.toArray(String[]::new)));
+        for (String key : keys) {
+            blocks.computeIfAbsent(key, k -> new Block()).add(position);
+        }
+        maxIndexedId = Math.max(maxIndexedId, student.getId());
+    }
+
+    /**
+     * Bildet den Blockschlüssel aus dem phonetischen Code eines Namens und dem
+     * Anfangsbuchstaben des anderen.
+     *
+     * @return der Schlüssel oder null, wenn einer der Namen leer ist
+     */
+    private static String nameKey(String coded, String initial) {
+        String code = NameSimilarity.colognePhonetic(coded);
+        return code.isEmpty() || initial.isEmpty() ? null : "C:" + code + initial.charAt(0);
+    }
+
+    private void scoreBlock(String key, Block block, Set<Long> windowedPairs, LongAdder comparisons,
+            Consumer<DuplicateCandidate> out) {
+        if (block.size <= MAX_BLOCK_SIZE) {
+            for (int i = 0; i < block.size; i++) {
+                for (int j = i + 1; j < block.size; j++) {
+                    int a = block.members[i];
+                    int b = block.members[j];
+                    if (key.equals(smallestSharedKey(entries.get(a), entries.get(b), true))) {
+                        compare(a, b, comparisons, out);
+                    }
+                }
+            }
+            return;
+        }
+        // Sortierte Nachbarschaft: nur Studenten mit ähnlich sortierenden Namen vergleichen.
+        // Wer nur über vertauschte Namen im Block ist, wird mit vertauschten Namen einsortiert.
+        String[] sortNames = new String[block.size];
+        Integer[] sorted = new Integer[block.size];
+        for (int i = 0; i < block.size; i++) {
+            Entry entry = entries.get(block.members[i]);
+            boolean swapped = key.startsWith("C:") && !key.equals(nameKey(entry.last(), entry.first()));
+            sortNames[i] = swapped ? entry.first() + ' ' + entry.last() : entry.last() + ' ' + entry.first();
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, Comparator.comparing((Integer i) -> sortNames[i]));
+        for (int i = 0; i < sorted.length; i++) {
+            for (int j = i + 1; j < Math.min(sorted.length, i + 1 + WINDOW); j++) {
+                int a = block.members[sorted[i]];
+                int b = block.members[sorted[j]];
+                Entry first = entries.get(a);
+                Entry second = entries.get(b);
+                // Paare mit einem vollständig verglichenen gemeinsamen Block werden dort bewertet
+                if (smallestSharedKey(first, second, true) != null) {
+                    continue;
+                }
+                // Nur Paare mit einem weiteren gemeinsamen (dann ebenfalls großen) Block
+                // können in mehreren Fenstern auftauchen und müssen vermerkt werden
+                if (!sharesOtherKey(first, second, key) || windowedPairs.add(pairId(a, b))) {
+                    compare(a, b, comparisons, out);
+                }
+            }
+        }
+    }
+
+    private static boolean sharesOtherKey(Entry a, Entry b, String key) {
+        for (String other : a.keys()) {
+            if (!other.equals(key) && Arrays.asList(b.keys()).contains(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long pairId(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    /**
+     * Vergleicht einen neuen Studenten vollständig mit allen früheren Mitgliedern
+     * seiner Blöcke; jedes Paar nur im kleinsten gemeinsamen Schlüssel.
+     */
+    private void scoreAgainstIndex(int index, LongAdder comparisons, Consumer<DuplicateCandidate> out) {
+        for (String key : entries.get(index).keys()) {
+            Block block = blocks.get(key);
+            for (int m = 0; m < block.size && block.members[m] < index; m++) {
+                if (key.equals(smallestSharedKey(entries.get(block.members[m]), entries.get(index), false))) {
+                    compare(block.members[m], index, comparisons, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bewertet ein Paar und meldet es ab dem Schwellwert.
+     */
+    private void compare(int a, int b, LongAdder comparisons, Consumer<DuplicateCandidate> out) {
+        Entry first = entries.get(a);
+        Entry second = entries.get(b);
+        comparisons.increment();
+
+        double direct = (NameSimilarity.jaroWinkler(first.first(), second.first())
+                + NameSimilarity.jaroWinkler(first.last(), second.last())) / 2;
+        double swapped = (NameSimilarity.jaroWinkler(first.first(), second.last())
+                + NameSimilarity.jaroWinkler(first.last(), second.first())) / 2;
+        double names = Math.max(direct, swapped);
+        double score = NAME_WEIGHT * names
+                + (1 - NAME_WEIGHT) * NameSimilarity.jaroWinkler(first.emailLocal(), second.emailLocal());
+        if (score < threshold) {
+            return;
+        }
+        boolean lowerFirst = first.student().getId() < second.student().getId();
+        Student low = lowerFirst ? first.student() : second.student();
+        Student high = lowerFirst ? second.student() : first.student();
+        out.accept(new DuplicateCandidate(StudentMapper.mapToStudentDto(low), StudentMapper.mapToStudentDto(high),
+                score, swapped > direct));
+    }
+
+    /**
+     * Bestimmt den kleinsten gemeinsamen Schlüssel zweier Studenten.
+     *
+     * @param fullyComparedOnly nur Schlüssel, deren Block vollständig paarweise verglichen wird
+     * @return der Schlüssel oder null, wenn es keinen solchen gibt
+     */
+    private String smallestSharedKey(Entry a, Entry b, boolean fullyComparedOnly) {
+        String smallest = null;
+        for (String key : a.keys()) {
+            if ((smallest == null || key.compareTo(smallest) < 0) && Arrays.asList(b.keys()).contains(key)
+                    && (!fullyComparedOnly || blocks.get(key).size <= MAX_BLOCK_SIZE)) {
+                smallest = key;
+            }
+        }
+        return smallest;
+    }
+
+    private static Consumer<DuplicateCandidate> serialized(Consumer<DuplicateCandidate> sink, LongAdder candidates) {
+        return candidate -> {
+            synchronized (sink) {
+                sink.accept(candidate);
+            }
+            candidates.increment();
+        };
+    }
+}
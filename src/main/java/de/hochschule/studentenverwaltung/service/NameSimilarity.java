@@ -0,0 +1,161 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalisierung, phonetische Codes und Ähnlichkeitsmaße für Namen.
+ *
+ * @author Team
+ * @version 2.0
+ */
+final class NameSimilarity {
+
+    private NameSimilarity() {
+    }
+
+    /**
+     * Normalisiert einen Namen für den Vergleich: Kleinschreibung, Umlaute als
+     * ae/oe/ue, ß als ss, übrige Akzente entfernt, nur Buchstaben a-z.
+     * "Müller", "Mueller" und "MÜLLER" ergeben so denselben Wert.
+     *
+     * @param value der Name (darf null sein)
+     * @return der normalisierte Name, leer für null
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String lower = value.toLowerCase(Locale.ROOT)
+                .replace("ä", "ae").replace("ö", "oe").replace("ü", "ue").replace("ß", "ss");
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Berechnet den Code der Kölner Phonetik für einen normalisierten Namen.
+     * Gleich klingende Schreibweisen wie "Meier", "Mayer" und "Maier" erhalten
+     * denselben Code.
+     *
+     * @param name der mit {@link #normalize(String)} normalisierte Name
+     * @return der phonetische Code (Ziffern), leer für einen leeren Namen
+     */
+    static String colognePhonetic(String name) {
+        StringBuilder code = new StringBuilder(name.length());
+        char last = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char previous = i > 0 ? name.charAt(i - 1) : 0;
+            char next = i + 1 < name.length() ? name.charAt(i + 1) : 0;
+            String digits = cologneDigits(c, previous, next, i == 0);
+            for (int d = 0; d < digits.length(); d++) {
+                char digit = digits.charAt(d);
+                // Gleiche aufeinanderfolgende Ziffern zusammenfassen, '0' nur am Anfang behalten
+                if (digit != last && (digit != '0' || code.isEmpty())) {
+                    code.append(digit);
+                }
+                last = digit;
+            }
+        }
+        return code.toString();
+    }
+
+    private static String cologneDigits(char c, char previous, char next, boolean first) {
+        switch (c) {
+            case 'a', 'e', 'i', 'j', 'o', 'u', 'y':
+                return "0";
+            case 'h':
+                return "";
+            case 'b':
+                return "1";
+            case 'p':
+                return next == 'h' ? "3" : "1";
+            case 'd', 't':
+                return next == 'c' || next == 's' || next == 'z' ? "8" : "2";
+            case 'f', 'v', 'w':
+                return "3";
+            case 'g', 'k', 'q':
+                return "4";
+            case 'c':
+                if (first) {
+                    return "ahkloqrux".indexOf(next) >= 0 ? "4" : "8";
+                }
+                return previous != 's' && previous != 'z' && "ahkoqux".indexOf(next) >= 0 ? "4" : "8";
+            case 'x':
+                return previous == 'c' || previous == 'k' || previous == 'q' ? "8" : "48";
+            case 'l':
+                return "5";
+            case 'm', 'n':
+                return "6";
+            case 'r':
+                return "7";
+            case 's', 'z':
+                return "8";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Berechnet die Jaro-Winkler-Ähnlichkeit zweier Zeichenketten.
+     *
+     * @param a die erste Zeichenkette
+     * @param b die zweite Zeichenkette
+     * @return die Ähnlichkeit zwischen 0 (nichts gemeinsam) und 1 (gleich)
+     */
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+
+        int prefix = 0;
+        int maxPrefix = Math.min(4, Math.min(a.length(), b.length()));
+        while (prefix < maxPrefix && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+}
@@ -0,0 +1,402 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.CrossShardTransactionException;
+import de.hochschule.studentenverwaltung.repository.SaveResult;
+
+/**
+ * Gleicht den Bestand mit einer vollständigen Studentenliste des
+ * Prüfungsamts ab und schreibt nur die Unterschiede.
+ *
+ * Die Liste ist eine CSV-Datei mit Kopfzeile und den Spalten
+ * {@code first_name}, {@code last_name} und {@code email} (alternativ
+ * {@code vorname}, {@code nachname}, {@code e-mail}; Trennzeichen ',' oder
+ * ';', ohne Anführungszeichen). Weitere Spalten wie eine ID werden ignoriert.
+ *
+ * Der Abgleich erfolgt in drei Schritten:
+ * <ol>
+ * <li>Der Bestand wird gestreamt und pro E-Mail-Adresse nur ID und ein
+ *     64-Bit-Hash von Vor- und Nachname im Speicher gehalten.</li>
+ * <li>Die Liste wird zeilenweise gelesen. Unbekannte E-Mail-Adressen werden
+ *     angelegt, abweichende Hashes geändert; Adressen, die in der Liste fehlen,
+ *     werden gelöscht. Nur für diese Differenz werden die vollständigen
+ *     Altdaten nachgeladen, um geänderte Felder zu berichten.</li>
+ * <li>Ohne Probelauf werden Löschungen, Änderungen und Neuanlagen in Blöcken
+ *     zu {@value #BATCH_SIZE} in einer einzigen Transaktion geschrieben.
+ *     Schlägt ein Schreibzugriff fehl (z. B. weil der Bestand zwischenzeitlich
+ *     geändert wurde), wird alles zurückgerollt.</li>
+ * </ol>
+ *
+ * Auf einem geshardeten Repository laufen Transaktionen nur auf einer Shard.
+ * Verteilt sich die Differenz auf mehrere Shards, wird sie nach dem Rollback
+ * ohne gemeinsame Transaktion erneut geschrieben; ein Fehler bricht dann ab,
+ * ohne die bereits geschriebenen Blöcke zurückzurollen.
+ *
+ * Zeilen mit ungültigen Werten werden nicht übernommen; ein bereits
+ * vorhandener Student mit derselben E-Mail-Adresse bleibt unverändert
+ * erhalten. Als Schutz gegen abgeschnittene Dateien wird der Abgleich
+ * abgelehnt, wenn mehr als der erlaubte Anteil des Bestands gelöscht würde.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class RosterSync {
+    private static final Logger logger = LoggerFactory.getLogger(RosterSync.class);
+
+    /** Studenten pro Schreibzugriff */
+    static final int BATCH_SIZE = 1000;
+
+    /** Standardanteil des Bestands, der höchstens gelöscht werden darf */
+    public static final double DEFAULT_MAX_DELETION_RATIO = 0.2;
+
+    /** Maximale Feldlänge laut Schema */
+    private static final int MAX_FIELD_LENGTH = 100;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Eine Änderung an einem bestehenden Studenten.
+     *
+     * @param before der bisherige Stand
+     * @param after der Stand laut Liste (mit derselben ID)
+     */
+    public record Update(StudentDto before, StudentDto after) {
+
+        /**
+         * Gibt die Namen der geänderten Felder zurück.
+         *
+         * @return z. B. {@code [first_name]}
+         */
+        public List<String> changedFields() {
+            List<String> fields = new ArrayList<>(2);
+            if (!before.getFirstName().equals(after.getFirstName())) {
+                fields.add("first_name");
+            }
+            if (!before.getLastName().equals(after.getLastName())) {
+                fields.add("last_name");
+            }
+            return fields;
+        }
+    }
+
+    /**
+     * Ergebnis eines Abgleichs.
+     *
+     * @param rosterRows gelesene Datenzeilen der Liste
+     * @param currentStudents Studenten im Bestand vor dem Abgleich
+     * @param unchanged unveränderte Studenten
+     * @param inserts neu anzulegende Studenten
+     * @param updates zu ändernde Studenten
+     * @param deletions zu löschende Studenten
+     * @param invalidRows nicht übernommene Zeilen mit Grund
+     * @param applied true, wenn die Differenz geschrieben wurde
+     * @param duration Dauer des Abgleichs
+     */
+    public record Report(long rosterRows, long currentStudents, long unchanged, List<StudentDto> inserts,
+                         List<Update> updates, List<StudentDto> deletions, List<String> invalidRows,
+                         boolean applied, Duration duration) {
+
+        /**
+         * Gibt die Anzahl der geschriebenen bzw. zu schreibenden Zeilen zurück.
+         *
+         * @return Neuanlagen, Änderungen und Löschungen zusammen
+         */
+        public int touchedRows() {
+            return inserts.size() + updates.size() + deletions.size();
+        }
+    }
+
+    private final StudentService studentService;
+    private final double maxDeletionRatio;
+
+    /**
+     * Erstellt einen Abgleich mit {@link #DEFAULT_MAX_DELETION_RATIO}.
+     *
+     * @param studentService der Service für Lese- und Schreibzugriffe
+     */
+    public RosterSync(StudentService studentService) {
+        this(studentService, DEFAULT_MAX_DELETION_RATIO);
+    }
+
+    /**
+     * Erstellt einen Abgleich.
+     *
+     * @param studentService der Service für Lese- und Schreibzugriffe
+     * @param maxDeletionRatio höchstens dieser Anteil des Bestands darf gelöscht werden (1 = keine Grenze)
+     */
+    public RosterSync(StudentService studentService, double maxDeletionRatio) {
+        this.studentService = studentService;
+        this.maxDeletionRatio = maxDeletionRatio;
+    }
+
+    /**
+     * Gleicht den Bestand mit einer Datei ab.
+     *
+     * @param roster die CSV-Datei (UTF-8)
+     * @param dryRun true, um nur die Differenz zu berechnen
+     * @return der Bericht
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder keine gültige Kopfzeile hat
+     * @throws IllegalStateException wenn zu viele Löschungen anfallen oder das Schreiben scheitert
+     */
+    public Report sync(Path roster, boolean dryRun) throws IOException {
+        try (Reader reader = Files.newBufferedReader(roster, StandardCharsets.UTF_8)) {
+            return sync(reader, dryRun);
+        }
+    }
+
+    /**
+     * Gleicht den Bestand mit einer Liste ab.
+     *
+     * @param roster die CSV-Daten
+     * @param dryRun true, um nur die Differenz zu berechnen
+     * @return der Bericht
+     * @throws IOException wenn die Liste nicht gelesen werden kann oder keine gültige Kopfzeile hat
+     * @throws IllegalStateException wenn zu viele Löschungen anfallen oder das Schreiben scheitert
+     */
+    public Report sync(Reader roster, boolean dryRun) throws IOException {
+        long start = System.nanoTime();
+
+        Map<String, long[]> current = new HashMap<>();
+        studentService.forEachStudent(student -> current.put(
+                student.getEmail(),
+                new long[] {student.getId(), contentHash(student.getFirstName(), student.getLastName())}));
+        long currentStudents = current.size();
+
+        List<StudentDto> inserts = new ArrayList<>();
+        List<StudentDto> changed = new ArrayList<>();
+        List<String> invalidRows = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        long rosterRows = 0;
+        long unchanged = 0;
+
+        BufferedReader reader = roster instanceof BufferedReader buffered ? buffered : new BufferedReader(roster);
+        Columns columns = Columns.parse(reader.readLine());
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            rosterRows++;
+            String[] fields = line.split(columns.separator(), -1);
+            String firstName = columns.firstName(fields);
+            String lastName = columns.lastName(fields);
+            String email = columns.email(fields);
+            if (email != null && !email.isEmpty() && !seen.add(email)) {
+                invalidRows.add("Zeile " + lineNumber + ": doppelte E-Mail-Adresse " + email);
+                continue;
+            }
+            String error = validate(firstName, lastName, email);
+            if (error != null) {
+                invalidRows.add("Zeile " + lineNumber + ": " + error);
+                continue;
+            }
+            long[] existing = current.get(email);
+            if (existing == null) {
+                inserts.add(new StudentDto(null, firstName, lastName, email));
+            } else if (existing[1] != contentHash(firstName, lastName)) {
+                changed.add(new StudentDto(existing[0], firstName, lastName, email));
+            } else {
+                unchanged++;
+            }
+        }
+
+        List<Long> deletedIds = new ArrayList<>();
+        current.forEach((email, entry) -> {
+            if (!seen.contains(email)) {
+                deletedIds.add(entry[0]);
+            }
+        });
+
+        // Nur für die Differenz die vollständigen Altdaten laden
+        Map<Long, StudentDto> before = new HashMap<>();
+        List<Long> lookup = new ArrayList<>(changed.size() + deletedIds.size());
+        changed.forEach(student -> lookup.add(student.getId()));
+        lookup.addAll(deletedIds);
+        for (int from = 0; from < lookup.size(); from += BATCH_SIZE) {
+            before.putAll(studentService.getStudentsById(lookup.subList(from, Math.min(from + BATCH_SIZE, lookup.size()))));
+        }
+        List<Update> updates = new ArrayList<>(changed.size());
+        for (StudentDto after : changed) {
+            updates.add(new Update(before.get(after.getId()), after));
+        }
+        List<StudentDto> deletions = new ArrayList<>(deletedIds.size());
+        for (Long id : deletedIds) {
+            deletions.add(before.get(id));
+        }
+
+        logger.info("Abgleich: {} Zeile(n), {} neu, {} geändert, {} gelöscht, {} unverändert, {} ungültig.",
+                rosterRows, inserts.size(), updates.size(), deletions.size(), unchanged, invalidRows.size());
+
+        if (!dryRun) {
+            if (deletions.size() > currentStudents * maxDeletionRatio) {
+                throw new IllegalStateException(String.format(Locale.ROOT,
+                        "Abgleich abgelehnt: %d von %d Studenten würden gelöscht (erlaubt sind %.0f %%).",
+                        deletions.size(), currentStudents, maxDeletionRatio * 100));
+            }
+            apply(inserts, changed, deletedIds);
+        }
+        return new Report(rosterRows, currentStudents, unchanged, inserts, updates, deletions, invalidRows,
+                !dryRun, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Schreibt die Differenz blockweise in einer Transaktion.
+     */
+    private void apply(List<StudentDto> inserts, List<StudentDto> updates, List<Long> deletedIds) {
+        if (inserts.isEmpty() && updates.isEmpty() && deletedIds.isEmpty()) {
+            return;
+        }
+        try {
+            studentService.inTransaction(service -> {
+                write(service, inserts, updates, deletedIds);
+                return null;
+            });
+        } catch (CrossShardTransactionException e) {
+            logger.warn("Differenz verteilt sich auf mehrere Shards ({}); schreibe ohne gemeinsame Transaktion.",
+                    e.getMessage());
+            // IDs aus dem zurückgerollten Versuch verwerfen
+            inserts.forEach(student -> student.setId(null));
+            write(studentService, inserts, updates, deletedIds);
+        }
+        logger.info("Abgleich angewendet: {} neu, {} geändert, {} gelöscht.",
+                inserts.size(), updates.size(), deletedIds.size());
+    }
+
+    private static void write(StudentService service, List<StudentDto> inserts, List<StudentDto> updates,
+            List<Long> deletedIds) {
+        for (List<Long> batch : batches(deletedIds)) {
+            Set<Long> deleted = service.deleteStudents(batch);
+            if (deleted.size() != batch.size()) {
+                throw new IllegalStateException("Abgleich abgebrochen: " + (batch.size() - deleted.size())
+                        + " Student(en) waren bereits gelöscht.");
+            }
+        }
+        for (List<StudentDto> batch : batches(updates)) {
+            requireAll(service.updateStudents(batch), SaveResult.UPDATED, batch);
+        }
+        for (List<StudentDto> batch : batches(inserts)) {
+            requireAll(service.createStudents(batch), SaveResult.CREATED, batch);
+        }
+    }
+
+    private static void requireAll(List<SaveResult> results, SaveResult expected, List<StudentDto> batch) {
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != expected) {
+                throw new IllegalStateException("Abgleich abgebrochen: " + batch.get(i).getEmail()
+                        + " ergab " + results.get(i) + " statt " + expected + ".");
+            }
+        }
+    }
+
+    private static <T> List<List<T>> batches(List<T> items) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            batches.add(items.subList(from, Math.min(from + BATCH_SIZE, items.size())));
+        }
+        return batches;
+    }
+
+    private static String validate(String firstName, String lastName, String email) {
+        if (firstName == null || lastName == null || email == null) {
+            return "zu wenige Spalten";
+        }
+        if (firstName.isEmpty() || lastName.isEmpty() || email.isEmpty()) {
+            return "leeres Pflichtfeld";
+        }
+        if (firstName.length() > MAX_FIELD_LENGTH || lastName.length() > MAX_FIELD_LENGTH
+                || email.length() > MAX_FIELD_LENGTH) {
+            return "Feld länger als " + MAX_FIELD_LENGTH + " Zeichen";
+        }
+        if (email.indexOf('@') <= 0) {
+            return "ungültige E-Mail-Adresse " + email;
+        }
+        return null;
+    }
+
+    /**
+     * Berechnet den Inhaltshash eines Studenten (FNV-1a, 64 Bit) über Vor- und
+     * Nachname. Die E-Mail-Adresse ist der Schlüssel und nicht Teil des Hashs.
+     */
+    static long contentHash(String firstName, String lastName) {
+        long hash = FNV_OFFSET;
+        hash = hash(hash, firstName);
+        hash = (hash ^ 0x1F) * FNV_PRIME;
+        return hash(hash, lastName);
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Spaltenpositionen laut Kopfzeile.
+     */
+    private record Columns(String separator, int firstName, int lastName, int email) {
+
+        static Columns parse(String header) throws IOException {
+            if (header == null) {
+                throw new IOException("Die Liste ist leer.");
+            }
+            String separator = header.indexOf(';') >= 0 ? ";" : ",";
+            String[] names = header.replace("\uFEFF", "").strip().split(separator, -1);
+            int firstName = -1;
+            int lastName = -1;
+            int email = -1;
+            for (int i = 0; i < names.length; i++) {
+                switch (names[i].strip().toLowerCase(Locale.ROOT)) {
+                    case "first_name", "vorname" -> firstName = i;
+                    case "last_name", "nachname" -> lastName = i;
+                    case "email", "e-mail" -> email = i;
+                    default -> {
+                    }
+                }
+            }
+            if (firstName < 0 || lastName < 0 || email < 0) {
+                throw new IOException("Kopfzeile muss first_name, last_name und email enthalten: " + header);
+            }
+            return new Columns(separator, firstName, lastName, email);
+        }
+
+        String firstName(String[] fields) {
+            return field(fields, firstName);
+        }
+
+        String lastName(String[] fields) {
+            return field(fields, lastName);
+        }
+
+        String email(String[] fields) {
+            return field(fields, email);
+        }
+
+        private static String field(String[] fields, int index) {
+            return index < fields.length ? fields[index].strip() : null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.hochschule.studentenverwaltung.service;
+
+/**
+ * Wird geworfen, wenn die Zugangskontrolle eine Operation wegen Überlast
+ * abweist. Die Operation wurde nicht ausgeführt und kann später erneut
+ * versucht werden.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AdmissionController.Bulkhead bulkhead;
+
+    /**
+     * Erstellt die Ausnahme.
+     *
+     * @param bulkhead der Bereich, der die Operation abgewiesen hat
+     * @param message der Grund der Abweisung
+     */
+    public ServiceOverloadedException(AdmissionController.Bulkhead bulkhead, String message) {
+        super(message);
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * Gibt den Bereich zurück, der die Operation abgewiesen hat.
+     *
+     * @return der Bereich
+     */
+    public AdmissionController.Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,275 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Sperrtabelle mit fester Anzahl von Streifen (Lock Striping).
+ *
+ * Jeder Schlüssel wird über seinen Hash auf einen von N Locks abgebildet.
+ * Operationen auf demselben Schlüssel werden damit serialisiert, während
+ * Operationen auf verschiedenen Schlüsseln nur bei einer Hash-Kollision
+ * auf denselben Streifen warten. Wartezeit und Konkurrenz werden gezählt.
+ *
+ * Innerhalb von {@link #holdingLocks} werden Streifen nicht nach jeder Aktion
+ * freigegeben, sondern erst am Ende des Bereichs (z. B. nach dem Commit
+ * einer Transaktion). Da sie dort nicht in fester Reihenfolge angefordert
+ * werden, wird nur begrenzt gewartet, damit sich zwei Bereiche nicht
+ * dauerhaft gegenseitig blockieren.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class StripedLock {
+
+    /**
+     * Momentaufnahme der Sperrmetriken.
+     *
+     * @param acquisitions Anzahl aller Sperranforderungen
+     * @param contendedAcquisitions Anforderungen, die auf einen anderen Thread warten mussten
+     * @param totalWaitNanos summierte Wartezeit in Nanosekunden
+     * @param maxWaitNanos längste einzelne Wartezeit in Nanosekunden
+     */
+    public record Metrics(long acquisitions, long contendedAcquisitions, long totalWaitNanos, long maxWaitNanos) {
+
+        /**
+         * Gibt den Anteil der Anforderungen zurück, die warten mussten.
+         *
+         * @return der Anteil zwischen 0 und 1
+         */
+        public double contentionRate() {
+            return acquisitions == 0 ? 0 : (double) contendedAcquisitions / acquisitions;
+        }
+
+        /**
+         * Gibt die mittlere Wartezeit der wartenden Anforderungen zurück.
+         *
+         * @return die mittlere Wartezeit in Nanosekunden
+         */
+        public long averageWaitNanos() {
+            return contendedAcquisitions == 0 ? 0 : totalWaitNanos / contendedAcquisitions;
+        }
+    }
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /** Sperrbereich des aktuellen Threads, falls einer läuft */
+    private final ThreadLocal<HeldLocks> heldLocks = new ThreadLocal<>();
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Erstellt eine Sperrtabelle.
+     *
+     * @param stripeCount die gewünschte Anzahl Streifen (wird auf eine Zweierpotenz aufgerundet)
+     */
+    public StripedLock(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Mindestens ein Streifen erforderlich: " + stripeCount);
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Führt eine Aktion unter der Sperre des Streifens aus, auf den der Schlüssel fällt.
+     *
+     * @param key der Schlüssel (z. B. die Student-ID)
+     * @param action die auszuführende Aktion
+     * @param <T> der Rückgabetyp der Aktion
+     * @return das Ergebnis der Aktion
+     */
+    public <T> T withLock(Object key, Supplier<T> action) {
+        HeldLocks held = heldLocks.get();
+        if (held != null) {
+            held.acquire(indexOf(key));
+            return action.get();
+        }
+        ReentrantLock lock = stripes[indexOf(key)];
+        lock(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Führt eine Aktion unter den Sperren aller Streifen aus, auf die die Schlüssel fallen.
+     * Die Streifen werden in aufsteigender Reihenfolge gesperrt, sodass sich
+     * gleichzeitige Aufrufe nicht gegenseitig blockieren können.
+     *
+     * @param keys die Schlüssel
+     * @param action die auszuführende Aktion
+     * @param <T> der Rückgabetyp der Aktion
+     * @return das Ergebnis der Aktion
+     */
+    public <T> T withLocks(Collection<?> keys, Supplier<T> action) {
+        int[] indices = keys.stream().mapToInt(this::indexOf).distinct().sorted().toArray();
+        HeldLocks held = heldLocks.get();
+        if (held != null) {
+            for (int index : indices) {
+                held.acquire(index);
+            }
+            return action.get();
+        }
+        int locked = 0;
+        try {
+            for (int index : indices) {
+                lock(stripes[index]);
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Führt eine Aktion aus, in der alle über {@link #withLock} und
+     * {@link #withLocks} angeforderten Streifen bis zum Ende der Aktion gehalten
+     * werden. Ein verschachtelter Aufruf schließt sich dem äußeren Bereich an.
+     *
+     * @param timeout wie lange höchstens auf einen einzelnen Streifen gewartet wird
+     * @param action die auszuführende Aktion
+     * @param <T> der Rückgabetyp der Aktion
+     * @return das Ergebnis der Aktion
+     * @throws IllegalStateException wenn ein Streifen nicht innerhalb der Wartezeit frei wurde
+     */
+    public <T> T holdingLocks(Duration timeout, Supplier<T> action) {
+        if (heldLocks.get() != null) {
+            return action.get();
+        }
+        HeldLocks held = new HeldLocks(timeout.toNanos());
+        heldLocks.set(held);
+        try {
+            return action.get();
+        } finally {
+            heldLocks.remove();
+            held.releaseAll();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Streifen zurück.
+     *
+     * @return die Anzahl der Streifen
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Gibt eine Momentaufnahme der Sperrmetriken zurück.
+     *
+     * @return die aktuellen Metriken
+     */
+    public Metrics getMetrics() {
+        return new Metrics(acquisitions.sum(), contendedAcquisitions.sum(),
+                totalWaitNanos.sum(), maxWaitNanos.get());
+    }
+
+    private void lock(ReentrantLock lock) {
+        acquisitions.increment();
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            long waited = System.nanoTime() - start;
+            contendedAcquisitions.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+
+    /**
+     * Wartet begrenzt auf einen Streifen; für Sperrbereiche, in denen Streifen
+     * nicht in aufsteigender Reihenfolge angefordert werden.
+     */
+    private boolean tryLock(ReentrantLock lock, long timeoutNanos) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locked = false;
+        }
+        long waited = System.nanoTime() - start;
+        contendedAcquisitions.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return locked;
+    }
+
+    int indexOf(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        // Bits mischen, damit fortlaufende IDs gleichmäßig über die Streifen verteilt werden
+        h *= 0x9E3779B9;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+
+    /**
+     * Die Streifen, die ein Thread in einem Sperrbereich hält.
+     */
+    private final class HeldLocks {
+        private final long timeoutNanos;
+        private final List<ReentrantLock> locks = new ArrayList<>();
+        private final boolean[] held = new boolean[stripes.length];
+
+        HeldLocks(long timeoutNanos) {
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        void acquire(int index) {
+            if (held[index]) {
+                return;
+            }
+            ReentrantLock lock = stripes[index];
+            if (!tryLock(lock, timeoutNanos)) {
+                throw new IllegalStateException("Sperrstreifen " + index + " wurde nicht innerhalb von "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms frei (mögliche Verklemmung)");
+            }
+            held[index] = true;
+            locks.add(lock);
+        }
+
+        void releaseAll() {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        Metrics m = getMetrics();
+        return String.format("StripedLock{stripes=%d, acquisitions=%d, contended=%d (%.2f%%), avgWait=%d µs, maxWait=%d µs}",
+                stripes.length, m.acquisitions(), m.contendedAcquisitions(), m.contentionRate() * 100,
+                TimeUnit.NANOSECONDS.toMicros(m.averageWaitNanos()), TimeUnit.NANOSECONDS.toMicros(m.maxWaitNanos()));
+    }
+}
@@ -0,0 +1,235 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.mapper.StudentMapper;
+import de.hochschule.studentenverwaltung.repository.StudentChangeListener;
+
+/**
+ * Materialisierte, versionierte Momentaufnahme der vollständigen Studentenliste.
+ *
+ * Die Liste liegt als unveränderliches Array (nach ID sortiert) hinter einer
+ * volatile-Referenz. Leser erhalten die aktuelle Momentaufnahme ohne Sperre
+ * und ohne Datenbankabfrage. Jedes Anlegen, Ändern und Löschen erhöht die
+ * Version und merkt sich die Änderung; die Momentaufnahme wird erst beim
+ * nächsten Lesen neu veröffentlicht (Copy-on-Write). Wenige Änderungen werden
+ * inkrementell in eine Kopie des Arrays eingearbeitet, viele Änderungen oder
+ * Massenänderungen führen zu einem vollständigen Neuladen. Steht das fest,
+ * werden die einzelnen Änderungen nicht weiter gemerkt, sodass auch lange
+ * Schreibphasen ohne Leser den Speicher nicht füllen.
+ *
+ * Mit einem Veraltungsbudget größer null dürfen Leser eine ältere
+ * Momentaufnahme erhalten, solange die älteste noch nicht eingearbeitete
+ * Änderung jünger als das Budget ist. Bei Budget null sieht jeder Leser
+ * alle bis dahin gemeldeten Änderungen.
+ *
+ * Die enthaltenen DTOs werden von allen Lesern geteilt und dürfen nicht verändert werden.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class StudentListSnapshot implements StudentChangeListener {
+    private static final Logger logger = LoggerFactory.getLogger(StudentListSnapshot.class);
+
+    /** Mindestanzahl offener Änderungen, ab der statt inkrementell neu geladen wird */
+    private static final int MIN_FULL_RELOAD_CHANGES = 64;
+
+    private static final Comparator<StudentDto> BY_ID = Comparator.comparing(StudentDto::getId);
+
+    /**
+     * Eine veröffentlichte Momentaufnahme.
+     *
+     * @param version die Version, bis zu der alle Änderungen enthalten sind
+     * @param students die Studenten nach ID sortiert (unveränderlich)
+     */
+    public record Snapshot(long version, List<StudentDto> students) {
+    }
+
+    private enum ChangeType { UPSERT, DELETE, RESET }
+
+    private record Change(ChangeType type, Student student) {
+    }
+
+    private static final Change RESET = new Change(ChangeType.RESET, null);
+
+    private final Supplier<List<Student>> loader;
+    private final long stalenessBudgetNanos;
+
+    private volatile Snapshot current;
+    /** Version der zuletzt gemeldeten Änderung */
+    private volatile long latestVersion;
+    /** Zeitpunkt (System.nanoTime) der ältesten noch nicht eingearbeiteten Änderung */
+    private volatile long oldestPendingNanos;
+
+    /**
+     * Noch nicht eingearbeitete Änderungen; geschützt durch ihren eigenen Monitor.
+     * Wird ohnehin neu geladen, steht hier nur noch {@link #RESET}.
+     */
+    private final List<Change> pending = new ArrayList<>();
+
+    /**
+     * Erstellt eine Momentaufnahme, die beim ersten Lesen geladen wird.
+     *
+     * @param loader liefert alle Studenten aus der Datenbank
+     * @param stalenessBudget wie lange Leser nach einer Änderung noch die vorherige Momentaufnahme erhalten dürfen
+     */
+    public StudentListSnapshot(Supplier<List<Student>> loader, Duration stalenessBudget) {
+        this.loader = loader;
+        this.stalenessBudgetNanos = stalenessBudget.toNanos();
+    }
+
+    /**
+     * Gibt die aktuelle Momentaufnahme zurück und baut sie bei Bedarf neu auf.
+     *
+     * @return die Momentaufnahme
+     */
+    public Snapshot get() {
+        Snapshot snapshot = current;
+        if (snapshot != null && (snapshot.version() == latestVersion || withinBudget())) {
+            return snapshot;
+        }
+        return refresh();
+    }
+
+    /**
+     * Gibt die Version der zuletzt gemeldeten Änderung zurück.
+     *
+     * @return die aktuelle Version
+     */
+    public long getLatestVersion() {
+        return latestVersion;
+    }
+
+    @Override
+    public void onInsert(Student student) {
+        record(ChangeType.UPSERT, student);
+    }
+
+    @Override
+    public void onUpdate(Student before, Student after) {
+        record(ChangeType.UPSERT, after);
+    }
+
+    @Override
+    public void onDelete(Student before) {
+        record(ChangeType.DELETE, before);
+    }
+
+    @Override
+    public void onReset() {
+        record(ChangeType.RESET, null);
+    }
+
+    private boolean withinBudget() {
+        return stalenessBudgetNanos > 0 && System.nanoTime() - oldestPendingNanos <= stalenessBudgetNanos;
+    }
+
+    private void record(ChangeType type, Student student) {
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            // Jenseits der Schwelle wird vollständig neu geladen; die Änderungen selbst
+            // müssen dann nicht mehr im Speicher gehalten werden
+            if (type == ChangeType.RESET || pending.size() >= fullReloadThreshold(current)) {
+                pending.clear();
+                pending.add(RESET);
+            } else if (pending.isEmpty() || pending.get(0) != RESET) {
+                pending.add(new Change(type, student));
+            }
+            latestVersion++;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl offener Änderungen zurück, nach denen statt inkrementell
+     * vollständig neu geladen wird.
+     */
+    private static int fullReloadThreshold(Snapshot snapshot) {
+        return Math.max(MIN_FULL_RELOAD_CHANGES, snapshot == null ? 0 : snapshot.students().size() / 16);
+    }
+
+    /**
+     * Gibt die Anzahl der gemerkten, noch nicht eingearbeiteten Änderungen zurück.
+     */
+    int pendingChanges() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private synchronized Snapshot refresh() {
+        Snapshot snapshot = current;
+        if (snapshot != null && (snapshot.version() == latestVersion || withinBudget())) {
+            return snapshot;
+        }
+
+        List<Change> changes;
+        long version;
+        synchronized (pending) {
+            changes = new ArrayList<>(pending);
+            pending.clear();
+            version = latestVersion;
+        }
+
+        boolean fullReload = snapshot == null
+                || changes.size() > fullReloadThreshold(snapshot)
+                || changes.contains(RESET);
+        StudentDto[] students;
+        if (fullReload) {
+            // Änderungen, die während des Ladens eintreffen, bleiben offen und werden beim
+            // nächsten Mal erneut (idempotent) eingearbeitet
+            students = loader.get().stream().map(StudentMapper::mapToStudentDto).toArray(StudentDto[]::new);
+            Arrays.sort(students, BY_ID);
+        } else {
+            students = applyChanges(snapshot.students(), changes);
+        }
+
+        Snapshot refreshed = new Snapshot(version, Collections.unmodifiableList(Arrays.asList(students)));
+        current = refreshed;
+        logger.debug("Studentenliste Version {} veröffentlicht ({} Einträge, {}).",
+                version, students.length, fullReload ? "neu geladen" : changes.size() + " Änderung(en) eingearbeitet");
+        return refreshed;
+    }
+
+    /**
+     * Arbeitet die Änderungen in einem einzigen Merge-Durchlauf über die nach ID
+     * sortierte Liste ein: O(n + k log k) statt O(n) je Einfügen oder Löschen.
+     */
+    private static StudentDto[] applyChanges(List<StudentDto> base, List<Change> changes) {
+        // stabile Sortierung: bei mehreren Änderungen derselben ID gewinnt die zuletzt gemeldete
+        List<Change> sorted = new ArrayList<>(changes);
+        sorted.sort(Comparator.comparingLong(change -> change.student().getId()));
+        List<StudentDto> students = new ArrayList<>(base.size() + sorted.size());
+        int next = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Change change = sorted.get(i);
+            long id = change.student().getId();
+            if (i + 1 < sorted.size() && sorted.get(i + 1).student().getId() == id) {
+                continue;
+            }
+            while (next < base.size() && base.get(next).getId() < id) {
+                students.add(base.get(next++));
+            }
+            if (next < base.size() && base.get(next).getId() == id) {
+                next++;
+            }
+            if (change.type() != ChangeType.DELETE) {
+                students.add(StudentMapper.mapToStudentDto(change.student()));
+            }
+        }
+        students.addAll(base.subList(next, base.size()));
+        return students.toArray(StudentDto[]::new);
+    }
+}
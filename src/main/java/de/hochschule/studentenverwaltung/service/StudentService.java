@@ -14,9 +14,27 @@ package de.hochschule.studentenverwaltung.service;
 import de.hochschule.studentenverwaltung.entity.Student;
 import de.hochschule.studentenverwaltung.dto.StudentDto;
 import de.hochschule.studentenverwaltung.mapper.StudentMapper;
+import de.hochschule.studentenverwaltung.monitoring.ServiceOperationEvent;
+import de.hochschule.studentenverwaltung.repository.CrossShardTransactionException;
+import de.hochschule.studentenverwaltung.repository.Page;
+import de.hochschule.studentenverwaltung.repository.PageCursor;
+import de.hochschule.studentenverwaltung.repository.SaveResult;
 import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.repository.StudentSort;
+import de.hochschule.studentenverwaltung.repository.TransactionIsolation;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -26,9 +44,30 @@ public class StudentService {
 	
 	private static final Logger logger = LoggerFactory.getLogger(StudentService.class);
 	
+    /** Anzahl der Sperrstreifen für Schreiboperationen pro Student */
+    private static final int LOCK_STRIPES = 64;
+
+    /** Höchste Wartezeit auf einen Sperrstreifen innerhalb einer Transaktion */
+    private static final Duration TRANSACTION_LOCK_TIMEOUT = Duration.ofSeconds(10);
+
     /** Das Repository für den Datenzugriff */
     private final StudentRepository studentRepository;
 
+    /** Sperren pro Student (über den Hash der ID auf feste Streifen verteilt) */
+    private final StripedLock studentLocks = new StripedLock(LOCK_STRIPES);
+
+    /** Inkrementell gepflegte Kennzahlen (Anzahl gesamt und pro E-Mail-Domain) */
+    private final StudentStatistics statistics = new StudentStatistics();
+
+    /** Materialisierte Studentenliste, falls aktiviert */
+    private volatile StudentListSnapshot listSnapshot;
+
+    /** Zugangskontrolle mit Bulkheads, falls aktiviert */
+    private volatile AdmissionController admissionController;
+
+    /** Führt den periodischen Abgleich der Kennzahlen aus, falls gestartet */
+    private ScheduledExecutorService reconciliationExecutor;
+
     /**
      * Konstruktor für StudentService.
      * 
@@ -36,17 +75,136 @@ public class StudentService {
      */
     public StudentService(StudentRepository studentRepository) {
         this.studentRepository = studentRepository;
+        studentRepository.addChangeListener(statistics);
     }
 
     /**
      * Ruft alle Studenten ab und konvertiert sie zu DTOs.
+     *
+     * Ist die materialisierte Studentenliste aktiviert, wird ohne Datenbankabfrage
+     * aus der Momentaufnahme gelesen. Der Aufrufer erhält dabei eigene Kopien der
+     * DTOs und darf sie wie beim Lesen aus der Datenbank verändern; wer nur liest,
+     * kann mit {@link #getStudentListSnapshot()} die geteilten DTOs ohne Kopie verwenden.
      * 
      * @return eine Liste aller StudentDto-Objekte
      */
     public List<StudentDto> getAllStudents() {
-        return studentRepository.findAll().stream()
-                .map(StudentMapper::mapToStudentDto)
-                .collect(Collectors.toList());
+        return ServiceOperationEvent.record("getAllStudents", null, () -> {
+            StudentListSnapshot snapshot = listSnapshot;
+            if (snapshot != null) {
+                return snapshot.get().students().stream()
+                        .map(student -> new StudentDto(student.getId(), student.getFirstName(),
+                                student.getLastName(), student.getEmail()))
+                        .collect(Collectors.toList());
+            }
+            return admit(AdmissionController.Bulkhead.BULK, () -> studentRepository.findAll().stream()
+                    .map(StudentMapper::mapToStudentDto)
+                    .collect(Collectors.toList()));
+        }, List::size);
+    }
+
+    /**
+     * Aktiviert die materialisierte Studentenliste für {@link #getAllStudents()}.
+     * Ein erneuter Aufruf ersetzt die bisherige Momentaufnahme.
+     *
+     * @param stalenessBudget wie lange nach einer Änderung noch die vorherige Liste geliefert werden darf
+     *                        ({@link Duration#ZERO}: Änderungen sind sofort sichtbar)
+     */
+    public synchronized void enableListSnapshot(Duration stalenessBudget) {
+        StudentListSnapshot snapshot = new StudentListSnapshot(
+                () -> studentRepository.outsideTransaction(studentRepository::findAll), stalenessBudget);
+        studentRepository.addChangeListener(snapshot);
+        StudentListSnapshot previous = listSnapshot;
+        listSnapshot = snapshot;
+        if (previous != null) {
+            studentRepository.removeChangeListener(previous);
+        }
+        logger.info("Materialisierte Studentenliste aktiviert (Veraltungsbudget {}).", stalenessBudget);
+    }
+
+    /**
+     * Gibt die aktuelle Momentaufnahme der Studentenliste mit Versionsnummer zurück.
+     * Die enthaltenen DTOs werden von allen Lesern geteilt und dürfen nicht verändert werden.
+     *
+     * @return die Momentaufnahme
+     * @throws IllegalStateException wenn die materialisierte Liste nicht aktiviert ist
+     */
+    public StudentListSnapshot.Snapshot getStudentListSnapshot() {
+        StudentListSnapshot snapshot = listSnapshot;
+        if (snapshot == null) {
+            throw new IllegalStateException("Materialisierte Studentenliste ist nicht aktiviert.");
+        }
+        return snapshot.get();
+    }
+
+    /**
+     * Ruft alle Studenten sortiert ab.
+     *
+     * @param sort die Sortierung
+     * @return alle StudentDto-Objekte in sortierter Reihenfolge
+     */
+    public List<StudentDto> getAllStudentsSorted(StudentSort sort) {
+        return ServiceOperationEvent.record("getAllStudentsSorted", null,
+                () -> admit(AdmissionController.Bulkhead.BULK, () -> studentRepository.findAllSorted(sort).stream()
+                        .map(StudentMapper::mapToStudentDto)
+                        .collect(Collectors.toList())), List::size);
+    }
+
+    /**
+     * Übergibt alle Studenten sortiert an eine Aktion, ohne sie vorher als Liste zu laden.
+     *
+     * @param sort die Sortierung
+     * @param action die Aktion für jeden Studenten
+     * @return die Anzahl der übergebenen Studenten
+     */
+    public long forEachStudent(StudentSort sort, Consumer<StudentDto> action) {
+        return ServiceOperationEvent.record("forEachStudent", null,
+                () -> admit(AdmissionController.Bulkhead.BULK, () -> studentRepository.forEachSorted(sort,
+                        student -> action.accept(StudentMapper.mapToStudentDto(student)))),
+                Long::longValue);
+    }
+
+    /**
+     * Übergibt alle Studenten in ID-Reihenfolge an eine Aktion, ohne sie vorher als Liste zu laden.
+     * Schneller als eine sortierte Ausgabe, da die Tabelle in Primärschlüsselreihenfolge gelesen wird.
+     *
+     * @param action die Aktion für jeden Studenten
+     * @return die Anzahl der übergebenen Studenten
+     */
+    public long forEachStudent(Consumer<StudentDto> action) {
+        return ServiceOperationEvent.record("forEachStudent", null,
+                () -> admit(AdmissionController.Bulkhead.BULK, () -> studentRepository.forEachCreatedAfter(0,
+                        student -> action.accept(StudentMapper.mapToStudentDto(student)))),
+                Long::longValue);
+    }
+
+    /**
+     * Ruft die ersten K Studenten in der angegebenen Sortierung ab.
+     *
+     * @param sort die Sortierung
+     * @param limit die maximale Anzahl K
+     * @return höchstens K StudentDto-Objekte
+     */
+    public List<StudentDto> getTopStudents(StudentSort sort, int limit) {
+        return ServiceOperationEvent.record("getTopStudents", null,
+                () -> admit(AdmissionController.Bulkhead.POINT, () -> studentRepository.findTop(sort, limit).stream()
+                        .map(StudentMapper::mapToStudentDto)
+                        .collect(Collectors.toList())), List::size);
+    }
+
+    /**
+     * Ruft eine Seite sortierter Studenten ab.
+     *
+     * @param sort die Sortierung
+     * @param after der Cursor der vorherigen Seite oder null für die erste Seite
+     * @param pageSize die Seitengröße
+     * @return die Seite mit Cursor für die Folgeseite
+     */
+    public Page<StudentDto> getStudentPage(StudentSort sort, PageCursor after, int pageSize) {
+        return ServiceOperationEvent.record("getStudentPage", null,
+                () -> admit(AdmissionController.Bulkhead.POINT,
+                        () -> studentRepository.findPage(sort, after, pageSize).map(StudentMapper::mapToStudentDto)),
+                page -> page.items().size());
     }
 
     /**
@@ -55,13 +213,37 @@ public class StudentService {
      * Konvertiert das DTO zu einer Entity und speichert es über das Repository.
      * 
      * @param studentDto das StudentDto mit den Daten des neuen Studenten
+     * @return das Ergebnis, z. B. {@link SaveResult#DUPLICATE_EMAIL} bei vergebener E-Mail-Adresse
+     */
+    public SaveResult createStudent(StudentDto studentDto) {
+        return ServiceOperationEvent.record("createStudent", null, () -> {
+            Student student = StudentMapper.mapToStudent(studentDto);
+            SaveResult result = admit(AdmissionController.Bulkhead.WRITE, () -> studentRepository.save(student));
+            // Setze die ID im DTO zurück
+            studentDto.setId(student.getId()); //  Wichtig!
+            if (result == SaveResult.CREATED) {
+                logger.info("Neuer Student erstellt mit ID: {}", student.getId());
+            }
+            return result;
+        }, result -> result.isSuccess() ? 1 : 0);
+    }
+
+    /**
+     * Erstellt mehrere Studenten mit einem gemeinsamen Datenbankzugriff.
+     *
+     * @param studentDtos die neuen Studenten (erhalten ihre ID zurück)
+     * @return die Ergebnisse in derselben Reihenfolge
      */
-    public void createStudent(StudentDto studentDto) {
-        Student student = StudentMapper.mapToStudent(studentDto);
-        studentRepository.save(student);
-        // Setze die ID im DTO zurück
-        studentDto.setId(student.getId()); //  Wichtig!
-        logger.info("Neuer Student erstellt mit ID: {}", student.getId());
+    public List<SaveResult> createStudents(List<StudentDto> studentDtos) {
+        return ServiceOperationEvent.record("createStudents", null, () -> {
+            List<Student> students = studentDtos.stream().map(StudentMapper::mapToStudent).collect(Collectors.toList());
+            List<SaveResult> results = admit(AdmissionController.Bulkhead.WRITE, () -> studentRepository.saveAll(students));
+            for (int i = 0; i < studentDtos.size(); i++) {
+                studentDtos.get(i).setId(students.get(i).getId());
+            }
+            logger.info("{} Student(en) im Batch angelegt.", results.stream().filter(r -> r == SaveResult.CREATED).count());
+            return results;
+        }, results -> results.stream().filter(SaveResult::isSuccess).count());
     }
 
     /**
@@ -71,8 +253,25 @@ public class StudentService {
      * @return das StudentDto-Objekt oder null, wenn nicht gefunden
      */
     public StudentDto getStudentById(Long studentId) {
-        Student student = studentRepository.findById(studentId);
-        return student != null ? StudentMapper.mapToStudentDto(student) : null;
+        return ServiceOperationEvent.record("getStudentById", studentId, () -> {
+            Student student = admit(AdmissionController.Bulkhead.POINT, () -> studentRepository.findById(studentId));
+            return student != null ? StudentMapper.mapToStudentDto(student) : null;
+        }, student -> 1);
+    }
+
+    /**
+     * Ruft mehrere Studenten mit einer Abfrage ab.
+     *
+     * @param studentIds die IDs der gesuchten Studenten
+     * @return die gefundenen Studenten nach ID; fehlende IDs sind nicht enthalten
+     */
+    public Map<Long, StudentDto> getStudentsById(Collection<Long> studentIds) {
+        return ServiceOperationEvent.record("getStudentsById", null, () -> {
+            Map<Long, StudentDto> students = new HashMap<>();
+            admit(AdmissionController.Bulkhead.POINT, () -> studentRepository.findAllById(studentIds))
+                    .forEach((id, student) -> students.put(id, StudentMapper.mapToStudentDto(student)));
+            return students;
+        }, Map::size);
     }
 
     /**
@@ -82,10 +281,58 @@ public class StudentService {
      * über das Repository.
      * 
      * @param studentDto das StudentDto mit den aktualisierten Daten
+     * @return das Ergebnis der Speicheroperation
      */
-    public void updateStudent(StudentDto studentDto) {
-        Student student = StudentMapper.mapToStudent(studentDto);
-        studentRepository.save(student);
+    public SaveResult updateStudent(StudentDto studentDto) {
+        return ServiceOperationEvent.record("updateStudent", studentDto.getId(), () -> {
+            Student student = StudentMapper.mapToStudent(studentDto);
+            return admit(AdmissionController.Bulkhead.WRITE,
+                    () -> studentLocks.withLock(student.getId(), () -> studentRepository.save(student)));
+        }, result -> result.isSuccess() ? 1 : 0);
+    }
+
+    /**
+     * Aktualisiert mehrere Studenten mit einem gemeinsamen Datenbankzugriff.
+     * Die Sperren aller betroffenen Studenten werden für die Dauer gehalten.
+     *
+     * @param studentDtos die Studenten mit den aktualisierten Daten
+     * @return die Ergebnisse in derselben Reihenfolge
+     */
+    public List<SaveResult> updateStudents(List<StudentDto> studentDtos) {
+        return ServiceOperationEvent.record("updateStudents", null, () -> {
+            List<Student> students = studentDtos.stream().map(StudentMapper::mapToStudent).collect(Collectors.toList());
+            List<Long> ids = students.stream().map(Student::getId).collect(Collectors.toList());
+            return admit(AdmissionController.Bulkhead.WRITE,
+                    () -> studentLocks.withLocks(ids, () -> studentRepository.saveAll(students)));
+        }, results -> results.stream().filter(SaveResult::isSuccess).count());
+    }
+
+    /**
+     * Ändert einen Studenten atomar per Lesen-Ändern-Schreiben.
+     *
+     * Der Student wird unter der Sperre seiner ID gelesen, an den Mutator
+     * übergeben und gespeichert. Andere Schreiboperationen auf denselben
+     * Studenten warten so lange; Studenten auf anderen Streifen sind nicht betroffen.
+     * Die ID kann durch den Mutator nicht geändert werden.
+     *
+     * @param studentId die ID des zu ändernden Studenten
+     * @param mutator die Änderung, die auf das gelesene DTO angewendet wird
+     * @return das gespeicherte StudentDto oder null, wenn der Student nicht existiert
+     *         oder die Änderung nicht gespeichert werden konnte (z. B. vergebene E-Mail-Adresse)
+     */
+    public StudentDto modifyStudent(Long studentId, Consumer<StudentDto> mutator) {
+        return ServiceOperationEvent.record("modifyStudent", studentId, () -> admit(AdmissionController.Bulkhead.WRITE,
+                () -> studentLocks.withLock(studentId, () -> {
+            Student current = studentRepository.findById(studentId);
+            if (current == null) {
+                return null;
+            }
+            StudentDto studentDto = StudentMapper.mapToStudentDto(current);
+            mutator.accept(studentDto);
+            studentDto.setId(studentId);
+            SaveResult result = studentRepository.save(StudentMapper.mapToStudent(studentDto));
+            return result.isSuccess() ? studentDto : null;
+        })), student -> 1);
     }
 
     /**
@@ -94,6 +341,201 @@ public class StudentService {
      * @param studentId die ID des zu löschenden Studenten
      */
     public boolean deleteStudent(Long studentId) {
-        return studentRepository.deleteById(studentId);
+        return ServiceOperationEvent.record("deleteStudent", studentId,
+                () -> admit(AdmissionController.Bulkhead.WRITE,
+                        () -> studentLocks.withLock(studentId, () -> studentRepository.deleteById(studentId))),
+                deleted -> deleted ? 1 : 0);
+    }
+
+    /**
+     * Löscht mehrere Studenten mit einer Anweisung.
+     *
+     * @param studentIds die IDs der zu löschenden Studenten
+     * @return die IDs der tatsächlich gelöschten Studenten
+     */
+    public Set<Long> deleteStudents(Collection<Long> studentIds) {
+        return ServiceOperationEvent.record("deleteStudents", null,
+                () -> admit(AdmissionController.Bulkhead.WRITE,
+                        () -> studentLocks.withLocks(studentIds, () -> studentRepository.deleteAllById(studentIds))),
+                Set::size);
+    }
+
+    /**
+     * Führt mehrere Service-Operationen als eine Transaktion aus (Unit of Work).
+     *
+     * Alle Repository-Zugriffe innerhalb der Arbeit verwenden dieselbe Verbindung
+     * und werden am Ende einmal bestätigt. Wirft die Arbeit eine Ausnahme oder
+     * scheitert ein Zugriff mit einem Datenbankfehler, wird alles zurückgerollt.
+     * Ergebnisse wie {@link SaveResult#DUPLICATE_EMAIL} führen nicht automatisch
+     * zum Rollback; die Arbeit kann dafür selbst eine Ausnahme werfen.
+     *
+     * Die Sperren der geänderten Studenten werden bis nach Commit bzw. Rollback
+     * gehalten, damit andere Schreiboperationen erst danach zum Zuge kommen und
+     * Beobachter die Änderungen in Commit-Reihenfolge erhalten. Wird eine Sperre
+     * nicht innerhalb von 10 Sekunden frei, wird zurückgerollt.
+     *
+     * Mit einem {@link de.hochschule.studentenverwaltung.repository.ShardedStudentRepository}
+     * darf die Arbeit nur Studenten einer Shard schreiben; andernfalls wird
+     * zurückgerollt und eine {@link CrossShardTransactionException} geworfen,
+     * auf die der Aufrufer reagieren muss (siehe {@link RosterSync}).
+     *
+     * @param work die Arbeit, die diesen Service erhält
+     * @param <T> der Rückgabetyp der Arbeit
+     * @return das Ergebnis der Arbeit
+     * @throws IllegalStateException wenn die Transaktion nach einem Datenbankfehler zurückgerollt wurde
+     * @throws CrossShardTransactionException wenn die Arbeit auf mehrere Shards schreiben wollte
+     */
+    public <T> T inTransaction(Function<StudentService, T> work) {
+        return inTransaction(TransactionIsolation.READ_COMMITTED, work);
+    }
+
+    /**
+     * Führt mehrere Service-Operationen mit der angegebenen Isolationsstufe als eine Transaktion aus.
+     *
+     * @param isolation die Isolationsstufe
+     * @param work die Arbeit, die diesen Service erhält
+     * @param <T> der Rückgabetyp der Arbeit
+     * @return das Ergebnis der Arbeit
+     * @throws IllegalStateException wenn die Transaktion nach einem Datenbankfehler zurückgerollt wurde
+     * @throws CrossShardTransactionException wenn die Arbeit auf mehrere Shards schreiben wollte
+     * @see #inTransaction(Function)
+     */
+    public <T> T inTransaction(TransactionIsolation isolation, Function<StudentService, T> work) {
+        return ServiceOperationEvent.record("inTransaction", null,
+                () -> admit(AdmissionController.Bulkhead.WRITE,
+                        () -> studentLocks.holdingLocks(TRANSACTION_LOCK_TIMEOUT,
+                                () -> studentRepository.inTransaction(isolation, () -> work.apply(this)))),
+                result -> 0);
+    }
+
+    /**
+     * Aktiviert die Zugangskontrolle für alle Operationen mit Datenbankzugriff.
+     *
+     * Danach können Operationen mit {@link ServiceOverloadedException} abgewiesen
+     * werden, wenn ihr Bereich ausgelastet ist. Kennzahlen und die materialisierte
+     * Studentenliste sind nicht betroffen. Ein erneuter Aufruf ersetzt die
+     * bisherige Zugangskontrolle; {@code null} deaktiviert sie.
+     *
+     * @param controller die Zugangskontrolle oder null
+     */
+    public void enableAdmissionControl(AdmissionController controller) {
+        this.admissionController = controller;
+        logger.info("Zugangskontrolle {}.", controller != null ? "aktiviert" : "deaktiviert");
+    }
+
+    /**
+     * Gibt die Metriken der Zugangskontrolle pro Bereich zurück (Limit, Abweisungen, Wartezeit).
+     *
+     * @return Momentaufnahmen der Metriken oder eine leere Map, wenn die Zugangskontrolle nicht aktiv ist
+     */
+    public Map<AdmissionController.Bulkhead, AdmissionController.Metrics> getAdmissionMetrics() {
+        AdmissionController controller = admissionController;
+        return controller != null ? controller.getMetrics() : Map.of();
+    }
+
+    /**
+     * Gibt die Metriken der Sperren pro Student zurück (Wartezeit und Konkurrenz).
+     *
+     * @return eine Momentaufnahme der Sperrmetriken
+     */
+    public StripedLock.Metrics getLockMetrics() {
+        return studentLocks.getMetrics();
+    }
+
+    /**
+     * Gibt die Gesamtzahl der Studenten zurück, ohne die Tabelle zu lesen.
+     * Beim ersten Aufruf werden die Kennzahlen einmalig aus der Datenbank geladen.
+     *
+     * @return die Anzahl der Studenten
+     */
+    public long getStudentCount() {
+        ensureStatisticsInitialized();
+        return statistics.getTotal();
+    }
+
+    /**
+     * Gibt die Anzahl der Studenten mit einer bestimmten E-Mail-Domain zurück.
+     *
+     * @param domain die Domain, z. B. "hochschule.de"
+     * @return die Anzahl der Studenten dieser Domain
+     */
+    public long getStudentCountForDomain(String domain) {
+        ensureStatisticsInitialized();
+        return statistics.getCountForDomain(domain);
+    }
+
+    /**
+     * Gibt die Anzahl der Studenten pro E-Mail-Domain zurück.
+     *
+     * @return Anzahl pro Domain, sortiert nach Domain
+     */
+    public Map<String, Long> getStudentCountsByEmailDomain() {
+        ensureStatisticsInitialized();
+        return statistics.getCountsByDomain();
+    }
+
+    /**
+     * Gleicht die Kennzahlen mit der Datenbank ab und korrigiert Abweichungen.
+     *
+     * @return die Summe der korrigierten Abweichungen oder -1, wenn die Datenbank nicht erreichbar war
+     */
+    public long reconcileStatistics() {
+        boolean firstLoad = !statistics.isInitialized();
+        // Die Kennzahlen zählen nur bestätigte Änderungen, auch wenn gerade eine Transaktion läuft
+        long total = studentRepository.outsideTransaction(studentRepository::count);
+        if (total < 0) {
+            return -1;
+        }
+        long drift = statistics.reconcile(total,
+                studentRepository.outsideTransaction(studentRepository::countByEmailDomain));
+        if (firstLoad) {
+            logger.info("Statistik mit {} Student(en) initialisiert.", total);
+        } else if (drift > 0) {
+            logger.warn("Statistik-Abgleich hat eine Abweichung von {} korrigiert.", drift);
+        }
+        return drift;
+    }
+
+    /**
+     * Startet den periodischen Abgleich der Kennzahlen mit der Datenbank.
+     * Ein bereits laufender Abgleich wird durch den neuen ersetzt.
+     *
+     * @param interval der Abstand zwischen zwei Abgleichen
+     */
+    public synchronized void startStatisticsReconciliation(Duration interval) {
+        stopStatisticsReconciliation();
+        reconciliationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistik-abgleich");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciliationExecutor.scheduleWithFixedDelay(this::reconcileStatistics,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Periodischer Statistik-Abgleich alle {} gestartet.", interval);
+    }
+
+    /**
+     * Beendet den periodischen Abgleich der Kennzahlen, falls er läuft.
+     */
+    public synchronized void stopStatisticsReconciliation() {
+        if (reconciliationExecutor != null) {
+            reconciliationExecutor.shutdownNow();
+            reconciliationExecutor = null;
+        }
+    }
+
+    private <T> T admit(AdmissionController.Bulkhead bulkhead, Supplier<T> action) {
+        AdmissionController controller = admissionController;
+        return controller != null ? controller.execute(bulkhead, action) : action.get();
+    }
+
+    private void ensureStatisticsInitialized() {
+        if (!statistics.isInitialized()) {
+            synchronized (statistics) {
+                if (!statistics.isInitialized()) {
+                    reconcileStatistics();
+                }
+            }
+        }
     }
 }
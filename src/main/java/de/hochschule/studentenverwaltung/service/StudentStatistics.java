@@ -0,0 +1,148 @@
+package de.hochschule.studentenverwaltung.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.repository.StudentChangeListener;
+
+/**
+ * Inkrementell gepflegte Kennzahlen über den Studentenbestand.
+ *
+ * Gesamtzahl und Anzahl pro E-Mail-Domain werden bei jedem Anlegen,
+ * Ändern und Löschen über {@link LongAdder} angepasst, sodass Abfragen
+ * ohne Datenbankzugriff in O(1) beantwortet werden. Änderungen an der
+ * Datenbank, die an diesem Repository vorbeilaufen, werden durch einen
+ * periodischen Abgleich ({@link #reconcile(long, Map)}) korrigiert.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class StudentStatistics implements StudentChangeListener {
+
+    private final LongAdder total = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> byDomain = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+
+    /**
+     * Ermittelt die Domain einer E-Mail-Adresse (Teil nach dem ersten '@', kleingeschrieben).
+     * Entspricht der Berechnung in {@code StudentRepository#countByEmailDomain()}.
+     *
+     * @param email die E-Mail-Adresse
+     * @return die Domain
+     */
+    public static String domainOf(String email) {
+        return email.substring(email.indexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void onInsert(Student student) {
+        total.increment();
+        counter(domainOf(student.getEmail())).increment();
+    }
+
+    @Override
+    public void onUpdate(Student before, Student after) {
+        String oldDomain = domainOf(before.getEmail());
+        String newDomain = domainOf(after.getEmail());
+        if (!oldDomain.equals(newDomain)) {
+            counter(oldDomain).decrement();
+            counter(newDomain).increment();
+        }
+    }
+
+    @Override
+    public void onDelete(Student before) {
+        total.decrement();
+        counter(domainOf(before.getEmail())).decrement();
+    }
+
+    @Override
+    public void onReset() {
+        initialized = false;
+    }
+
+    /**
+     * Gibt an, ob die Zähler bereits mit der Datenbank abgeglichen wurden.
+     *
+     * @return true nach dem ersten Abgleich
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Gleicht die Zähler mit den Werten aus der Datenbank ab.
+     *
+     * Es wird jeweils nur die Differenz addiert. Änderungen, die zwischen der
+     * Datenbankabfrage und dem Abgleich stattfinden, können eine kleine
+     * Abweichung hinterlassen, die der nächste Abgleich korrigiert.
+     *
+     * @param databaseTotal die Gesamtzahl laut Datenbank
+     * @param databaseByDomain die Anzahl pro Domain laut Datenbank
+     * @return die Summe der absoluten Abweichungen über alle Zähler
+     */
+    public long reconcile(long databaseTotal, Map<String, Long> databaseByDomain) {
+        long drift = Math.abs(databaseTotal - total.sum());
+        total.add(databaseTotal - total.sum());
+
+        for (Map.Entry<String, LongAdder> entry : byDomain.entrySet()) {
+            if (!databaseByDomain.containsKey(entry.getKey())) {
+                long stale = entry.getValue().sum();
+                drift += Math.abs(stale);
+                entry.getValue().add(-stale);
+            }
+        }
+        for (Map.Entry<String, Long> entry : databaseByDomain.entrySet()) {
+            LongAdder counter = counter(entry.getKey());
+            long difference = entry.getValue() - counter.sum();
+            drift += Math.abs(difference);
+            counter.add(difference);
+        }
+        initialized = true;
+        return drift;
+    }
+
+    /**
+     * Gibt die Gesamtzahl der Studenten zurück.
+     *
+     * @return die Gesamtzahl
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Gibt die Anzahl der Studenten mit der angegebenen E-Mail-Domain zurück.
+     *
+     * @param domain die Domain, z. B. "hochschule.de"
+     * @return die Anzahl (0, wenn die Domain unbekannt ist)
+     */
+    public long getCountForDomain(String domain) {
+        LongAdder counter = byDomain.get(domain.toLowerCase(Locale.ROOT));
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Gibt eine sortierte Momentaufnahme aller Domains mit mindestens einem Studenten zurück.
+     *
+     * @return Anzahl pro Domain
+     */
+    public Map<String, Long> getCountsByDomain() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        byDomain.forEach((domain, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                snapshot.put(domain, count);
+            }
+        });
+        return snapshot;
+    }
+
+    private LongAdder counter(String domain) {
+        return byDomain.computeIfAbsent(domain, d -> new LongAdder());
+    }
+}
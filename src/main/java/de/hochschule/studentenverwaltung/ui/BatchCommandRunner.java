@@ -0,0 +1,393 @@
+package de.hochschule.studentenverwaltung.ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.SaveResult;
+import de.hochschule.studentenverwaltung.repository.StudentSort;
+import de.hochschule.studentenverwaltung.service.StudentService;
+
+/**
+ * Nicht-interaktiver Batch-Modus: führt ein Befehlsskript ohne Menüs aus.
+ *
+ * Jede Zeile enthält einen Befehl, Felder werden durch ';' getrennt
+ * (ein Semikolon oder Backslash im Wert wird mit '\' maskiert).
+ * Leerzeilen und Zeilen, die mit '#' beginnen, werden übersprungen.
+ * <pre>
+ * add;Vorname;Nachname;E-Mail
+ * update;ID;Vorname;Nachname;E-Mail
+ * delete;ID
+ * view;ID
+ * list
+ * </pre>
+ *
+ * Aufeinanderfolgende Befehle gleicher Art (bis {@value #MAX_GROUP_SIZE})
+ * werden zu einem Service-Aufruf zusammengefasst. Pro Befehl wird eine
+ * Ergebniszeile im selben Format ausgegeben: {@code Zeile;Befehl;Status[;Daten...]},
+ * {@code list} gibt zusätzlich eine {@code ROW}-Zeile pro Student aus.
+ * Scheitert ein Service-Aufruf mit einer Laufzeitausnahme, erhält jeder
+ * Befehl der Gruppe eine {@code ERROR}-Zeile und das Skript läuft weiter.
+ * Am Ende folgt eine Zusammenfassung in Kommentarzeilen ({@code # ...}).
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class BatchCommandRunner {
+    private static final Logger logger = LoggerFactory.getLogger(BatchCommandRunner.class);
+
+    /** Höchstzahl der Befehle, die zu einem Service-Aufruf zusammengefasst werden */
+    static final int MAX_GROUP_SIZE = 1000;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char SEPARATOR = ';';
+    private static final char ESCAPE = '\\';
+
+    /** Befehlsarten des Skripts */
+    enum CommandType {
+        ADD(3), UPDATE(4), DELETE(1), VIEW(1), LIST(0);
+
+        private final int argumentCount;
+
+        CommandType(int argumentCount) {
+            this.argumentCount = argumentCount;
+        }
+
+        String keyword() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Ein geparster Befehl.
+     *
+     * @param line die Zeilennummer im Skript
+     * @param type die Befehlsart
+     * @param arguments die Felder nach dem Befehlswort
+     */
+    record Command(int line, CommandType type, List<String> arguments) {
+
+        Long id() {
+            return Long.valueOf(arguments.get(0));
+        }
+    }
+
+    /**
+     * Ergebnis eines Skriptlaufs.
+     *
+     * @param commands die Anzahl ausgeführter Befehle
+     * @param succeeded die Anzahl erfolgreicher Befehle
+     * @param failed die Anzahl fehlgeschlagener oder ungültiger Befehle
+     * @param durationNanos die Gesamtlaufzeit in Nanosekunden
+     */
+    public record Summary(long commands, long succeeded, long failed, long durationNanos) {
+    }
+
+    private final StudentService service;
+    private final Writer out;
+
+    private final Map<CommandType, long[]> statistics = new EnumMap<>(CommandType.class);
+    private long succeeded;
+    private long failed;
+
+    /**
+     * Erstellt einen Batch-Runner.
+     *
+     * @param service der StudentService für die Datenoperationen
+     * @param output das Ziel für Ergebnis- und Zusammenfassungszeilen
+     */
+    public BatchCommandRunner(StudentService service, Writer output) {
+        this.service = service;
+        this.out = new BufferedWriter(output, BUFFER_SIZE);
+        for (CommandType type : CommandType.values()) {
+            // [Befehle, Service-Aufrufe, Nanosekunden]
+            statistics.put(type, new long[3]);
+        }
+    }
+
+    /**
+     * Führt alle Befehle des Skripts aus und schreibt Ergebnisse und Zusammenfassung.
+     *
+     * @param script das Skript
+     * @return die Zusammenfassung
+     * @throws IOException beim Lesen des Skripts oder Schreiben der Ausgabe
+     */
+    public Summary run(Reader script) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = script instanceof BufferedReader buffered ? buffered : new BufferedReader(script, BUFFER_SIZE);
+        List<Command> group = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                    continue;
+                }
+                List<String> fields = tokenize(line);
+                Command command;
+                try {
+                    command = parse(lineNumber, fields);
+                } catch (IllegalArgumentException e) {
+                    executeGroup(group);
+                    failed++;
+                    writeResult(lineNumber, fields.get(0), "ERROR", e.getMessage());
+                    continue;
+                }
+                if (!group.isEmpty() && (group.get(0).type() != command.type() || group.size() == MAX_GROUP_SIZE)) {
+                    executeGroup(group);
+                }
+                group.add(command);
+            }
+            executeGroup(group);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            // Auch bei einem Abbruch sollen alle bisherigen Ergebniszeilen ankommen
+            out.flush();
+        }
+
+        Summary summary = new Summary(succeeded + failed, succeeded, failed, System.nanoTime() - start);
+        writeSummary(summary);
+        out.flush();
+        logger.info("Batch abgeschlossen: {} Befehl(e), {} fehlgeschlagen, {} ms.",
+                summary.commands(), summary.failed(), summary.durationNanos() / 1_000_000);
+        return summary;
+    }
+
+    /**
+     * Zerlegt eine Zeile in ihre durch ';' getrennten Felder (ohne Leerraum am Rand).
+     *
+     * @param line die Zeile
+     * @return die Felder
+     */
+    static List<String> tokenize(String line) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder(32);
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (c == ESCAPE && i + 1 < length) {
+                field.append(line.charAt(++i));
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private static Command parse(int line, List<String> fields) {
+        CommandType type;
+        try {
+            type = CommandType.valueOf(fields.get(0).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unbekannter Befehl");
+        }
+        List<String> arguments = fields.subList(1, fields.size());
+        if (arguments.size() != type.argumentCount) {
+            throw new IllegalArgumentException(type.argumentCount + " Feld(er) erwartet, " + arguments.size() + " erhalten");
+        }
+        Command command = new Command(line, type, List.copyOf(arguments));
+        if (type == CommandType.UPDATE || type == CommandType.DELETE || type == CommandType.VIEW) {
+            try {
+                command.id();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Ungültige ID: " + arguments.get(0));
+            }
+        }
+        return command;
+    }
+
+    private void executeGroup(List<Command> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        CommandType type = group.get(0).type();
+        long start = System.nanoTime();
+        if (type == CommandType.LIST) {
+            // Jede Liste einzeln, damit ein Fehler nur die aktuelle betrifft
+            group.forEach(command -> execute(type, List.of(command)));
+        } else {
+            execute(type, group);
+        }
+        long[] stats = statistics.get(type);
+        stats[0] += group.size();
+        stats[1]++;
+        stats[2] += System.nanoTime() - start;
+        group.clear();
+    }
+
+    /**
+     * Führt eine Gruppe aus. Scheitert der Service-Aufruf mit einer
+     * Laufzeitausnahme (z. B. Überlast oder Zeitlimit), erhält jeder Befehl
+     * der Gruppe eine ERROR-Zeile und das Skript läuft weiter.
+     */
+    private void execute(CommandType type, List<Command> group) {
+        try {
+            switch (type) {
+                case ADD -> executeAdds(group);
+                case UPDATE -> executeUpdates(group);
+                case DELETE -> executeDeletes(group);
+                case VIEW -> executeViews(group);
+                case LIST -> executeList(group.get(0));
+            }
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("{} Befehl(e) ab Zeile {} fehlgeschlagen: {}", group.size(), group.get(0).line(),
+                    e.getMessage(), e);
+            String detail = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            for (Command command : group) {
+                writeOutcome(command, false, "ERROR", detail);
+            }
+        }
+    }
+
+    private void executeAdds(List<Command> group) {
+        List<StudentDto> students = new ArrayList<>(group.size());
+        for (Command command : group) {
+            List<String> args = command.arguments();
+            students.add(new StudentDto(null, args.get(0), args.get(1), args.get(2)));
+        }
+        List<SaveResult> results = service.createStudents(students);
+        for (int i = 0; i < group.size(); i++) {
+            SaveResult result = results.get(i);
+            writeOutcome(group.get(i), result.isSuccess(), result.name(),
+                    result.isSuccess() ? String.valueOf(students.get(i).getId()) : null);
+        }
+    }
+
+    private void executeUpdates(List<Command> group) {
+        List<StudentDto> students = new ArrayList<>(group.size());
+        for (Command command : group) {
+            List<String> args = command.arguments();
+            students.add(new StudentDto(command.id(), args.get(1), args.get(2), args.get(3)));
+        }
+        List<SaveResult> results = service.updateStudents(students);
+        for (int i = 0; i < group.size(); i++) {
+            SaveResult result = results.get(i);
+            writeOutcome(group.get(i), result.isSuccess(), result.name(), String.valueOf(students.get(i).getId()));
+        }
+    }
+
+    private void executeDeletes(List<Command> group) {
+        List<Long> ids = group.stream().map(Command::id).toList();
+        Set<Long> deleted = new HashSet<>(service.deleteStudents(ids));
+        for (Command command : group) {
+            // Bei mehrfach genannter ID gilt nur die erste Nennung als gelöscht
+            boolean success = deleted.remove(command.id());
+            writeOutcome(command, success, success ? "DELETED" : "NOT_FOUND", String.valueOf(command.id()));
+        }
+    }
+
+    private void executeViews(List<Command> group) {
+        Map<Long, StudentDto> students = service.getStudentsById(group.stream().map(Command::id).toList());
+        for (Command command : group) {
+            StudentDto student = students.get(command.id());
+            if (student == null) {
+                writeOutcome(command, false, "NOT_FOUND", String.valueOf(command.id()));
+            } else {
+                succeeded++;
+                writeStudent(command.line(), command.type().keyword(), "OK", student);
+            }
+        }
+    }
+
+    private void executeList(Command command) {
+        long rows = service.forEachStudent(StudentSort.ascending(StudentSort.Field.LAST_NAME),
+                student -> writeStudent(command.line(), command.type().keyword(), "ROW", student));
+        writeOutcome(command, true, "OK", String.valueOf(rows));
+    }
+
+    private void writeOutcome(Command command, boolean success, String status, String detail) {
+        if (success) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+        writeResult(command.line(), command.type().keyword(), status, detail);
+    }
+
+    private void writeResult(int line, String keyword, String status, String detail) {
+        try {
+            out.write(Integer.toString(line));
+            out.write(SEPARATOR);
+            writeEscaped(keyword);
+            out.write(SEPARATOR);
+            out.write(status);
+            if (detail != null) {
+                out.write(SEPARATOR);
+                writeEscaped(detail);
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeStudent(int line, String keyword, String status, StudentDto student) {
+        try {
+            out.write(Integer.toString(line));
+            out.write(SEPARATOR);
+            out.write(keyword);
+            out.write(SEPARATOR);
+            out.write(status);
+            out.write(SEPARATOR);
+            out.write(Long.toString(student.getId()));
+            out.write(SEPARATOR);
+            writeEscaped(student.getFirstName());
+            out.write(SEPARATOR);
+            writeEscaped(student.getLastName());
+            out.write(SEPARATOR);
+            writeEscaped(student.getEmail());
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        if (value.indexOf(SEPARATOR) < 0 && value.indexOf(ESCAPE) < 0) {
+            out.write(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == SEPARATOR || c == ESCAPE) {
+                out.write(ESCAPE);
+            }
+            out.write(c);
+        }
+    }
+
+    private void writeSummary(Summary summary) throws IOException {
+        out.write(String.format(Locale.ROOT, "# commands=%d succeeded=%d failed=%d duration_ms=%.1f%n",
+                summary.commands(), summary.succeeded(), summary.failed(), summary.durationNanos() / 1e6));
+        for (Map.Entry<CommandType, long[]> entry : statistics.entrySet()) {
+            long[] stats = entry.getValue();
+            if (stats[0] == 0) {
+                continue;
+            }
+            out.write(String.format(Locale.ROOT, "# %s count=%d calls=%d duration_ms=%.1f avg_us=%.1f%n",
+                    entry.getKey().keyword(), stats[0], stats[1], stats[2] / 1e6, stats[2] / 1e3 / stats[0]));
+        }
+    }
+}
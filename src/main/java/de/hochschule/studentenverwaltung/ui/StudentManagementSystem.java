@@ -14,10 +14,36 @@ package de.hochschule.studentenverwaltung.ui;
  */
 
 import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.monitoring.OperationRecording;
+import de.hochschule.studentenverwaltung.repository.Page;
+import de.hochschule.studentenverwaltung.repository.PageCursor;
+import de.hochschule.studentenverwaltung.repository.ReplicatedStudentRepository;
+import de.hochschule.studentenverwaltung.repository.SaveResult;
+import de.hochschule.studentenverwaltung.repository.ShardedStudentRepository;
+import de.hochschule.studentenverwaltung.repository.SlowQueryLog;
 import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.repository.StudentSort;
+import de.hochschule.studentenverwaltung.service.AdmissionController;
+import de.hochschule.studentenverwaltung.service.DuplicateDetector;
+import de.hochschule.studentenverwaltung.service.RosterSync;
+import de.hochschule.studentenverwaltung.service.ServiceOverloadedException;
 import de.hochschule.studentenverwaltung.service.StudentService;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 import org.slf4j.Logger;
@@ -26,21 +52,88 @@ import org.slf4j.LoggerFactory;
 public class StudentManagementSystem {
     
     private static final Logger logger = LoggerFactory.getLogger(StudentManagementSystem.class);
+
+    /** Seitengröße für Studentenlisten */
+    private static final int PAGE_SIZE = 50;
+
+    /** Zeitlimit für SQL-Anweisungen, wenn {@code QUERY_TIMEOUT_MS} nicht gesetzt ist */
+    static final Duration DEFAULT_QUERY_TIMEOUT = Duration.ofSeconds(30);
     
     /**
      * Haupt-Einstiegspunkt der Anwendung.
      * Initialisiert das System und startet die Benutzeroberflächen-Schleife.
      * 
-     * @param args Kommandozeilenargumente (werden nicht verwendet)
+     * Mit {@code --startup-check} wird nur die erste Operation ausgeführt,
+     * die Startzeit ausgegeben und das Programm beendet (z. B. für den
+     * AppCDS-Trainingslauf im Dockerfile). Mit {@code --no-pager} werden alle
+     * Studenten ohne Rückfragen ausgegeben, z. B. zur Umleitung in eine Datei.
+     * {@code --batch <Datei|->} führt ein Befehlsskript aus der Datei bzw. von
+     * der Standardeingabe aus (siehe {@link BatchCommandRunner}).
+     * {@code --duplicates <Datei|->} schreibt wahrscheinlich doppelt erfasste
+     * Studenten in die Datei bzw. auf die Standardausgabe (siehe {@link DuplicateDetector}).
+     * {@code --sync-roster <Datei> [--dry-run]} gleicht den Bestand mit einer
+     * vollständigen Studentenliste ab und schreibt nur die Differenz (siehe {@link RosterSync}).
+     *
+     * Ist die Umgebungsvariable {@code JDBC_SHARD_URLS} gesetzt (kommagetrennte
+     * JDBC-URLs), werden die Studenten auf diese Datenbanken verteilt.
+     * Mit {@code JDBC_STANDBY_URL} wird stattdessen auf eine Standby-Datenbank
+     * repliziert; {@code STANDBY_READ_STALENESS_MS} erlaubt Lesezugriffe dort.
+     * Beide Variablen zugleich zu setzen ist ein Konfigurationsfehler und bricht den Start ab.
+     * {@code LIST_SNAPSHOT_STALENESS_MS} aktiviert die materialisierte Studentenliste.
+     * {@code JFR_RECORDING} startet eine JFR-Aufzeichnung mit der mitgelieferten
+     * Konfiguration, die beim Beenden in die angegebene Datei geschrieben wird.
+     * {@code SLOW_QUERY_THRESHOLD_MS} misst alle SQL-Anweisungen und hält
+     * langsamere mit Ausführungsplan fest (Menüpunkt 7).
+     * {@code QUERY_TIMEOUT_MS} setzt das Zeitlimit für SQL-Anweisungen
+     * (Standard 30 Sekunden, {@code 0} für unbegrenzt).
+     * {@code ADMISSION_CONTROL=true} aktiviert die Zugangskontrolle
+     * (siehe {@link AdmissionController}); abgewiesene Operationen werden gemeldet.
+     *
+     * @param args Kommandozeilenargumente
      */
     public static void main(String[] args) {
+        long mainStartNanos = System.nanoTime();
         logger.info("Studentenverwaltungssystem wird gestartet...");
-        
-        Scanner scanner = new Scanner(System.in);
-        StudentService studentService = new StudentService(new StudentRepository());
+        startRecording();
+
+        StudentRepository repository = createRepository();
+        Duration queryTimeout = durationFromEnv("QUERY_TIMEOUT_MS");
+        repository.setQueryTimeout(queryTimeout != null ? queryTimeout : DEFAULT_QUERY_TIMEOUT);
+        Duration slowQueryThreshold = durationFromEnv("SLOW_QUERY_THRESHOLD_MS");
+        if (slowQueryThreshold != null) {
+            repository.setSlowQueryLog(new SlowQueryLog(slowQueryThreshold));
+        }
+        StudentService studentService = new StudentService(repository);
+        Duration listSnapshotStaleness = durationFromEnv("LIST_SNAPSHOT_STALENESS_MS");
+        if (listSnapshotStaleness != null) {
+            studentService.enableListSnapshot(listSnapshotStaleness);
+        }
+        if (Boolean.parseBoolean(System.getenv("ADMISSION_CONTROL"))) {
+            studentService.enableAdmissionControl(new AdmissionController());
+        }
 
         logger.info("StudentService und Repository wurden initialisiert.");
 
+        if (args.length > 0 && "--startup-check".equals(args[0])) {
+            runStartupCheck(studentService, mainStartNanos);
+            return;
+        }
+        if (args.length > 0 && "--no-pager".equals(args[0])) {
+            dumpStudents(studentService, new StudentTableWriter(System.out));
+            return;
+        }
+        if (args.length > 1 && "--batch".equals(args[0])) {
+            System.exit(runBatch(studentService, args[1]));
+        }
+        if (args.length > 1 && "--duplicates".equals(args[0])) {
+            System.exit(runDuplicateDetection(repository, args[1]));
+        }
+        if (args.length > 1 && "--sync-roster".equals(args[0])) {
+            System.exit(runRosterSync(studentService, args[1], args.length > 2 && "--dry-run".equals(args[2])));
+        }
+
+        Scanner scanner = new Scanner(System.in);
+
         while (true) {
             displayMainMenu();
             
@@ -57,33 +150,245 @@ public class StudentManagementSystem {
 
             logger.info("Benutzer wählt Option: {}", choice);
 
-            switch (choice) {
-                case 1:
-                    listStudents(studentService);
-                    break;
-                case 2:
-                    addStudent(scanner, studentService);
-                    break;
-                case 3:
-                    editStudent(scanner, studentService);
-                    break;
-                case 4:
-                    deleteStudent(scanner, studentService);
-                    break;
-                case 5:
-                    viewStudent(scanner, studentService);
-                    break;
-                case 6:
-                    logger.info("Benutzer beendet das Programm.");
-                    System.out.println("Auf Wiedersehen!");
-                    return;
-                default:
-                    logger.warn("Ungültige Option eingegeben: {}", choice);
-                    System.out.println("Ungültige Option. Versuchen Sie es erneut.");
+            try {
+                switch (choice) {
+                    case 1:
+                        listStudents(scanner, studentService);
+                        break;
+                    case 2:
+                        addStudent(scanner, studentService);
+                        break;
+                    case 3:
+                        editStudent(scanner, studentService);
+                        break;
+                    case 4:
+                        deleteStudent(scanner, studentService);
+                        break;
+                    case 5:
+                        viewStudent(scanner, studentService);
+                        break;
+                    case 6:
+                        listStudentsSorted(scanner, studentService);
+                        break;
+                    case 7:
+                        showSlowQueries(repository);
+                        break;
+                    case 0:
+                        logger.info("Benutzer beendet das Programm.");
+                        System.out.println("Auf Wiedersehen!");
+                        return;
+                    default:
+                        logger.warn("Ungültige Option eingegeben: {}", choice);
+                        System.out.println("Ungültige Option. Versuchen Sie es erneut.");
+                }
+            } catch (ServiceOverloadedException e) {
+                logger.warn("Operation abgewiesen: {}", e.getMessage());
+                System.out.println("Das System ist ausgelastet. Bitte später erneut versuchen.");
             }
         }
     }
 
+    /**
+     * Liest eine Dauer in Millisekunden aus einer Umgebungsvariablen.
+     * Ungültige oder negative Werte werden protokolliert und wie eine fehlende
+     * Variable behandelt, statt den Start abzubrechen.
+     *
+     * @param name der Name der Umgebungsvariablen
+     * @return die Dauer oder {@code null}, wenn die Variable fehlt oder ungültig ist
+     */
+    static Duration durationFromEnv(String name) {
+        return parseMillis(name, System.getenv(name));
+    }
+
+    /**
+     * Wandelt eine Millisekundenangabe in eine Dauer um (siehe {@link #durationFromEnv(String)}).
+     *
+     * @param name der Name der Einstellung für die Protokollmeldung
+     * @param value der Wert
+     * @return die Dauer oder {@code null}, wenn der Wert fehlt oder ungültig ist
+     */
+    static Duration parseMillis(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.trim());
+            if (millis >= 0) {
+                return Duration.ofMillis(millis);
+            }
+        } catch (NumberFormatException e) {
+            // unten gemeinsam mit negativen Werten behandelt
+        }
+        logger.warn("Ungültiger Wert für {}: '{}' (erwartet Millisekunden >= 0); Einstellung wird ignoriert.",
+                name, value);
+        return null;
+    }
+
+    /**
+     * Startet eine JFR-Aufzeichnung, wenn {@code JFR_RECORDING} gesetzt ist.
+     * Scheitert der Start, läuft die Anwendung ohne Aufzeichnung weiter.
+     */
+    private static void startRecording() {
+        String destination = System.getenv("JFR_RECORDING");
+        if (destination == null || destination.isBlank()) {
+            return;
+        }
+        try {
+            OperationRecording.start(Path.of(destination.trim()));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("JFR-Aufzeichnung konnte nicht gestartet werden: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Erstellt das Repository: geshardet, wenn {@code JDBC_SHARD_URLS} gesetzt ist,
+     * repliziert, wenn {@code JDBC_STANDBY_URL} gesetzt ist, sonst einzeln.
+     *
+     * @return das Repository
+     */
+    private static StudentRepository createRepository() {
+        String standbyUrl = System.getenv("JDBC_STANDBY_URL");
+        String shardUrls = System.getenv("JDBC_SHARD_URLS");
+        boolean replicated = standbyUrl != null && !standbyUrl.isBlank();
+        boolean sharded = shardUrls != null && !shardUrls.isBlank();
+        if (replicated && sharded) {
+            // Replikation und Sharding lassen sich nicht kombinieren; eine der
+            // Einstellungen stillschweigend zu ignorieren wäre schlimmer als abzubrechen.
+            logger.error("JDBC_STANDBY_URL und JDBC_SHARD_URLS sind beide gesetzt.");
+            throw new IllegalStateException(
+                    "JDBC_STANDBY_URL und JDBC_SHARD_URLS können nicht gleichzeitig verwendet werden.");
+        }
+        if (replicated) {
+            Duration staleness = durationFromEnv("STANDBY_READ_STALENESS_MS");
+            Duration maxReadStaleness = staleness == null ? Duration.ZERO : staleness;
+            logger.info("Repliziere auf Standby-Datenbank {}.", standbyUrl);
+            return new ReplicatedStudentRepository(new StudentRepository().getJdbcUrl(), standbyUrl.trim(), maxReadStaleness);
+        }
+        if (!sharded) {
+            return new StudentRepository();
+        }
+        List<String> urls = List.of(shardUrls.trim().split("\\s*,\\s*"));
+        logger.info("Verwende {} Shard(s) aus JDBC_SHARD_URLS.", urls.size());
+        return new ShardedStudentRepository(urls);
+    }
+
+    /**
+     * Führt ein Befehlsskript im Batch-Modus aus.
+     *
+     * @param service der StudentService für die Datenoperationen
+     * @param source der Pfad des Skripts oder "-" für die Standardeingabe
+     * @return der Exit-Code: 0, wenn alle Befehle erfolgreich waren, 1 bei Fehlschlägen, 2 bei E/A-Fehlern
+     */
+    private static int runBatch(StudentService service, String source) {
+        Writer output = new OutputStreamWriter(System.out, System.out.charset());
+        try (Reader script = "-".equals(source)
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8)) {
+            BatchCommandRunner.Summary summary = new BatchCommandRunner(service, output).run(script);
+            return summary.failed() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            logger.error("Batch-Skript {} konnte nicht verarbeitet werden: {}", source, e.getMessage(), e);
+            System.err.println("Fehler im Batch-Modus: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Sucht wahrscheinlich doppelt erfasste Studenten und schreibt je Kandidatenpaar
+     * eine Zeile {@code score;id;vorname;nachname;email;id;vorname;nachname;email;vertauscht},
+     * abschließend eine Zusammenfassung als Kommentarzeile.
+     *
+     * @param repository das Repository mit den zu prüfenden Studenten
+     * @param target der Pfad des Berichts oder "-" für die Standardausgabe
+     * @return der Exit-Code: 0 bei Erfolg, 2 bei E/A-Fehlern
+     */
+    private static int runDuplicateDetection(StudentRepository repository, String target) {
+        try (BufferedWriter report = "-".equals(target)
+                ? new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()))
+                : Files.newBufferedWriter(Path.of(target), StandardCharsets.UTF_8)) {
+            report.write("score;id1;vorname1;nachname1;email1;id2;vorname2;nachname2;email2;vertauscht");
+            report.newLine();
+            DuplicateDetector.Result result = new DuplicateDetector(repository).detectAll(candidate -> {
+                try {
+                    report.write(String.format(Locale.ROOT, "%.3f;%s;%s;%b", candidate.score(),
+                            reportColumns(candidate.first()), reportColumns(candidate.second()),
+                            candidate.namesSwapped()));
+                    report.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            report.write(String.format(Locale.ROOT, "# students=%d comparisons=%d candidates=%d duration_ms=%d",
+                    result.students(), result.comparisons(), result.candidates(), result.duration().toMillis()));
+            report.newLine();
+            return 0;
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Dublettenbericht {} konnte nicht geschrieben werden: {}", target, e.getMessage(), e);
+            System.err.println("Fehler bei der Dublettensuche: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Gleicht den Bestand mit einer Studentenliste ab und gibt den Bericht aus.
+     *
+     * @param service der StudentService für die Datenoperationen
+     * @param roster der Pfad der Liste
+     * @param dryRun true, um nur die Differenz zu berichten
+     * @return der Exit-Code: 0 bei Erfolg, 1 wenn der Abgleich abgelehnt oder zurückgerollt wurde, 2 bei E/A-Fehlern
+     */
+    private static int runRosterSync(StudentService service, String roster, boolean dryRun) {
+        RosterSync.Report report;
+        try {
+            report = new RosterSync(service).sync(Path.of(roster), dryRun);
+        } catch (IOException e) {
+            logger.error("Studentenliste {} konnte nicht gelesen werden: {}", roster, e.getMessage(), e);
+            System.err.println("Fehler beim Lesen der Studentenliste: " + e.getMessage());
+            return 2;
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+
+        int limit = 20;
+        System.out.println(report.applied() ? "Abgleich angewendet:" : "Probelauf, nichts geschrieben:");
+        report.inserts().stream().limit(limit).forEach(s -> System.out.println("NEU      " + reportColumns(s)));
+        report.updates().stream().limit(limit).forEach(u -> System.out.println("GEÄNDERT " + reportColumns(u.after())
+                + " " + u.changedFields() + " vorher: " + u.before().getFirstName() + " " + u.before().getLastName()));
+        report.deletions().stream().limit(limit).forEach(s -> System.out.println("GELÖSCHT " + reportColumns(s)));
+        report.invalidRows().stream().limit(limit).forEach(row -> System.out.println("UNGÜLTIG " + row));
+        System.out.printf(Locale.ROOT, "Zeilen=%d Bestand=%d unverändert=%d neu=%d geändert=%d gelöscht=%d ungültig=%d"
+                        + " geschrieben=%d dauer_ms=%d%n",
+                report.rosterRows(), report.currentStudents(), report.unchanged(), report.inserts().size(),
+                report.updates().size(), report.deletions().size(), report.invalidRows().size(),
+                report.applied() ? report.touchedRows() : 0, report.duration().toMillis());
+        return 0;
+    }
+
+    private static String reportColumns(StudentDto student) {
+        return student.getId() + ";" + student.getFirstName() + ";" + student.getLastName() + ";" + student.getEmail();
+    }
+
+    /**
+     * Führt die erste Operation aus und misst die Zeit bis dahin.
+     * Gemessen wird ab JVM-Start (sofern ermittelbar) und ab Eintritt in main.
+     *
+     * @param service der StudentService für den Datenzugriff
+     * @param mainStartNanos der Zeitpunkt des Eintritts in main (System.nanoTime)
+     */
+    private static void runStartupCheck(StudentService service, long mainStartNanos) {
+        int count = service.getAllStudents().size();
+        long sinceMainMs = (System.nanoTime() - mainStartNanos) / 1_000_000;
+        long sinceJvmStartMs = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+
+        System.out.println("startup.first_operation_ms=" + sinceJvmStartMs);
+        System.out.println("startup.first_operation_since_main_ms=" + sinceMainMs);
+        logger.info("Erste Operation nach {} ms (JVM-Start) bzw. {} ms (main) bedient, {} Student(en) gelesen.",
+                sinceJvmStartMs, sinceMainMs, count);
+    }
+
     /**
      * Zeigt die Hauptmenü-Optionen dem Benutzer an.
      */
@@ -94,28 +399,104 @@ public class StudentManagementSystem {
         System.out.println("3. Student bearbeiten");
         System.out.println("4. Student löschen");
         System.out.println("5. Student anzeigen");
-        System.out.println("6. Beenden");
+        System.out.println("6. Studenten sortiert auflisten");
+        System.out.println("7. Langsame Abfragen anzeigen");
+        System.out.println("0. Beenden");
         System.out.print("Wählen Sie eine Option: ");
     }
 
     /**
-     * Listet alle Studenten im System auf.
-     * Zeigt eine formatierte Liste aller Studenten mit ihren wichtigsten Informationen.
+     * Listet alle Studenten im System seitenweise nach Nachname sortiert auf.
      * 
+     * @param scanner der Scanner für Benutzereingaben
      * @param service der StudentService für den Datenzugriff
      */
-    private static void listStudents(StudentService service) {
+    private static void listStudents(Scanner scanner, StudentService service) {
         logger.info("Benutzer listet alle Studenten auf.");
-        List<StudentDto> students = service.getAllStudents();
-        System.out.println("\n--- Studenten ---");
-        if (students.isEmpty()) {
-            System.out.println("Keine Studenten gefunden.");
-        } else {
-            students.forEach(s -> System.out.println(s.getId() + ". " + s.getFirstName() + " " + s.getLastName() + " (" + s.getEmail() + ")"));
-            logger.info("{} Studenten angezeigt.", students.size());
+        pageStudents(scanner, service, StudentSort.ascending(StudentSort.Field.LAST_NAME),
+                new StudentTableWriter(System.out));
+    }
+
+    /**
+     * Listet Studenten in einer wählbaren Sortierung seitenweise auf.
+     *
+     * @param scanner der Scanner für Benutzereingaben
+     * @param service der StudentService für den Datenzugriff
+     */
+    private static void listStudentsSorted(Scanner scanner, StudentService service) {
+        System.out.print("Sortieren nach (1 = Nachname, 2 = Vorname, 3 = E-Mail) [1]: ");
+        String fieldChoice = scanner.nextLine().trim();
+        StudentSort.Field field = switch (fieldChoice) {
+            case "2" -> StudentSort.Field.FIRST_NAME;
+            case "3" -> StudentSort.Field.EMAIL;
+            default -> StudentSort.Field.LAST_NAME;
+        };
+        System.out.print("Absteigend sortieren? (j/n) [n]: ");
+        boolean descending = scanner.nextLine().trim().equalsIgnoreCase("j");
+        StudentSort sort = new StudentSort(field, descending);
+        logger.info("Benutzer listet Studenten sortiert auf: {}", sort);
+        pageStudents(scanner, service, sort, new StudentTableWriter(System.out));
+    }
+
+    /**
+     * Blättert durch die Studenten in Seiten zu je {@value #PAGE_SIZE} Einträgen.
+     * Jede Seite wird per Keyset-Cursor direkt aus dem Index gelesen; für das
+     * Zurückblättern werden die Start-Cursor der bisherigen Seiten gemerkt.
+     *
+     * @param scanner der Scanner für Benutzereingaben
+     * @param service der StudentService für den Datenzugriff
+     * @param sort die Sortierung
+     * @param table das Ausgabeziel der Seiten
+     */
+    static void pageStudents(Scanner scanner, StudentService service, StudentSort sort, StudentTableWriter table) {
+        // Start-Cursor jeder bisher angezeigten Seite; null steht für die erste Seite
+        List<PageCursor> pageStarts = new ArrayList<>();
+        pageStarts.add(null);
+        while (true) {
+            int pageNumber = pageStarts.size();
+            Page<StudentDto> page = service.getStudentPage(sort, pageStarts.get(pageNumber - 1), PAGE_SIZE);
+            table.writeLine("");
+            table.writeLine("--- Studenten (Seite " + pageNumber + ") ---");
+            if (page.items().isEmpty()) {
+                table.writeLine("Keine Studenten gefunden.");
+                table.flush();
+                return;
+            }
+            table.writeHeader();
+            page.items().forEach(table::writeRow);
+            table.writeLine((page.hasNext() ? "[Enter] weiter  " : "(Ende der Liste)  ")
+                    + (pageNumber > 1 ? "[z] zurück  " : "") + "[q] beenden");
+            table.flush();
+
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("z") && pageNumber > 1) {
+                pageStarts.remove(pageNumber - 1);
+            } else if (input.isEmpty() && page.hasNext()) {
+                pageStarts.add(page.next());
+            } else if (input.equalsIgnoreCase("q") || input.isEmpty()) {
+                logger.info("{} Studentenzeilen angezeigt ({} Seite(n)).", table.getRowsWritten(), pageNumber);
+                return;
+            }
         }
     }
 
+    /**
+     * Gibt alle Studenten ohne Blättern nach Nachname sortiert aus ({@code --no-pager}).
+     * Die Zeilen werden direkt aus der Datenbank gestreamt und gepuffert geschrieben,
+     * sodass sich die Ausgabe schnell in eine Datei oder Pipe umleiten lässt.
+     *
+     * @param service der StudentService für den Datenzugriff
+     * @param table das Ausgabeziel
+     * @return die Anzahl der ausgegebenen Studenten
+     */
+    static long dumpStudents(StudentService service, StudentTableWriter table) {
+        table.writeHeader();
+        long rows = service.forEachStudent(StudentSort.ascending(StudentSort.Field.LAST_NAME), table::writeRow);
+        table.flush();
+        logger.info("{} Student(en) ohne Pager ausgegeben.", rows);
+        return rows;
+    }
+
     /**
      * Fügt einen neuen Studenten zum System hinzu.
      * Führt den Benutzer durch die Eingabe der erforderlichen Studenteninformationen.
@@ -132,7 +513,15 @@ public class StudentManagementSystem {
         String email = scanner.nextLine();
 
         StudentDto student = new StudentDto(null, firstName, lastName, email);
-        service.createStudent(student);
+        SaveResult result = service.createStudent(student);
+        if (result == SaveResult.DUPLICATE_EMAIL) {
+            System.out.println("Die E-Mail-Adresse ist bereits vergeben.");
+            return;
+        }
+        if (!result.isSuccess()) {
+            System.out.println("Student konnte nicht gespeichert werden.");
+            return;
+        }
         logger.info("Neuer Student hinzugefügt: {} {}, E-Mail: {}", firstName, lastName, email);
         System.out.println("Student erfolgreich hinzugefügt.");
     }
@@ -168,22 +557,27 @@ public class StudentManagementSystem {
 
         System.out.print("Neuer Vorname (" + student.getFirstName() + "): ");
         String firstName = scanner.nextLine();
-        if (firstName.isEmpty()) firstName = student.getFirstName();
 
         System.out.print("Neuer Nachname (" + student.getLastName() + "): ");
         String lastName = scanner.nextLine();
-        if (lastName.isEmpty()) lastName = student.getLastName();
 
         System.out.print("Neue E-Mail (" + student.getEmail() + "): ");
         String email = scanner.nextLine();
-        if (email.isEmpty()) email = student.getEmail();
 
-        student.setFirstName(firstName);
-        student.setLastName(lastName);
-        student.setEmail(email);
+        // Nur geänderte Felder atomar übernehmen, damit parallele Änderungen anderer Felder erhalten bleiben
+        StudentDto updated = service.modifyStudent(id, current -> {
+            if (!firstName.isEmpty()) current.setFirstName(firstName);
+            if (!lastName.isEmpty()) current.setLastName(lastName);
+            if (!email.isEmpty()) current.setEmail(email);
+        });
+        if (updated == null) {
+            logger.warn("Student mit ID {} konnte nicht aktualisiert werden.", id);
+            System.out.println("Student nicht gefunden oder E-Mail-Adresse bereits vergeben.");
+            return;
+        }
 
-        service.updateStudent(student);
-        logger.info("Student mit ID {} aktualisiert: {} {}, E-Mail: {}", id, firstName, lastName, email);
+        logger.info("Student mit ID {} aktualisiert: {} {}, E-Mail: {}", id,
+                updated.getFirstName(), updated.getLastName(), updated.getEmail());
         System.out.println("Student aktualisiert.");
     }
 
@@ -218,6 +612,20 @@ public class StudentManagementSystem {
         }
     }
 
+    /**
+     * Gibt das Protokoll langsamer Anweisungen aus, falls es aktiviert ist.
+     *
+     * @param repository das Repository mit dem Protokoll
+     */
+    private static void showSlowQueries(StudentRepository repository) {
+        SlowQueryLog log = repository.getSlowQueryLog();
+        if (log == null) {
+            System.out.println("Das Protokoll ist nicht aktiv (Umgebungsvariable SLOW_QUERY_THRESHOLD_MS setzen).");
+            return;
+        }
+        log.dump(System.out);
+    }
+
     /**
      * Zeigt detaillierte Informationen über einen bestimmten Studenten an.
      * Sucht nach der Student-ID und zeigt alle verfügbaren Informationen an.
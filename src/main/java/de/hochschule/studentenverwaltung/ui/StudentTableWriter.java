@@ -0,0 +1,182 @@
+package de.hochschule.studentenverwaltung.ui;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+
+/**
+ * Gepufferte Tabellenausgabe für Studentenlisten auf der Konsole.
+ *
+ * Alle Zeilen laufen durch einen großen {@link BufferedWriter}; auf den
+ * darunterliegenden Stream wird erst geschrieben, wenn der Puffer voll ist
+ * oder {@link #flush()} explizit aufgerufen wird (z. B. vor einer Eingabeaufforderung).
+ * Felder werden direkt in den Puffer geschrieben und mit Leerzeichen auf feste
+ * Spaltenbreiten aufgefüllt, ohne Zwischen-Strings pro Zeile zu bilden.
+ * Längere Werte werden nicht abgeschnitten; die Zeile verschiebt sich dann.
+ *
+ * @author Team
+ * @version 2.0
+ */
+public final class StudentTableWriter implements Flushable {
+
+    /** Puffergröße in Zeichen */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int ID_WIDTH = 8;
+    private static final int FIRST_NAME_WIDTH = 20;
+    private static final int LAST_NAME_WIDTH = 24;
+    private static final String SEPARATOR = "  ";
+
+    private static final char[] SPACES = new char[64];
+    private static final char[] RULE = new char[ID_WIDTH + FIRST_NAME_WIDTH + LAST_NAME_WIDTH + 3 * SEPARATOR.length() + 30];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+        Arrays.fill(RULE, '-');
+    }
+
+    private final Writer out;
+    private final char[] digits = new char[20];
+    private long rowsWritten;
+
+    /**
+     * Erstellt einen Tabellenschreiber für einen PrintStream (z. B. {@code System.out}).
+     *
+     * @param stream der Ausgabestream
+     */
+    public StudentTableWriter(PrintStream stream) {
+        this(new OutputStreamWriter(stream, stream.charset()));
+    }
+
+    /**
+     * Erstellt einen Tabellenschreiber für einen beliebigen Writer.
+     *
+     * @param writer das Ausgabeziel
+     */
+    public StudentTableWriter(Writer writer) {
+        this.out = new BufferedWriter(writer, BUFFER_SIZE);
+    }
+
+    /**
+     * Schreibt die Kopfzeile mit Spaltentiteln und Trennlinie.
+     */
+    public void writeHeader() {
+        try {
+            padLeft("ID", ID_WIDTH);
+            out.write(SEPARATOR);
+            padRight("Vorname", FIRST_NAME_WIDTH);
+            out.write(SEPARATOR);
+            padRight("Nachname", LAST_NAME_WIDTH);
+            out.write(SEPARATOR);
+            out.write("E-Mail");
+            out.write('\n');
+            out.write(RULE);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt einen Studenten als Tabellenzeile.
+     *
+     * @param student der Student
+     */
+    public void writeRow(StudentDto student) {
+        try {
+            writeId(student.getId());
+            out.write(SEPARATOR);
+            padRight(student.getFirstName(), FIRST_NAME_WIDTH);
+            out.write(SEPARATOR);
+            padRight(student.getLastName(), LAST_NAME_WIDTH);
+            out.write(SEPARATOR);
+            out.write(student.getEmail());
+            out.write('\n');
+            rowsWritten++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt eine freie Textzeile (z. B. Überschrift oder Statuszeile).
+     *
+     * @param text der Text
+     */
+    public void writeLine(String text) {
+        try {
+            out.write(text);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Schreibt den gepufferten Inhalt auf den Ausgabestream.
+     */
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der bisher geschriebenen Tabellenzeilen zurück.
+     *
+     * @return die Anzahl der Zeilen
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    private void writeId(Long id) throws IOException {
+        if (id == null) {
+            padLeft("", ID_WIDTH);
+            return;
+        }
+        // Ziffern rückwärts in den Puffer schreiben statt Long.toString
+        long value = id;
+        boolean negative = value < 0;
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            digits[--pos] = '-';
+        }
+        int length = digits.length - pos;
+        pad(ID_WIDTH - length);
+        out.write(digits, pos, length);
+    }
+
+    private void padRight(String value, int width) throws IOException {
+        String text = value == null ? "" : value;
+        out.write(text);
+        pad(width - text.length());
+    }
+
+    private void padLeft(String value, int width) throws IOException {
+        pad(width - value.length());
+        out.write(value);
+    }
+
+    private void pad(int count) throws IOException {
+        while (count > 0) {
+            int chunk = Math.min(count, SPACES.length);
+            out.write(SPACES, 0, chunk);
+            count -= chunk;
+        }
+    }
+}
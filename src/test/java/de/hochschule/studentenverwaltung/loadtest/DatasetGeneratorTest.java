@@ -0,0 +1,122 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import de.hochschule.studentenverwaltung.repository.StudentBulkLoader;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+
+/**
+ * Testklasse für DatasetGenerator und StudentBulkLoader.
+ * Nutzt eine eigene H2-In-Memory-Datenbank, um andere Tests nicht zu beeinflussen.
+ */
+public class DatasetGeneratorTest {
+
+    private static DatasetGenerator generator(String... args) {
+        return new DatasetGenerator(DatasetGeneratorConfig.parse(args));
+    }
+
+    @Test
+    @DisplayName("Sollte mit gleichem Startwert identische Daten erzeugen")
+    void generateChunk_shouldBeDeterministic() {
+        List<Student> first = generator("--seed=7", "--students=40000").generateChunk(3, 1);
+        List<Student> second = generator("--seed=7", "--students=40000", "--threads=1").generateChunk(3, 1);
+        List<Student> other = generator("--seed=8", "--students=40000").generateChunk(3, 1);
+
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getEmail(), second.get(i).getEmail());
+            assertEquals(first.get(i).getLastName(), second.get(i).getLastName());
+        }
+        assertNotEquals(first.get(0).getEmail() + first.get(1).getEmail(),
+                other.get(0).getEmail() + other.get(1).getEmail());
+    }
+
+    @Test
+    @DisplayName("Sollte eindeutige E-Mail-Adressen und fortlaufende IDs erzeugen")
+    void generateChunk_shouldProduceUniqueEmails() {
+        DatasetGenerator generator = generator("--students=25000", "--domains=a.de:1,b.de:1");
+        Set<String> emails = new HashSet<>();
+
+        for (long chunk = 0; chunk < 3; chunk++) {
+            for (Student student : generator.generateChunk(chunk, 100)) {
+                assertTrue(emails.add(student.getEmail()), "Doppelte E-Mail: " + student.getEmail());
+                assertTrue(student.getEmail().matches("[a-z.]+\\d+@[ab]\\.de"), student.getEmail());
+            }
+        }
+        assertEquals(25_000, emails.size());
+        assertEquals(Long.valueOf(100 + 24_999), generator.generateChunk(2, 100).get(4_999).getId());
+        assertEquals("wisniewski", DatasetGenerator.transliterate("Wiśniewski"));
+        assertEquals("muellerluedenscheidt",
+                DatasetGenerator.transliterate("Müller-Lüdenscheidt"));
+    }
+
+    @Test
+    @DisplayName("Sollte Daten per Massenimport laden und den ID-Zähler nachführen")
+    void load_shouldBulkInsert() throws Exception {
+        StudentRepository repository = new StudentRepository("jdbc:h2:mem:datasettest;DB_CLOSE_DELAY=-1");
+        StudentBulkLoader loader = new StudentBulkLoader(repository);
+
+        generator("--students=1234", "--threads=2").load(loader);
+
+        assertEquals(1234, repository.count());
+        assertEquals(1235, loader.nextFreeId());
+        Student created = new Student(null, "Neu", "Student", "neu.student@hochschule.de");
+        assertTrue(repository.save(created).isSuccess());
+        assertEquals(Long.valueOf(1235), created.getId());
+    }
+
+    @Test
+    @DisplayName("Sollte beim ersten fehlgeschlagenen Block die übrigen abbrechen")
+    void run_shouldCancelRemainingChunks_onFirstFailure() {
+        AtomicInteger accepted = new AtomicInteger();
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> generator("--students=200000", "--threads=1").run(1, (chunk, students) -> {
+                    if (chunk == 0) {
+                        throw new SQLException("Block 0 fehlgeschlagen");
+                    }
+                    accepted.incrementAndGet();
+                }));
+
+        assertEquals("Block 0 fehlgeschlagen", e.getMessage());
+        assertTrue(accepted.get() < 19, "Übrige Blöcke wurden nicht abgebrochen: " + accepted.get());
+    }
+
+    @Test
+    @DisplayName("Sollte den Massenimport auch nach einem fehlgeschlagenen Block abschließen")
+    void load_shouldFinish_whenChunkFails() {
+        StudentRepository repository = new StudentRepository("jdbc:h2:mem:datasetfailtest;DB_CLOSE_DELAY=-1");
+        AtomicBoolean finished = new AtomicBoolean();
+        StudentBulkLoader loader = new StudentBulkLoader(repository) {
+            @Override
+            public void insert(List<Student> students) throws SQLException {
+                if (students.get(0).getId() > 1) {
+                    throw new SQLException("Block fehlgeschlagen");
+                }
+                super.insert(students);
+            }
+
+            @Override
+            public void finish() throws SQLException {
+                finished.set(true);
+                super.finish();
+            }
+        };
+
+        assertThrows(SQLException.class, () -> generator("--students=20000", "--threads=1").load(loader));
+
+        assertTrue(finished.get());
+        Student created = new Student(null, "Neu", "Student", "neu.student@hochschule.de");
+        assertTrue(repository.save(created).isSuccess());
+        assertEquals(Long.valueOf(10_001), created.getId());
+    }
+}
@@ -0,0 +1,46 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Sollte 0 liefern, wenn keine Werte erfasst wurden")
+    void getValueAtPercentile_shouldReturnZero_whenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Sollte Perzentile mit höchstens 3 % Fehler liefern")
+    void getValueAtPercentile_shouldBeAccurateWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 * 0.03);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 * 0.03);
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    @DisplayName("Sollte Bucket-Grenzen lückenlos und aufsteigend abbilden")
+    void indexOf_shouldBeConsistentWithUpperBound() {
+        for (long v = 0; v < 1_000_000; v += 7) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.upperBoundOf(index) >= v);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(index - 1) < v);
+            }
+        }
+    }
+}
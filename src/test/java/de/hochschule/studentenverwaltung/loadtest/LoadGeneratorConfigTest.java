@@ -0,0 +1,45 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für LoadGeneratorConfig.
+ */
+public class LoadGeneratorConfigTest {
+
+    @Test
+    @DisplayName("Sollte gültige Optionen übernehmen")
+    void parse_shouldAcceptValidOptions() {
+        LoadGeneratorConfig config = LoadGeneratorConfig.parse(new String[] {
+                "--mix=100,0,0,0", "--zipf-theta=0.5", "--rate=0", "--query-timeout=0", "--slow-query=0"});
+
+        assertEquals(100, config.getReadPercent());
+        assertEquals(0, config.getDeletePercent());
+        assertEquals(0.5, config.getZipfTheta());
+        assertEquals(0.0, config.getTargetRate());
+        assertEquals(Duration.ZERO, config.getQueryTimeout());
+        assertEquals(Duration.ZERO, config.getSlowQueryThreshold());
+    }
+
+    @Test
+    @DisplayName("Sollte ungültige Anteile, Schiefe, Rate und Zeitgrenzen beim Einlesen ablehnen")
+    void parse_shouldRejectInvalidValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--mix=150,-50,0,0"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--zipf-theta=1.5"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--zipf-theta=0"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--rate=-1"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--rate=NaN"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--query-timeout=-1"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGeneratorConfig.parse(new String[] {"--slow-query=-5"}));
+    }
+}
@@ -0,0 +1,46 @@
+package de.hochschule.studentenverwaltung.loadtest;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für ZipfianGenerator.
+ */
+public class ZipfianGeneratorTest {
+
+    @Test
+    @DisplayName("Sollte nur Indizes im Bereich [0, n) liefern")
+    void next_shouldStayInRange() {
+        ZipfianGenerator generator = new ZipfianGenerator(100);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = generator.next(random.nextDouble());
+            assertTrue(value >= 0 && value < 100, "Index außerhalb des Bereichs: " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte kleine Indizes deutlich häufiger liefern")
+    void next_shouldFavorHotKeys() {
+        ZipfianGenerator generator = new ZipfianGenerator(1000);
+        Random random = new Random(42);
+        int[] counts = new int[1000];
+
+        for (int i = 0; i < 100_000; i++) {
+            counts[(int) generator.next(random.nextDouble())]++;
+        }
+
+        assertTrue(counts[0] > counts[10]);
+        assertTrue(counts[10] > counts[500]);
+    }
+
+    @Test
+    @DisplayName("Sollte ungültige Parameter ablehnen")
+    void constructor_shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(10, 1.0));
+    }
+}
@@ -0,0 +1,69 @@
+package de.hochschule.studentenverwaltung.monitoring;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.service.StudentService;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für die JFR-Ereignisse und den OperationRecordingAnalyzer.
+ * Zeichnet mit Schwellwert null auf, damit auch schnelle Operationen erscheinen.
+ */
+public class OperationRecordingAnalyzerTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:jfrtest;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Sollte Repository- und Service-Operationen aufzeichnen und pro Operation zusammenfassen")
+    void summarize_shouldGroupEventsPerOperation() throws Exception {
+        StudentService service = new StudentService(new StudentRepository(JDBC_URL));
+        Path file = tempDir.resolve("aufnahme.jfr");
+
+        try (Recording recording = new Recording(OperationRecording.bundledConfiguration())) {
+            recording.enable(RepositoryOperationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(ServiceOperationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            StudentDto anna = new StudentDto(null, "Anna", "Schmidt", "anna.jfr@hochschule.de");
+            service.createStudent(anna);
+            service.createStudent(new StudentDto(null, "Anna", "Doppelt", "anna.jfr@hochschule.de"));
+            service.getStudentById(anna.getId());
+            service.getStudentById(anna.getId());
+            service.deleteStudent(anna.getId());
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<OperationRecordingAnalyzer.OperationSummary> summaries = OperationRecordingAnalyzer.summarize(file);
+
+        OperationRecordingAnalyzer.OperationSummary findById = find(summaries, "Repository", "findById");
+        assertEquals(2, findById.count());
+        assertEquals(2, findById.rows());
+        assertTrue(findById.connectionAcquire().toNanos() > 0);
+
+        OperationRecordingAnalyzer.OperationSummary save = find(summaries, "Repository", "save");
+        assertEquals(2, save.count());
+        assertEquals(1, save.rows(), "Nur das erste Anlegen war erfolgreich");
+
+        assertEquals(1, find(summaries, "Service", "deleteStudent").count());
+    }
+
+    private static OperationRecordingAnalyzer.OperationSummary find(
+            List<OperationRecordingAnalyzer.OperationSummary> summaries, String layer, String operation) {
+        return summaries.stream()
+                .filter(summary -> summary.layer().equals(layer) && summary.operation().equals(operation))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Keine Ereignisse für " + layer + "." + operation));
+    }
+}
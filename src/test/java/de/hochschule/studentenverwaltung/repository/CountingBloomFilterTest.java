@@ -0,0 +1,55 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für CountingBloomFilter.
+ */
+public class CountingBloomFilterTest {
+
+    @Test
+    @DisplayName("Sollte hinzugefügte Einträge immer finden")
+    void mightContain_shouldHaveNoFalseNegatives() {
+        CountingBloomFilter filter = new CountingBloomFilter(5_000, 0.01);
+        for (int i = 0; i < 5_000; i++) {
+            filter.add("student" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.mightContain("student" + i + "@example.com"));
+        }
+        assertEquals(5_000, filter.size());
+    }
+
+    @Test
+    @DisplayName("Sollte die Falsch-positiv-Rate ungefähr einhalten")
+    void mightContain_shouldRespectFalsePositiveRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("vorhanden" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("neu" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "Zu viele falsch-positive Treffer: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Sollte entfernte Einträge nicht mehr melden")
+    void remove_shouldDeleteEntry() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("max@example.com");
+        filter.add("erika@example.com");
+
+        filter.remove("max@example.com");
+
+        assertFalse(filter.mightContain("max@example.com"));
+        assertTrue(filter.mightContain("erika@example.com"));
+        assertEquals(1, filter.size());
+    }
+}
@@ -0,0 +1,157 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import org.junit.jupiter.api.*;
+
+import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für ReplicatedStudentRepository.
+ * Nutzt je eine eigene H2-In-Memory-Datenbank als Primär- und Standby-Datenbank.
+ */
+public class ReplicatedStudentRepositoryTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:replprimary;DB_CLOSE_DELAY=-1";
+    private static final String STANDBY_URL = "jdbc:h2:mem:replstandby;DB_CLOSE_DELAY=-1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private ReplicatedStudentRepository repository;
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        repository.close();
+        for (String url : List.of(PRIMARY_URL, STANDBY_URL)) {
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM students");
+                stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH 1");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte Anlegen, Ändern und Löschen auf die Standby-Datenbank übertragen")
+    void changes_shouldBeReplicatedToStandby() throws Exception {
+        repository = new ReplicatedStudentRepository(PRIMARY_URL, STANDBY_URL);
+        Student max = new Student(null, "Max", "Mustermann", "max@hochschule.de");
+        Student anna = new Student(null, "Anna", "Schmidt", "anna@hochschule.de");
+        repository.save(max);
+        repository.save(anna);
+        max.setLastName("Muster");
+        repository.save(max);
+        repository.deleteById(anna.getId());
+
+        assertTrue(repository.awaitReplication(TIMEOUT));
+        List<Student> standbyRows = readAll(STANDBY_URL);
+        assertEquals(1, standbyRows.size());
+        assertEquals("Muster", standbyRows.get(0).getLastName());
+        assertEquals(max.getId(), standbyRows.get(0).getId());
+
+        ReplicatedStudentRepository.ReplicationStatus status = repository.getReplicationStatus();
+        assertEquals(0, status.pendingChanges());
+        assertEquals(status.lastSequence(), status.appliedSequence());
+        assertEquals(Duration.ZERO, status.lag());
+    }
+
+    @Test
+    @DisplayName("Sollte vorhandene Daten beim Start vollständig kopieren")
+    void start_shouldCopyExistingPrimaryRows() throws Exception {
+        new StudentRepository(PRIMARY_URL).save(new Student(null, "Alt", "Bestand", "alt@hochschule.de"));
+
+        repository = new ReplicatedStudentRepository(PRIMARY_URL, STANDBY_URL);
+
+        assertTrue(repository.awaitReplication(TIMEOUT));
+        assertEquals(1, readAll(STANDBY_URL).size());
+    }
+
+    @Test
+    @DisplayName("Sollte bei verspätet protokollierten Änderungen den aktuellen Stand übertragen")
+    void lateChangeEvent_shouldNotOverwriteNewerRow() throws Exception {
+        repository = new ReplicatedStudentRepository(PRIMARY_URL, STANDBY_URL);
+        Student max = new Student(null, "Max", "Mustermann", "max@hochschule.de");
+        repository.save(max);
+        Student stale = new Student(max.getId(), "Max", "Veraltet", "max@hochschule.de");
+        max.setLastName("Aktuell");
+        repository.save(max);
+
+        // Wie ein nach dem Commit der neueren Änderung eintreffendes älteres Ereignis
+        repository.fireChange(listener -> listener.onUpdate(stale, stale));
+
+        assertTrue(repository.awaitReplication(TIMEOUT));
+        assertEquals("Aktuell", readAll(STANDBY_URL).get(0).getLastName());
+    }
+
+    @Test
+    @DisplayName("Sollte vertauschte E-Mail-Adressen konsistent übertragen")
+    void emailSwap_shouldConvergeOnStandby() throws Exception {
+        repository = new ReplicatedStudentRepository(PRIMARY_URL, STANDBY_URL);
+        Student a = new Student(null, "A", "A", "a@hochschule.de");
+        Student b = new Student(null, "B", "B", "b@hochschule.de");
+        repository.save(a);
+        repository.save(b);
+        a.setEmail("tmp@hochschule.de");
+        repository.save(a);
+        b.setEmail("a@hochschule.de");
+        repository.save(b);
+        a.setEmail("b@hochschule.de");
+        repository.save(a);
+
+        assertTrue(repository.awaitReplication(TIMEOUT));
+        assertEquals(readAll(PRIMARY_URL).toString(), readAll(STANDBY_URL).toString());
+    }
+
+    @Test
+    @DisplayName("Sollte bei geringer Verzögerung von der Standby-Datenbank lesen")
+    void reads_shouldBeServedByStandby_whenLagIsWithinBound() throws Exception {
+        repository = new ReplicatedStudentRepository(PRIMARY_URL, STANDBY_URL, Duration.ofSeconds(5));
+        Student student = new Student(null, "Max", "Mustermann", "max@hochschule.de");
+        repository.save(student);
+        // Eigene, noch offene Änderungen sind sofort sichtbar
+        assertNotNull(repository.findById(student.getId()));
+        assertTrue(repository.awaitReplication(TIMEOUT));
+
+        // Zeile nur auf der Standby-Datenbank verändern, um die Leseroute zu erkennen
+        try (Connection conn = DriverManager.getConnection(STANDBY_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE students SET last_name = 'Standby'");
+        }
+        assertEquals("Standby", repository.findById(student.getId()).getLastName());
+        assertEquals("Standby", repository.findAll().get(0).getLastName());
+    }
+
+    @Test
+    @DisplayName("Sollte nach dem Failover auf der Standby-Datenbank weiterarbeiten")
+    void promoteStandby_shouldSwitchAllAccessToStandby() throws Exception {
+        repository = new ReplicatedStudentRepository(PRIMARY_URL, STANDBY_URL);
+        Student first = new Student(null, "Max", "Mustermann", "max@hochschule.de");
+        repository.save(first);
+
+        assertTrue(repository.promoteStandby());
+        assertTrue(repository.getReplicationStatus().promoted());
+        assertEquals(STANDBY_URL, repository.getJdbcUrl());
+
+        Student second = new Student(null, "Anna", "Schmidt", "anna@hochschule.de");
+        assertEquals(SaveResult.CREATED, repository.save(second));
+        assertTrue(second.getId() > first.getId());
+        assertEquals(2, readAll(STANDBY_URL).size());
+        assertEquals(1, readAll(PRIMARY_URL).size());
+        assertEquals(SaveResult.DUPLICATE_EMAIL,
+                repository.save(new Student(null, "Max", "Doppelt", "max@hochschule.de")));
+    }
+
+    private static List<Student> readAll(String url) throws SQLException {
+        List<Student> students = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM students ORDER BY id")) {
+            while (rs.next()) {
+                students.add(StudentRepository.mapRow(rs));
+            }
+        }
+        return students;
+    }
+}
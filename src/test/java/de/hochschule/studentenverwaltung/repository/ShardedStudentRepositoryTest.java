@@ -0,0 +1,333 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für ShardedStudentRepository.
+ * Nutzt drei eigene H2-In-Memory-Datenbanken als Shards.
+ */
+public class ShardedStudentRepositoryTest {
+
+    private static final List<String> SHARD_URLS = List.of(
+            "jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+            "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1");
+
+    private ShardedStudentRepository repository;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ShardedStudentRepository(SHARD_URLS);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        repository.close();
+        for (String url : SHARD_URLS) {
+            try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM students");
+                stmt.execute("DROP SEQUENCE IF EXISTS student_id_blocks");
+                stmt.execute("DROP TABLE IF EXISTS student_emails");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte global eindeutige IDs vergeben und Studenten auf alle Shards verteilen")
+    void save_shouldAssignUniqueIds_andSpreadAcrossShards() throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            Student student = new Student(null, "Vorname" + i, "Nachname" + i, "student" + i + "@hochschule.de");
+            assertEquals(SaveResult.CREATED, repository.save(student));
+            assertTrue(ids.add(student.getId()));
+        }
+
+        for (int shard = 0; shard < SHARD_URLS.size(); shard++) {
+            try (Connection conn = DriverManager.getConnection(SHARD_URLS.get(shard), "sa", "");
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT id FROM students")) {
+                int rows = 0;
+                while (rs.next()) {
+                    assertEquals(shard, repository.shardIndexFor(rs.getLong(1)));
+                    rows++;
+                }
+                assertTrue(rows > 0, "Shard " + shard + " sollte Studenten enthalten");
+            }
+        }
+        assertEquals(30, repository.count());
+        assertEquals(30, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Sollte eine Transaktion an die Shard des ersten Schreibzugriffs binden")
+    void inTransaction_shouldCommitAndRollBackOnSingleShard() {
+        List<Student> students = createStudents(12);
+        Student first = students.get(0);
+        Student sameShard = students.stream().skip(1)
+                .filter(s -> repository.shardIndexFor(s.getId()) == repository.shardIndexFor(first.getId()))
+                .findFirst().orElseThrow();
+
+        repository.inTransaction(TransactionIsolation.READ_COMMITTED, () -> {
+            first.setLastName("Geändert");
+            assertEquals(SaveResult.UPDATED, repository.save(first));
+            assertEquals("Geändert", repository.findById(first.getId()).getLastName());
+            return repository.deleteById(sameShard.getId());
+        });
+        assertEquals("Geändert", repository.findById(first.getId()).getLastName());
+        assertNull(repository.findById(sameShard.getId()));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.inTransaction(TransactionIsolation.READ_COMMITTED, () -> {
+            repository.deleteById(first.getId());
+            throw new IllegalArgumentException("Abbruch");
+        }));
+        assertNotNull(repository.findById(first.getId()));
+    }
+
+    @Test
+    @DisplayName("Sollte den Schreibzugriff auf eine zweite Shard ablehnen und alles zurückrollen")
+    void inTransaction_shouldRejectSecondShard_andReleaseReservations() {
+        List<Student> students = createStudents(12);
+        Student first = students.get(0);
+        Student otherShard = students.stream()
+                .filter(s -> repository.shardIndexFor(s.getId()) != repository.shardIndexFor(first.getId()))
+                .findFirst().orElseThrow();
+
+        CrossShardTransactionException e = assertThrows(CrossShardTransactionException.class,
+                () -> repository.inTransaction(TransactionIsolation.READ_COMMITTED, () -> {
+                    first.setEmail("neu@hochschule.de");
+                    assertEquals(SaveResult.UPDATED, repository.save(first));
+                    return repository.deleteById(otherShard.getId());
+                }));
+
+        assertEquals(repository.shardIndexFor(first.getId()), e.getBoundShard());
+        assertEquals(repository.shardIndexFor(otherShard.getId()), e.getRequestedShard());
+        assertEquals("student0@hochschule.de", repository.findById(first.getId()).getEmail());
+        assertNotNull(repository.findById(otherShard.getId()));
+        // Die Reservierung der zurückgerollten Änderung ist wieder frei
+        assertEquals(SaveResult.CREATED, repository.save(new Student(null, "Neu", "Student", "neu@hochschule.de")));
+    }
+
+    private List<Student> createStudents(int count) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Student student = new Student(null, "Vorname" + i, "Nachname" + i, "student" + i + "@hochschule.de");
+            assertEquals(SaveResult.CREATED, repository.save(student));
+            students.add(student);
+        }
+        return students;
+    }
+
+    @Test
+    @DisplayName("Sollte einzelne Studenten über die zuständige Shard finden, ändern und löschen")
+    void pointOperations_shouldBeRoutedToOwningShard() {
+        Student student = new Student(null, "Max", "Mustermann", "max@hochschule.de");
+        repository.save(student);
+
+        student.setLastName("Muster");
+        assertEquals(SaveResult.UPDATED, repository.save(student));
+        assertEquals("Muster", repository.findById(student.getId()).getLastName());
+        assertEquals(student.getId(), repository.findByEmail("max@hochschule.de").getId());
+
+        assertTrue(repository.deleteById(student.getId()));
+        assertNull(repository.findById(student.getId()));
+
+        Student withId = new Student(5_000L, "Mit", "ID", "mit.id@hochschule.de");
+        assertEquals(SaveResult.CREATED, repository.insertWithId(withId));
+        assertEquals("mit.id@hochschule.de", repository.findById(5_000L).getEmail());
+        assertEquals(SaveResult.DUPLICATE_EMAIL,
+                repository.insertWithId(new Student(5_001L, "Gleiche", "Adresse", "mit.id@hochschule.de")));
+    }
+
+    @Test
+    @DisplayName("Sollte doppelte E-Mail-Adressen auch shardübergreifend ablehnen")
+    void save_shouldRejectDuplicateEmail_acrossShards() {
+        for (int i = 0; i < 10; i++) {
+            repository.save(new Student(null, "A" + i, "B" + i, "a" + i + "@hochschule.de"));
+        }
+
+        Student duplicate = new Student(null, "Doppelt", "Eintrag", "a7@hochschule.de");
+        assertEquals(SaveResult.DUPLICATE_EMAIL, repository.save(duplicate));
+        assertNull(duplicate.getId());
+
+        Student existing = repository.findByEmail("a3@hochschule.de");
+        existing.setEmail("a8@hochschule.de");
+        assertEquals(SaveResult.DUPLICATE_EMAIL, repository.save(existing));
+        assertEquals(10, repository.count());
+    }
+
+    @Test
+    @DisplayName("Sollte gleichzeitiges Anlegen derselben Adresse über zwei Instanzen nur einmal zulassen")
+    void save_shouldGrantEachEmailOnce_underConcurrentCreates() throws Exception {
+        ShardedStudentRepository other = new ShardedStudentRepository(SHARD_URLS);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger created = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                ShardedStudentRepository target = thread % 2 == 0 ? repository : other;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        if (target.save(new Student(null, "Gleich", "Zeitig", "race" + i + "@hochschule.de")).isSuccess()) {
+                            created.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            other.close();
+        }
+
+        assertEquals(20, created.get());
+        assertEquals(20, repository.count());
+    }
+
+    @Test
+    @DisplayName("Sollte Adressen nach Änderung oder Löschung freigeben und verwaiste Reservierungen übernehmen")
+    void save_shouldReleaseAndRecoverReservations() throws SQLException {
+        Student student = new Student(null, "Max", "Mustermann", "alt@hochschule.de");
+        repository.save(student);
+        student.setEmail("neu@hochschule.de");
+        assertEquals(SaveResult.UPDATED, repository.save(student));
+        assertEquals(SaveResult.CREATED, repository.save(new Student(null, "Erika", "Muster", "alt@hochschule.de")));
+        assertTrue(repository.deleteById(student.getId()));
+        assertEquals(SaveResult.CREATED, repository.save(new Student(null, "Lisa", "Neu", "neu@hochschule.de")));
+
+        String orphan = "verwaist@hochschule.de";
+        try (Connection conn = DriverManager.getConnection(SHARD_URLS.get(repository.emailShardIndexFor(orphan)), "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO student_emails (email, student_id, reserved_at) VALUES ('" + orphan
+                    + "', 999999, DATEADD(SECOND, -" + (2 * ShardedStudentRepository.ORPHAN_GRACE_SECONDS)
+                    + ", LOCALTIMESTAMP))");
+        }
+        assertEquals(SaveResult.CREATED, repository.save(new Student(null, "Ohne", "Vorgänger", orphan)));
+    }
+
+    @Test
+    @DisplayName("Sollte sortierte Seiten über alle Shards korrekt zusammenführen")
+    void findPage_shouldMergeShardsInSortOrder() {
+        for (int i = 0; i < 25; i++) {
+            repository.save(new Student(null, "Vorname", String.format("Name%02d", 24 - i), "p" + i + "@hochschule.de"));
+        }
+
+        StudentSort sort = StudentSort.ascending(StudentSort.Field.LAST_NAME);
+        List<Student> expected = repository.findAllSorted(sort);
+        assertEquals(25, expected.size());
+
+        PageCursor cursor = null;
+        int position = 0;
+        int pages = 0;
+        do {
+            Page<Student> page = repository.findPage(sort, cursor, 10);
+            for (Student student : page.items()) {
+                assertEquals(expected.get(position++).getId(), student.getId());
+            }
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(25, position);
+        assertEquals(3, pages);
+        assertEquals("Name00", expected.get(0).getLastName());
+        assertEquals(Map.of("hochschule.de", 25L), repository.countByEmailDomain());
+    }
+
+    @Test
+    @DisplayName("Sollte über alle Shards sortiert streamen")
+    void forEachSorted_shouldMergeShardCursorsInSortOrder() {
+        List<Student> students = createStudents(30);
+        StudentSort sort = StudentSort.descending(StudentSort.Field.FIRST_NAME);
+
+        List<Student> streamed = new ArrayList<>();
+        assertEquals(30, repository.forEachSorted(sort, streamed::add));
+        assertEquals(repository.findAllSorted(sort).stream().map(Student::getId).toList(),
+                streamed.stream().map(Student::getId).toList());
+
+        List<Long> created = new ArrayList<>();
+        assertEquals(20, repository.forEachCreatedAfter(students.get(9).getId(), s -> created.add(s.getId())));
+        assertEquals(students.subList(10, 30).stream().map(Student::getId).toList(), created);
+
+        assertThrows(IllegalStateException.class, () -> repository.forEachSorted(sort, s -> {
+            throw new IllegalStateException("Abbruch durch die Aktion");
+        }));
+        assertEquals(30, repository.forEachSorted(sort, s -> { }));
+    }
+
+    @Test
+    @DisplayName("Sollte Snapshot und Wiederherstellung über zwei Shards ausführen")
+    void snapshotAndRestore_shouldCoverAllShards() throws Exception {
+        try (ShardedStudentRepository twoShards = new ShardedStudentRepository(List.of(
+                "jdbc:h2:mem:snapshotshard0;DB_CLOSE_DELAY=-1", "jdbc:h2:mem:snapshotshard1;DB_CLOSE_DELAY=-1"))) {
+            List<Student> students = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Student student = new Student(null, "Vorname" + i, "Nachname" + i, "snap" + i + "@hochschule.de");
+                assertEquals(SaveResult.CREATED, twoShards.save(student));
+                students.add(student);
+            }
+            assertEquals("jdbc:sharded:jdbc:h2:mem:snapshotshard0;DB_CLOSE_DELAY=-1,"
+                    + "jdbc:h2:mem:snapshotshard1;DB_CLOSE_DELAY=-1", twoShards.getJdbcUrl());
+            StudentSnapshotManager snapshotManager = new StudentSnapshotManager(twoShards);
+            Path file = tempDir.resolve("shards.snap");
+
+            assertEquals(20, snapshotManager.snapshot(file).rows());
+            twoShards.deleteAllById(List.of(students.get(0).getId(), students.get(1).getId()));
+            twoShards.save(new Student(null, "Neu", "Nach Snapshot", "neu@hochschule.de"));
+            assertEquals(20, snapshotManager.restore(file).rows());
+
+            assertEquals(20, twoShards.count());
+            assertNull(twoShards.findByEmail("neu@hochschule.de"));
+            for (Student student : students) {
+                assertEquals(student.getEmail(), twoShards.findById(student.getId()).getEmail());
+            }
+            Student next = new Student(null, "Danach", "Angelegt", "danach@hochschule.de");
+            assertEquals(SaveResult.CREATED, twoShards.save(next));
+            assertEquals(21, twoShards.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte beim Massenimport jede Zeile auf die Shard ihrer ID schreiben")
+    void bulkLoader_shouldRouteRowsToOwningShard() throws SQLException {
+        repository.save(new Student(null, "Vor", "Import", "vor.import@hochschule.de"));
+        StudentBulkLoader loader = new StudentBulkLoader(repository);
+        long firstId = loader.nextFreeId();
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            students.add(new Student(firstId + i, "Bulk", "Student" + i, "bulk" + i + "@hochschule.de"));
+        }
+
+        loader.insert(students);
+        loader.finish();
+
+        assertEquals(51, repository.count());
+        for (Student student : students) {
+            assertEquals(student.getEmail(), repository.findById(student.getId()).getEmail());
+        }
+        Student created = new Student(null, "Nach", "Import", "nach.import@hochschule.de");
+        assertEquals(SaveResult.CREATED, repository.save(created));
+        assertTrue(created.getId() >= firstId + 50);
+        assertEquals(SaveResult.DUPLICATE_EMAIL, repository.save(new Student(null, "X", "Y", "bulk7@hochschule.de")));
+    }
+}
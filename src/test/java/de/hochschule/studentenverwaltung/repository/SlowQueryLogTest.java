@@ -0,0 +1,63 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für SlowQueryLog.
+ * Nutzt eine eigene H2-In-Memory-Datenbank, um andere Tests nicht zu beeinflussen.
+ */
+public class SlowQueryLogTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:slowquerytest;DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("Sollte Anweisungen pro Form aggregieren und Pläne einmalig erfassen")
+    void record_shouldAggregateShapes_andCapturePlans() {
+        StudentRepository repository = new StudentRepository(JDBC_URL);
+        SlowQueryLog log = new SlowQueryLog(Duration.ZERO, SlowQueryLog.DEFAULT_MAX_SHAPES, 5);
+        repository.setSlowQueryLog(log);
+        Student student = new Student(null, "Max", "Mustermann", "max.slow@example.com");
+        repository.save(student);
+
+        repository.findById(student.getId());
+        repository.findById(student.getId());
+        repository.findAllById(List.of(student.getId(), 999L));
+        repository.findAllById(List.of(student.getId(), 998L, 997L));
+
+        SlowQueryLog.ShapeStatistics byId = log.getShapeStatistics().stream()
+                .filter(s -> s.shape().equals("SELECT * FROM students WHERE id = ?"))
+                .findFirst().orElseThrow();
+        assertEquals(2, byId.count());
+        assertEquals(2, byId.slowCount());
+        assertTrue(byId.plan().contains("PRIMARY_KEY"), "Plan mit verwendetem Index: " + byId.plan());
+        assertTrue(log.getShapeStatistics().stream()
+                .anyMatch(s -> s.shape().endsWith("id = ANY(?)") && s.count() == 2), "Beide Listenabfragen haben eine Form");
+
+        List<SlowQueryLog.SlowQuery> slowQueries = log.getSlowQueries();
+        assertEquals(5, slowQueries.size(), "Der Ringpuffer ist begrenzt");
+        assertEquals("[Array]", slowQueries.get(slowQueries.size() - 1).parameterShape());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.dump(new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("Plan: "));
+    }
+
+    @Test
+    @DisplayName("Sollte Literale und Parameterlisten zu einer Form zusammenfassen")
+    void shapeOf_shouldNormalizeLiteralsAndLists() {
+        assertEquals("ALTER TABLE students ALTER COLUMN id RESTART WITH ?",
+                SlowQueryLog.shapeOf("ALTER TABLE students ALTER COLUMN id RESTART WITH 42"));
+        assertEquals("SELECT * FROM students WHERE email = ? AND id IN (?, ...)",
+                SlowQueryLog.shapeOf("SELECT *  FROM students\n WHERE email = 'a''b' AND id IN (?,?, ?)"));
+        assertEquals("INSERT INTO students (id, first_name, last_name, email) VALUES (?, ...), ...",
+                SlowQueryLog.shapeOf("INSERT INTO students (id, first_name, last_name, email) VALUES (?, ?, ?, ?), (?, ?, ?, ?)"));
+    }
+}
@@ -4,6 +4,7 @@ import de.hochschule.studentenverwaltung.entity.Student;
 import org.junit.jupiter.api.*;
 import java.sql.*;
 import java.util.List;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 
 // Logging
@@ -129,4 +130,160 @@ public class StudentRepositoryTest {
         assertTrue(deleted);
         assertEquals(0, remaining.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(7)
+    @DisplayName("Sollte Schema-Version nach dem ersten Zugriff vermerken")
+    void firstAccess_shouldRecordSchemaVersion() throws SQLException {
+        repository.findAll();
+        new StudentRepository().findAll();
+
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MAX(version) FROM schema_version")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(SchemaInitializer.CURRENT_VERSION, rs.getInt(2));
+        }
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Sollte doppelte E-Mail-Adresse als typisiertes Ergebnis melden")
+    void save_shouldReportDuplicateEmail() {
+        Student first = new Student(null, "Max", "Mustermann", "doppelt@example.com");
+        Student second = new Student(null, "Moritz", "Muster", "doppelt@example.com");
+
+        assertEquals(SaveResult.CREATED, repository.save(first));
+        assertEquals(SaveResult.DUPLICATE_EMAIL, repository.save(second));
+
+        assertNull(second.getId());
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Sollte E-Mail-Adresse nach dem Löschen wieder freigeben")
+    void save_shouldAcceptEmailAgain_afterDelete() {
+        Student student = new Student(null, "Max", "Mustermann", "frei@example.com");
+        repository.save(student);
+        repository.deleteById(student.getId());
+
+        Student again = new Student(null, "Max", "Mustermann", "frei@example.com");
+
+        assertEquals(SaveResult.CREATED, repository.save(again));
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Sollte Aktualisierung auf vergebene E-Mail-Adresse ablehnen, ohne Daten zu verlieren")
+    void save_shouldRejectUpdateToTakenEmail() {
+        Student first = new Student(null, "Max", "Mustermann", "max@example.com");
+        Student second = new Student(null, "Erika", "Muster", "erika@example.com");
+        repository.save(first);
+        repository.save(second);
+
+        second.setEmail("max@example.com");
+
+        assertEquals(SaveResult.DUPLICATE_EMAIL, repository.save(second));
+        assertEquals("erika@example.com", repository.findById(second.getId()).getEmail());
+        assertEquals(SaveResult.NOT_FOUND, repository.save(new Student(999L, "A", "B", "c@example.com")));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Sollte Studenten sortiert und seitenweise per Keyset liefern")
+    void findPage_shouldReturnSortedPagesWithKeysetContinuation() {
+        String[] lastNames = {"Schmidt", "Albers", "Müller", "Albers", "Zimmer"};
+        for (int i = 0; i < lastNames.length; i++) {
+            repository.save(new Student(null, "Vorname" + i, lastNames[i], "sort" + i + "@example.com"));
+        }
+        StudentSort sort = StudentSort.ascending(StudentSort.Field.LAST_NAME);
+
+        Page<Student> first = repository.findPage(sort, null, 2);
+        Page<Student> second = repository.findPage(sort, first.next(), 2);
+        Page<Student> third = repository.findPage(sort, second.next(), 2);
+
+        assertEquals(List.of("Albers", "Albers"), first.items().stream().map(Student::getLastName).toList());
+        assertTrue(first.items().get(0).getId() < first.items().get(1).getId());
+        assertEquals(List.of("Müller", "Schmidt"), second.items().stream().map(Student::getLastName).toList());
+        assertEquals(List.of("Zimmer"), third.items().stream().map(Student::getLastName).toList());
+        assertFalse(third.hasNext());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Sollte Top-K absteigend nach E-Mail liefern")
+    void findTop_shouldReturnFirstKDescending() {
+        for (String email : new String[] {"b@example.com", "d@example.com", "a@example.com", "c@example.com"}) {
+            repository.save(new Student(null, "Max", "Muster", email));
+        }
+
+        List<Student> top = repository.findTop(StudentSort.descending(StudentSort.Field.EMAIL), 2);
+
+        assertEquals(List.of("d@example.com", "c@example.com"), top.stream().map(Student::getEmail).toList());
+        assertEquals(4, repository.findAllSorted(StudentSort.ascending(StudentSort.Field.FIRST_NAME)).size());
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Sollte mehrere Studenten per Batch speichern und Duplikate einzeln melden")
+    void saveAll_shouldInsertBatch_andReportDuplicates() {
+        repository.save(new Student(null, "Alt", "Bestand", "alt@example.com"));
+        List<Student> students = List.of(
+                new Student(null, "Max", "Muster", "max@example.com"),
+                new Student(null, "Alt", "Doppelt", "alt@example.com"),
+                new Student(null, "Anna", "Schmidt", "anna@example.com"),
+                new Student(null, "Anna", "Zweimal", "anna@example.com"));
+
+        List<SaveResult> results = repository.saveAll(students);
+
+        assertEquals(List.of(SaveResult.CREATED, SaveResult.DUPLICATE_EMAIL, SaveResult.CREATED, SaveResult.DUPLICATE_EMAIL),
+                results);
+        assertNotNull(students.get(0).getId());
+        assertNotNull(students.get(2).getId());
+        assertEquals(3, repository.count());
+
+        Long maxId = students.get(0).getId();
+        assertEquals(Set.of(maxId), repository.findAllById(List.of(maxId, 999L)).keySet());
+        assertEquals(Set.of(maxId), repository.deleteAllById(List.of(maxId, 999L)));
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Sollte das Zeitlimit für SQL-Anweisungen auf neue Verbindungen anwenden")
+    void setQueryTimeout_shouldApplyToNewConnections() throws SQLException {
+        repository.setQueryTimeout(java.time.Duration.ofMillis(1500));
+
+        try (Connection conn = repository.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_TIMEOUT'")) {
+            assertTrue(rs.next());
+            assertEquals("1500", rs.getString(1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> repository.setQueryTimeout(java.time.Duration.ofMillis(-1)));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Sollte alle Studenten sortiert an die Aktion übergeben")
+    void forEachSorted_shouldStreamAllStudentsInSortOrder() {
+        repository.saveAll(List.of(
+                new Student(null, "Max", "Schmidt", "max@example.com"),
+                new Student(null, "Anna", "Albers", "anna@example.com"),
+                new Student(null, "Lena", "Meier", "lena@example.com")));
+
+        List<String> ascending = new java.util.ArrayList<>();
+        long count = repository.forEachSorted(StudentSort.ascending(StudentSort.Field.LAST_NAME),
+                student -> ascending.add(student.getLastName()));
+        List<String> descending = new java.util.ArrayList<>();
+        repository.forEachSorted(StudentSort.descending(StudentSort.Field.FIRST_NAME),
+                student -> descending.add(student.getFirstName()));
+
+        assertEquals(3, count);
+        assertEquals(List.of("Albers", "Meier", "Schmidt"), ascending);
+        assertEquals(List.of("Max", "Lena", "Anna"), descending);
+    }
+}
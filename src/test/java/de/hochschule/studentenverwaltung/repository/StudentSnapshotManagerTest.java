@@ -0,0 +1,142 @@
+package de.hochschule.studentenverwaltung.repository;
+
+import de.hochschule.studentenverwaltung.entity.Student;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für StudentSnapshotManager.
+ * Nutzt eine eigene H2-In-Memory-Datenbank, um andere Tests nicht zu beeinflussen.
+ */
+public class StudentSnapshotManagerTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:snapshottest;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path tempDir;
+
+    private StudentRepository repository;
+    private StudentSnapshotManager snapshotManager;
+
+    @BeforeEach
+    void setUp() {
+        repository = new StudentRepository(JDBC_URL);
+        snapshotManager = new StudentSnapshotManager(repository);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        snapshotManager.stopScheduledSnapshots();
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM students");
+            stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH 1");
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte den Stand zum Snapshot-Zeitpunkt wiederherstellen")
+    void restore_shouldReturnToSnapshotState() throws Exception {
+        Student max = new Student(null, "Max", "Mustermann", "max@example.com");
+        Student erika = new Student(null, "Erika", "Muster", "erika@example.com");
+        repository.save(max);
+        repository.save(erika);
+        Path file = tempDir.resolve("students.snap");
+
+        StudentSnapshotManager.TransferStats written = snapshotManager.snapshot(file);
+        repository.deleteById(max.getId());
+        repository.save(new Student(null, "Neu", "Nach Snapshot", "neu@example.com"));
+        StudentSnapshotManager.TransferStats restored = snapshotManager.restore(file);
+
+        assertEquals(2, written.rows());
+        assertEquals(2, restored.rows());
+        List<Student> students = repository.findAll();
+        assertEquals(2, students.size());
+        assertEquals("max@example.com", repository.findById(max.getId()).getEmail());
+        assertEquals("erika@example.com", repository.findById(erika.getId()).getEmail());
+    }
+
+    @Test
+    @DisplayName("Sollte Snapshots als CSV schreiben und Sonderzeichen verlustfrei wiederherstellen")
+    void snapshot_shouldWriteCsvAndRoundTripSpecialCharacters() throws Exception {
+        Student special = new Student(null, "Anna, \"Ann\"", "Zeile\nUmbruch", "anna@example.com");
+        repository.save(special);
+        Path file = tempDir.resolve("students.snap");
+
+        snapshotManager.snapshot(file);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            assertEquals("id,first_name,last_name,email", reader.readLine());
+            assertEquals(special.getId() + ",\"Anna, \"\"Ann\"\"\",\"Zeile", reader.readLine());
+        }
+        repository.deleteById(special.getId());
+        snapshotManager.restore(file);
+
+        Student restored = repository.findById(special.getId());
+        assertEquals("Anna, \"Ann\"", restored.getFirstName());
+        assertEquals("Zeile\nUmbruch", restored.getLastName());
+    }
+
+    @Test
+    @DisplayName("Sollte nach der Wiederherstellung neue IDs hinter der größten ID vergeben")
+    void restore_shouldContinueIdentityAfterMaxId() throws Exception {
+        Student max = new Student(null, "Max", "Mustermann", "max@example.com");
+        repository.save(max);
+        Path file = tempDir.resolve("students.snap");
+        snapshotManager.snapshot(file);
+
+        snapshotManager.restore(file);
+        Student next = new Student(null, "Erika", "Muster", "erika@example.com");
+
+        assertEquals(SaveResult.CREATED, repository.save(next));
+        assertTrue(next.getId() > max.getId());
+        assertEquals(SaveResult.DUPLICATE_EMAIL, repository.save(new Student(null, "Max", "Kopie", "max@example.com")));
+    }
+
+    @Test
+    @DisplayName("Sollte beschädigte Snapshots ablehnen und den Bestand unverändert lassen")
+    void restore_shouldRejectCorruptedFile() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            repository.save(new Student(null, "Vorname" + i, "Nachname" + i, "student" + i + "@example.com"));
+        }
+        Path file = tempDir.resolve("students.snap");
+        snapshotManager.snapshot(file);
+        repository.save(new Student(null, "Bleibt", "Erhalten", "bleibt@example.com"));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() / 2);
+            raf.write(~raf.read());
+        }
+
+        assertThrows(IOException.class, () -> snapshotManager.restore(file));
+        assertEquals(51, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Sollte geplante Snapshots schreiben und alte aufräumen")
+    void scheduleSnapshots_shouldWriteAndPrune() throws Exception {
+        repository.save(new Student(null, "Max", "Mustermann", "max@example.com"));
+
+        snapshotManager.scheduleSnapshots(tempDir, Duration.ofMillis(50), 2);
+        Thread.sleep(600);
+        snapshotManager.stopScheduledSnapshots();
+
+        List<Path> snapshots = StudentSnapshotManager.listSnapshots(tempDir);
+        assertFalse(snapshots.isEmpty());
+        assertTrue(snapshots.size() <= 2);
+        assertTrue(Files.size(snapshots.get(0)) > 0);
+    }
+}
@@ -0,0 +1,95 @@
+package de.hochschule.studentenverwaltung.service;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für AdmissionController.
+ */
+public class AdmissionControllerTest {
+
+    private static AdmissionController controller(int limit, int maxQueue, Duration maxWait) {
+        return new AdmissionController(Map.of(AdmissionController.Bulkhead.BULK,
+                new AdmissionController.Settings(limit, 1, 8, maxQueue, maxWait)));
+    }
+
+    /**
+     * Belegt einen Platz im Bereich BULK, bis der zurückgegebene Latch ausgelöst wird.
+     */
+    private static CountDownLatch occupy(AdmissionController controller) throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        new Thread(() -> controller.execute(AdmissionController.Bulkhead.BULK, () -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        })).start();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    @DisplayName("Sollte nach Ablauf der Wartezeit abweisen, ohne andere Bereiche zu blockieren")
+    void execute_shouldRejectAfterQueueTimeout() throws InterruptedException {
+        AdmissionController controller = controller(1, 1, Duration.ofMillis(50));
+        CountDownLatch release = occupy(controller);
+
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+                () -> controller.execute(AdmissionController.Bulkhead.BULK, () -> 1));
+        assertEquals(AdmissionController.Bulkhead.BULK, e.getBulkhead());
+        assertEquals("frei", controller.execute(AdmissionController.Bulkhead.POINT, () -> "frei"));
+        release.countDown();
+
+        AdmissionController.Metrics metrics = controller.getMetrics(AdmissionController.Bulkhead.BULK);
+        assertEquals(1, metrics.rejectedTimeout());
+        assertEquals(0, metrics.rejectedQueueFull());
+        assertTrue(metrics.maxQueueNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("Sollte bei voller Warteschlange sofort abweisen")
+    void execute_shouldRejectImmediatelyWhenQueueFull() throws InterruptedException {
+        AdmissionController controller = controller(1, 0, Duration.ofSeconds(10));
+        CountDownLatch release = occupy(controller);
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class,
+                () -> controller.execute(AdmissionController.Bulkhead.BULK, () -> 1));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Abweisung ohne Wartezeit");
+        release.countDown();
+
+        AdmissionController.Metrics metrics = controller.getMetrics(AdmissionController.Bulkhead.BULK);
+        assertEquals(1, metrics.rejectedQueueFull());
+        assertEquals(1, metrics.rejected());
+    }
+
+    @Test
+    @DisplayName("Sollte verschachtelte Aufrufe zulassen und das Limit bei hoher Latenz senken")
+    void execute_shouldAllowNestedCalls_andAdaptLimit() {
+        AdmissionController controller = controller(4, 0, Duration.ZERO);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("innen", controller.execute(AdmissionController.Bulkhead.BULK,
+                    () -> controller.execute(AdmissionController.Bulkhead.BULK, () -> "innen")));
+        }
+        assertEquals(10, controller.getMetrics(AdmissionController.Bulkhead.BULK).admitted());
+
+        controller.execute(AdmissionController.Bulkhead.BULK, () -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+
+        assertEquals(3, controller.getMetrics(AdmissionController.Bulkhead.BULK).limit());
+    }
+}
@@ -0,0 +1,141 @@
+package de.hochschule.studentenverwaltung.service;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für DuplicateDetector und NameSimilarity.
+ * Nutzt eine eigene H2-In-Memory-Datenbank, um andere Tests nicht zu beeinflussen.
+ */
+public class DuplicateDetectorTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:duplicatetest;DB_CLOSE_DELAY=-1";
+
+    private StudentService service;
+    private DuplicateDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        StudentRepository repository = new StudentRepository(JDBC_URL);
+        service = new StudentService(repository);
+        detector = new DuplicateDetector(repository, DuplicateDetector.DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+        service.createStudent(new StudentDto(null, "Max", "Müller", "max.mueller@hochschule.de"));
+        service.createStudent(new StudentDto(null, "Max", "Mueller", "max.mueller@gmail.com"));
+        service.createStudent(new StudentDto(null, "Müller", "Max", "m.max@web.de"));
+        service.createStudent(new StudentDto(null, "Anna", "Schmidt", "anna.schmidt@hochschule.de"));
+        service.createStudent(new StudentDto(null, "Jana", "Schmidt", "jana.s@hochschule.de"));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM students");
+            stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH 1");
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte Umlaut-Varianten, vertauschte Namen und zweite E-Mail-Adressen finden")
+    void detectAll_shouldFindNearDuplicates() {
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+
+        DuplicateDetector.Result result = detector.detectAll(candidates::add);
+
+        assertEquals(5, result.students());
+        assertEquals(3, candidates.size(), "Alle drei Paare aus Max Müller/Mueller/vertauscht");
+        assertTrue(candidates.stream().allMatch(c -> c.first().getId() < c.second().getId()));
+        assertTrue(candidates.stream().anyMatch(c -> c.namesSwapped() && c.second().getId() == 3L));
+        assertTrue(candidates.stream().noneMatch(c -> c.first().getLastName().equals("Schmidt")),
+                "Anna und Jana Schmidt sind verschiedene Personen");
+    }
+
+    @Test
+    @DisplayName("Sollte inkrementell nur neue Studenten gegen den Index prüfen")
+    void detectNew_shouldOnlyCheckNewStudents() {
+        detector.detectAll(candidate -> { });
+        StudentDto schmitt = new StudentDto(null, "Anna", "Schmitt", "anna.schmitt@gmail.com");
+        service.createStudent(schmitt);
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+
+        DuplicateDetector.Result result = detector.detectNew(candidates::add);
+
+        assertEquals(1, result.students());
+        assertEquals(1, candidates.size());
+        assertEquals("Schmidt", candidates.get(0).first().getLastName());
+        assertEquals(schmitt.getId(), candidates.get(0).second().getId());
+    }
+
+    @Test
+    @DisplayName("Sollte vertauschte Namen auch in Blöcken mit mehr als 1000 Mitgliedern finden")
+    void detectAll_shouldFindSwappedNames_inWindowedBlocks() {
+        // Gleicher Code wie "Müller", sortiert aber zwischen "Max" und "Mueller"
+        createFillers(DuplicateDetector.MAX_BLOCK_SIZE + 100, "Max", "Mel", "r");
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+
+        detector.detectAll(candidates::add);
+
+        assertTrue(containsPair(candidates, 1L, 3L), "Max Müller / Müller Max");
+        assertTrue(containsPair(candidates, 2L, 3L), "Max Mueller / Müller Max");
+        assertEquals(candidates.size(), candidates.stream()
+                .map(c -> c.first().getId() + "-" + c.second().getId()).distinct().count(),
+                "Jedes Paar wird nur einmal gemeldet");
+    }
+
+    @Test
+    @DisplayName("Sollte Paare im vollständig verglichenen Block bewerten, wenn der kleinere Schlüssel gefenstert ist")
+    void detectAll_shouldPreferFullyComparedBlock_overWindowedSmallerKey() {
+        StudentDto mayer = new StudentDto(null, "Anna", "Mayer", "anna.meier@uni-a.de");
+        StudentDto meier = new StudentDto(null, "Anka", "Meier", "anna.meier@uni-b.de");
+        service.createStudent(mayer);
+        service.createStudent(meier);
+        // Gleicher Code wie "Meier", sortiert zwischen "Mayer" und "Meier"
+        createFillers(DuplicateDetector.MAX_BLOCK_SIZE + 100, "Axel", "Mayr", "");
+        DuplicateDetector lenient = new DuplicateDetector(new StudentRepository(JDBC_URL), 0.8, ForkJoinPool.commonPool());
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+
+        lenient.detectAll(candidates::add);
+
+        assertTrue(containsPair(candidates, mayer.getId(), meier.getId()));
+    }
+
+    private void createFillers(int count, String firstName, String lastNamePrefix, String lastNameSuffix) {
+        String vowels = "aeiou";
+        List<StudentDto> fillers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder lastName = new StringBuilder(lastNamePrefix);
+            for (int n = i, digit = 0; digit < 5; digit++, n /= vowels.length()) {
+                lastName.append(vowels.charAt(n % vowels.length()));
+            }
+            fillers.add(new StudentDto(null, firstName, lastName.append(lastNameSuffix).toString(),
+                    "fueller" + i + "@hochschule.de"));
+        }
+        service.createStudents(fillers);
+    }
+
+    private static boolean containsPair(List<DuplicateCandidate> candidates, Long first, Long second) {
+        return candidates.stream().anyMatch(c -> c.first().getId().equals(first) && c.second().getId().equals(second));
+    }
+
+    @Test
+    @DisplayName("Sollte Namen normalisieren und phonetisch kodieren")
+    void nameSimilarity_shouldNormalizeAndEncode() {
+        assertEquals("mueller", NameSimilarity.normalize("Müller"));
+        assertEquals("strasse", NameSimilarity.normalize("Straße"));
+        assertEquals("rene", NameSimilarity.normalize("René"));
+        assertEquals("65752682", NameSimilarity.colognePhonetic(NameSimilarity.normalize("Müller-Lüdenscheidt")));
+        assertEquals(NameSimilarity.colognePhonetic("meier"), NameSimilarity.colognePhonetic("mayer"));
+        assertEquals(1.0, NameSimilarity.jaroWinkler("anna", "anna"));
+        assertEquals(0.961, NameSimilarity.jaroWinkler("martha", "marhta"), 0.001);
+    }
+}
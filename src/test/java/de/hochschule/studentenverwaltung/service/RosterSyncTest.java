@@ -0,0 +1,138 @@
+package de.hochschule.studentenverwaltung.service;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.ShardedStudentRepository;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für RosterSync.
+ * Nutzt eine eigene H2-In-Memory-Datenbank, um andere Tests nicht zu beeinflussen.
+ */
+public class RosterSyncTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:rostersynctest;DB_CLOSE_DELAY=-1";
+
+    private StudentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StudentService(new StudentRepository(JDBC_URL));
+        service.createStudents(List.of(
+                new StudentDto(null, "Max", "Müller", "max@hochschule.de"),
+                new StudentDto(null, "Anna", "Schmidt", "anna@hochschule.de"),
+                new StudentDto(null, "Jonas", "Weber", "jonas@hochschule.de"),
+                new StudentDto(null, "Lea", "Koch", "lea@hochschule.de"),
+                new StudentDto(null, "Paul", "Wolf", "paul@hochschule.de")));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM students");
+            stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH 1");
+        }
+    }
+
+    private static StringReader roster(String... rows) {
+        return new StringReader("id;vorname;nachname;email\n" + String.join("\n", rows) + "\n");
+    }
+
+    @Test
+    @DisplayName("Sollte im Probelauf nur berichten und danach nur die Differenz schreiben")
+    void sync_shouldReportDryRun_andApplyOnlyDelta() throws IOException {
+        RosterSync sync = new RosterSync(service);
+        String[] rows = {
+                "1;Max;Müller;max@hochschule.de",
+                "2;Anna;Schmitt;anna@hochschule.de",
+                "3;Jonas;Weber;jonas@hochschule.de",
+                "4;Lea;Koch;lea@hochschule.de",
+                "9;Neu;Student;neu@hochschule.de"};
+
+        RosterSync.Report dryRun = sync.sync(roster(rows), true);
+
+        assertFalse(dryRun.applied());
+        assertEquals(5, dryRun.rosterRows());
+        assertEquals(3, dryRun.unchanged());
+        assertEquals(List.of("neu@hochschule.de"), dryRun.inserts().stream().map(StudentDto::getEmail).toList());
+        assertEquals(1, dryRun.updates().size());
+        assertEquals("Schmidt", dryRun.updates().get(0).before().getLastName());
+        assertEquals(List.of("last_name"), dryRun.updates().get(0).changedFields());
+        assertEquals("paul@hochschule.de", dryRun.deletions().get(0).getEmail());
+        assertEquals(5, service.getAllStudents().size(), "Der Probelauf schreibt nichts");
+
+        RosterSync.Report applied = sync.sync(roster(rows), false);
+
+        assertTrue(applied.applied());
+        assertEquals(3, applied.touchedRows());
+        assertEquals("Schmitt", service.getStudentById(dryRun.updates().get(0).after().getId()).getLastName());
+        assertTrue(service.getAllStudents().stream().noneMatch(s -> s.getEmail().equals("paul@hochschule.de")));
+        assertEquals(0, sync.sync(roster(rows), false).touchedRows(), "Ein erneuter Abgleich ist leer");
+    }
+
+    @Test
+    @DisplayName("Sollte ungültige Zeilen überspringen und Massenlöschungen ablehnen")
+    void sync_shouldSkipInvalidRows_andRefuseMassDeletion() throws IOException {
+        RosterSync sync = new RosterSync(service, 0.5);
+
+        RosterSync.Report report = sync.sync(roster(
+                "1;Max;Müller;max@hochschule.de",
+                "2;;Schmidt;anna@hochschule.de",
+                "3;Jonas;Weber;jonas@hochschule.de",
+                "4;Lea;Koch;lea@hochschule.de",
+                "5;Paul;Wolf;paul@hochschule.de",
+                "6;Paul;Doppelt;paul@hochschule.de"), false);
+
+        assertEquals(2, report.invalidRows().size());
+        assertEquals(0, report.touchedRows(), "Anna bleibt trotz ungültiger Zeile erhalten");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> sync.sync(roster("1;Max;Müller;max@hochschule.de"), false));
+        assertTrue(e.getMessage().contains("4 von 5"), e.getMessage());
+        assertEquals(5, service.getAllStudents().size());
+        assertThrows(IOException.class, () -> sync.sync(new StringReader("name;mail\n"), true));
+    }
+
+    @Test
+    @DisplayName("Sollte die Differenz auch auf mehrere Shards verteilt schreiben")
+    void sync_shouldApplyDelta_acrossShards() throws IOException, SQLException {
+        List<String> shardUrls = List.of("jdbc:h2:mem:rostershard0;DB_CLOSE_DELAY=-1",
+                "jdbc:h2:mem:rostershard1;DB_CLOSE_DELAY=-1");
+        try (ShardedStudentRepository sharded = new ShardedStudentRepository(shardUrls)) {
+            StudentService shardedService = new StudentService(sharded);
+            shardedService.createStudents(List.of(
+                    new StudentDto(null, "Max", "Müller", "max@hochschule.de"),
+                    new StudentDto(null, "Anna", "Schmidt", "anna@hochschule.de")));
+
+            RosterSync.Report report = new RosterSync(shardedService).sync(roster(
+                    "1;Max;Müller;max@hochschule.de",
+                    "2;Anna;Schmitt;anna@hochschule.de",
+                    "3;Neu;Eins;neu1@hochschule.de",
+                    "4;Neu;Zwei;neu2@hochschule.de",
+                    "5;Neu;Drei;neu3@hochschule.de",
+                    "6;Neu;Vier;neu4@hochschule.de"), false);
+
+            assertTrue(report.applied());
+            assertEquals(6, sharded.count());
+            assertEquals("Schmitt", sharded.findByEmail("anna@hochschule.de").getLastName());
+            assertTrue(report.inserts().stream().allMatch(s -> sharded.findById(s.getId()) != null));
+        } finally {
+            for (String url : shardUrls) {
+                try (Connection conn = DriverManager.getConnection(url, "sa", "");
+                     Statement stmt = conn.createStatement()) {
+                    stmt.execute("DROP ALL OBJECTS");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.hochschule.studentenverwaltung.service;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.entity.Student;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für StudentListSnapshot.
+ * Verwendet eine Liste im Speicher anstelle der Datenbank.
+ */
+public class StudentListSnapshotTest {
+
+    private final List<Student> table = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<Student> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>(table);
+    }
+
+    @BeforeEach
+    void setUp() {
+        table.add(new Student(2L, "Anna", "Schmidt", "anna@hochschule.de"));
+        table.add(new Student(1L, "Max", "Mustermann", "max@hochschule.de"));
+    }
+
+    @Test
+    @DisplayName("Sollte einmal laden und danach ohne Abfrage dieselbe Momentaufnahme liefern")
+    void get_shouldLoadOnce_andReuseSnapshot() {
+        StudentListSnapshot snapshot = new StudentListSnapshot(this::load, Duration.ZERO);
+
+        StudentListSnapshot.Snapshot first = snapshot.get();
+        StudentListSnapshot.Snapshot second = snapshot.get();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(List.of(1L, 2L), first.students().stream().map(StudentDto::getId).toList());
+        assertThrows(UnsupportedOperationException.class, () -> first.students().clear());
+    }
+
+    @Test
+    @DisplayName("Sollte Änderungen inkrementell einarbeiten und die Version erhöhen")
+    void changes_shouldBeAppliedIncrementally() {
+        StudentListSnapshot snapshot = new StudentListSnapshot(this::load, Duration.ZERO);
+        long initialVersion = snapshot.get().version();
+
+        snapshot.onInsert(new Student(3L, "Eva", "Meier", "eva@hochschule.de"));
+        snapshot.onUpdate(table.get(1), new Student(1L, "Max", "Muster", "max@hochschule.de"));
+        snapshot.onDelete(table.get(0));
+
+        StudentListSnapshot.Snapshot updated = snapshot.get();
+        assertEquals(initialVersion + 3, updated.version());
+        assertEquals(1, loads.get());
+        assertEquals(List.of("Muster", "Meier"), updated.students().stream().map(StudentDto::getLastName).toList());
+    }
+
+    @Test
+    @DisplayName("Sollte innerhalb des Veraltungsbudgets die alte Momentaufnahme liefern")
+    void get_shouldReturnStaleSnapshot_withinBudget() {
+        StudentListSnapshot snapshot = new StudentListSnapshot(this::load, Duration.ofHours(1));
+        StudentListSnapshot.Snapshot first = snapshot.get();
+
+        snapshot.onInsert(new Student(3L, "Eva", "Meier", "eva@hochschule.de"));
+
+        assertSame(first, snapshot.get());
+        assertEquals(first.version() + 1, snapshot.getLatestVersion());
+    }
+
+    @Test
+    @DisplayName("Sollte nach einer Massenänderung vollständig neu laden")
+    void onReset_shouldTriggerFullReload() {
+        StudentListSnapshot snapshot = new StudentListSnapshot(this::load, Duration.ZERO);
+        snapshot.get();
+        table.clear();
+
+        snapshot.onReset();
+
+        assertTrue(snapshot.get().students().isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Sollte ungeordnete und mehrfache Änderungen derselben ID in Meldereihenfolge einarbeiten")
+    void changes_shouldMergeUnorderedAndRepeatedChanges() {
+        for (long id = 3; id <= 200; id++) {
+            table.add(new Student(id, "Vorname" + id, "Nachname" + id, "s" + id + "@hochschule.de"));
+        }
+        StudentListSnapshot snapshot = new StudentListSnapshot(this::load, Duration.ZERO);
+        snapshot.get();
+
+        snapshot.onInsert(new Student(250L, "Neu", "Zuletzt", "neu@hochschule.de"));
+        snapshot.onDelete(new Student(100L, "Vorname100", "Nachname100", "s100@hochschule.de"));
+        snapshot.onUpdate(null, new Student(5L, "Eva", "Erste", "eva@hochschule.de"));
+        snapshot.onUpdate(null, new Student(5L, "Eva", "Zweite", "eva@hochschule.de"));
+        snapshot.onInsert(new Student(201L, "Kurz", "Gelebt", "kurz@hochschule.de"));
+        snapshot.onDelete(new Student(201L, "Kurz", "Gelebt", "kurz@hochschule.de"));
+        snapshot.onDelete(new Student(1L, "Max", "Mustermann", "max@hochschule.de"));
+        snapshot.onDelete(new Student(999L, "Nie", "Da", "nie@hochschule.de"));
+
+        List<StudentDto> students = snapshot.get().students();
+        assertEquals(1, loads.get());
+        assertEquals(199, students.size());
+        assertEquals(Long.valueOf(2), students.get(0).getId());
+        assertEquals(Long.valueOf(250), students.get(students.size() - 1).getId());
+        assertTrue(students.stream().noneMatch(s -> s.getId() == 100L || s.getId() == 201L));
+        assertEquals("Zweite", students.stream().filter(s -> s.getId() == 5L).findFirst().orElseThrow().getLastName());
+        for (int i = 1; i < students.size(); i++) {
+            assertTrue(students.get(i - 1).getId() < students.get(i).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte ohne Leser nicht mehr Änderungen merken als bis zum Neuladen nötig")
+    void record_shouldCollapsePendingChanges_beyondFullReloadThreshold() {
+        StudentListSnapshot snapshot = new StudentListSnapshot(this::load, Duration.ZERO);
+        snapshot.get();
+
+        for (long id = 3; id < 10_003; id++) {
+            Student student = new Student(id, "Vorname", "Nachname" + id, "s" + id + "@hochschule.de");
+            table.add(student);
+            snapshot.onInsert(student);
+        }
+
+        assertEquals(1, snapshot.pendingChanges());
+        StudentListSnapshot.Snapshot reloaded = snapshot.get();
+        assertEquals(2, loads.get());
+        assertEquals(10_002, reloaded.students().size());
+        assertEquals(0, snapshot.pendingChanges());
+    }
+}
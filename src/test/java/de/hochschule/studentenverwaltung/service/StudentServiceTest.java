@@ -1,7 +1,9 @@
 package de.hochschule.studentenverwaltung.service;
 
 import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.SaveResult;
 import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.repository.TransactionIsolation;
 import org.junit.jupiter.api.*;
 
 import java.sql.Connection;
@@ -9,6 +11,10 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.slf4j.Logger;
@@ -146,4 +152,223 @@ public class StudentServiceTest {
         assertEquals(0, remaining.size());
         assertNull(studentService.getStudentById(studentDto.getId()));
     }
+
+    @Test
+    @Order(7)
+    @DisplayName("Sollte parallele Lesen-Ändern-Schreiben-Zyklen ohne verlorene Änderungen ausführen")
+    void modifyStudent_shouldNotLoseConcurrentUpdates() throws InterruptedException {
+        // Arrange
+        StudentDto studentDto = new StudentDto(null, "", "Parallel", "parallel@example.com");
+        studentService.createStudent(studentDto);
+        int threads = 4;
+        int updatesPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    studentService.modifyStudent(studentDto.getId(), s -> s.setFirstName(s.getFirstName() + "x"));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        StudentDto result = studentService.getStudentById(studentDto.getId());
+        assertEquals(threads * updatesPerThread, result.getFirstName().length());
+        assertTrue(studentService.getLockMetrics().acquisitions() >= threads * updatesPerThread);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Sollte null zurückgeben, wenn der zu ändernde Student nicht existiert")
+    void modifyStudent_shouldReturnNull_whenNotFound() {
+        assertNull(studentService.modifyStudent(999L, s -> s.setFirstName("Niemand")));
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Sollte Anzahl gesamt und pro Domain bei Änderungen mitführen")
+    void statistics_shouldTrackCreateUpdateDelete() {
+        // Arrange
+        StudentDto max = new StudentDto(null, "Max", "Mustermann", "max@hochschule.de");
+        StudentDto erika = new StudentDto(null, "Erika", "Muster", "erika@hochschule.de");
+        StudentDto ali = new StudentDto(null, "Ali", "Baddah", "ali@gmail.com");
+        studentService.createStudent(max);
+        studentService.createStudent(erika);
+        studentService.createStudent(ali);
+
+        // Act
+        erika.setEmail("erika@gmail.com");
+        studentService.updateStudent(erika);
+        studentService.deleteStudent(max.getId());
+
+        // Assert
+        assertEquals(2, studentService.getStudentCount());
+        assertEquals(0, studentService.getStudentCountForDomain("hochschule.de"));
+        assertEquals(2, studentService.getStudentCountForDomain("GMAIL.com"));
+        assertEquals(Map.of("gmail.com", 2L), studentService.getStudentCountsByEmailDomain());
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Sollte Abweichungen beim Abgleich mit der Datenbank korrigieren")
+    void reconcileStatistics_shouldCorrectDrift() throws SQLException {
+        // Arrange
+        studentService.createStudent(new StudentDto(null, "Max", "Mustermann", "max@hochschule.de"));
+        assertEquals(1, studentService.getStudentCount());
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1", "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO students (first_name, last_name, email) VALUES ('Extern', 'Import', 'extern@partner.org')");
+        }
+
+        // Act
+        long drift = studentService.reconcileStatistics();
+
+        // Assert
+        assertEquals(2, drift);
+        assertEquals(2, studentService.getStudentCount());
+        assertEquals(1, studentService.getStudentCountForDomain("partner.org"));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Sollte mehrere Operationen in einer Transaktion gemeinsam bestätigen")
+    void inTransaction_shouldCommitAllOperations() {
+        // Arrange
+        StudentDto anna = new StudentDto(null, "Anna", "Schmidt", "anna@hochschule.de");
+        studentService.createStudent(anna);
+
+        // Act
+        Long maxId = studentService.inTransaction(service -> {
+            StudentDto max = new StudentDto(null, "Max", "Mustermann", "max@hochschule.de");
+            service.createStudent(max);
+            anna.setLastName("Schulz");
+            service.updateStudent(anna);
+            // Eigene Änderungen sind sichtbar; Kennzahlen zählen nur bestätigte Änderungen
+            assertEquals("Mustermann", service.getStudentById(max.getId()).getLastName());
+            assertEquals(1, service.getStudentCount());
+            return max.getId();
+        });
+
+        // Assert
+        assertNotNull(studentService.getStudentById(maxId));
+        assertEquals("Schulz", studentService.getStudentById(anna.getId()).getLastName());
+        assertEquals(2, studentService.getStudentCount());
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Sollte bei einer Ausnahme alle Operationen der Transaktion zurückrollen")
+    void inTransaction_shouldRollBackOnException() {
+        // Arrange
+        StudentDto anna = new StudentDto(null, "Anna", "Schmidt", "anna@hochschule.de");
+        studentService.createStudent(anna);
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> studentService.inTransaction(
+                TransactionIsolation.SERIALIZABLE, service -> {
+                    service.createStudent(new StudentDto(null, "Max", "Mustermann", "max@hochschule.de"));
+                    service.deleteStudent(anna.getId());
+                    throw new IllegalArgumentException("Abbruch");
+                }));
+
+        // Assert
+        assertEquals(1, repository.count());
+        assertNotNull(studentService.getStudentById(anna.getId()));
+        assertEquals(1, studentService.getStudentCount());
+        assertEquals(SaveResult.CREATED,
+                studentService.createStudent(new StudentDto(null, "Max", "Mustermann", "max@hochschule.de")));
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Sollte eine vergebene E-Mail-Adresse in der Transaktion melden, ohne sie abzubrechen")
+    void inTransaction_shouldKeepTransaction_whenUpdateHitsDuplicateEmail() {
+        // Arrange
+        StudentDto anna = new StudentDto(null, "Anna", "Schmidt", "anna@hochschule.de");
+        StudentDto max = new StudentDto(null, "Max", "Mustermann", "max@hochschule.de");
+        studentService.createStudent(anna);
+        studentService.createStudent(max);
+
+        // Act
+        SaveResult result = studentService.inTransaction(service -> {
+            service.createStudent(new StudentDto(null, "Eva", "Meier", "eva@hochschule.de"));
+            return service.updateStudent(new StudentDto(max.getId(), "Max", "Mustermann", "anna@hochschule.de"));
+        });
+
+        // Assert
+        assertEquals(SaveResult.DUPLICATE_EMAIL, result);
+        assertEquals(3, repository.count());
+        assertEquals("max@hochschule.de", studentService.getStudentById(max.getId()).getEmail());
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Sollte aus der materialisierten Liste eigene Kopien der DTOs liefern")
+    void getAllStudents_shouldReturnCopies_whenListSnapshotEnabled() {
+        studentService.enableListSnapshot(java.time.Duration.ZERO);
+        studentService.createStudent(new StudentDto(null, "Max", "Mustermann", "max@hochschule.de"));
+
+        List<StudentDto> first = studentService.getAllStudents();
+        first.get(0).setLastName("Verändert");
+        first.clear();
+
+        List<StudentDto> second = studentService.getAllStudents();
+        assertEquals(1, second.size());
+        assertEquals("Mustermann", second.get(0).getLastName());
+        assertEquals("Mustermann", studentService.getStudentListSnapshot().students().get(0).getLastName());
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Sollte die Sperre eines in einer Transaktion geänderten Studenten bis zum Commit halten")
+    void inTransaction_shouldHoldStudentLockUntilCommit() throws Exception {
+        StudentDto student = new StudentDto(null, "Max", "Mustermann", "max@hochschule.de");
+        studentService.createStudent(student);
+        List<String> events = new java.util.concurrent.CopyOnWriteArrayList<>();
+        repository.addChangeListener(new de.hochschule.studentenverwaltung.repository.StudentChangeListener() {
+            @Override
+            public void onInsert(de.hochschule.studentenverwaltung.entity.Student s) {
+            }
+
+            @Override
+            public void onUpdate(de.hochschule.studentenverwaltung.entity.Student before,
+                    de.hochschule.studentenverwaltung.entity.Student after) {
+                events.add(after.getLastName());
+            }
+
+            @Override
+            public void onDelete(de.hochschule.studentenverwaltung.entity.Student before) {
+            }
+        });
+        java.util.concurrent.CountDownLatch updated = new java.util.concurrent.CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            java.util.concurrent.Future<SaveResult> transaction = executor.submit(() -> studentService.inTransaction(service -> {
+                service.updateStudent(new StudentDto(student.getId(), "Max", "Erste", "max@hochschule.de"));
+                updated.countDown();
+                try {
+                    // Der andere Thread wartet inzwischen; ohne gehaltene Sperre hätte er sie jetzt
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return service.updateStudent(new StudentDto(student.getId(), "Max", "Transaktion", "max@hochschule.de"));
+            }));
+            assertTrue(updated.await(5, TimeUnit.SECONDS));
+            java.util.concurrent.Future<SaveResult> single = executor.submit(() -> studentService.updateStudent(
+                    new StudentDto(student.getId(), "Max", "Einzeln", "max@hochschule.de")));
+
+            assertEquals(SaveResult.UPDATED, transaction.get(5, TimeUnit.SECONDS));
+            assertEquals(SaveResult.UPDATED, single.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of("Erste", "Transaktion", "Einzeln"), events);
+        assertEquals("Einzeln", studentService.getStudentById(student.getId()).getLastName());
+    }
 }
@@ -0,0 +1,138 @@
+package de.hochschule.studentenverwaltung.ui;
+
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.service.AdmissionController;
+import de.hochschule.studentenverwaltung.service.ServiceOverloadedException;
+import de.hochschule.studentenverwaltung.service.StudentService;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.*;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für BatchCommandRunner.
+ * Nutzt eine eigene H2-In-Memory-Datenbank.
+ */
+public class BatchCommandRunnerTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:batchtest;DB_CLOSE_DELAY=-1";
+
+    private StudentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StudentService(new StudentRepository(JDBC_URL));
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM students");
+            stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH 1");
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte Felder trennen und maskierte Semikolons erhalten")
+    void tokenize_shouldSplitFields_andHonourEscapes() {
+        assertEquals(List.of("add", "Max", "Muster; Sohn", "max@hochschule.de"),
+                BatchCommandRunner.tokenize("add; Max ;Muster\\; Sohn;max@hochschule.de"));
+        assertEquals(List.of("list"), BatchCommandRunner.tokenize("list"));
+    }
+
+    @Test
+    @DisplayName("Sollte ein Skript ausführen und pro Befehl ein Ergebnis ausgeben")
+    void run_shouldPrintOneResultPerCommand_andSummary() throws IOException {
+        String script = String.join("\n",
+                "# Testskript",
+                "add;Max;Mustermann;max@hochschule.de",
+                "add;Anna;Schmidt;anna@hochschule.de",
+                "add;Doppelt;Eintrag;max@hochschule.de",
+                "update;2;Anna;Schulz;anna@hochschule.de",
+                "view;2",
+                "view;99",
+                "delete;1",
+                "",
+                "unbekannt;1",
+                "list");
+        StringWriter output = new StringWriter();
+
+        BatchCommandRunner.Summary summary = new BatchCommandRunner(service, output).run(new StringReader(script));
+
+        List<String> lines = output.toString().lines().toList();
+        assertEquals("2;add;CREATED;1", lines.get(0));
+        assertEquals("3;add;CREATED;2", lines.get(1));
+        assertEquals("4;add;DUPLICATE_EMAIL", lines.get(2));
+        assertEquals("5;update;UPDATED;2", lines.get(3));
+        assertEquals("6;view;OK;2;Anna;Schulz;anna@hochschule.de", lines.get(4));
+        assertEquals("7;view;NOT_FOUND;99", lines.get(5));
+        assertEquals("8;delete;DELETED;1", lines.get(6));
+        assertEquals("10;unbekannt;ERROR;Unbekannter Befehl", lines.get(7));
+        assertEquals("11;list;ROW;2;Anna;Schulz;anna@hochschule.de", lines.get(8));
+        assertEquals("11;list;OK;1", lines.get(9));
+        assertTrue(lines.get(10).startsWith("# commands=9 succeeded=6 failed=3"));
+
+        assertEquals(9, summary.commands());
+        assertEquals(3, summary.failed());
+    }
+
+    @Test
+    @DisplayName("Sollte bei einer Laufzeitausnahme die Gruppe als Fehler melden und weiterlaufen")
+    void run_shouldReportError_andContinue_whenServiceFails() throws IOException {
+        StudentService overloaded = new StudentService(new StudentRepository(JDBC_URL)) {
+            @Override
+            public Set<Long> deleteStudents(Collection<Long> studentIds) {
+                throw new ServiceOverloadedException(AdmissionController.Bulkhead.WRITE, "Überlastet");
+            }
+        };
+        String script = String.join("\n",
+                "add;Max;Mustermann;max@hochschule.de",
+                "delete;1",
+                "delete;2",
+                "view;1");
+        StringWriter output = new StringWriter();
+
+        BatchCommandRunner.Summary summary = new BatchCommandRunner(overloaded, output).run(new StringReader(script));
+
+        List<String> lines = output.toString().lines().toList();
+        assertEquals("1;add;CREATED;1", lines.get(0));
+        assertEquals("2;delete;ERROR;Überlastet", lines.get(1));
+        assertEquals("3;delete;ERROR;Überlastet", lines.get(2));
+        assertEquals("4;view;OK;1;Max;Mustermann;max@hochschule.de", lines.get(3));
+        assertEquals(2, summary.failed());
+    }
+
+    @Test
+    @DisplayName("Sollte bisherige Ergebnisse auch bei einem Abbruch ausgeben")
+    void run_shouldFlushResults_whenAborted() {
+        StringWriter output = new StringWriter();
+        Reader failing = new Reader() {
+            private final StringReader lines = new StringReader("add;Max;Mustermann;max@hochschule.de\nview;1\n");
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = lines.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("Skript nicht mehr lesbar");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(IOException.class, () -> new BatchCommandRunner(service, output).run(failing));
+
+        assertEquals("1;add;CREATED;1", output.toString().lines().findFirst().orElse(null));
+    }
+}
@@ -0,0 +1,121 @@
+package de.hochschule.studentenverwaltung.ui;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import de.hochschule.studentenverwaltung.repository.StudentRepository;
+import de.hochschule.studentenverwaltung.repository.StudentSort;
+import de.hochschule.studentenverwaltung.service.StudentService;
+import org.junit.jupiter.api.*;
+
+import java.io.StringWriter;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für den Pager und die Ausgabe ohne Pager im StudentManagementSystem.
+ * Nutzt eine eigene H2-In-Memory-Datenbank.
+ */
+public class StudentManagementSystemTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:pagertest;DB_CLOSE_DELAY=-1";
+    private static final StudentSort BY_LAST_NAME = StudentSort.ascending(StudentSort.Field.LAST_NAME);
+
+    private StudentService service;
+    private StringWriter output;
+    private StudentTableWriter table;
+
+    @BeforeEach
+    void setUp() {
+        service = new StudentService(new StudentRepository(JDBC_URL));
+        output = new StringWriter();
+        table = new StudentTableWriter(output);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM students");
+            stmt.execute("ALTER TABLE students ALTER COLUMN id RESTART WITH 1");
+        }
+    }
+
+    @Test
+    @DisplayName("Sollte vor- und zurückblättern und mit q beenden")
+    void pageStudents_shouldPageForwardAndBack_andQuit() {
+        createStudents(60);
+
+        StudentManagementSystem.pageStudents(new Scanner("\nz\nq\n"), service, BY_LAST_NAME, table);
+
+        String text = output.toString();
+        List<String> titles = text.lines().filter(line -> line.startsWith("--- Studenten")).toList();
+        assertEquals(List.of("--- Studenten (Seite 1) ---", "--- Studenten (Seite 2) ---",
+                "--- Studenten (Seite 1) ---"), titles);
+        assertTrue(text.contains("[Enter] weiter  [q] beenden"));
+        assertTrue(text.contains("(Ende der Liste)  [z] zurück  [q] beenden"));
+        // Seite 2 enthält genau die letzten zehn Studenten
+        String secondPage = text.substring(text.indexOf("(Seite 2)"), text.lastIndexOf("(Seite 1)"));
+        assertTrue(secondPage.contains("Nachname51") && secondPage.contains("Nachname60"));
+        assertFalse(secondPage.contains("Nachname50"));
+        assertEquals(110, table.getRowsWritten());
+    }
+
+    @Test
+    @DisplayName("Sollte auf der letzten Seite mit Enter beenden")
+    void pageStudents_shouldStopAtLastPage() {
+        createStudents(60);
+
+        StudentManagementSystem.pageStudents(new Scanner("\n\n"), service, BY_LAST_NAME, table);
+
+        assertEquals(60, table.getRowsWritten());
+        assertEquals(2, output.toString().lines().filter(line -> line.startsWith("--- Studenten")).count());
+    }
+
+    @Test
+    @DisplayName("Sollte bei leerer Datenbank ohne Eingabe enden")
+    void pageStudents_shouldReportEmptyList() {
+        StudentManagementSystem.pageStudents(new Scanner(""), service, BY_LAST_NAME, table);
+
+        assertTrue(output.toString().contains("Keine Studenten gefunden."));
+        assertEquals(0, table.getRowsWritten());
+    }
+
+    @Test
+    @DisplayName("Sollte ohne Pager alle Studenten sortiert ausgeben")
+    void dumpStudents_shouldWriteAllRowsSorted() {
+        createStudents(60);
+
+        long rows = StudentManagementSystem.dumpStudents(service, table);
+
+        List<String> lines = output.toString().lines().toList();
+        assertEquals(60, rows);
+        assertEquals(62, lines.size());
+        assertTrue(lines.get(0).contains("Nachname"));
+        assertTrue(lines.get(2).contains("Nachname01"));
+        assertTrue(lines.get(61).contains("Nachname60"));
+        assertFalse(output.toString().contains("Seite"));
+    }
+
+    @Test
+    @DisplayName("Sollte ungültige Millisekundenangaben ignorieren statt abzubrechen")
+    void parseMillis_shouldIgnoreInvalidValues() {
+        assertEquals(java.time.Duration.ofMillis(250), StudentManagementSystem.parseMillis("X", " 250 "));
+        assertEquals(java.time.Duration.ZERO, StudentManagementSystem.parseMillis("X", "0"));
+        assertNull(StudentManagementSystem.parseMillis("X", null));
+        assertNull(StudentManagementSystem.parseMillis("X", " "));
+        assertNull(StudentManagementSystem.parseMillis("X", "10s"));
+        assertNull(StudentManagementSystem.parseMillis("X", "-5"));
+    }
+
+    private void createStudents(int count) {
+        List<StudentDto> students = new ArrayList<>();
+        // in umgekehrter Reihenfolge anlegen, damit die Sortierung nicht der ID-Reihenfolge entspricht
+        for (int i = count; i >= 1; i--) {
+            students.add(new StudentDto(null, "Vorname" + i, String.format("Nachname%02d", i),
+                    "student" + i + "@hochschule.de"));
+        }
+        service.createStudents(students);
+    }
+}
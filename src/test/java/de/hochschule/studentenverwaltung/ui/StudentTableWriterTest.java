@@ -0,0 +1,65 @@
+package de.hochschule.studentenverwaltung.ui;
+
+import de.hochschule.studentenverwaltung.dto.StudentDto;
+import org.junit.jupiter.api.*;
+
+import java.io.StringWriter;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testklasse für StudentTableWriter.
+ */
+public class StudentTableWriterTest {
+
+    private StringWriter output;
+    private StudentTableWriter table;
+
+    @BeforeEach
+    void setUp() {
+        output = new StringWriter();
+        table = new StudentTableWriter(output);
+    }
+
+    @Test
+    @DisplayName("Sollte Kopfzeile und Zeilen an denselben Spalten ausrichten")
+    void writeRow_shouldAlignColumnsWithHeader() {
+        table.writeHeader();
+        table.writeRow(new StudentDto(7L, "Max", "Mustermann", "max@hochschule.de"));
+        table.writeRow(new StudentDto(12345L, "Anna-Lena", "Schmidt", "anna@hochschule.de"));
+        table.flush();
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("      ID  Vorname               Nachname                  E-Mail", lines[0]);
+        assertTrue(lines[1].chars().allMatch(c -> c == '-'));
+        assertEquals("       7  Max                   Mustermann                max@hochschule.de", lines[2]);
+        assertEquals("   12345  Anna-Lena             Schmidt                   anna@hochschule.de", lines[3]);
+        assertEquals(lines[0].indexOf("Vorname"), lines[2].indexOf("Max"));
+        assertEquals(lines[0].indexOf("Nachname"), lines[3].indexOf("Schmidt"));
+        assertEquals(lines[0].indexOf("E-Mail"), lines[3].indexOf("anna@"));
+        assertEquals(2, table.getRowsWritten());
+    }
+
+    @Test
+    @DisplayName("Sollte fehlende und negative IDs auffüllen und lange Werte nicht abschneiden")
+    void writeRow_shouldPadMissingValues_andKeepLongValues() {
+        String longName = "Maximilian-Alexander-Friedrich";
+        table.writeRow(new StudentDto(null, null, "Mustermann", "max@hochschule.de"));
+        table.writeRow(new StudentDto(-42L, longName, "Muster", "m@hochschule.de"));
+        table.flush();
+
+        String[] lines = output.toString().split("\n");
+        assertEquals("          " + " ".repeat(20) + "  Mustermann                max@hochschule.de", lines[0]);
+        assertEquals("     -42  " + longName + "  Muster" + " ".repeat(18) + "  m@hochschule.de", lines[1]);
+    }
+
+    @Test
+    @DisplayName("Sollte erst beim Flush auf das Ausgabeziel schreiben")
+    void flush_shouldWriteBufferedOutput() {
+        table.writeLine("Zeile");
+        assertEquals("", output.toString());
+
+        table.flush();
+        assertEquals("Zeile\n", output.toString());
+    }
+}